@@ -3,10 +3,12 @@ package com.we.hack;
 import com.we.hack.service.logger.Logger;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 import java.io.IOException;
 
 @SpringBootApplication
+@EnableScheduling
 public class HackApplication {
 
 	public static void main(String[] args) throws IOException {
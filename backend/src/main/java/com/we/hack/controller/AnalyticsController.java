@@ -1,48 +1,43 @@
 package com.we.hack.controller;
 
-import com.we.hack.model.*;
-import com.we.hack.repository.*;
+import com.we.hack.dto.ActivitySeriesDto;
+import com.we.hack.service.analytics.ActivityRecorder;
+import com.we.hack.service.analytics.AnalyticsCounters;
+import com.we.hack.service.storage.BlobCompressor;
 import com.we.hack.service.visitor.AnalyticsCollector;
-import com.we.hack.service.visitor.AnalyticsVisitor;
+import com.we.hack.service.visitor.DetailedAnalyticsCollector;
+import com.we.hack.service.visitor.ParallelAnalyticsTraversal;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.util.List;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 @RestController
 @RequestMapping("/analytics")
 public class AnalyticsController {
     @Autowired
-    private HackathonRepository hackathonRepository;
-    @Autowired
-    private UserRepository userRepository;
+    private AnalyticsCounters analyticsCounters;
+
     @Autowired
-    private TeamRepository teamRepository;
+    private ActivityRecorder activityRecorder;
+
     @Autowired
-    private SubmissionRepository submissionRepository;
+    private ParallelAnalyticsTraversal parallelAnalyticsTraversal;
+
     @Autowired
-    private JudgeScoreRepository judgeScoreRepository;
+    private BlobCompressor blobCompressor;
 
     @GetMapping("/overview")
     public Map<String, Integer> getAnalyticsOverview() {
-        AnalyticsVisitor collector = new AnalyticsCollector();
-
-        List<Hackathon> hackathons = hackathonRepository.findAll();
-        List<User> users = userRepository.findAll();
-        List<Team> teams = teamRepository.findAll();
-        List<Submission> submissions = submissionRepository.findAll();
-        List<JudgeScore> judgeScores = judgeScoreRepository.findAll();
-
-        hackathons.forEach(h -> h.accept(collector));
-        users.forEach(user -> user.accept(collector));
-        teams.forEach(t -> t.accept(collector));
-        submissions.forEach(sub -> sub.accept(collector));
-        judgeScores.forEach(j -> j.accept(collector));
-
-        AnalyticsCollector result = (AnalyticsCollector) collector;
+        // Totals come from the in-memory counters; the visitor stays for metrics that need the rows
+        AnalyticsCollector result = new AnalyticsCollector();
+        result.addCounts(analyticsCounters.overview());
 
         return Map.of(
                 "totalHackathons", result.getTotalHackathons(),
@@ -54,4 +49,46 @@ public class AnalyticsController {
 
 
     }
+
+    @GetMapping("/hackathons/{hackathonId}")
+    public ResponseEntity<Map<String, Long>> getHackathonCounts(@PathVariable Long hackathonId) {
+        Map<String, Long> counts = analyticsCounters.hackathonCounts(hackathonId);
+        return counts == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(counts);
+    }
+
+    // Activity per minute (or hour, for windows over a day), e.g. GET /analytics/hackathons/3/activity?window=120&step=5
+    @GetMapping("/hackathons/{hackathonId}/activity")
+    public ResponseEntity<ActivitySeriesDto> getActivity(@PathVariable Long hackathonId,
+                                                         @RequestParam(defaultValue = "60") int window,
+                                                         @RequestParam(defaultValue = "1") int step) {
+        if (window <= 0 || step <= 0) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(activityRecorder.series(hackathonId, window, step));
+    }
+
+    // Per-team, per-judge and per-criterion metrics, visited row by row across all tables
+    @GetMapping("/detailed")
+    public Map<String, Object> getDetailedAnalytics() {
+        DetailedAnalyticsCollector result = parallelAnalyticsTraversal.collect();
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("totalHackathons", result.getTotalHackathons());
+        body.put("totalUsers", result.getTotalUsers());
+        body.put("totalTeams", result.getTotalTeams());
+        body.put("totalSubmissions", result.getTotalSubmissions());
+        body.put("totalJudgeScores", result.getTotalJudgeScores());
+        body.put("submissionsPerTeam", result.getSubmissionsPerTeam());
+        body.put("scoresPerJudge", result.getScoresPerJudge());
+        body.put("innovationHistogram", result.getInnovationHistogram());
+        body.put("impactHistogram", result.getImpactHistogram());
+        body.put("executionHistogram", result.getExecutionHistogram());
+        return body;
+    }
+
+    // Compression of stored uploads since start-up: bytes saved on disk and CPU time per MB compressed
+    @GetMapping("/storage")
+    public Map<String, Object> getStorageStats() {
+        return blobCompressor.stats();
+    }
 }
@@ -3,18 +3,31 @@ package com.we.hack.controller;
 import com.we.hack.dto.DeleteHackathonRequest;
 import com.we.hack.dto.HackathonDto;
 import com.we.hack.dto.HackathonRequest;
+import com.we.hack.dto.LeaderboardEntryDto;
+import com.we.hack.dto.LeaderboardStanding;
 import com.we.hack.mapper.HackathonMapper;
 import com.we.hack.model.Hackathon;
 import com.we.hack.model.Submission;
 import com.we.hack.model.User;
 import com.we.hack.service.HackathonService;
+import com.we.hack.service.leaderboard.CachedLeaderboard;
+import com.we.hack.service.leaderboard.LeaderboardPage;
+import com.we.hack.service.leaderboard.LeaderboardStreamService;
+import com.we.hack.service.storage.HackathonExportService;
 import com.we.hack.repository.UserRepository;
 import com.we.hack.service.iterator.CollectionFactory;
 import com.we.hack.service.iterator.Iterator;
 import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -22,6 +35,9 @@ import java.util.List;
 @RestController
 @RequestMapping("/hackathons")
 public class HackathonController {
+
+    private static final int MAX_PAGE_SIZE = 200;
+
     @PostConstruct
     public void init() {
         System.out.println("✅ HackathonController is loaded");
@@ -32,6 +48,12 @@ public class HackathonController {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private LeaderboardStreamService leaderboardStreamService;
+
+    @Autowired
+    private HackathonExportService hackathonExportService;
+
 
     // Create a new hackathon
     @PostMapping("/create")
@@ -86,14 +108,85 @@ public class HackathonController {
         return ResponseEntity.ok("Hackathon marked as completed.");
     }
 
+    // Seconds between two submissions of a participant, e.g. PUT /hackathons/3/submission-cooldown?seconds=30;
+    // without seconds the default applies again
+    @PutMapping("/{hackathonId}/submission-cooldown")
+    public ResponseEntity<String> setSubmissionCooldown(@PathVariable int hackathonId,
+                                                        @RequestParam(required = false) Integer seconds) {
+        if (seconds != null && seconds < 0) {
+            return ResponseEntity.badRequest().body("Cooldown cannot be negative.");
+        }
+        hackathonService.setSubmissionCooldown(hackathonId, seconds);
+        return ResponseEntity.ok("Submission cooldown updated.");
+    }
+
     @GetMapping("/iterator")
     public ResponseEntity<List<HackathonDto>> listHackathons() {
         return ResponseEntity.ok(hackathonService.listHackathons());
     }
 
+    // Polling clients send If-None-Match and get a 304 until the leaderboard changes
     @GetMapping("/{hackathonId}/leaderboard")
-    public ResponseEntity<List<Submission>> getLeaderboard(@PathVariable Long hackathonId) {
-        List<Submission> leaderboard = hackathonService.getLeaderboard(hackathonId);
-        return ResponseEntity.ok(leaderboard);
+    public ResponseEntity<List<Submission>> getLeaderboard(@PathVariable Long hackathonId, WebRequest request) {
+        if (request.checkNotModified(hackathonService.getLeaderboardETag(hackathonId))) {
+            return null;
+        }
+        CachedLeaderboard leaderboard = hackathonService.getLeaderboardSnapshot(hackathonId);
+        if (leaderboard.getEtag() == null) {
+            return ResponseEntity.ok().cacheControl(CacheControl.noStore()).body(leaderboard.getSubmissions());
+        }
+        return ResponseEntity.ok().eTag(leaderboard.getEtag()).body(leaderboard.getSubmissions());
+    }
+
+    // One page of the leaderboard as slim rows, e.g. GET /hackathons/3/leaderboard?limit=20&offset=0
+    @GetMapping(value = "/{hackathonId}/leaderboard", params = "limit")
+    public ResponseEntity<List<LeaderboardEntryDto>> getLeaderboardPage(@PathVariable Long hackathonId,
+                                                                        @RequestParam int limit,
+                                                                        @RequestParam(defaultValue = "0") int offset,
+                                                                        WebRequest request) {
+        if (limit <= 0 || limit > MAX_PAGE_SIZE || offset < 0) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (request.checkNotModified(hackathonService.getLeaderboardETag(hackathonId))) {
+            return null;
+        }
+        LeaderboardPage page = hackathonService.getLeaderboardPage(hackathonId, offset, limit);
+        if (page.getEtag() == null) {
+            return ResponseEntity.ok().cacheControl(CacheControl.noStore()).body(page.getEntries());
+        }
+        return ResponseEntity.ok().eTag(page.getEtag()).body(page.getEntries());
+    }
+
+    // Live leaderboard: a "snapshot" event, then "delta" events with changed ranks and scores only
+    @GetMapping(value = "/{hackathonId}/leaderboard/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamLeaderboard(@PathVariable Long hackathonId) {
+        return leaderboardStreamService.subscribe(hackathonId);
+    }
+
+    // Every primary submission as one zip, streamed: manifest.csv, then files/<submissionId>/<filename>
+    @GetMapping("/{hackathonId}/export")
+    public ResponseEntity<StreamingResponseBody> exportHackathon(@PathVariable Long hackathonId, WebRequest request) {
+        StreamingResponseBody body = hackathonExportService.export(hackathonId, request);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/zip"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("hackathon-" + hackathonId + "-export.zip").build().toString())
+                .body(body);
+    }
+
+    // Best k submissions with their scores, e.g. GET /hackathons/3/leaderboard/top?k=10; k is at most MAX_PAGE_SIZE
+    @GetMapping("/{hackathonId}/leaderboard/top")
+    public ResponseEntity<List<LeaderboardStanding>> getLeaderboardTop(@PathVariable Long hackathonId,
+                                                                       @RequestParam(defaultValue = "10") int k) {
+        if (k <= 0 || k > MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(hackathonService.getLeaderboardTop(hackathonId, k));
+    }
+
+    @GetMapping("/{hackathonId}/leaderboard/submissions/{submissionId}")
+    public ResponseEntity<LeaderboardStanding> getLeaderboardStanding(@PathVariable Long hackathonId,
+                                                                      @PathVariable Long submissionId) {
+        return ResponseEntity.ok(hackathonService.getLeaderboardStanding(hackathonId, submissionId));
     }
 }
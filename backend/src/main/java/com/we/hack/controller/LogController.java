@@ -0,0 +1,49 @@
+package com.we.hack.controller;
+
+import com.we.hack.service.logger.LogLevel;
+import com.we.hack.service.logger.Logger;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/logs")
+public class LogController {
+
+    private static final int MAX_RESULTS = 5000;
+
+    // Search the application logs, e.g. GET /logs?from=2025-05-01T10:00:00&to=2025-05-01T11:00:00&level=WARN&contains=hackathon 12
+    @GetMapping
+    public ResponseEntity<List<String>> searchLogs(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "DEBUG") LogLevel level,
+            @RequestParam(required = false) String contains,
+            @RequestParam(defaultValue = "500") int limit) throws IOException {
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        LocalDateTime start = from != null ? from : end.minusHours(1);
+        if (start.isAfter(end) || limit <= 0) {
+            return ResponseEntity.badRequest().build();
+        }
+        List<String> entries = Logger.getInstance(100)
+                .search(start, end, level, contains, Math.min(limit, MAX_RESULTS));
+        return ResponseEntity.ok(entries);
+    }
+
+    @GetMapping("/level")
+    public ResponseEntity<Map<String, String>> getLevel() {
+        return ResponseEntity.ok(Map.of("level", Logger.getLevel().name()));
+    }
+
+    // Change the application log level without a restart, e.g. PUT /logs/level?level=INFO
+    @PutMapping("/level")
+    public ResponseEntity<Map<String, String>> setLevel(@RequestParam LogLevel level) {
+        Logger.setLevel(level);
+        return ResponseEntity.ok(Map.of("level", level.name()));
+    }
+}
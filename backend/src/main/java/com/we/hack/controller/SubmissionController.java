@@ -3,6 +3,7 @@ package com.we.hack.controller;
 import com.we.hack.dto.*;
 import com.we.hack.mapper.SubmissionMapper;
 import com.we.hack.model.Hackathon;
+import com.we.hack.model.ProcessingStatus;
 import com.we.hack.dto.EditSubmissionRequest;
 import com.we.hack.dto.UndoSubmitProjectRequest;
 import com.we.hack.model.Hackathon;
@@ -15,16 +16,24 @@ import com.we.hack.model.User;
 import com.we.hack.service.SubmissionService;
 import com.we.hack.service.builder.Submission.ConcreteSubmissionBuilder;
 import com.we.hack.service.builder.Submission.SubmissionBuilder;
-import com.we.hack.service.impl.SubmissionServiceImpl;
 import com.we.hack.service.iterator.CollectionFactory;
 import com.we.hack.service.iterator.Iterator;
+import com.we.hack.service.storage.ChunkedUploadService;
+import com.we.hack.service.storage.FileDownloadSender;
+import com.we.hack.service.storage.UploadStorage;
+import com.we.hack.service.storage.ZipManifestReader;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 import java.util.ArrayList;
 import java.util.List;
 import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
@@ -32,10 +41,6 @@ import java.util.Set;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
 import java.util.Map;
 import java.util.HashMap;
 
@@ -43,8 +48,9 @@ import java.util.HashMap;
 @RequestMapping("/submissions")
 public class SubmissionController {
 
+    // The proxy: cooldown and validation before the real service
     @Autowired
-    private SubmissionServiceImpl submissionService;
+    private SubmissionService submissionService;
 
     @Autowired
     private CollectionFactory collectionFactory;
@@ -55,6 +61,18 @@ public class SubmissionController {
     @Autowired
     private TeamRepository teamRepository;
 
+    @Autowired
+    private UploadStorage uploadStorage;
+
+    @Autowired
+    private FileDownloadSender fileDownloadSender;
+
+    @Autowired
+    private ZipManifestReader zipManifestReader;
+
+    @Autowired
+    private ChunkedUploadService chunkedUploadService;
+
     // POST /submissions/{hackathonId}/user/{userId}
 //    @PostMapping("/{hackathonId}/user/{userId}")
 
@@ -93,6 +111,58 @@ public class SubmissionController {
         return submissionService.createFinalSubmission(builder, userId, hackathonId, file);
     }
 
+    // Chunked upload: start it, PUT the chunks (any order, each with X-Chunk-SHA256), then commit into a submission
+    @PostMapping("/uploads")
+    public ChunkedUploadStatus startChunkedUpload(
+            @RequestParam("hackathonId") int hackathonId,
+            @RequestParam("userId") Long userId,
+            @RequestParam("filename") String filename,
+            @RequestParam("size") long size,
+            @RequestParam(value = "sha256", required = false) String sha256
+    ) throws IOException {
+        return chunkedUploadService.init(userId, hackathonId, filename, size, sha256);
+    }
+
+    @GetMapping("/uploads/{uploadId}")
+    public ChunkedUploadStatus getChunkedUpload(@PathVariable String uploadId) {
+        return chunkedUploadService.status(uploadId);
+    }
+
+    @PutMapping(value = "/uploads/{uploadId}", consumes = "application/octet-stream")
+    public ChunkedUploadStatus uploadChunk(
+            @PathVariable String uploadId,
+            @RequestParam("offset") long offset,
+            @RequestHeader(value = "X-Chunk-SHA256", required = false) String sha256,
+            HttpServletRequest request
+    ) throws IOException {
+        return chunkedUploadService.writeChunk(uploadId, offset, request.getContentLengthLong(), sha256, request.getInputStream());
+    }
+
+    @PostMapping("/uploads/{uploadId}/commit")
+    public Submission commitChunkedUpload(
+            @PathVariable String uploadId,
+            @RequestParam("hackathonId") int hackathonId,
+            @RequestParam("userId") Long userId,
+            @RequestParam(value = "title", required = false) String title,
+            @RequestParam(value = "description", required = false) String description,
+            @RequestParam(value = "projectUrl", required = false) String projectUrl,
+            @RequestParam(value = "draft", defaultValue = "false") boolean draft
+    ) throws IOException {
+        SubmissionBuilder builder = new ConcreteSubmissionBuilder()
+                .title(title)
+                .description(description)
+                .projectUrl(projectUrl)
+                .asDraft(draft);
+        return chunkedUploadService.commit(uploadId, userId, hackathonId,
+                upload -> submissionService.createFinalSubmission(builder, userId, hackathonId, upload));
+    }
+
+    @DeleteMapping("/uploads/{uploadId}")
+    public ResponseEntity<Void> cancelChunkedUpload(@PathVariable String uploadId) {
+        chunkedUploadService.cancel(uploadId);
+        return ResponseEntity.noContent().build();
+    }
+
     @PutMapping("/editSubmission")
     public Submission editSubmission(
             @RequestBody EditSubmissionRequest request
@@ -144,43 +214,69 @@ public class SubmissionController {
         return ResponseEntity.ok(submissions);
     }
 
+    // Supports Range/If-Range for resumable downloads and If-None-Match/If-Modified-Since for caching
     @GetMapping("/{submissionId}/download")
-    public ResponseEntity<Resource> downloadSubmissionFile(@PathVariable Long submissionId) {
+    public void downloadSubmissionFile(@PathVariable Long submissionId,
+                                       HttpServletRequest request,
+                                       HttpServletResponse response) throws IOException {
+        Submission submission;
         try {
-            Submission submission = submissionService.findById(submissionId);
-            if (submission == null || submission.getFilePath() == null) {
-                return ResponseEntity.notFound().build();
-            }
+            submission = submissionService.findById(submissionId);
+        } catch (RuntimeException e) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        if (submission == null || submission.getFilePath() == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        if (submission.getProcessingStatus() == ProcessingStatus.PENDING
+                || submission.getProcessingStatus() == ProcessingStatus.PROCESSING) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, "2");
+            response.sendError(HttpServletResponse.SC_CONFLICT, "File is still being processed");
+            return;
+        }
 
-            // Build the full file path
-            String filePath = submission.getFilePath();
-            Path path = Paths.get(System.getProperty("user.dir"), filePath);
-            
-            if (!Files.exists(path)) {
-                return ResponseEntity.notFound().build();
-            }
+        UploadStorage.StoredFile stored = uploadStorage.locate(submission.getFilePath());
+        if (stored == null || !Files.isReadable(stored.getPath())) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        fileDownloadSender.send(request, response, stored,
+                originalFilename(submission, uploadStorage.resolve(submission.getFilePath())),
+                uploadStorage.contentHash(submission.getFilePath()));
+    }
 
-            Resource resource = new UrlResource(path.toUri());
-            
-            if (resource.exists() && resource.isReadable()) {
-                // Get the original filename from the stored path
-                String originalFilename = path.getFileName().toString();
-                
-                // Remove timestamp prefix if it exists (format: timestamp_originalname)
-                if (originalFilename.contains("_")) {
-                    originalFilename = originalFilename.substring(originalFilename.indexOf("_") + 1);
-                }
+    // Entry names, sizes and compression ratios of a zip or jar upload, read from its central directory
+    @GetMapping("/{submissionId}/manifest")
+    public ResponseEntity<ArchiveManifest> getSubmissionManifest(@PathVariable Long submissionId) throws IOException {
+        Submission submission = submissionService.findById(submissionId);
+        if (submission == null || submission.getFilePath() == null) {
+            return ResponseEntity.notFound().build();
+        }
+        if (submission.getProcessingStatus() == ProcessingStatus.PENDING
+                || submission.getProcessingStatus() == ProcessingStatus.PROCESSING) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).header(HttpHeaders.RETRY_AFTER, "2").build();
+        }
+        if (!uploadStorage.exists(submission.getFilePath())) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(zipManifestReader.manifest(submission.getFilePath()));
+    }
 
-                return ResponseEntity.ok()
-                    .contentType(MediaType.APPLICATION_OCTET_STREAM)
-                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + originalFilename + "\"")
-                    .body(resource);
-            } else {
-                return ResponseEntity.notFound().build();
-            }
-        } catch (Exception e) {
-            return ResponseEntity.internalServerError().build();
+    // Poll after submitting: PENDING/PROCESSING until the file is stored, then READY (or FAILED)
+    @GetMapping("/{submissionId}/status")
+    public ResponseEntity<Map<String, Object>> getProcessingStatus(@PathVariable Long submissionId) {
+        Submission submission = submissionService.findById(submissionId);
+        if (submission == null) {
+            return ResponseEntity.notFound().build();
         }
+        Map<String, Object> status = new HashMap<>();
+        status.put("submissionId", submission.getId());
+        status.put("hasFile", submission.getFilePath() != null);
+        status.put("processingStatus", submission.getProcessingStatus() != null ? submission.getProcessingStatus()
+                : submission.getFilePath() != null ? ProcessingStatus.READY : null);
+        return ResponseEntity.ok(status);
     }
 
     @PostMapping("/undoLastEdit")
@@ -202,16 +298,12 @@ public class SubmissionController {
             
             Map<String, String> fileInfo = new HashMap<>();
             
-            if (Files.exists(path)) {
-                String originalFilename = path.getFileName().toString();
-                
-                // Remove timestamp prefix if it exists
-                if (originalFilename.contains("_")) {
-                    originalFilename = originalFilename.substring(originalFilename.indexOf("_") + 1);
-                }
+            if (uploadStorage.exists(filePath)) {
+                String originalFilename = originalFilename(submission, path);
                 
                 try {
-                    long fileSize = Files.size(path);
+                    // The original size, also for blobs stored gzipped
+                    long fileSize = uploadStorage.locate(filePath).getLength();
                     fileInfo.put("filename", originalFilename);
                     fileInfo.put("size", String.valueOf(fileSize));
                     fileInfo.put("sizeFormatted", formatFileSize(fileSize));
@@ -232,6 +324,18 @@ public class SubmissionController {
         }
     }
     
+    // Content-addressed files keep their name on the submission; older ones are named timestamp_originalname
+    private String originalFilename(Submission submission, Path path) {
+        if (submission.getOriginalFilename() != null) {
+            return submission.getOriginalFilename();
+        }
+        String originalFilename = path.getFileName().toString();
+        if (originalFilename.contains("_")) {
+            originalFilename = originalFilename.substring(originalFilename.indexOf("_") + 1);
+        }
+        return originalFilename;
+    }
+
     private String formatFileSize(long bytes) {
         if (bytes < 1024) return bytes + " B";
         int exp = (int) (Math.log(bytes) / Math.log(1024));
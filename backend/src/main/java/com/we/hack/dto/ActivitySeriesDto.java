@@ -0,0 +1,21 @@
+package com.we.hack.dto;
+
+import com.we.hack.service.analytics.ActivityType;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Activity counts of one hackathon in consecutive bins of {@code stepMinutes}, the first
+ * starting at {@code start}.
+ */
+@Data
+@Builder
+public class ActivitySeriesDto {
+    private Long hackathonId;
+    private Instant start;
+    private int stepMinutes;
+    private Map<ActivityType, long[]> counts;
+}
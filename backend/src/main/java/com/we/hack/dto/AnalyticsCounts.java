@@ -0,0 +1,12 @@
+package com.we.hack.dto;
+
+/**
+ * Row counts for the analytics overview, read in a single query.
+ */
+public interface AnalyticsCounts {
+    long getTotalHackathons();
+    long getTotalUsers();
+    long getTotalTeams();
+    long getTotalSubmissions();
+    long getTotalJudgeScores();
+}
@@ -0,0 +1,19 @@
+package com.we.hack.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * One entry of an archive's central directory. {@code compressionRatio} is the compressed
+ * size as a fraction of {@code size}, so 0.25 means the entry takes a quarter of its size.
+ */
+@Data
+@Builder
+public class ArchiveEntry {
+    private String name;
+    private boolean directory;
+    private long size;
+    private long compressedSize;
+    private double compressionRatio;
+    private String method;
+}
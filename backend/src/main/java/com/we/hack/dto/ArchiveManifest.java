@@ -0,0 +1,23 @@
+package com.we.hack.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Contents of a zip or jar upload as listed by its central directory. Totals cover every
+ * entry; {@code entries} stops after the configured maximum, with {@code truncated} set.
+ */
+@Data
+@Builder
+public class ArchiveManifest {
+    private String contentHash;
+    private long archiveSize;
+    private int entryCount;
+    private long totalSize;
+    private long totalCompressedSize;
+    private double compressionRatio;
+    private boolean truncated;
+    private List<ArchiveEntry> entries;
+}
@@ -0,0 +1,23 @@
+package com.we.hack.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Progress of a chunked upload. {@code receivedRanges} holds {start, end} byte offsets
+ * (end exclusive) that have arrived intact; a resuming client sends whatever lies outside them.
+ */
+@Data
+@Builder
+public class ChunkedUploadStatus {
+    private String uploadId;
+    private String filename;
+    private long size;
+    private long receivedBytes;
+    private List<long[]> receivedRanges;
+    private long maxChunkBytes;
+    private Instant expiresAt;
+}
@@ -0,0 +1,11 @@
+package com.we.hack.dto;
+
+/**
+ * Team, submission and judge score counts of one hackathon.
+ */
+public interface HackathonCounts {
+    Long getHackathonId();
+    long getTeams();
+    long getSubmissions();
+    long getJudgeScores();
+}
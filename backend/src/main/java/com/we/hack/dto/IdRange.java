@@ -0,0 +1,9 @@
+package com.we.hack.dto;
+
+/**
+ * Lowest and highest id of a table, both null when it is empty.
+ */
+public interface IdRange {
+    Long getMinId();
+    Long getMaxId();
+}
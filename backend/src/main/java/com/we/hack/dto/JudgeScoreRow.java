@@ -0,0 +1,18 @@
+package com.we.hack.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Flat view of a judge score, read without loading the JudgeScore entity graph.
+ */
+@Data
+@AllArgsConstructor
+public class JudgeScoreRow {
+    private Long id;
+    private Long submissionId;
+    private Integer judgeId;
+    private Integer innovation;
+    private Integer impact;
+    private Integer execution;
+}
@@ -0,0 +1,14 @@
+package com.we.hack.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class LeaderboardEntryDto {
+    private int rank;
+    private double score;
+    private Long submissionId;
+    private String title;
+    private String teamName;
+}
@@ -0,0 +1,16 @@
+package com.we.hack.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class LeaderboardStanding {
+    private Long submissionId;
+    private int rank;
+    private double score;
+    private int judgeCount;
+    private double innovationAverage;
+    private double impactAverage;
+    private double executionAverage;
+}
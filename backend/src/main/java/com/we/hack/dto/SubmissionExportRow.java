@@ -0,0 +1,22 @@
+package com.we.hack.dto;
+
+import com.we.hack.model.ProcessingStatus;
+
+import java.time.Instant;
+
+/**
+ * Projection of a primary submission as written to a hackathon export's manifest.
+ */
+public interface SubmissionExportRow {
+    Long getId();
+    Long getTeamId();
+    String getTeamName();
+    String getSubmittedBy();
+    String getTitle();
+    String getDescription();
+    String getProjectUrl();
+    Instant getSubmitTime();
+    String getFilePath();
+    String getOriginalFilename();
+    ProcessingStatus getProcessingStatus();
+}
@@ -0,0 +1,10 @@
+package com.we.hack.dto;
+
+/**
+ * Projection of the submission columns a leaderboard row shows.
+ */
+public interface SubmissionSummary {
+    Long getId();
+    String getTitle();
+    String getTeamName();
+}
@@ -0,0 +1,9 @@
+package com.we.hack.dto;
+
+/**
+ * Projection of a submission and its team id, for analytics that only count per team.
+ */
+public interface SubmissionTeamRow {
+    Long getId();
+    Long getTeamId();
+}
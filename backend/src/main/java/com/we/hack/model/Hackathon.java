@@ -1,6 +1,7 @@
 package com.we.hack.model;
 
 import com.we.hack.dto.MailModes;
+import com.we.hack.service.analytics.AnalyticsCountListener;
 import com.we.hack.service.visitor.AnalyticsVisitor;
 import jakarta.persistence.*;
 import lombok.*;
@@ -8,6 +9,7 @@ import lombok.*;
 import java.time.Instant;
 
 @Entity
+@EntityListeners(AnalyticsCountListener.class)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -37,6 +39,9 @@ public class Hackathon {
     @Enumerated(EnumType.STRING)
     private MailModes mailMode;
 
+    // Seconds a participant waits between submissions; null uses submissions.cooldown-ms
+    private Integer submissionCooldownSeconds;
+
     public void accept(AnalyticsVisitor visitor){
         visitor.visit(this);
     }
@@ -0,0 +1,12 @@
+package com.we.hack.model;
+
+/**
+ * State of a submission's uploaded file in the background processing pipeline.
+ * Submissions without a file, or stored before the pipeline existed, have none.
+ */
+public enum ProcessingStatus {
+    PENDING,
+    PROCESSING,
+    READY,
+    FAILED
+}
@@ -3,6 +3,7 @@ package com.we.hack.model;
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import com.fasterxml.jackson.annotation.JsonIdentityInfo;
 import com.fasterxml.jackson.annotation.ObjectIdGenerators;
+import com.we.hack.service.analytics.AnalyticsCountListener;
 import com.we.hack.service.memento.SubmissionMemento;
 import com.we.hack.service.visitor.AnalyticsVisitor;
 import jakarta.persistence.*;
@@ -11,6 +12,7 @@ import lombok.*;
 import java.time.Instant;
 
 @Entity
+@EntityListeners(AnalyticsCountListener.class)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -30,6 +32,13 @@ public class Submission {
 
     private String filePath;
 
+    // Name the file was uploaded with; stored files are named by their content hash
+    private String originalFilename;
+
+    // Null when there is no file or it predates background processing
+    @Enumerated(EnumType.STRING)
+    private ProcessingStatus processingStatus;
+
     @Column(name = "is_primary")
     private Boolean isPrimary = false;
 
@@ -51,7 +60,7 @@ public class Submission {
     @Transient
     public SubmissionMemento createMemento() {
         return new SubmissionMemento(
-                id, title, description, projectUrl, filePath, Instant.now());
+                id, title, description, projectUrl, filePath, originalFilename, Instant.now());
     }
 
     public void restore(SubmissionMemento m) {
@@ -60,6 +69,7 @@ public class Submission {
         this.description = m.getDescription();
         this.projectUrl  = m.getProjectUrl();
         this.filePath    = m.getFilePath();
+        this.originalFilename = m.getOriginalFilename();
     }
 
     public void accept(AnalyticsVisitor visitor){
@@ -0,0 +1,47 @@
+package com.we.hack.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * Token bucket of one user in one hackathon, shared by every node when
+ * {@code submissions.rate-limiter=jdbc}. Mapped so that ddl-auto creates and updates the table;
+ * it is read and written only by the SQL in JdbcSubmissionRateLimiter.
+ */
+@Entity
+@Table(name = "submission_rate_limit")
+@IdClass(SubmissionRateLimitBucket.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SubmissionRateLimitBucket {
+
+    @Id
+    private long userId;
+
+    @Id
+    private long hackathonId;
+
+    // Whole and partial tokens left, refilled one per cooldown up to the burst
+    private double tokens;
+
+    // Database time of the last refill, epoch milliseconds
+    private long updatedMs;
+
+    // Whether the last check took a token
+    private boolean lastGranted;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private long userId;
+        private long hackathonId;
+    }
+}
@@ -1,10 +1,12 @@
 package com.we.hack.model;
 
+import com.we.hack.service.analytics.AnalyticsCountListener;
 import com.we.hack.service.visitor.AnalyticsVisitor;
 import jakarta.persistence.*;
 import lombok.*;
 
 @Entity
+@EntityListeners(AnalyticsCountListener.class)
 @Table(name = "users")
 @Data
 @NoArgsConstructor
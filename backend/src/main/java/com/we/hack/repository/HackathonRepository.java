@@ -1,13 +1,45 @@
 package com.we.hack.repository;
+import com.we.hack.dto.AnalyticsCounts;
+import com.we.hack.dto.HackathonCounts;
+import com.we.hack.dto.IdRange;
 import com.we.hack.model.Hackathon;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface HackathonRepository extends JpaRepository<Hackathon, Integer> {
     
     // Find all hackathons ordered by ID descending (newest first)
     @Query("SELECT h FROM Hackathon h ORDER BY h.id DESC")
     List<Hackathon> findAllOrderByIdDesc();
+
+    List<Hackathon> findByStatus(String status);
+
+    // Counts of every table the analytics overview reports, in one round trip
+    @Query(value = "SELECT (SELECT COUNT(*) FROM hackathon) AS \"totalHackathons\", " +
+            "(SELECT COUNT(*) FROM users) AS \"totalUsers\", " +
+            "(SELECT COUNT(*) FROM teams) AS \"totalTeams\", " +
+            "(SELECT COUNT(*) FROM submission) AS \"totalSubmissions\", " +
+            "(SELECT COUNT(*) FROM judge_score) AS \"totalJudgeScores\"", nativeQuery = true)
+    AnalyticsCounts countOverview();
+
+    @Query(value = "SELECT h.id AS \"hackathonId\", " +
+            "(SELECT COUNT(*) FROM teams t WHERE t.hackathon_id = h.id) AS \"teams\", " +
+            "(SELECT COUNT(*) FROM submission s WHERE s.hackathon_id = h.id) AS \"submissions\", " +
+            "(SELECT COUNT(*) FROM judge_score j JOIN submission s ON s.id = j.submission_id " +
+            "WHERE s.hackathon_id = h.id) AS \"judgeScores\" FROM hackathon h", nativeQuery = true)
+    List<HackathonCounts> countPerHackathon();
+
+    @Query("SELECT MIN(h.id) AS minId, MAX(h.id) AS maxId FROM Hackathon h")
+    IdRange findIdRange();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT h.id FROM Hackathon h WHERE h.id BETWEEN :fromId AND :toId")
+    Stream<Long> streamIdsBetween(@Param("fromId") Long fromId, @Param("toId") Long toId);
 }
@@ -1,20 +1,39 @@
 package com.we.hack.repository;
 
+import com.we.hack.dto.IdRange;
+import com.we.hack.dto.JudgeScoreRow;
 import com.we.hack.model.JudgeScore;
 import com.we.hack.model.Submission;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface JudgeScoreRepository extends JpaRepository<JudgeScore, Long> {
     List<JudgeScore> findBySubmission(Submission submission);
+
+    // All scores of a hackathon in one round trip, for leaderboard computation
+    @Query("SELECT new com.we.hack.dto.JudgeScoreRow(s.id, s.submission.id, s.judge.id, s.innovation, s.impact, s.execution) " +
+           "FROM JudgeScore s WHERE s.submission.hackathon.id = :hackathonId ORDER BY s.id")
+    List<JudgeScoreRow> findScoreRowsByHackathonId(@Param("hackathonId") Long hackathonId);
     
     @Modifying
     @Transactional
     @Query(value = "DELETE FROM judge_score WHERE submission_id IN (SELECT id FROM submission WHERE hackathon_id = :hackathonId)", nativeQuery = true)
-    void deleteByHackathonId(@Param("hackathonId") int hackathonId);
+    int deleteByHackathonId(@Param("hackathonId") int hackathonId);
+
+    @Query("SELECT MIN(s.id) AS minId, MAX(s.id) AS maxId FROM JudgeScore s")
+    IdRange findIdRange();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.we.hack.dto.JudgeScoreRow(s.id, s.submission.id, s.judge.id, s.innovation, s.impact, s.execution) " +
+           "FROM JudgeScore s WHERE s.id BETWEEN :fromId AND :toId")
+    Stream<JudgeScoreRow> streamScoreRowsBetween(@Param("fromId") Long fromId, @Param("toId") Long toId);
 }
@@ -1,27 +1,50 @@
 package com.we.hack.repository;
 
+import com.we.hack.dto.IdRange;
+import com.we.hack.dto.SubmissionExportRow;
+import com.we.hack.dto.SubmissionSummary;
+import com.we.hack.dto.SubmissionTeamRow;
+import com.we.hack.model.ProcessingStatus;
 import com.we.hack.model.Submission;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 // Spring transaction management
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface SubmissionRepository extends JpaRepository<Submission, Long> {
     @Modifying
     @Transactional
     @Query("DELETE FROM Submission s WHERE s.user.id = :userId AND s.hackathon.id = :hackathonId")
-    void deleteByUserAndHackathon(@Param("userId") Long userId,
+    int deleteByUserAndHackathon(@Param("userId") Long userId,
                                   @Param("hackathonId") Long hackathonId);
 
     List<Submission> findByHackathonIdAndUserId(Long hackathonId, Long userId);
 
+    // Eager associations joined in, so loading a hackathon's submissions is one statement however many there are
+    @EntityGraph(attributePaths = {"user", "team", "hackathon.organizer"})
     List<Submission> findByHackathonId(int HackathonId);
+
+    @Query("SELECT s.id FROM Submission s WHERE s.hackathon.id = :hackathonId")
+    List<Long> findIdsByHackathonId(@Param("hackathonId") Long hackathonId);
+
+    boolean existsByIdAndHackathon_Id(Long id, Long hackathonId);
+
+    // Title and team name only, for leaderboard rows
+    @Query("SELECT s.id AS id, s.title AS title, t.name AS teamName FROM Submission s LEFT JOIN s.team t WHERE s.id IN :ids")
+    List<SubmissionSummary> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
     
     List<Submission> findByUserId(Long userId);
     
@@ -32,10 +55,40 @@ public interface SubmissionRepository extends JpaRepository<Submission, Long> {
     
     // Find all primary submissions for a hackathon (for judges)
     List<Submission> findByHackathonIdAndIsPrimaryTrue(int hackathonId);
+
+    // A page of the primary submissions for an export, keyed on id so each page is an index range scan
+    @Query("SELECT s.id AS id, t.id AS teamId, t.name AS teamName, u.username AS submittedBy, s.title AS title, "
+            + "s.description AS description, s.projectUrl AS projectUrl, s.submitTime AS submitTime, "
+            + "s.filePath AS filePath, s.originalFilename AS originalFilename, s.processingStatus AS processingStatus "
+            + "FROM Submission s LEFT JOIN s.team t LEFT JOIN s.user u "
+            + "WHERE s.hackathon.id = :hackathonId AND s.isPrimary = true AND s.id > :afterId ORDER BY s.id")
+    List<SubmissionExportRow> findPrimaryExportPage(@Param("hackathonId") Long hackathonId,
+                                                    @Param("afterId") Long afterId, Pageable page);
     
     // Update primary status - set all submissions for a team to non-primary
     @Modifying
     @Transactional
     @Query("UPDATE Submission s SET s.isPrimary = false WHERE s.team.id = :teamId AND s.hackathon.id = :hackathonId")
     void clearPrimaryForTeamInHackathon(@Param("teamId") Long teamId, @Param("hackathonId") Long hackathonId);
+
+    // Only applies while the submission still points at the processed file, an edit may have replaced it
+    @Modifying
+    @Transactional
+    @Query("UPDATE Submission s SET s.processingStatus = :status WHERE s.id = :id AND s.filePath = :filePath")
+    int updateProcessingStatus(@Param("id") Long id, @Param("filePath") String filePath,
+                               @Param("status") ProcessingStatus status);
+
+    List<Submission> findByProcessingStatusIn(Collection<ProcessingStatus> statuses);
+
+    @Query("SELECT DISTINCT s.filePath FROM Submission s WHERE s.filePath IS NOT NULL")
+    List<String> findDistinctFilePaths();
+
+    // Id-bounded streaming for analytics: rows are read through a JDBC cursor, 500 at a time, as
+    // projections so no eager association is fetched per row
+    @Query("SELECT MIN(s.id) AS minId, MAX(s.id) AS maxId FROM Submission s")
+    IdRange findIdRange();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT s.id AS id, s.team.id AS teamId FROM Submission s WHERE s.id BETWEEN :fromId AND :toId")
+    Stream<SubmissionTeamRow> streamTeamRowsBetween(@Param("fromId") Long fromId, @Param("toId") Long toId);
 }
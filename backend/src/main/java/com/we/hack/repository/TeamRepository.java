@@ -1,10 +1,17 @@
 package com.we.hack.repository;
 
+import com.we.hack.dto.IdRange;
 import com.we.hack.model.Team;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface TeamRepository extends JpaRepository<Team, Long> {
     Optional<Team> findFirstByUsers_Id(Long userId);
@@ -14,4 +21,11 @@ public interface TeamRepository extends JpaRepository<Team, Long> {
     List<Team> findByHackathonId(Long hackathonId);
 
     void deleteByHackathonId(int hackathonId);
+
+    @Query("SELECT MIN(t.id) AS minId, MAX(t.id) AS maxId FROM Team t")
+    IdRange findIdRange();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT t.id FROM Team t WHERE t.id BETWEEN :fromId AND :toId")
+    Stream<Long> streamIdsBetween(@Param("fromId") Long fromId, @Param("toId") Long toId);
 }
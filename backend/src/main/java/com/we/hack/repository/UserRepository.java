@@ -1,10 +1,24 @@
 package com.we.hack.repository;
 
+import com.we.hack.dto.IdRange;
 import com.we.hack.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
+
+    @Query("SELECT MIN(u.id) AS minId, MAX(u.id) AS maxId FROM User u")
+    IdRange findIdRange();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT u.id FROM User u WHERE u.id BETWEEN :fromId AND :toId")
+    Stream<Integer> streamIdsBetween(@Param("fromId") Integer fromId, @Param("toId") Integer toId);
 }
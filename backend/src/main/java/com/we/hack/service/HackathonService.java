@@ -1,10 +1,13 @@
 package com.we.hack.service;
 
 import com.we.hack.dto.HackathonDto;
+import com.we.hack.dto.LeaderboardStanding;
 import com.we.hack.dto.MailModes;
 import com.we.hack.dto.TeamDto;
 import com.we.hack.dto.getSubmissionRequest;
 import com.we.hack.model.*;
+import com.we.hack.service.leaderboard.CachedLeaderboard;
+import com.we.hack.service.leaderboard.LeaderboardPage;
 
 import java.time.Instant;
 import java.util.List;
@@ -19,6 +22,7 @@ public interface HackathonService {
     void publishHackathon(int hackathonId);
     void startJudging(int hackathonId);
     void completeHackathon(int hackathonId);
+    void setSubmissionCooldown(int hackathonId, Integer seconds);
 
     List<HackathonDto> listHackathons();
 
@@ -32,4 +36,9 @@ public interface HackathonService {
     HackathonRole updateJudgeStatus(Long hackathonId, Long userId, ApprovalStatus status);
 
     List<Submission> getLeaderboard(Long hackathonId);
+    CachedLeaderboard getLeaderboardSnapshot(Long hackathonId);
+    String getLeaderboardETag(Long hackathonId);
+    LeaderboardPage getLeaderboardPage(Long hackathonId, int offset, int limit);
+    List<LeaderboardStanding> getLeaderboardTop(Long hackathonId, int k);
+    LeaderboardStanding getLeaderboardStanding(Long hackathonId, Long submissionId);
 }
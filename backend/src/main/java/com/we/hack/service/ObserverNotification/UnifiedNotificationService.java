@@ -50,17 +50,14 @@ public class UnifiedNotificationService implements NotificationService {
             this.observerEntry = observerEntry;
             this.hackathon = hackathon;
             if (logger != null) {
-                logger.DEBUG("Created DecoratorEnhancedObserver for role: " + observerEntry.getRole() + 
-                           ", user: " + observerEntry.getEmail() + 
-                           ", hackathon: " + hackathon.getTitle());
+                logger.DEBUG(() -> "Created DecoratorEnhancedObserver for role: " + observerEntry.getRole() + ", user: " + observerEntry.getEmail() + ", hackathon: " + hackathon.getTitle());
             }
         }
         
         @Override
         public void update(String message) {
             if (logger != null) {
-                logger.DEBUG("DecoratorEnhancedObserver.update() - Sending notification to: " + 
-                           observerEntry.getEmail() + " (role: " + observerEntry.getRole() + ")");
+                logger.DEBUG(() -> "DecoratorEnhancedObserver.update() - Sending notification to: " + observerEntry.getEmail() + " (role: " + observerEntry.getRole() + ")");
             }
             
             // Use decorator pattern to send notification through multiple channels
@@ -74,25 +71,25 @@ public class UnifiedNotificationService implements NotificationService {
                                 String subject, String content) {
         if (logger != null) {
             logger.INFO("UnifiedNotificationService.sendNotification() - Sending notification to: " + recipient);
-            logger.DEBUG("Parameters: hackathon=" + hackathon.getTitle() + ", subject=" + subject + ", organizer=" + organizer.getEmail());
-            logger.DEBUG("Hackathon MailMode: " + hackathon.getMailMode() + ", Slack enabled: " + hackathon.isSlackEnabled());
+            logger.DEBUG(() -> "Parameters: hackathon=" + hackathon.getTitle() + ", subject=" + subject + ", organizer=" + organizer.getEmail());
+            logger.DEBUG(() -> "Hackathon MailMode: " + hackathon.getMailMode() + ", Slack enabled: " + hackathon.isSlackEnabled());
         }
         
         try {
             if (logger != null) {
-                logger.DEBUG("Creating MailServiceAdapter using factory for MailMode: " + hackathon.getMailMode());
+                logger.DEBUG(() -> "Creating MailServiceAdapter using factory for MailMode: " + hackathon.getMailMode());
             }
             MailServiceAdapter mailServiceAdapter = mailServiceAdapterFactory.createAdapter(hackathon);
 
             if (logger != null) {
-                logger.DEBUG("Creating base EmailNotifier with adapter: " + mailServiceAdapter.getClass().getSimpleName());
+                logger.DEBUG(() -> "Creating base EmailNotifier with adapter: " + mailServiceAdapter.getClass().getSimpleName());
             }
             Notifier notifier = new EmailNotifier(mailServiceAdapter);
 
             if (hackathon.isSlackEnabled()) {
                 try {
                     if (logger != null) {
-                        logger.DEBUG("Applying Slack decorator - Slack notifications enabled for hackathon: " + hackathon.getTitle());
+                        logger.DEBUG(() -> "Applying Slack decorator - Slack notifications enabled for hackathon: " + hackathon.getTitle());
                     }
                     SlackNotifierDecorator slackDecorator = applicationContext.getBean(SlackNotifierDecorator.class);
                     slackDecorator.setWrappee(notifier);
@@ -108,11 +105,11 @@ public class UnifiedNotificationService implements NotificationService {
                 }
             } else {
                 if (logger != null) {
-                    logger.DEBUG("Slack notifications disabled for hackathon: " + hackathon.getTitle());
+                    logger.DEBUG(() -> "Slack notifications disabled for hackathon: " + hackathon.getTitle());
                 }
             }
 
-            if (logger != null) {
+            if (logger != null && logger.isDebugEnabled()) {
                 logger.DEBUG("Sending notification through decorator chain using " + notifier.getClass().getSimpleName());
             }
             notifier.notify(organizer, recipient, subject, content);
@@ -134,7 +131,7 @@ public class UnifiedNotificationService implements NotificationService {
                                      String subject, String content) {
         if (logger != null) {
             logger.INFO("UnifiedNotificationService.broadcastNotification() - Broadcasting to observers for hackathon: " + hackathonId);
-            logger.DEBUG("Parameters: subject=" + subject + ", hackathon=" + hackathon.getTitle() + ", mailMode=" + hackathon.getMailMode());
+            logger.DEBUG(() -> "Parameters: subject=" + subject + ", hackathon=" + hackathon.getTitle() + ", mailMode=" + hackathon.getMailMode());
         }
         
         try {
@@ -156,8 +153,7 @@ public class UnifiedNotificationService implements NotificationService {
             for (ObserverEntry entry : observers) {
                 try {
                     if (logger != null) {
-                        logger.DEBUG("Creating DecoratorEnhancedObserver for: " + entry.getEmail() + 
-                                   " (role: " + entry.getRole() + ")");
+                        logger.DEBUG(() -> "Creating DecoratorEnhancedObserver for: " + entry.getEmail() + " (role: " + entry.getRole() + ")");
                     }
                     DecoratorEnhancedObserver observer = new DecoratorEnhancedObserver(entry, hackathon);
                     observer.update(content);
@@ -188,8 +184,8 @@ public class UnifiedNotificationService implements NotificationService {
         if (logger != null) {
             logger.INFO("UnifiedNotificationService.registerObserver() - Registering observer: " + observerEmail + 
                        " for hackathon: " + hackathonId);
-            logger.DEBUG("Organizer: " + organizer.getEmail());
-            logger.DEBUG("Current state of observerRegistry: " + observerRegistry);
+            logger.DEBUG(() -> "Organizer: " + organizer.getEmail());
+            logger.DEBUG("Current state of observerRegistry: {}", observerRegistry);
         }
         
         try {
@@ -213,8 +209,8 @@ public class UnifiedNotificationService implements NotificationService {
     public void registerObserver(int hackathonId, ObserverEntry observerEntry) {
         if (logger != null) {
             logger.INFO("UnifiedNotificationService.registerObserver() - Registering observer entry for hackathon: " + hackathonId);
-            logger.DEBUG("Observer: " + observerEntry.getEmail() + ", role: " + observerEntry.getRole());
-            logger.DEBUG("Current state of observerRegistry: " + observerRegistry);
+            logger.DEBUG(() -> "Observer: " + observerEntry.getEmail() + ", role: " + observerEntry.getRole());
+            logger.DEBUG("Current state of observerRegistry: {}", observerRegistry);
         }
         
         try {
@@ -224,7 +220,7 @@ public class UnifiedNotificationService implements NotificationService {
                 observers = new ArrayList<>();
                 observerRegistry.put(hackathonId, observers);
                 if (logger != null) {
-                    logger.DEBUG("Created new observer list for hackathon: " + hackathonId);
+                    logger.DEBUG("Created new observer list for hackathon: {}", hackathonId);
                 }
             }
             
@@ -241,8 +237,8 @@ public class UnifiedNotificationService implements NotificationService {
             
             // Debug logging before adding observer
             if (logger != null) {
-                logger.DEBUG("Current observers for hackathon " + hackathonId + ": " + observers.size());
-                logger.DEBUG("Adding observer entry: " + observerEntry);
+                logger.DEBUG("Current observers for hackathon {}: {}", hackathonId, observers.size());
+                logger.DEBUG("Adding observer entry: {}", observerEntry);
             }
             
             // Add the observer entry
@@ -253,8 +249,8 @@ public class UnifiedNotificationService implements NotificationService {
             
             // Debug logging after adding observer
             if (logger != null) {
-                logger.DEBUG("Updated observers for hackathon " + hackathonId + ": " + observers.size());
-                logger.DEBUG("All observers in registry: " + observerRegistry);
+                logger.DEBUG("Updated observers for hackathon {}: {}", hackathonId, observers.size());
+                logger.DEBUG("All observers in registry: {}", observerRegistry);
             }
             
             int totalObservers = observers.size();
@@ -276,7 +272,7 @@ public class UnifiedNotificationService implements NotificationService {
     @Override
     public List<String> getObservers(int hackathonId) {
         if (logger != null) {
-            logger.DEBUG("UnifiedNotificationService.getObservers() - Getting observers for hackathon: " + hackathonId);
+            logger.DEBUG("UnifiedNotificationService.getObservers() - Getting observers for hackathon: {}", hackathonId);
         }
         
         try {
@@ -286,7 +282,7 @@ public class UnifiedNotificationService implements NotificationService {
                                   .toList();
             
             if (logger != null) {
-                logger.DEBUG("Found " + observers.size() + " observers for hackathon " + hackathonId);
+                logger.DEBUG(() -> "Found " + observers.size() + " observers for hackathon " + hackathonId);
             }
             return observers;
             
@@ -320,14 +316,14 @@ public class UnifiedNotificationService implements NotificationService {
     
     public int getObserverCount(int hackathonId) {
         if (logger != null) {
-            logger.DEBUG("UnifiedNotificationService.getObserverCount() - Getting observer count for hackathon: " + hackathonId);
+            logger.DEBUG("UnifiedNotificationService.getObserverCount() - Getting observer count for hackathon: {}", hackathonId);
         }
         
         try {
             int count = observerRegistry.getOrDefault(hackathonId, Collections.emptyList()).size();
             
             if (logger != null) {
-                logger.DEBUG("Observer count for hackathon " + hackathonId + ": " + count);
+                logger.DEBUG("Observer count for hackathon {}: {}", hackathonId, count);
             }
             return count;
             
@@ -4,6 +4,8 @@ import com.we.hack.dto.SubmissionDto;
 import com.we.hack.model.Hackathon;
 import com.we.hack.model.Submission;
 import com.we.hack.model.Team;
+import com.we.hack.service.builder.Submission.SubmissionBuilder;
+import com.we.hack.service.storage.UploadStorage;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.util.List;
@@ -11,10 +13,19 @@ import java.util.List;
 public interface SubmissionService {
     Submission validateSubmission(Long userId, int hackathonId, Submission submission, MultipartFile file);
 
+    // Build and store a new submission or draft from the builder's fields
+    Submission createFinalSubmission(SubmissionBuilder builder, Long userId, int hackathonId, MultipartFile file);
+
+    // Same as above for a file that arrived through the chunked upload API
+    Submission createFinalSubmission(SubmissionBuilder builder, Long userId, int hackathonId, UploadStorage.StagedUpload upload);
+
     List<SubmissionDto> listSubmissions(Hackathon hackathon, Team team);
 
     Submission saveSubmission(Long userId, int hackathonId, Submission submission);
     Submission editSubmission(int hackathonId, Long userId, Long submissionId, String title, String description, String projectUrl, MultipartFile file);
+
+    // Restore the team's submission to the state before its last edit
+    Submission undoLastEdit(Long teamId, Long submissionId, Long hackathonId);
     
     // Add method to find submissions by hackathon ID
     List<Submission> findByHackathonId(int hackathonId);
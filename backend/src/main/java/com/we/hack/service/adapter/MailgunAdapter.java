@@ -50,7 +50,7 @@ public class MailgunAdapter implements MailServiceAdapter {
         this.baseUrl = baseUrl.endsWith("/") ? baseUrl : baseUrl + "/";
         
         logger.INFO("MailgunAdapter initialized - domain: " + domain + ", baseUrl: " + this.baseUrl);
-        logger.DEBUG("API key configured: " + (apiKey != null && !apiKey.isEmpty() ? "Yes" : "No"));
+        logger.DEBUG(() -> "API key configured: " + (apiKey != null && !apiKey.isEmpty() ? "Yes" : "No"));
     }
 
     @Override
@@ -59,8 +59,9 @@ public class MailgunAdapter implements MailServiceAdapter {
                          String subject,
                          String body) {
         logger.INFO("MailgunAdapter.sendMail() - Sending email via Mailgun");
-        logger.DEBUG("Email details: organizer=" + organiser.getEmail() + ", recipient=" + recipient + 
-                    ", subject=" + subject + ", bodyLength=" + (body != null ? body.length() : 0));
+        if (logger.isDebugEnabled()) {
+            logger.DEBUG("Email details: organizer=" + organiser.getEmail() + ", recipient=" + recipient + ", subject=" + subject + ", bodyLength=" + (body != null ? body.length() : 0));
+        }
 
         try {
             // Validate inputs
@@ -103,8 +104,8 @@ public class MailgunAdapter implements MailServiceAdapter {
                     .POST(HttpRequest.BodyPublishers.ofString(form))
                     .build();
 
-            logger.DEBUG("HTTP request built - URL: " + requestUrl);
-            logger.DEBUG("Request body: " + form);
+            logger.DEBUG("HTTP request built - URL: {}", requestUrl);
+            logger.DEBUG("Request body: {}", form);
 
             // Send request asynchronously
             logger.DEBUG("Sending HTTP request to Mailgun API");
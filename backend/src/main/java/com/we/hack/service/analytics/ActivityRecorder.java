@@ -0,0 +1,111 @@
+package com.we.hack.service.analytics;
+
+import com.we.hack.dto.ActivitySeriesDto;
+import com.we.hack.service.logger.Logger;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-process activity time series per hackathon: submissions, edits, comments and scores per
+ * minute for the last {@value #MINUTE_SLOTS} minutes and per hour for the last
+ * {@value #HOUR_SLOTS} hours.
+ * <p>
+ * Every hackathon gets two {@link ActivityRing}s allocated on its first event, about
+ * 86 KB in total, so memory is bounded by the number of hackathons and not by the event
+ * rate. Recording only increments two array cells under the hackathon's monitor and
+ * allocates nothing. Counts live in memory only and start from zero after a restart.
+ */
+@Service
+public class ActivityRecorder {
+
+    private static Logger logger;
+
+    static {
+        try {
+            logger = Logger.getInstance(100);
+        } catch (IOException e) {
+            System.err.println("Failed to initialize logger: " + e.getMessage());
+        }
+    }
+
+    static final int MINUTE_SLOTS = 24 * 60;
+    static final int HOUR_SLOTS = 30 * 24;
+
+    private static final ActivityType[] TYPES = ActivityType.values();
+    private static final long MINUTE_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    private final Map<Long, Series> series = new ConcurrentHashMap<>();
+
+    public void record(Long hackathonId, ActivityType type) {
+        if (hackathonId == null) {
+            return;
+        }
+        long minute = System.currentTimeMillis() / MINUTE_MILLIS;
+        Series hackathonSeries = series.computeIfAbsent(hackathonId, id -> new Series());
+        synchronized (hackathonSeries) {
+            hackathonSeries.minutes.increment(minute, type.ordinal());
+            hackathonSeries.hours.increment(minute / 60, type.ordinal());
+        }
+    }
+
+    public void remove(Long hackathonId) {
+        if (series.remove(hackathonId) != null) {
+            logger.DEBUG("Dropped activity series of hackathon {}", hackathonId);
+        }
+    }
+
+    /**
+     * Activity of the last {@code windowMinutes} minutes up to now, summed into bins of
+     * {@code stepMinutes}. Windows that fit the minute ring are read from it; longer ones
+     * come from the hour ring, with the step rounded up to whole hours.
+     */
+    public ActivitySeriesDto series(Long hackathonId, int windowMinutes, int stepMinutes) {
+        if (windowMinutes <= 0 || stepMinutes <= 0) {
+            throw new IllegalArgumentException("Window and step must be positive");
+        }
+        long nowMinute = System.currentTimeMillis() / MINUTE_MILLIS;
+        boolean hourly = windowMinutes > MINUTE_SLOTS;
+        int periodMinutes = hourly ? 60 : 1;
+        int periods = Math.min(Math.ceilDiv(windowMinutes, periodMinutes), hourly ? HOUR_SLOTS : MINUTE_SLOTS);
+        int periodsPerBin = Math.min(Math.ceilDiv(stepMinutes, periodMinutes), periods);
+        int bins = Math.ceilDiv(periods, periodsPerBin);
+        // Bins end at the current period; the first bin may reach further back than the window
+        long lastPeriod = nowMinute / periodMinutes;
+        long firstPeriod = lastPeriod - (long) bins * periodsPerBin + 1;
+
+        Map<ActivityType, long[]> counts = new EnumMap<>(ActivityType.class);
+        for (ActivityType type : TYPES) {
+            counts.put(type, new long[bins]);
+        }
+        Series hackathonSeries = series.get(hackathonId);
+        if (hackathonSeries != null) {
+            synchronized (hackathonSeries) {
+                ActivityRing ring = hourly ? hackathonSeries.hours : hackathonSeries.minutes;
+                for (long period = Math.max(firstPeriod, lastPeriod - ring.slots() + 1); period <= lastPeriod; period++) {
+                    int bin = (int) ((period - firstPeriod) / periodsPerBin);
+                    for (ActivityType type : TYPES) {
+                        counts.get(type)[bin] += ring.get(period, type.ordinal());
+                    }
+                }
+            }
+        }
+
+        return ActivitySeriesDto.builder()
+                .hackathonId(hackathonId)
+                .start(Instant.ofEpochMilli(firstPeriod * periodMinutes * MINUTE_MILLIS))
+                .stepMinutes(periodsPerBin * periodMinutes)
+                .counts(counts)
+                .build();
+    }
+
+    private static final class Series {
+        final ActivityRing minutes = new ActivityRing(MINUTE_SLOTS);
+        final ActivityRing hours = new ActivityRing(HOUR_SLOTS);
+    }
+}
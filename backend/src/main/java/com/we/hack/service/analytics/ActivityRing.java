@@ -0,0 +1,40 @@
+package com.we.hack.service.analytics;
+
+import java.util.Arrays;
+
+/**
+ * Fixed number of time buckets reused round-robin, each holding one count per
+ * {@link ActivityType}. A slot remembers which period it holds, so buckets of an earlier
+ * lap read as zero and are cleared when the slot is next written.
+ */
+final class ActivityRing {
+
+    private static final int TYPES = ActivityType.values().length;
+
+    private final long[] counts;
+    private final long[] periods;
+
+    ActivityRing(int slots) {
+        counts = new long[slots * TYPES];
+        periods = new long[slots];
+        Arrays.fill(periods, -1);
+    }
+
+    int slots() {
+        return periods.length;
+    }
+
+    void increment(long period, int type) {
+        int slot = (int) (period % periods.length);
+        if (periods[slot] != period) {
+            Arrays.fill(counts, slot * TYPES, slot * TYPES + TYPES, 0);
+            periods[slot] = period;
+        }
+        counts[slot * TYPES + type]++;
+    }
+
+    long get(long period, int type) {
+        int slot = (int) (period % periods.length);
+        return periods[slot] == period ? counts[slot * TYPES + type] : 0;
+    }
+}
@@ -0,0 +1,11 @@
+package com.we.hack.service.analytics;
+
+/**
+ * Kinds of participant activity recorded per hackathon by {@link ActivityRecorder}.
+ */
+public enum ActivityType {
+    SUBMISSION,
+    EDIT,
+    COMMENT,
+    SCORE
+}
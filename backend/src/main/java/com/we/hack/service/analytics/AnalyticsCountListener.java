@@ -0,0 +1,52 @@
+package com.we.hack.service.analytics;
+
+import com.we.hack.model.*;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA entity listener that reports inserted and removed entities to {@link AnalyticsCounters}.
+ * Hibernate obtains it from the Spring context, so it shares the counters bean. Bulk JPQL and
+ * native deletes bypass it; their callers report the removed rows instead.
+ */
+@Component
+public class AnalyticsCountListener {
+
+    @Autowired
+    private AnalyticsCounters counters;
+
+    @PostPersist
+    public void added(Object entity) {
+        change(entity, 1);
+    }
+
+    @PostRemove
+    public void removed(Object entity) {
+        change(entity, -1);
+    }
+
+    private void change(Object entity, long delta) {
+        if (entity instanceof Hackathon hackathon) {
+            if (delta > 0) {
+                counters.hackathonAdded(hackathon.getId());
+            } else {
+                counters.hackathonRemoved(hackathon.getId());
+            }
+        } else if (entity instanceof User) {
+            counters.usersChanged(delta);
+        } else if (entity instanceof Team team) {
+            counters.teamsChanged(hackathonId(team.getHackathon()), delta);
+        } else if (entity instanceof Submission submission) {
+            counters.submissionsChanged(hackathonId(submission.getHackathon()), delta);
+        } else if (entity instanceof JudgeScore judgeScore) {
+            Submission submission = judgeScore.getSubmission();
+            counters.judgeScoresChanged(submission == null ? null : hackathonId(submission.getHackathon()), delta);
+        }
+    }
+
+    private static Long hackathonId(Hackathon hackathon) {
+        return hackathon == null ? null : hackathon.getId();
+    }
+}
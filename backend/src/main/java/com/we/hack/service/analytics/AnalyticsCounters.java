@@ -0,0 +1,233 @@
+package com.we.hack.service.analytics;
+
+import com.we.hack.dto.AnalyticsCounts;
+import com.we.hack.dto.HackathonCounts;
+import com.we.hack.repository.HackathonRepository;
+import com.we.hack.service.logger.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Row counts per entity type and per hackathon, kept in memory so the analytics overview
+ * needs no query.
+ * <p>
+ * {@link AnalyticsCountListener} reports inserts and deletes of single entities; bulk deletes
+ * report the number of rows they removed themselves. Changes made inside a transaction are
+ * applied after it commits. A scheduled job compares every counter with a real count and
+ * corrects whatever drifted, e.g. rows removed by database cascades or by hand.
+ */
+@Service
+public class AnalyticsCounters {
+
+    private static Logger logger;
+
+    static {
+        try {
+            logger = Logger.getInstance(100);
+        } catch (IOException e) {
+            System.err.println("Failed to initialize logger: " + e.getMessage());
+        }
+    }
+
+    // Only used by the reconciliation job; lazy because entity listeners need this bean
+    // while the JPA repositories are still being created
+    @Lazy
+    @Autowired
+    private HackathonRepository hackathonRepository;
+
+    private final Counter hackathons = new Counter();
+    private final Counter users = new Counter();
+    private final Counter teams = new Counter();
+    private final Counter submissions = new Counter();
+    private final Counter judgeScores = new Counter();
+    private final Map<Long, HackathonCounters> perHackathon = new ConcurrentHashMap<>();
+
+    public void hackathonAdded(Long hackathonId) {
+        afterCommit(() -> {
+            hackathons.add(1);
+            perHackathon.computeIfAbsent(hackathonId, id -> new HackathonCounters());
+        });
+    }
+
+    /**
+     * The hackathon's teams, submissions and scores must be reported removed separately.
+     */
+    public void hackathonRemoved(Long hackathonId) {
+        afterCommit(() -> {
+            hackathons.add(-1);
+            perHackathon.remove(hackathonId);
+        });
+    }
+
+    public void usersChanged(long delta) {
+        afterCommit(() -> users.add(delta));
+    }
+
+    public void teamsChanged(Long hackathonId, long delta) {
+        afterCommit(() -> {
+            teams.add(delta);
+            if (hackathonId != null) {
+                forHackathon(hackathonId).teams.add(delta);
+            }
+        });
+    }
+
+    public void submissionsChanged(Long hackathonId, long delta) {
+        afterCommit(() -> {
+            submissions.add(delta);
+            if (hackathonId != null) {
+                forHackathon(hackathonId).submissions.add(delta);
+            }
+        });
+    }
+
+    public void judgeScoresChanged(Long hackathonId, long delta) {
+        afterCommit(() -> {
+            judgeScores.add(delta);
+            if (hackathonId != null) {
+                forHackathon(hackathonId).judgeScores.add(delta);
+            }
+        });
+    }
+
+    public AnalyticsCounts overview() {
+        long totalHackathons = hackathons.get();
+        long totalUsers = users.get();
+        long totalTeams = teams.get();
+        long totalSubmissions = submissions.get();
+        long totalJudgeScores = judgeScores.get();
+        return new AnalyticsCounts() {
+            public long getTotalHackathons() { return totalHackathons; }
+            public long getTotalUsers() { return totalUsers; }
+            public long getTotalTeams() { return totalTeams; }
+            public long getTotalSubmissions() { return totalSubmissions; }
+            public long getTotalJudgeScores() { return totalJudgeScores; }
+        };
+    }
+
+    /**
+     * Team, submission and judge score counts of one hackathon, or null if it is unknown.
+     */
+    public Map<String, Long> hackathonCounts(Long hackathonId) {
+        HackathonCounters counters = perHackathon.get(hackathonId);
+        if (counters == null) {
+            return null;
+        }
+        Map<String, Long> counts = new HashMap<>();
+        counts.put("teams", counters.teams.get());
+        counts.put("submissions", counters.submissions.get());
+        counts.put("judgeScores", counters.judgeScores.get());
+        return counts;
+    }
+
+    /**
+     * Resets every counter to its real count. Changes reported while the counts are read
+     * are kept on top of the new base, so at most the changes committed during the query
+     * itself are off, until the next run.
+     */
+    @Scheduled(initialDelay = 0, fixedDelayString = "${analytics.counters.reconcile-ms:300000}")
+    public void reconcile() {
+        try {
+            long start = System.nanoTime();
+            long hackathonsSeen = hackathons.pending();
+            long usersSeen = users.pending();
+            long teamsSeen = teams.pending();
+            long submissionsSeen = submissions.pending();
+            long judgeScoresSeen = judgeScores.pending();
+            Map<Long, long[]> hackathonsSeenPerId = new HashMap<>();
+            perHackathon.forEach((id, counters) -> hackathonsSeenPerId.put(id, counters.pending()));
+
+            AnalyticsCounts totals = hackathonRepository.countOverview();
+            Map<Long, HackathonCounters> actual = new HashMap<>();
+            for (HackathonCounts counts : hackathonRepository.countPerHackathon()) {
+                HackathonCounters counters = perHackathon.computeIfAbsent(counts.getHackathonId(), id -> new HackathonCounters());
+                long[] seen = hackathonsSeenPerId.getOrDefault(counts.getHackathonId(), new long[3]);
+                counters.teams.reset(counts.getTeams(), seen[0]);
+                counters.submissions.reset(counts.getSubmissions(), seen[1]);
+                counters.judgeScores.reset(counts.getJudgeScores(), seen[2]);
+                actual.put(counts.getHackathonId(), counters);
+            }
+            perHackathon.keySet().retainAll(actual.keySet());
+
+            long drift = hackathons.reset(totals.getTotalHackathons(), hackathonsSeen)
+                    + users.reset(totals.getTotalUsers(), usersSeen)
+                    + teams.reset(totals.getTotalTeams(), teamsSeen)
+                    + submissions.reset(totals.getTotalSubmissions(), submissionsSeen)
+                    + judgeScores.reset(totals.getTotalJudgeScores(), judgeScoresSeen);
+            if (drift != 0) {
+                logger.WARN("Analytics counters were off by " + drift + " rows in total, corrected");
+            }
+            logger.DEBUG(() -> "Reconciled analytics counters in " + ((System.nanoTime() - start) / 1_000_000) + "ms");
+        } catch (Exception e) {
+            logger.ERROR("Failed to reconcile analytics counters: " + e.getMessage());
+        }
+    }
+
+    private HackathonCounters forHackathon(Long hackathonId) {
+        return perHackathon.computeIfAbsent(hackathonId, id -> new HackathonCounters());
+    }
+
+    private static void afterCommit(Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    change.run();
+                }
+            });
+        } else {
+            change.run();
+        }
+    }
+
+    /**
+     * A count as a base set by reconciliation plus the changes reported since start-up.
+     */
+    private static final class Counter {
+        private final LongAdder changes = new LongAdder();
+        private volatile long base;
+
+        void add(long delta) {
+            changes.add(delta);
+        }
+
+        long get() {
+            return base + changes.sum();
+        }
+
+        long pending() {
+            return changes.sum();
+        }
+
+        /**
+         * Sets the count to {@code actual} as of the moment {@code changesSeen} was read.
+         *
+         * @return how far the counter was off
+         */
+        long reset(long actual, long changesSeen) {
+            long drift = Math.abs(base + changesSeen - actual);
+            base = actual - changesSeen;
+            return drift;
+        }
+    }
+
+    private static final class HackathonCounters {
+        final Counter teams = new Counter();
+        final Counter submissions = new Counter();
+        final Counter judgeScores = new Counter();
+
+        long[] pending() {
+            return new long[]{teams.pending(), submissions.pending(), judgeScores.pending()};
+        }
+    }
+}
@@ -3,7 +3,6 @@ package com.we.hack.service.bridge;
 import com.we.hack.model.JudgeScore;
 import com.we.hack.service.strategy.ScoringStrategy;
 
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
@@ -15,21 +14,21 @@ public class JudgeScoreEvaluator extends ScoreEvaluator {
 
     @Override
     public double evaluate(List<JudgeScore> scores) {
-        List<Double> perJudgeAverages = new ArrayList<>();
-
-        for (JudgeScore score : scores) {
-            List<Integer> criteria = Arrays.asList(
-                    score.getInnovation(),
-                    score.getImpact(),
-                    score.getExecution()
-            );
-            perJudgeAverages.add(strategy.calculateScore(criteria));
+        double[] perJudgeAverages = new double[scores.size()];
+
+        for (int i = 0; i < perJudgeAverages.length; i++) {
+            JudgeScore score = scores.get(i);
+            perJudgeAverages[i] = strategy.score(score.getInnovation(), score.getImpact(), score.getExecution());
         }
 
-        return perJudgeAverages.stream()
-                .mapToDouble(Double::doubleValue)
-                .average()
-                .orElse(0.0);
+        return average(perJudgeAverages, 0, perJudgeAverages.length);
     }
-}
 
+    /**
+     * Average of {@code values[from..to)}, or 0 for an empty range. Uses DoubleStream's
+     * compensated summation so every caller gets bit-identical results.
+     */
+    public static double average(double[] values, int from, int to) {
+        return Arrays.stream(values, from, to).average().orElse(0.0);
+    }
+}
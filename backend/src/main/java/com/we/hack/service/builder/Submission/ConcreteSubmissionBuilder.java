@@ -66,6 +66,11 @@ public class ConcreteSubmissionBuilder implements SubmissionBuilder {
         return this;
     }
 
+    @Override
+    public boolean isDraft() {
+        return isDraft;
+    }
+
     @Override
     public SubmissionBuilder asTeamSubmission(boolean isTeamSubmission) {
         this.isTeamSubmission = isTeamSubmission;
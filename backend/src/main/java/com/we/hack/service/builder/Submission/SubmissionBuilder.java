@@ -17,6 +17,7 @@ public interface SubmissionBuilder {
     
     // Enhanced builder methods for draft and submission types
     SubmissionBuilder asDraft(boolean isDraft);
+    boolean isDraft();
     SubmissionBuilder asTeamSubmission(boolean isTeamSubmission);
     SubmissionBuilder withFilePath(String filePath);
     SubmissionBuilder withId(Long id);                     // For updates
@@ -7,11 +7,17 @@ import org.springframework.web.server.ResponseStatusException;
 
 public class FileSizeValidator extends BaseValidator{
 
-    private static final long MAX_SIZE_BYTES = 1 * 1024 * 1024;
+    // Single-request uploads only, also enforced by UploadStorage while streaming to disk;
+    // chunked uploads have their own, larger uploads.chunked.max-bytes
+    public static final long MAX_SIZE_BYTES = 1 * 1024 * 1024;
     @Override
     protected void doValidate(Submission submission, MultipartFile file) {
         if (file != null && file.getSize() > MAX_SIZE_BYTES) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "File too large (max 5MB).");
+            throw tooLarge();
         }
     }
+
+    public static ResponseStatusException tooLarge() {
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST, "File too large (max " + MAX_SIZE_BYTES / (1024 * 1024) + "MB).");
+    }
 }
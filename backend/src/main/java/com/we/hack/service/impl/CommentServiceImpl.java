@@ -7,6 +7,8 @@ import com.we.hack.repository.CommentRepository;
 import com.we.hack.repository.HackathonRepository;
 import com.we.hack.repository.UserRepository;
 import com.we.hack.service.CommentService;
+import com.we.hack.service.analytics.ActivityRecorder;
+import com.we.hack.service.analytics.ActivityType;
 import com.we.hack.service.logger.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -36,6 +38,9 @@ public class CommentServiceImpl implements CommentService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private ActivityRecorder activityRecorder;
+
     @Override
     public Comment addComment(int hackathonId, Long userId, String content, Integer parentId) {
         logger.INFO("CommentService.addComment() - Adding comment for hackathon: " + hackathonId + ", user: " + userId);
@@ -85,6 +90,7 @@ public class CommentServiceImpl implements CommentService {
             }
 
             Comment savedComment = commentRepository.save(comment);
+            activityRecorder.record(hackathon.getId(), ActivityType.COMMENT);
             logger.INFO("Comment added successfully - commentId: " + savedComment.getId() + 
                        ", hackathonId: " + hackathonId + ", userId: " + userId + 
                        (parentId != null ? ", parentId: " + parentId : ""));
@@ -1,18 +1,31 @@
 package com.we.hack.service.impl;
 
 import com.we.hack.dto.HackathonDto;
+import com.we.hack.dto.LeaderboardEntryDto;
+import com.we.hack.dto.LeaderboardStanding;
 import com.we.hack.dto.MailModes;
+import com.we.hack.dto.SubmissionSummary;
 import com.we.hack.dto.TeamDto;
 import com.we.hack.mapper.HackathonMapper;
 import com.we.hack.mapper.TeamMapper;
 import com.we.hack.model.*;
 import com.we.hack.repository.*;
 import com.we.hack.service.HackathonService;
+import com.we.hack.service.analytics.ActivityRecorder;
+import com.we.hack.service.analytics.AnalyticsCounters;
 import com.we.hack.service.adapter.MailServiceAdapter;
 import com.we.hack.service.factory.HackathonRoleFactory;
 import com.we.hack.service.iterator.CollectionFactory;
 import com.we.hack.service.iterator.Iterator;
+import com.we.hack.service.leaderboard.CachedLeaderboard;
+import com.we.hack.service.leaderboard.ColumnarScoreStore;
+import com.we.hack.service.leaderboard.LeaderboardCache;
+import com.we.hack.service.leaderboard.LeaderboardPage;
+import com.we.hack.service.leaderboard.LeaderboardRegistry;
+import com.we.hack.service.leaderboard.LeaderboardStreamService;
+import com.we.hack.service.leaderboard.LiveLeaderboard;
 import com.we.hack.service.logger.Logger;
+import com.we.hack.service.ratelimit.SubmissionCooldowns;
 import com.we.hack.service.ObserverNotification.UnifiedNotificationService;
 import com.we.hack.service.state.*;
 import com.we.hack.service.template.BuildPhaseScoreboard;
@@ -22,12 +35,16 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationContext;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import jakarta.persistence.EntityManager;
 
 import java.io.IOException;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class HackathonServiceImpl implements HackathonService {
@@ -78,10 +95,31 @@ public class HackathonServiceImpl implements HackathonService {
     @Autowired
     private HackathonRoleFactory hackathonRoleFactory;
 
+    @Autowired
+    private ColumnarScoreStore scoreStore;
+
+    @Autowired
+    private LeaderboardRegistry leaderboardRegistry;
+
+    @Autowired
+    private LeaderboardCache leaderboardCache;
+
+    @Autowired
+    private LeaderboardStreamService leaderboardStreamService;
+
+    @Autowired
+    private AnalyticsCounters analyticsCounters;
+
+    @Autowired
+    private ActivityRecorder activityRecorder;
+
+    @Autowired
+    private SubmissionCooldowns submissionCooldowns;
+
     @Override
     public Hackathon createHackathon(String title, String description, Instant startDate, Instant endDate, User organizer, ScoringMethod scoringMethod, String smtpPassword, MailModes mailMode, boolean slackEnabled) {
         logger.INFO("HackathonService.createHackathon() - Started creating hackathon with title: " + title);
-        logger.DEBUG("Parameters: organizer=" + organizer.getEmail() + ", scoring=" + scoringMethod + ", mailMode=" + mailMode + ", slackEnabled=" + slackEnabled);
+        logger.DEBUG(() -> "Parameters: organizer=" + organizer.getEmail() + ", scoring=" + scoringMethod + ", mailMode=" + mailMode + ", slackEnabled=" + slackEnabled);
         
         try {
             if(mailMode == MailModes.ORGANIZED) {
@@ -145,7 +183,9 @@ public class HackathonServiceImpl implements HackathonService {
             
             // 4. Delete judge scores (must be done before submissions)
             logger.DEBUG("Deleting judge scores");
-            judgeScoreRepository.deleteByHackathonId((int) hackathonId);
+            int deletedScores = judgeScoreRepository.deleteByHackathonId((int) hackathonId);
+            // Native delete, the entity listeners never see these rows
+            analyticsCounters.judgeScoresChanged(hackathonId, -deletedScores);
             
             // 5. Delete team_members junction table entries
             logger.DEBUG("Deleting team member relationships");
@@ -168,6 +208,16 @@ public class HackathonServiceImpl implements HackathonService {
             // Force commit
             logger.DEBUG("Forcing commit");
             entityManager.flush();
+            scoreStore.invalidate(hackathonId);
+            leaderboardRegistry.invalidate(hackathonId);
+            leaderboardCache.invalidate(hackathonId);
+            leaderboardCache.forget(hackathonId);
+            leaderboardStreamService.markDirty(hackathonId);
+            // Kept if the delete rolls back
+            afterCommit(() -> {
+                activityRecorder.remove(hackathonId);
+                submissionCooldowns.forget(hackathonId);
+            });
             
             logger.INFO("Hackathon ID: " + hackathonId + " deleted successfully");
             
@@ -179,6 +229,20 @@ public class HackathonServiceImpl implements HackathonService {
         }
     }
 
+    // Runs the action once the current transaction commits, or right away outside of one
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
     @Override
     public List<Hackathon> getAllHackathons() {
         logger.INFO("HackathonService.getAllHackathons() - Fetching all hackathons");
@@ -248,10 +312,10 @@ public class HackathonServiceImpl implements HackathonService {
                         return new RuntimeException("Hackathon not found");
                     });
 
-            logger.DEBUG("Found hackathon: " + hackathon.getTitle() + ", current status: " + hackathon.getStatus());
+            logger.DEBUG(() -> "Found hackathon: " + hackathon.getTitle() + ", current status: " + hackathon.getStatus());
 
             // State pattern for hackathon lifecycle
-            HackathonContext context = new HackathonContext(getStateFromStatus(hackathon.getStatus()));
+            HackathonContext context = newContext(hackathon);
             context.publish(hackathon);
             hackathonRepository.save(hackathon);
             
@@ -282,15 +346,18 @@ public class HackathonServiceImpl implements HackathonService {
                         return new RuntimeException("Hackathon not found");
                     });
 
-            logger.DEBUG("Found hackathon: " + hackathon.getTitle() + ", current status: " + hackathon.getStatus());
+            logger.DEBUG(() -> "Found hackathon: " + hackathon.getTitle() + ", current status: " + hackathon.getStatus());
 
             // State pattern for hackathon lifecycle
-            HackathonContext context = new HackathonContext(getStateFromStatus(hackathon.getStatus()));
+            HackathonContext context = newContext(hackathon);
             context.beginJudging(hackathon);
             hackathonRepository.save(hackathon);
 
             logger.INFO("Hackathon status updated to: " + hackathon.getStatus());
 
+            // Scores are read constantly from here on, keep them in memory
+            scoreStore.get(hackathon);
+
             // Use unified notification service (Decorator + Observer patterns combined)
             String message = "⚖️ Hackathon \"" + hackathon.getTitle() + "\" has entered the judging phase! Judges can now evaluate submissions.";
             unifiedNotificationService.broadcastNotification(hackathonId, hackathon, 
@@ -316,10 +383,10 @@ public class HackathonServiceImpl implements HackathonService {
                         return new RuntimeException("Hackathon not found");
                     });
 
-            logger.DEBUG("Found hackathon: " + hackathon.getTitle() + ", current status: " + hackathon.getStatus());
+            logger.DEBUG(() -> "Found hackathon: " + hackathon.getTitle() + ", current status: " + hackathon.getStatus());
 
             // State pattern for hackathon lifecycle
-            HackathonContext context = new HackathonContext(getStateFromStatus(hackathon.getStatus()));
+            HackathonContext context = newContext(hackathon);
             context.complete(hackathon);
             hackathonRepository.save(hackathon);
 
@@ -339,8 +406,34 @@ public class HackathonServiceImpl implements HackathonService {
         }
     }
 
+    @Override
+    public void setSubmissionCooldown(int hackathonId, Integer seconds) {
+        logger.INFO("HackathonService.setSubmissionCooldown() - Hackathon ID: " + hackathonId + ", seconds: " + seconds);
+
+        try {
+            Hackathon hackathon = hackathonRepository.findById(hackathonId)
+                    .orElseThrow(() -> {
+                        logger.ERROR("Hackathon not found with ID: " + hackathonId);
+                        return new RuntimeException("Hackathon not found");
+                    });
+            hackathon.setSubmissionCooldownSeconds(seconds);
+            hackathonRepository.save(hackathon);
+            submissionCooldowns.setCooldown(hackathonId, seconds);
+        } catch (Exception e) {
+            logger.ERROR("Failed to set submission cooldown of hackathon " + hackathonId + ": " + e.getMessage());
+            throw e;
+        }
+    }
+
+    private HackathonContext newContext(Hackathon hackathon) {
+        HackathonContext context = new HackathonContext(getStateFromStatus(hackathon.getStatus()));
+        context.addTransitionListener(leaderboardCache);
+        context.addTransitionListener(scoreStore);
+        return context;
+    }
+
     private HackathonState getStateFromStatus(String status) {
-        logger.DEBUG("Getting state from status: " + status);
+        logger.DEBUG("Getting state from status: {}", status);
         
         switch (status) {
             case "Published":
@@ -350,7 +443,7 @@ public class HackathonServiceImpl implements HackathonService {
             case "Completed":
                 return new CompletedState();
             default:
-                logger.DEBUG("Using default DraftState for status: " + status);
+                logger.DEBUG("Using default DraftState for status: {}", status);
                 return new DraftState(); // Default fallback
         }
     }
@@ -401,11 +494,16 @@ public class HackathonServiceImpl implements HackathonService {
                         return new RuntimeException("User is not enrolled in this hackathon");
                     });
 
-            logger.DEBUG("Found hackathon role: " + link.getRole() + " for user " + userId);
+            logger.DEBUG(() -> "Found hackathon role: " + link.getRole() + " for user " + userId);
 
             // 2. Delete every submission this user made in that event
             logger.DEBUG("Deleting user submissions for hackathon");
-            submissionRepository.deleteByUserAndHackathon(userId, hackathonId);
+            int deletedSubmissions = submissionRepository.deleteByUserAndHackathon(userId, hackathonId);
+            analyticsCounters.submissionsChanged(hackathonId, -deletedSubmissions);
+            scoreStore.invalidate(hackathonId);
+            leaderboardRegistry.invalidate(hackathonId);
+            leaderboardCache.invalidate(hackathonId);
+            leaderboardStreamService.markDirty(hackathonId);
 
             // 3. Delete the membership row itself
             logger.DEBUG("Deleting hackathon role");
@@ -476,7 +574,7 @@ public class HackathonServiceImpl implements HackathonService {
                     });
             String judgeEmail = judge.getEmail();
 
-            logger.DEBUG("Updating judge status from " + roleEntry.getStatus() + " to " + status);
+            logger.DEBUG(() -> "Updating judge status from " + roleEntry.getStatus() + " to " + status);
             roleEntry.setStatus(status);
 
             if (status.equals(ApprovalStatus.APPROVED)) {
@@ -484,9 +582,7 @@ public class HackathonServiceImpl implements HackathonService {
                 System.out.println("Judge approved - registering for notifications");
                 
                 // Debug logging before registration
-                logger.DEBUG("About to register observer - hackathonId: " + hackathonId + 
-                           ", judgeEmail: " + judgeEmail + 
-                           ", organizer: " + organizer.getEmail());
+                logger.DEBUG(() -> "About to register observer - hackathonId: " + hackathonId + ", judgeEmail: " + judgeEmail + ", organizer: " + organizer.getEmail());
                 
                 // Register judge as observer in unified notification service
                 unifiedNotificationService.registerObserver(Math.toIntExact(hackathonId), judgeEmail, organizer);
@@ -494,7 +590,7 @@ public class HackathonServiceImpl implements HackathonService {
                 // Debug logging after registration
                 logger.DEBUG("Observer registration completed - checking observer count");
                 int observerCount = unifiedNotificationService.getObserverCount(Math.toIntExact(hackathonId));
-                logger.DEBUG("Current observer count for hackathon " + hackathonId + ": " + observerCount);
+                logger.DEBUG("Current observer count for hackathon {}: {}", hackathonId, observerCount);
                 
                 // Send immediate approval notification using unified service
                 String approvalMessage = "✅ Your judge application for hackathon \"" + hackathon.getTitle() + "\" has been approved! You will now receive updates about this hackathon.";
@@ -503,7 +599,7 @@ public class HackathonServiceImpl implements HackathonService {
                 
                 logger.INFO("Judge " + judgeEmail + " approved and registered for hackathon " + hackathonId + " notifications");
             } else {
-                logger.DEBUG("Judge status updated to " + status + " - no additional actions taken");
+                logger.DEBUG("Judge status updated to {} - no additional actions taken", status);
             }
 
             HackathonRole savedRole = hackathonRoleRepository.save(roleEntry);
@@ -519,9 +615,27 @@ public class HackathonServiceImpl implements HackathonService {
 
     @Override
     public List<Submission> getLeaderboard(Long hackathonId) {
+        return getLeaderboardSnapshot(hackathonId).getSubmissions();
+    }
+
+    @Override
+    public String getLeaderboardETag(Long hackathonId) {
+        return leaderboardCache.etag(hackathonId);
+    }
+
+    @Override
+    public CachedLeaderboard getLeaderboardSnapshot(Long hackathonId) {
         logger.INFO("HackathonService.getLeaderboard() - Getting leaderboard for hackathon: " + hackathonId);
         
         try {
+            // Read the version before any data, so the result is never newer than its tag claims
+            long version = leaderboardCache.version(hackathonId);
+            CachedLeaderboard cached = leaderboardCache.get(hackathonId);
+            if (cached != null) {
+                logger.DEBUG("Serving cached leaderboard for hackathon {} at version {}", hackathonId, version);
+                return cached;
+            }
+
             Hackathon hackathon = hackathonRepository.findById(Math.toIntExact(hackathonId))
                     .orElseThrow(() -> {
                         logger.ERROR("Hackathon not found with ID: " + hackathonId);
@@ -529,25 +643,134 @@ public class HackathonServiceImpl implements HackathonService {
                     });
             
             String status = hackathon.getStatus();
-            logger.DEBUG("Hackathon status: " + status + " - determining appropriate scoreboard template");
+            logger.DEBUG("Hackathon status: {} - determining appropriate scoreboard template", status);
 
             ScoreboardTemplate scoreboard;
             if (status.equals("Draft") || status.equals("Published")) {
-                logger.DEBUG("Using BuildPhaseScoreboard for status: " + status);
+                logger.DEBUG("Using BuildPhaseScoreboard for status: {}", status);
                 scoreboard = applicationContext.getBean(BuildPhaseScoreboard.class);
             } else {
-                logger.DEBUG("Using JudgingPhaseScoreboard for status: " + status);
+                logger.DEBUG("Using JudgingPhaseScoreboard for status: {}", status);
                 scoreboard = applicationContext.getBean(JudgingPhaseScoreboard.class);
             }
 
-            List<Submission> leaderboard = scoreboard.generate(hackathonId);
+            List<Submission> leaderboard = scoreboard.generate(hackathon);
             logger.INFO("Generated leaderboard with " + leaderboard.size() + " submissions for hackathon " + hackathonId);
             
-            return leaderboard;
+            return leaderboardCache.put(hackathonId, version, status, leaderboard);
             
         } catch (Exception e) {
             logger.ERROR("Failed to get leaderboard for hackathon " + hackathonId + ": " + e.getMessage());
             throw e;
         }
     }
+
+    @Override
+    public LeaderboardPage getLeaderboardPage(Long hackathonId, int offset, int limit) {
+        logger.INFO("HackathonService.getLeaderboardPage() - Getting ranks " + (offset + 1) + " to " + (offset + limit) + " for hackathon: " + hackathonId);
+
+        try {
+            long version = leaderboardCache.version(hackathonId);
+            Hackathon hackathon = hackathonRepository.findById(Math.toIntExact(hackathonId))
+                    .orElseThrow(() -> {
+                        logger.ERROR("Hackathon not found with ID: " + hackathonId);
+                        return new RuntimeException("Hackathon not found");
+                    });
+
+            String status = hackathon.getStatus();
+            String etag = leaderboardCache.isSettled(hackathonId, status) ? leaderboardCache.etag(hackathonId, version) : null;
+            List<LeaderboardEntryDto> entries = new ArrayList<>();
+            if (!status.equals("Judging") && !status.equals("Completed")) {
+                logger.DEBUG("Leaderboard hidden for hackathon {} in status {}", hackathonId, status);
+                return new LeaderboardPage(etag, entries);
+            }
+
+            // Only the page's submissions are loaded, and only the columns a row shows
+            LiveLeaderboard leaderboard = leaderboardRegistry.get(hackathonId);
+            leaderboard.reconcile(submissionRepository.findIdsByHackathonId(hackathonId));
+            List<LeaderboardStanding> standings = leaderboard.page(offset, limit);
+            if (standings.isEmpty()) {
+                return new LeaderboardPage(etag, entries);
+            }
+
+            List<Long> ids = new ArrayList<>(standings.size());
+            for (LeaderboardStanding standing : standings) {
+                ids.add(standing.getSubmissionId());
+            }
+            Map<Long, SubmissionSummary> summaries = new HashMap<>();
+            for (SubmissionSummary summary : submissionRepository.findSummariesByIdIn(ids)) {
+                summaries.put(summary.getId(), summary);
+            }
+
+            for (LeaderboardStanding standing : standings) {
+                SubmissionSummary summary = summaries.get(standing.getSubmissionId());
+                entries.add(LeaderboardEntryDto.builder()
+                        .rank(standing.getRank())
+                        .score(standing.getScore())
+                        .submissionId(standing.getSubmissionId())
+                        .title(summary != null ? summary.getTitle() : null)
+                        .teamName(summary != null ? summary.getTeamName() : null)
+                        .build());
+            }
+            logger.INFO("Built leaderboard page with " + entries.size() + " entries for hackathon " + hackathonId);
+            return new LeaderboardPage(etag, entries);
+
+        } catch (Exception e) {
+            logger.ERROR("Failed to get leaderboard page for hackathon " + hackathonId + ": " + e.getMessage());
+            throw e;
+        }
+    }
+
+    @Override
+    public List<LeaderboardStanding> getLeaderboardTop(Long hackathonId, int k) {
+        logger.INFO("HackathonService.getLeaderboardTop() - Getting top " + k + " for hackathon: " + hackathonId);
+
+        try {
+            if (!isLeaderboardVisible(hackathonId)) {
+                logger.DEBUG("Leaderboard hidden for hackathon {}", hackathonId);
+                return new ArrayList<>();
+            }
+            return leaderboardRegistry.get(hackathonId).top(k);
+        } catch (Exception e) {
+            logger.ERROR("Failed to get leaderboard top for hackathon " + hackathonId + ": " + e.getMessage());
+            throw e;
+        }
+    }
+
+    @Override
+    public LeaderboardStanding getLeaderboardStanding(Long hackathonId, Long submissionId) {
+        logger.INFO("HackathonService.getLeaderboardStanding() - Getting rank of submission " + submissionId + " in hackathon: " + hackathonId);
+
+        try {
+            if (!isLeaderboardVisible(hackathonId)) {
+                logger.ERROR("Leaderboard not available for hackathon " + hackathonId);
+                throw new RuntimeException("Leaderboard not available");
+            }
+            LiveLeaderboard leaderboard = leaderboardRegistry.get(hackathonId);
+            LeaderboardStanding standing = leaderboard.standing(submissionId);
+            if (standing == null && submissionRepository.existsByIdAndHackathon_Id(submissionId, hackathonId)) {
+                // Submitted after the leaderboard was built; scores are recorded live, so it has none yet
+                leaderboard.addSubmission(submissionId);
+                standing = leaderboard.standing(submissionId);
+            }
+            if (standing == null) {
+                logger.ERROR("Submission " + submissionId + " not found in hackathon " + hackathonId);
+                throw new RuntimeException("Submission not found");
+            }
+            return standing;
+        } catch (Exception e) {
+            logger.ERROR("Failed to get leaderboard standing - hackathonId: " + hackathonId + ", submissionId: " + submissionId + ", error: " + e.getMessage());
+            throw e;
+        }
+    }
+
+    private boolean isLeaderboardVisible(Long hackathonId) {
+        Hackathon hackathon = hackathonRepository.findById(Math.toIntExact(hackathonId))
+                .orElseThrow(() -> {
+                    logger.ERROR("Hackathon not found with ID: " + hackathonId);
+                    return new RuntimeException("Hackathon not found");
+                });
+        return hackathon.getStatus().equals("Judging") || hackathon.getStatus().equals("Completed");
+    }
+
 }
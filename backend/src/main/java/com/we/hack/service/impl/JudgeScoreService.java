@@ -3,8 +3,13 @@ package com.we.hack.service.impl;
 import com.we.hack.dto.JudgeScoreRequest;
 import com.we.hack.model.*;
 import com.we.hack.repository.*;
-import com.we.hack.service.bridge.JudgeScoreEvaluator;
-import com.we.hack.service.bridge.ScoreEvaluator;
+import com.we.hack.service.analytics.ActivityRecorder;
+import com.we.hack.service.analytics.ActivityType;
+import com.we.hack.service.leaderboard.ColumnarScoreStore;
+import com.we.hack.service.leaderboard.LeaderboardCache;
+import com.we.hack.service.leaderboard.LeaderboardRegistry;
+import com.we.hack.service.leaderboard.LeaderboardStreamService;
+import com.we.hack.service.leaderboard.ScoreColumns;
 import com.we.hack.service.logger.Logger;
 import com.we.hack.service.strategy.*;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -38,10 +43,24 @@ public class JudgeScoreService {
     @Autowired
     private HackathonRepository hackathonRepository;
 
+    @Autowired
+    private ColumnarScoreStore scoreStore;
+
+    @Autowired
+    private LeaderboardRegistry leaderboardRegistry;
+
+    @Autowired
+    private LeaderboardCache leaderboardCache;
+
+    @Autowired
+    private LeaderboardStreamService leaderboardStreamService;
+
+    @Autowired
+    private ActivityRecorder activityRecorder;
+
     public void submitScore(JudgeScoreRequest request) {
         logger.INFO("JudgeScoreService.submitScore() - Submitting score for submission: " + request.getSubmissionId());
-        logger.DEBUG("Score details: judgeId=" + request.getJudgeId() + ", innovation=" + request.getInnovation() + 
-                    ", impact=" + request.getImpact() + ", execution=" + request.getExecution());
+        logger.DEBUG(() -> "Score details: judgeId=" + request.getJudgeId() + ", innovation=" + request.getInnovation() + ", impact=" + request.getImpact() + ", execution=" + request.getExecution());
         
         try {
             Submission submission = submissionRepository.findById(request.getSubmissionId())
@@ -56,7 +75,7 @@ public class JudgeScoreService {
                         return new RuntimeException("Judge not found");
                     });
 
-            logger.DEBUG("Found submission: " + submission.getTitle() + " by judge: " + judge.getEmail());
+            logger.DEBUG(() -> "Found submission: " + submission.getTitle() + " by judge: " + judge.getEmail());
 
             JudgeScore score = new JudgeScore();
             score.setSubmission(submission);
@@ -68,6 +87,12 @@ public class JudgeScoreService {
             JudgeScore savedScore = judgeScoreRepository.save(score);
             logger.INFO("Score submitted successfully - scoreId: " + savedScore.getId() + ", submissionId: " + 
                        request.getSubmissionId() + ", judgeId: " + request.getJudgeId());
+
+            scoreStore.append(savedScore);
+            leaderboardRegistry.recordScore(savedScore);
+            leaderboardCache.invalidate(submission.getHackathon().getId());
+            leaderboardStreamService.markDirty(submission.getHackathon().getId());
+            activityRecorder.record(submission.getHackathon().getId(), ActivityType.SCORE);
             
         } catch (Exception e) {
             logger.ERROR("Failed to submit score - submissionId: " + request.getSubmissionId() + 
@@ -88,27 +113,26 @@ public class JudgeScoreService {
                     });
 
             Hackathon hackathon = submission.getHackathon();
-            logger.DEBUG("Found submission: " + submission.getTitle() + " in hackathon: " + hackathon.getTitle());
-            logger.DEBUG("Using scoring method: " + hackathon.getScoringMethod());
+            logger.DEBUG(() -> "Found submission: " + submission.getTitle() + " in hackathon: " + hackathon.getTitle());
+            logger.DEBUG(() -> "Using scoring method: " + hackathon.getScoringMethod());
 
             // Get strategy using Strategy pattern
             ScoringStrategy strategy = getStrategy(hackathon.getScoringMethod());
 
-            List<JudgeScore> allScores = judgeScoreRepository.findBySubmission(submission);
-            logger.DEBUG("Found " + allScores.size() + " judge scores for submission " + submissionId);
+            // Scores come from the hackathon's in-memory columns, not from JudgeScore entities
+            ScoreColumns scores = scoreStore.get(hackathon);
+            int scoreCount = scores.countFor(submissionId);
+            logger.DEBUG("Found {} judge scores for submission {}", scoreCount, submissionId);
 
-            if (allScores.isEmpty()) {
+            if (scoreCount == 0) {
                 logger.WARN("No scores found for submission " + submissionId + " - returning 0.0");
                 return 0.0;
             }
 
-            // Use Bridge pattern for score evaluation
-            logger.DEBUG("Using Bridge pattern with JudgeScoreEvaluator for final score calculation");
-            ScoreEvaluator evaluator = new JudgeScoreEvaluator(strategy);
-            double finalScore = evaluator.evaluate(allScores);
+            double finalScore = scores.finalScore(submissionId, strategy);
             
             logger.INFO("Final score calculated for submission " + submissionId + ": " + finalScore + 
-                       " (based on " + allScores.size() + " judge scores)");
+                       " (based on " + scoreCount + " judge scores)");
             
             return finalScore;
             
@@ -120,7 +144,7 @@ public class JudgeScoreService {
     }
 
     private ScoringStrategy getStrategy(ScoringMethod method) {
-        logger.DEBUG("JudgeScoreService.getStrategy() - Getting scoring strategy for method: " + method);
+        logger.DEBUG("JudgeScoreService.getStrategy() - Getting scoring strategy for method: {}", method);
         
         try {
             ScoringStrategy strategy = switch (method) {
@@ -138,7 +162,7 @@ public class JudgeScoreService {
                 }
             };
             
-            logger.DEBUG("Strategy created successfully: " + strategy.getClass().getSimpleName());
+            logger.DEBUG(() -> "Strategy created successfully: " + strategy.getClass().getSimpleName());
             return strategy;
             
         } catch (Exception e) {
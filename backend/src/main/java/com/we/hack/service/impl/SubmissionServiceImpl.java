@@ -3,6 +3,7 @@ package com.we.hack.service.impl;
 import com.we.hack.dto.SubmissionDto;
 import com.we.hack.mapper.SubmissionMapper;
 import com.we.hack.model.Hackathon;
+import com.we.hack.model.ProcessingStatus;
 import com.we.hack.model.Submission;
 import com.we.hack.model.Team;
 import com.we.hack.model.User;
@@ -12,21 +13,25 @@ import com.we.hack.repository.TeamRepository;
 import com.we.hack.repository.UserRepository;
 import com.we.hack.service.SubmissionService;
 import com.we.hack.service.adapter.MailServiceAdapter;
+import com.we.hack.service.analytics.ActivityRecorder;
+import com.we.hack.service.analytics.ActivityType;
 import com.we.hack.service.builder.Submission.SubmissionBuilder;
 import com.we.hack.service.builder.Submission.ConcreteSubmissionBuilder;
 import com.we.hack.service.iterator.CollectionFactory;
 import com.we.hack.service.iterator.Iterator;
+import com.we.hack.service.leaderboard.LeaderboardCache;
 import com.we.hack.service.logger.Logger;
 import com.we.hack.service.memento.SubmissionHistoryManager;
 import com.we.hack.service.memento.SubmissionMemento;
 import com.we.hack.service.ObserverNotification.UnifiedNotificationService;
+import com.we.hack.service.storage.FileProcessingPipeline;
+import com.we.hack.service.storage.UploadStorage;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationContext;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
@@ -71,15 +76,45 @@ public class SubmissionServiceImpl implements SubmissionService {
     @Autowired
     private UnifiedNotificationService unifiedNotificationService;
 
-    // This is only for builder pattern so not in the SubmissionService Interface and so now Overridden
+    @Autowired
+    private LeaderboardCache leaderboardCache;
+
+    @Autowired
+    private ActivityRecorder activityRecorder;
+
+    @Autowired
+    private UploadStorage uploadStorage;
+
+    @Autowired
+    private FileProcessingPipeline fileProcessingPipeline;
+
+    @Override
     @Transactional
     public Submission createFinalSubmission(SubmissionBuilder builder,
                                             Long userId,
                                             int hackathonId,
                                             MultipartFile file)
             throws RuntimeException {
+        return createSubmission(builder, userId, hackathonId, file, null);
+    }
+
+    @Override
+    @Transactional
+    public Submission createFinalSubmission(SubmissionBuilder builder,
+                                            Long userId,
+                                            int hackathonId,
+                                            UploadStorage.StagedUpload upload)
+            throws RuntimeException {
+        return createSubmission(builder, userId, hackathonId, null, upload);
+    }
+
+    private Submission createSubmission(SubmissionBuilder builder,
+                                        Long userId,
+                                        int hackathonId,
+                                        MultipartFile file,
+                                        UploadStorage.StagedUpload chunkedUpload) {
         logger.INFO("SubmissionService.createFinalSubmission() - Creating submission for user " + userId + " in hackathon " + hackathonId);
-        logger.DEBUG("Parameters: hasFile=" + (file != null && !file.isEmpty()) + ", fileSize=" + (file != null ? file.getSize() : 0));
+        logger.DEBUG(() -> "Parameters: hasFile=" + (file != null && !file.isEmpty()) + ", fileSize=" + (file != null ? file.getSize() : 0));
         
         try {
             User user = userRepository.findById(userId)
@@ -100,7 +135,7 @@ public class SubmissionServiceImpl implements SubmissionService {
                         return new IllegalArgumentException("User is not in any team");
                     });
 
-            logger.DEBUG("Found team: " + team.getName() + " (ID: " + team.getId() + ") for user " + user.getEmail());
+            logger.DEBUG(() -> "Found team: " + team.getName() + " (ID: " + team.getId() + ") for user " + user.getEmail());
 
             // Use Builder pattern for consistent construction
             Submission submission = builder
@@ -110,38 +145,48 @@ public class SubmissionServiceImpl implements SubmissionService {
                     .setHackathon(hackathon)
                     .build();
 
-            logger.DEBUG("Built submission using builder pattern: " + submission.getTitle());
+            if (logger.isDebugEnabled()) {
+                logger.DEBUG("Built submission using builder pattern: " + submission.getTitle());
+            }
 
-            // Handle file upload if present
-            if (file != null && !file.isEmpty()) {
+            // Stage the upload (size-checked and hashed while streaming) and validate; the file is
+            // moved into storage by the processing pipeline once the submission is committed
+            UploadStorage.StagedUpload upload = chunkedUpload;
+            if (upload == null && file != null && !file.isEmpty()) {
                 logger.INFO("Processing file upload: " + file.getOriginalFilename());
-                try {
-                    String uploadDir = System.getProperty("user.dir") + "/uploads/";
-                    File dir = new File(uploadDir);
-                    if (!dir.exists()) {
-                        logger.DEBUG("Creating uploads directory");
-                        dir.mkdirs();
-                    }
-
-                    String path = uploadDir + System.currentTimeMillis() + "_" + file.getOriginalFilename();
-                    file.transferTo(new File(path));
-                    submission.setFilePath("uploads/" + new File(path).getName());
-                    logger.DEBUG("File uploaded successfully to: " + submission.getFilePath());
-                } catch (IOException e) {
-                    logger.ERROR("File upload failed: " + e.getMessage());
-                    throw new RuntimeException("File upload failed", e);
-                }
-            } else {
+                upload = stage(file);
+            } else if (upload == null) {
                 logger.DEBUG("No file provided with submission");
+            } else {
+                logger.INFO("Attaching chunked upload: " + upload.getOriginalFilename());
+            }
+            try {
+                logger.DEBUG("Validating submission");
+                validateSubmission(userId, hackathonId, submission, file);
+            } catch (RuntimeException e) {
+                // A chunked upload stays with its service so the commit can be retried
+                if (upload != null && upload != chunkedUpload) {
+                    upload.close();
+                }
+                throw e;
+            }
+            if (upload != null) {
+                submission.setFilePath(upload.storedPath());
+                submission.setOriginalFilename(upload.getOriginalFilename());
+                submission.setProcessingStatus(ProcessingStatus.PENDING);
             }
-
-            // Validate submission
-            logger.DEBUG("Validating submission");
-            validateSubmission(userId, hackathonId, submission, file);
 
             // Save submission
             submission = submissionRepository.save(submission);
             logger.INFO("Submission saved with ID: " + submission.getId());
+            if (upload != null) {
+                fileProcessingPipeline.submit(submission.getId(), upload);
+                if (logger.isDebugEnabled()) {
+                    logger.DEBUG("File of submission " + submission.getId() + " queued for processing as " + submission.getFilePath());
+                }
+            }
+            leaderboardCache.invalidate(hackathon.getId());
+            activityRecorder.record(hackathon.getId(), ActivityType.SUBMISSION);
 
             // Update team with submission
             team.setSubmission(submission);
@@ -150,7 +195,7 @@ public class SubmissionServiceImpl implements SubmissionService {
 
             // Create memento for history management
             submissionHistoryManager.push(team.getId(), submission.createMemento());
-            logger.DEBUG("Submission memento created for team " + team.getId());
+            logger.DEBUG(() -> "Submission memento created for team " + team.getId());
 
             logger.INFO("Final submission created successfully for user " + userId + " in hackathon " + hackathonId);
             return submission;
@@ -162,6 +207,15 @@ public class SubmissionServiceImpl implements SubmissionService {
         }
     }
 
+    private UploadStorage.StagedUpload stage(MultipartFile file) {
+        try {
+            return uploadStorage.stage(file);
+        } catch (IOException e) {
+            logger.ERROR("File upload failed: " + e.getMessage());
+            throw new RuntimeException("File upload failed", e);
+        }
+    }
+
     @Override
     public List<SubmissionDto> listSubmissions(Hackathon hackathon, Team team){
         logger.INFO("SubmissionService.listSubmissions() - Listing submissions for team " + team.getName() + " in hackathon " + hackathon.getTitle());
@@ -187,7 +241,7 @@ public class SubmissionServiceImpl implements SubmissionService {
     @Override
     public Submission saveSubmission(Long userId, int hackathonId, Submission submission) {
         logger.INFO("SubmissionService.saveSubmission() - Saving submission for user " + userId + " in hackathon " + hackathonId);
-        logger.DEBUG("Submission title: " + submission.getTitle());
+        logger.DEBUG(() -> "Submission title: " + submission.getTitle());
         
         try {
             User user = userRepository.findById(userId)
@@ -208,7 +262,7 @@ public class SubmissionServiceImpl implements SubmissionService {
                         return new IllegalArgumentException("User is not in any team");
                     });
 
-            logger.DEBUG("Setting submission relationships: user=" + user.getEmail() + ", team=" + team.getName() + ", hackathon=" + hackathon.getTitle());
+            logger.DEBUG(() -> "Setting submission relationships: user=" + user.getEmail() + ", team=" + team.getName() + ", hackathon=" + hackathon.getTitle());
 
             submission.setUser(user);
             submission.setHackathon(hackathon);
@@ -219,6 +273,8 @@ public class SubmissionServiceImpl implements SubmissionService {
 
             Submission savedSubmission = submissionRepository.save(submission);
             logger.INFO("Submission saved successfully with ID: " + savedSubmission.getId());
+            leaderboardCache.invalidate(hackathon.getId());
+            activityRecorder.record(hackathon.getId(), ActivityType.SUBMISSION);
             
             return savedSubmission;
             
@@ -230,7 +286,7 @@ public class SubmissionServiceImpl implements SubmissionService {
 
     @Override
     public Submission validateSubmission(Long userId, int hackathonId, Submission submission, MultipartFile file) {
-        logger.DEBUG("SubmissionService.validateSubmission() - Validating submission for user " + userId + " in hackathon " + hackathonId);
+        logger.DEBUG("SubmissionService.validateSubmission() - Validating submission for user {} in hackathon {}", userId, hackathonId);
         // Not responsible for validation, so just return back
         // validation implemented by proxy
         logger.DEBUG("Validation passed through to proxy pattern implementation");
@@ -240,7 +296,7 @@ public class SubmissionServiceImpl implements SubmissionService {
     @Override
     public Submission editSubmission(int hackathonId, Long userId, Long submissionId, String title, String description, String projectUrl, MultipartFile file) {
         logger.INFO("SubmissionService.editSubmission() - Editing submission " + submissionId + " for user " + userId + " in hackathon " + hackathonId);
-        logger.DEBUG("New values: title=" + title + ", hasNewFile=" + (file != null && !file.isEmpty()) + ", projectUrl=" + (projectUrl != null ? projectUrl : "null"));
+        logger.DEBUG(() -> "New values: title=" + title + ", hasNewFile=" + (file != null && !file.isEmpty()) + ", projectUrl=" + (projectUrl != null ? projectUrl : "null"));
         
         try {
             Submission oldSubmission = submissionRepository.findById(submissionId)
@@ -256,7 +312,7 @@ public class SubmissionServiceImpl implements SubmissionService {
             }
 
             Team team = oldSubmission.getTeam();
-            logger.DEBUG("Found existing submission: " + oldSubmission.getTitle() + " for team " + team.getName());
+            logger.DEBUG(() -> "Found existing submission: " + oldSubmission.getTitle() + " for team " + team.getName());
 
             // Check membership in the team
             Long teamId = team.getId();
@@ -265,7 +321,7 @@ public class SubmissionServiceImpl implements SubmissionService {
                 throw new RuntimeException("User is not a member of this team");
             }
 
-            logger.DEBUG("User membership verified for team " + teamId);
+            logger.DEBUG("User membership verified for team {}", teamId);
 
             // Use Builder pattern for consistent construction and validation
             logger.DEBUG("Building updated submission using builder pattern");
@@ -280,29 +336,26 @@ public class SubmissionServiceImpl implements SubmissionService {
 
             Submission submissionNew = builder.build();
 
-            // Handle file upload
+            // Handle file upload, stored relative to the working directory like new submissions
+            UploadStorage.StagedUpload upload = null;
             if (file != null && !file.isEmpty()) {
                 logger.INFO("Processing new file upload for submission edit: " + file.getOriginalFilename());
+                upload = stage(file);
                 try {
-                    String uploadDir = System.getProperty("user.dir") + "/uploads/";
-                    File directory = new File(uploadDir);
-                    if (!directory.exists()) {
-                        logger.DEBUG("Creating uploads directory");
-                        directory.mkdirs();
-                    }
-
-                    String filePath = uploadDir + System.currentTimeMillis() + "_" + file.getOriginalFilename();
-                    file.transferTo(new File(filePath));
-                    submissionNew.setFilePath(filePath);
-                    logger.DEBUG("New file uploaded successfully to: " + filePath);
-                } catch (IOException e) {
-                    logger.ERROR("Failed to upload file during edit: " + e.getMessage());
-                    throw new RuntimeException("Failed to upload file", e);
+                    validateSubmission(userId, hackathonId, submissionNew, file);
+                } catch (RuntimeException e) {
+                    upload.close();
+                    throw e;
                 }
+                submissionNew.setFilePath(upload.storedPath());
+                submissionNew.setOriginalFilename(upload.getOriginalFilename());
+                submissionNew.setProcessingStatus(ProcessingStatus.PENDING);
             } else {
                 // Preserve existing file path if no new file uploaded
                 submissionNew.setFilePath(oldSubmission.getFilePath());
-                logger.DEBUG("Preserving existing file path: " + oldSubmission.getFilePath());
+                submissionNew.setOriginalFilename(oldSubmission.getOriginalFilename());
+                submissionNew.setProcessingStatus(oldSubmission.getProcessingStatus());
+                logger.DEBUG(() -> "Preserving existing file path: " + oldSubmission.getFilePath());
             }
 
             // Set the ID to update existing submission
@@ -310,6 +363,14 @@ public class SubmissionServiceImpl implements SubmissionService {
 
             submissionNew = submissionRepository.save(submissionNew);
             logger.INFO("Submission " + submissionId + " updated successfully");
+            if (upload != null) {
+                fileProcessingPipeline.submit(submissionId, upload);
+                if (logger.isDebugEnabled()) {
+                    logger.DEBUG("New file of submission " + submissionId + " queued for processing as " + submissionNew.getFilePath());
+                }
+            }
+            leaderboardCache.invalidate(oldSubmission.getHackathon().getId());
+            activityRecorder.record(oldSubmission.getHackathon().getId(), ActivityType.EDIT);
 
             team.setSubmission(submissionNew);
             teamRepository.save(team);
@@ -330,6 +391,7 @@ public class SubmissionServiceImpl implements SubmissionService {
         }
     }
 
+    @Override
     @Transactional
     public Submission undoLastEdit(Long teamId, Long submissionId, Long hackathonId) {
         logger.INFO("SubmissionService.undoLastEdit() - Undoing last edit for submission " + submissionId + " in team " + teamId);
@@ -362,7 +424,13 @@ public class SubmissionServiceImpl implements SubmissionService {
 
             logger.DEBUG("Retrieved memento from history - restoring submission state");
             submission.restore(memento);
+            if (submission.getFilePath() != null && uploadStorage.exists(submission.getFilePath())) {
+                // The memento does not carry the status; a file that exists has been processed
+                submission.setProcessingStatus(ProcessingStatus.READY);
+            }
             Submission saved = submissionRepository.save(submission);
+            leaderboardCache.invalidate(hackathonId);
+            activityRecorder.record(hackathonId, ActivityType.EDIT);
 
             team.setSubmission(saved);
             teamRepository.save(team);
@@ -382,17 +450,17 @@ public class SubmissionServiceImpl implements SubmissionService {
      */
     public void notifyOrganizer(Hackathon hackathon, User organizer, List<String> recipients, String subject, String content) {
         logger.INFO("SubmissionService.notifyOrganizer() - Notifying organizer about submission using unified notification service");
-        logger.DEBUG("Recipients count: " + recipients.size() + ", subject: " + subject + ", hackathon: " + hackathon.getTitle());
+        logger.DEBUG(() -> "Recipients count: " + recipients.size() + ", subject: " + subject + ", hackathon: " + hackathon.getTitle());
         
         try {
             // Send individual notifications using decorator pattern (Email + Slack if enabled)
             for (String recipient : recipients) {
-                logger.DEBUG("Sending notification to: " + recipient);
+                logger.DEBUG("Sending notification to: {}", recipient);
                 unifiedNotificationService.sendNotification(hackathon, organizer, recipient, subject, content);
             }
             
             // Also send to organizer using decorator pattern
-            logger.DEBUG("Sending notification to organizer: " + organizer.getEmail());
+            logger.DEBUG(() -> "Sending notification to organizer: " + organizer.getEmail());
             unifiedNotificationService.sendNotification(hackathon, organizer, organizer.getEmail(), subject, content);
             
             logger.INFO("Organizer notification complete for " + recipients.size() + " recipients using unified notification service");
@@ -409,7 +477,7 @@ public class SubmissionServiceImpl implements SubmissionService {
      */
     public void broadcastSubmissionUpdate(Hackathon hackathon, String subject, String content) {
         logger.INFO("SubmissionService.broadcastSubmissionUpdate() - Broadcasting submission update for hackathon: " + hackathon.getTitle());
-        logger.DEBUG("Subject: " + subject);
+        logger.DEBUG("Subject: {}", subject);
         
         try {
             int hackathonId = Math.toIntExact(hackathon.getId());
@@ -443,7 +511,7 @@ public class SubmissionServiceImpl implements SubmissionService {
         try {
             Submission submission = submissionRepository.findById(submissionId).orElse(null);
             if (submission != null) {
-                logger.DEBUG("Found submission: " + submission.getTitle());
+                logger.DEBUG(() -> "Found submission: " + submission.getTitle());
             } else {
                 logger.WARN("Submission not found with ID: " + submissionId);
             }
@@ -494,7 +562,7 @@ public class SubmissionServiceImpl implements SubmissionService {
                 throw new RuntimeException("Cannot set primary submission during " + hackathon.getStatus().toLowerCase() + " phase");
             }
             
-            logger.DEBUG("Clearing existing primary submission for team " + team.getId() + " in hackathon " + hackathon.getId());
+            logger.DEBUG(() -> "Clearing existing primary submission for team " + team.getId() + " in hackathon " + hackathon.getId());
             
             // Clear existing primary for this team
             submissionRepository.clearPrimaryForTeamInHackathon(team.getId(), hackathon.getId());
@@ -502,6 +570,7 @@ public class SubmissionServiceImpl implements SubmissionService {
             // Set this submission as primary
             submission.setPrimary(true);
             Submission savedSubmission = submissionRepository.save(submission);
+            leaderboardCache.invalidate(hackathon.getId());
             
             logger.INFO("Successfully set submission " + submissionId + " as primary for team " + team.getId() + " in hackathon " + hackathon.getId());
             return savedSubmission;
@@ -0,0 +1,19 @@
+package com.we.hack.service.leaderboard;
+
+import com.we.hack.model.Submission;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * A computed leaderboard and the strong ETag it is served with. The ETag is null when the
+ * result may already be out of date and must not be cached by clients.
+ */
+@Getter
+@AllArgsConstructor
+public class CachedLeaderboard {
+    private final long version;
+    private final String etag;
+    private final List<Submission> submissions;
+}
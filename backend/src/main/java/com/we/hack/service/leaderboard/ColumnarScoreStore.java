@@ -0,0 +1,104 @@
+package com.we.hack.service.leaderboard;
+
+import com.we.hack.dto.JudgeScoreRow;
+import com.we.hack.model.Hackathon;
+import com.we.hack.model.JudgeScore;
+import com.we.hack.repository.JudgeScoreRepository;
+import com.we.hack.service.logger.Logger;
+import com.we.hack.service.state.HackathonTransitionListener;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory {@link ScoreColumns} per hackathon in judging. Columns are loaded with one
+ * projection query when judging starts (or on first use) and then appended to as judges
+ * submit scores, so final scores and leaderboards are computed without loading JudgeScore
+ * entities. They are dropped when the hackathon leaves judging; other hackathons get
+ * freshly loaded columns that are not kept.
+ */
+@Service
+public class ColumnarScoreStore implements HackathonTransitionListener {
+
+    private static Logger logger;
+
+    static {
+        try {
+            logger = Logger.getInstance(100);
+        } catch (IOException e) {
+            System.err.println("Failed to initialize logger: " + e.getMessage());
+        }
+    }
+
+    @Autowired
+    private JudgeScoreRepository judgeScoreRepository;
+
+    private final Map<Long, ScoreColumns> columns = new ConcurrentHashMap<>();
+
+    public ScoreColumns get(Hackathon hackathon) {
+        if ("Judging".equals(hackathon.getStatus())) {
+            return columns.computeIfAbsent(hackathon.getId(), this::load);
+        }
+        ScoreColumns cached = columns.get(hackathon.getId());
+        return cached != null ? cached : load(hackathon.getId());
+    }
+
+    @Override
+    public void onTransition(Hackathon hackathon, String fromState, String toState) {
+        if (!"Judging".equals(toState)) {
+            invalidate(hackathon.getId());
+        }
+    }
+
+    /**
+     * Appends a saved score to its hackathon's columns, if they are loaded. Columns that are
+     * being loaded read the score from the database instead; appending it twice is harmless.
+     */
+    public void append(JudgeScore score) {
+        Long hackathonId = score.getSubmission().getHackathon().getId();
+        columns.computeIfPresent(hackathonId, (id, store) -> {
+            store.append(score.getId(), score.getSubmission().getId(), score.getJudge().getId(),
+                    score.getInnovation(), score.getImpact(), score.getExecution());
+            return store;
+        });
+    }
+
+    /**
+     * Drops the hackathon's columns, and inside a transaction again after completion (see
+     * {@link LeaderboardRegistry#invalidate}).
+     */
+    public void invalidate(Long hackathonId) {
+        drop(hackathonId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    drop(hackathonId);
+                }
+            });
+        }
+    }
+
+    private void drop(Long hackathonId) {
+        if (columns.remove(hackathonId) != null) {
+            logger.DEBUG("Dropped score columns for hackathon {}", hackathonId);
+        }
+    }
+
+    private ScoreColumns load(Long hackathonId) {
+        long start = System.nanoTime();
+        ScoreColumns store = new ScoreColumns();
+        for (JudgeScoreRow row : judgeScoreRepository.findScoreRowsByHackathonId(hackathonId)) {
+            store.append(row.getId(), row.getSubmissionId(), row.getJudgeId(),
+                    row.getInnovation(), row.getImpact(), row.getExecution());
+        }
+        logger.INFO("Loaded " + store.size() + " scores for hackathon " + hackathonId + " into "
+                + store.memoryBytes() + " bytes of columns in " + (System.nanoTime() - start) / 1_000_000 + "ms");
+        return store;
+    }
+}
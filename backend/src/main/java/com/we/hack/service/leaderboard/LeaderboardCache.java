@@ -0,0 +1,129 @@
+package com.we.hack.service.leaderboard;
+
+import com.we.hack.model.Hackathon;
+import com.we.hack.model.Submission;
+import com.we.hack.service.state.HackathonTransitionListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Computed leaderboards keyed by hackathon and a per-hackathon version counter. Anything
+ * that can change a leaderboard (scores, submissions, primary flags, state transitions)
+ * bumps the version, which both drops the cached result and changes the ETag, so a
+ * poll with a current {@code If-None-Match} is answered from the counter alone.
+ */
+@Service
+public class LeaderboardCache implements HackathonTransitionListener {
+
+    // Part of every ETag, so tags handed out before a restart never match
+    private final String bootEpoch = Long.toString(System.currentTimeMillis(), 36);
+
+    private final Map<Long, AtomicLong> versions = new ConcurrentHashMap<>();
+    private final Map<Long, CachedLeaderboard> entries = new ConcurrentHashMap<>();
+    // Latest status announced by a state transition, possibly not yet saved
+    private final Map<Long, String> announcedStatus = new ConcurrentHashMap<>();
+
+    public long version(Long hackathonId) {
+        AtomicLong version = versions.get(hackathonId);
+        return version == null ? 0 : version.get();
+    }
+
+    public String etag(Long hackathonId) {
+        return etag(hackathonId, version(hackathonId));
+    }
+
+    /**
+     * The cached leaderboard, or null if there is none for the current version.
+     */
+    public CachedLeaderboard get(Long hackathonId) {
+        CachedLeaderboard entry = entries.get(hackathonId);
+        return entry != null && entry.getVersion() == version(hackathonId) ? entry : null;
+    }
+
+    /**
+     * Caches a leaderboard computed from data read after {@code version} was taken.
+     * A result computed while a state transition was still being saved, or after the version
+     * moved on, is returned without an ETag and not cached.
+     */
+    public CachedLeaderboard put(Long hackathonId, long version, String status, List<Submission> submissions) {
+        // A stale result is never served from the cache, and keeping it would recreate the
+        // entry of a hackathon that was deleted meanwhile
+        if (version != version(hackathonId) || !isSettled(hackathonId, status)) {
+            return new CachedLeaderboard(version, null, submissions);
+        }
+        CachedLeaderboard entry = new CachedLeaderboard(version, etag(hackathonId, version), submissions);
+        entries.merge(hackathonId, entry, (old, fresh) -> fresh.getVersion() >= old.getVersion() ? fresh : old);
+        return entry;
+    }
+
+    /**
+     * Moves the hackathon to a new version. Inside a transaction the version moves again after
+     * commit, so a reader that recomputed from uncommitted-away data cannot keep its result.
+     */
+    public void invalidate(Long hackathonId) {
+        bump(hackathonId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    bump(hackathonId);
+                }
+            });
+        }
+    }
+
+    /**
+     * Drops everything kept for a deleted hackathon once the deleting transaction commits,
+     * after the version bumps registered by {@link #invalidate}; right away outside of one.
+     */
+    public void forget(Long hackathonId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            remove(hackathonId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    remove(hackathonId);
+                }
+            }
+        });
+    }
+
+    /**
+     * Whether {@code status}, as read from the database, is the hackathon's latest status,
+     * i.e. no state transition is still waiting to be saved.
+     */
+    public boolean isSettled(Long hackathonId, String status) {
+        String announced = announcedStatus.get(hackathonId);
+        return announced == null || announced.equals(status);
+    }
+
+    @Override
+    public void onTransition(Hackathon hackathon, String fromState, String toState) {
+        announcedStatus.put(hackathon.getId(), toState);
+        invalidate(hackathon.getId());
+    }
+
+    private void bump(Long hackathonId) {
+        versions.computeIfAbsent(hackathonId, id -> new AtomicLong()).incrementAndGet();
+        entries.remove(hackathonId);
+    }
+
+    private void remove(Long hackathonId) {
+        versions.remove(hackathonId);
+        entries.remove(hackathonId);
+        announcedStatus.remove(hackathonId);
+    }
+
+    public String etag(Long hackathonId, long version) {
+        return "\"lb-" + bootEpoch + "-" + hackathonId + "-" + version + "\"";
+    }
+}
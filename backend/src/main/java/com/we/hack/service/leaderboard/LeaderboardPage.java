@@ -0,0 +1,17 @@
+package com.we.hack.service.leaderboard;
+
+import com.we.hack.dto.LeaderboardEntryDto;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * One page of a leaderboard and its ETag, null when the page must not be cached.
+ */
+@Getter
+@AllArgsConstructor
+public class LeaderboardPage {
+    private final String etag;
+    private final List<LeaderboardEntryDto> entries;
+}
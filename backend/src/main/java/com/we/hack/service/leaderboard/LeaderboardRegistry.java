@@ -0,0 +1,131 @@
+package com.we.hack.service.leaderboard;
+
+import com.we.hack.model.Hackathon;
+import com.we.hack.model.JudgeScore;
+import com.we.hack.model.ScoringMethod;
+import com.we.hack.model.Submission;
+import com.we.hack.repository.HackathonRepository;
+import com.we.hack.repository.SubmissionRepository;
+import com.we.hack.service.logger.Logger;
+import com.we.hack.service.strategy.ScoringStrategy;
+import com.we.hack.service.strategy.SimpleAverageStrategy;
+import com.we.hack.service.strategy.WeightedAverageStrategy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Holds one {@link LiveLeaderboard} per hackathon. A leaderboard is built from the hackathon's
+ * {@link ScoreColumns} the first time it is needed and then kept current from
+ * {@link #recordScore(JudgeScore)};
+ * dropping it with {@link #invalidate(Long)} makes the next read rebuild it.
+ */
+@Service
+public class LeaderboardRegistry {
+
+    private static Logger logger;
+
+    static {
+        try {
+            logger = Logger.getInstance(100);
+        } catch (IOException e) {
+            System.err.println("Failed to initialize logger: " + e.getMessage());
+        }
+    }
+
+    @Autowired
+    private HackathonRepository hackathonRepository;
+
+    @Autowired
+    private SubmissionRepository submissionRepository;
+
+    @Autowired
+    private ColumnarScoreStore scoreStore;
+
+    private final Map<Long, LiveLeaderboard> leaderboards = new ConcurrentHashMap<>();
+
+    public LiveLeaderboard get(Long hackathonId) {
+        return leaderboards.computeIfAbsent(hackathonId, this::load);
+    }
+
+    /**
+     * Applies a saved score to its hackathon's leaderboard, if one is loaded. A leaderboard
+     * that is being rebuilt picks the score up from the database instead; recording it twice
+     * is harmless.
+     */
+    public void recordScore(JudgeScore score) {
+        Submission submission = score.getSubmission();
+        double judgeScore = getStrategy(submission.getHackathon().getScoringMethod())
+                .score(score.getInnovation(), score.getImpact(), score.getExecution());
+        leaderboards.computeIfPresent(submission.getHackathon().getId(), (id, leaderboard) -> {
+            leaderboard.record(score.getId(), submission.getId(),
+                    score.getInnovation(), score.getImpact(), score.getExecution(), judgeScore);
+            return leaderboard;
+        });
+    }
+
+    /**
+     * Drops the hackathon's leaderboard. Inside a transaction it is dropped again after
+     * completion, so one rebuilt meanwhile from data the transaction is removing is not kept.
+     */
+    public void invalidate(Long hackathonId) {
+        drop(hackathonId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    drop(hackathonId);
+                }
+            });
+        }
+    }
+
+    private void drop(Long hackathonId) {
+        if (leaderboards.remove(hackathonId) != null) {
+            logger.DEBUG("Dropped live leaderboard for hackathon {}", hackathonId);
+        }
+    }
+
+    // Build leaderboards of hackathons in judging up front, so the first poll does not pay for it
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            for (Hackathon hackathon : hackathonRepository.findByStatus("Judging")) {
+                get(hackathon.getId());
+            }
+        } catch (Exception e) {
+            logger.ERROR("Failed to warm up leaderboards: " + e.getMessage());
+        }
+    }
+
+    private LiveLeaderboard load(Long hackathonId) {
+        long start = System.nanoTime();
+        Hackathon hackathon = hackathonRepository.findById(hackathonId.intValue())
+                .orElseThrow(() -> new RuntimeException("Hackathon not found"));
+
+        LiveLeaderboard leaderboard = new LiveLeaderboard();
+        for (Long submissionId : submissionRepository.findIdsByHackathonId(hackathonId)) {
+            leaderboard.addSubmission(submissionId);
+        }
+        scoreStore.get(hackathon).forEach(getStrategy(hackathon.getScoringMethod()),
+                (scoreId, submissionId, judgeId, innovation, impact, execution, judgeScore) ->
+                        leaderboard.record(scoreId, submissionId, innovation, impact, execution, judgeScore));
+        logger.INFO("Built live leaderboard for hackathon " + hackathonId + " with " + leaderboard.size()
+                + " submissions in " + (System.nanoTime() - start) / 1_000_000 + "ms");
+        return leaderboard;
+    }
+
+    private ScoringStrategy getStrategy(ScoringMethod method) {
+        return switch (method) {
+            case WEIGHTED_AVERAGE -> new WeightedAverageStrategy();
+            case SIMPLE_AVERAGE -> new SimpleAverageStrategy();
+        };
+    }
+}
@@ -0,0 +1,412 @@
+package com.we.hack.service.leaderboard;
+
+import com.we.hack.dto.LeaderboardStanding;
+import com.we.hack.model.Hackathon;
+import com.we.hack.repository.HackathonRepository;
+import com.we.hack.service.logger.Logger;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Server-Sent Events stream of leaderboard changes per hackathon.
+ * <p>
+ * A subscriber first receives a {@code snapshot} event with every standing, then {@code delta}
+ * events that carry only the submissions whose rank or score changed. Scores only mark their
+ * hackathon dirty; one scheduler thread flushes dirty hackathons once per window, so a burst of
+ * scores becomes a single frame per client. Connections are held by async servlet requests
+ * ({@link SseEmitter}), so idle subscribers cost no threads.
+ * <p>
+ * The scheduler only computes frames. Each subscriber has its own queue of at most
+ * {@code leaderboard.stream.max-pending} frames, written in order by one of
+ * {@code leaderboard.stream.send-threads} sender threads, so a slow client delays nobody else.
+ * A subscriber whose queue overflows, or whose current write has been blocked for longer than
+ * {@code leaderboard.stream.write-timeout-ms}, is dropped; it can reconnect and start again
+ * from a snapshot. A hackathon's channel is removed with its last subscriber.
+ */
+@Service
+public class LeaderboardStreamService {
+
+    private static Logger logger;
+
+    static {
+        try {
+            logger = Logger.getInstance(100);
+        } catch (IOException e) {
+            System.err.println("Failed to initialize logger: " + e.getMessage());
+        }
+    }
+
+    @Autowired
+    private LeaderboardRegistry leaderboardRegistry;
+
+    @Autowired
+    private HackathonRepository hackathonRepository;
+
+    @Value("${leaderboard.stream.window-ms:250}")
+    private long windowMillis;
+
+    @Value("${leaderboard.stream.heartbeat-ms:25000}")
+    private long heartbeatMillis;
+
+    @Value("${leaderboard.stream.timeout-ms:1800000}")
+    private long timeoutMillis;
+
+    @Value("${leaderboard.stream.send-threads:4}")
+    private int sendThreads;
+
+    @Value("${leaderboard.stream.max-pending:16}")
+    private int maxPending;
+
+    @Value("${leaderboard.stream.write-timeout-ms:10000}")
+    private long writeTimeoutMillis;
+
+    private final Map<Long, Channel> channels = new ConcurrentHashMap<>();
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+    private ScheduledExecutorService scheduler;
+    private ExecutorService sender;
+
+    @PostConstruct
+    public void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "leaderboard-stream");
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger counter = new AtomicInteger();
+        sender = Executors.newFixedThreadPool(sendThreads, runnable -> {
+            Thread thread = new Thread(runnable, "leaderboard-stream-send-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::flushDirty, windowMillis, windowMillis, TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(this::heartbeat, heartbeatMillis, heartbeatMillis, TimeUnit.MILLISECONDS);
+        long stallCheck = Math.max(windowMillis, writeTimeoutMillis / 2);
+        scheduler.scheduleWithFixedDelay(this::dropStalled, stallCheck, stallCheck, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+        sender.shutdownNow();
+        for (Channel channel : channels.values()) {
+            channel.close();
+        }
+    }
+
+    public SseEmitter subscribe(Long hackathonId) {
+        Hackathon hackathon = hackathonRepository.findById(Math.toIntExact(hackathonId))
+                .orElseThrow(() -> new RuntimeException("Hackathon not found"));
+        if (!hackathon.getStatus().equals("Judging") && !hackathon.getStatus().equals("Completed")) {
+            throw new RuntimeException("Leaderboard not available");
+        }
+
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber;
+        Channel channel;
+        do {
+            // A channel losing its last subscriber right now is closed; a fresh one replaces it
+            channel = channels.computeIfAbsent(hackathonId, Channel::new);
+            subscriber = new Subscriber(emitter, channel);
+        } while (!channel.add(subscriber));
+        Subscriber added = subscriber;
+        emitter.onCompletion(() -> added.drop(null));
+        emitter.onTimeout(() -> added.drop(null));
+        emitter.onError(error -> added.drop(null));
+        logger.DEBUG("Leaderboard stream subscriber added for hackathon {}", hackathonId);
+        return emitter;
+    }
+
+    /**
+     * Called after scores or submissions change, or the hackathon is deleted. The change goes
+     * out with the first window after the current transaction commits, so it is visible then.
+     */
+    public void markDirty(Long hackathonId) {
+        if (!channels.containsKey(hackathonId)) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    dirty.add(hackathonId);
+                }
+            });
+        } else {
+            dirty.add(hackathonId);
+        }
+    }
+
+    private void flushDirty() {
+        for (Long hackathonId : new ArrayList<>(dirty)) {
+            dirty.remove(hackathonId);
+            Channel channel = channels.get(hackathonId);
+            if (channel == null) {
+                continue;
+            }
+            try {
+                if (!hackathonRepository.existsById(Math.toIntExact(hackathonId))) {
+                    // Deleted: nothing left to rank, so the stream ends
+                    channel.close();
+                    continue;
+                }
+                channel.flush();
+            } catch (Exception e) {
+                logger.ERROR("Failed to stream leaderboard changes for hackathon " + hackathonId + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private void heartbeat() {
+        for (Channel channel : channels.values()) {
+            channel.heartbeat();
+        }
+    }
+
+    private void dropStalled() {
+        long now = System.currentTimeMillis();
+        for (Channel channel : channels.values()) {
+            channel.dropStalled(now);
+        }
+    }
+
+    /**
+     * One event to write: a named event with data, or a comment.
+     */
+    private record Frame(String name, Object data, String comment) {
+
+        SseEmitter.SseEventBuilder toEvent() {
+            // Builders are stateful, so every subscriber gets its own
+            return comment != null ? SseEmitter.event().comment(comment) : SseEmitter.event().name(name).data(data);
+        }
+    }
+
+    /**
+     * Subscribers of one hackathon and the standings they were last sent. Subscribing and
+     * flushing hold the channel lock and queue their frames under it, so a new subscriber
+     * never misses a delta; nothing under the lock waits for a client.
+     */
+    private final class Channel {
+        private final Long hackathonId;
+        private final List<Subscriber> subscribers = new ArrayList<>();
+        private Map<Long, LeaderboardStanding> lastSent = new HashMap<>();
+        private long sequence;
+        // Set once the channel has left the map; subscribers must then use a new one
+        private boolean closed;
+
+        Channel(Long hackathonId) {
+            this.hackathonId = hackathonId;
+        }
+
+        synchronized boolean add(Subscriber subscriber) {
+            if (closed) {
+                return false;
+            }
+            List<LeaderboardStanding> standings = currentStandings();
+            if (subscribers.isEmpty()) {
+                // Nothing was flushed while nobody listened, start diffing from this snapshot
+                lastSent = toMap(standings);
+            }
+            subscribers.add(subscriber);
+            subscriber.offer(new Frame("snapshot", Map.of("sequence", sequence, "standings", standings), null));
+            return true;
+        }
+
+        synchronized void remove(Subscriber subscriber) {
+            subscribers.remove(subscriber);
+            if (subscribers.isEmpty() && !closed) {
+                closed = true;
+                channels.remove(hackathonId, this);
+            }
+        }
+
+        synchronized void flush() {
+            if (subscribers.isEmpty()) {
+                return;
+            }
+            Map<Long, LeaderboardStanding> current = toMap(currentStandings());
+            List<LeaderboardStanding> changes = new ArrayList<>();
+            for (LeaderboardStanding standing : current.values()) {
+                LeaderboardStanding previous = lastSent.get(standing.getSubmissionId());
+                if (previous == null || previous.getRank() != standing.getRank()
+                        || Double.compare(previous.getScore(), standing.getScore()) != 0) {
+                    changes.add(standing);
+                }
+            }
+            Set<Long> removed = new HashSet<>(lastSent.keySet());
+            removed.removeAll(current.keySet());
+            lastSent = current;
+            if (changes.isEmpty() && removed.isEmpty()) {
+                return;
+            }
+
+            sequence++;
+            Frame delta = new Frame("delta", Map.of("sequence", sequence, "changes", changes, "removed", removed), null);
+            for (Subscriber subscriber : new ArrayList<>(subscribers)) {
+                if (!subscriber.offer(delta)) {
+                    subscriber.drop("more than " + maxPending + " frames behind");
+                }
+            }
+        }
+
+        synchronized void heartbeat() {
+            Frame keepAlive = new Frame(null, null, "keep-alive");
+            for (Subscriber subscriber : new ArrayList<>(subscribers)) {
+                // A subscriber with frames queued gets traffic anyway
+                subscriber.offerIfIdle(keepAlive);
+            }
+        }
+
+        synchronized void dropStalled(long now) {
+            for (Subscriber subscriber : new ArrayList<>(subscribers)) {
+                if (subscriber.stalled(now)) {
+                    subscriber.drop("write blocked for more than " + writeTimeoutMillis + "ms");
+                }
+            }
+        }
+
+        synchronized void close() {
+            for (Subscriber subscriber : new ArrayList<>(subscribers)) {
+                subscriber.drop("stream closed");
+            }
+            closed = true;
+            channels.remove(hackathonId, this);
+        }
+
+        private List<LeaderboardStanding> currentStandings() {
+            LiveLeaderboard leaderboard = leaderboardRegistry.get(hackathonId);
+            return leaderboard.top(leaderboard.size());
+        }
+
+        private Map<Long, LeaderboardStanding> toMap(List<LeaderboardStanding> standings) {
+            Map<Long, LeaderboardStanding> map = new LinkedHashMap<>(standings.size() * 2);
+            for (LeaderboardStanding standing : standings) {
+                map.put(standing.getSubmissionId(), standing);
+            }
+            return map;
+        }
+    }
+
+    /**
+     * One client: its queued frames and whether a sender thread is writing them.
+     */
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final Channel channel;
+        private final ArrayDeque<Frame> pending = new ArrayDeque<>();
+        private boolean draining;
+        private boolean dropped;
+        // When the write in progress started, 0 while none is
+        private volatile long writingSince;
+
+        Subscriber(SseEmitter emitter, Channel channel) {
+            this.emitter = emitter;
+            this.channel = channel;
+        }
+
+        /**
+         * Queues a frame and makes sure a sender thread writes it.
+         *
+         * @return false if the queue is full
+         */
+        synchronized boolean offer(Frame frame) {
+            if (dropped) {
+                return true;
+            }
+            if (pending.size() >= maxPending) {
+                return false;
+            }
+            pending.add(frame);
+            if (!draining) {
+                draining = true;
+                sender.execute(this::drain);
+            }
+            return true;
+        }
+
+        synchronized void offerIfIdle(Frame frame) {
+            if (!draining) {
+                offer(frame);
+            }
+        }
+
+        boolean stalled(long now) {
+            long since = writingSince;
+            return since != 0 && now - since > writeTimeoutMillis;
+        }
+
+        /**
+         * Stops streaming to this client. A write in progress cannot be interrupted, so the
+         * sender thread ends the response once it returns; otherwise it is ended here.
+         *
+         * @param reason logged and sent as the error, or null when the client already went away
+         */
+        void drop(String reason) {
+            boolean writing;
+            synchronized (this) {
+                if (dropped) {
+                    return;
+                }
+                dropped = true;
+                pending.clear();
+                writing = draining;
+            }
+            channel.remove(this);
+            if (reason != null) {
+                logger.DEBUG("Dropping leaderboard stream subscriber of hackathon {}: {}", channel.hackathonId, reason);
+                if (!writing) {
+                    emitter.complete();
+                }
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                Frame frame;
+                synchronized (this) {
+                    frame = dropped ? null : pending.poll();
+                    if (frame == null) {
+                        draining = false;
+                        if (dropped) {
+                            break;
+                        }
+                        return;
+                    }
+                }
+                writingSince = System.currentTimeMillis();
+                try {
+                    emitter.send(frame.toEvent());
+                } catch (IOException | IllegalStateException e) {
+                    drop(e.getMessage());
+                    emitter.completeWithError(e);
+                    return;
+                } finally {
+                    writingSince = 0;
+                }
+            }
+            // Dropped while this thread was writing
+            emitter.complete();
+        }
+    }
+}
@@ -0,0 +1,320 @@
+package com.we.hack.service.leaderboard;
+
+import com.we.hack.dto.LeaderboardStanding;
+import com.we.hack.service.bridge.JudgeScoreEvaluator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Leaderboard of one hackathon, kept up to date as judges score submissions.
+ * <p>
+ * Submissions sit in an order statistic treap ordered by final score (highest first, ties by
+ * submission id), so recording a score, looking up a rank or selecting the top k costs
+ * O(log n) (plus k). Callers pass each judge's score already computed by the hackathon's
+ * scoring strategy; the final score is their average in score id order, computed by
+ * {@link JudgeScoreEvaluator#average}, so it is identical to a full recomputation.
+ */
+public class LiveLeaderboard {
+
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final Set<Long> scoreIds = new HashSet<>();
+    private final Random random = new Random();
+    private Node root;
+
+    /**
+     * Adds a submission that has no scores yet. Does nothing if it is already ranked.
+     */
+    public synchronized void addSubmission(Long submissionId) {
+        if (!entries.containsKey(submissionId)) {
+            Entry entry = new Entry(submissionId);
+            entries.put(submissionId, entry);
+            insert(entry);
+        }
+    }
+
+    public synchronized void removeSubmission(Long submissionId) {
+        Entry entry = entries.remove(submissionId);
+        if (entry != null) {
+            detach(entry);
+            for (int i = 0; i < entry.count; i++) {
+                scoreIds.remove(entry.scoreIds[i]);
+            }
+        }
+    }
+
+    /**
+     * Applies one judge score and moves its submission to its new position.
+     *
+     * @return false if the score was already recorded
+     */
+    public synchronized boolean record(long scoreId, Long submissionId,
+                                       int innovation, int impact, int execution, double judgeScore) {
+        if (!scoreIds.add(scoreId)) {
+            return false;
+        }
+        Entry entry = entries.get(submissionId);
+        if (entry == null) {
+            entry = new Entry(submissionId);
+            entries.put(submissionId, entry);
+        } else {
+            detach(entry);
+        }
+        entry.add(scoreId, innovation, impact, execution, judgeScore);
+        entry.score = JudgeScoreEvaluator.average(entry.judgeScores, 0, entry.count);
+        insert(entry);
+        return true;
+    }
+
+    /**
+     * 1-based rank of a submission, or -1 if it is not on the leaderboard.
+     */
+    public synchronized int rank(Long submissionId) {
+        Entry entry = entries.get(submissionId);
+        if (entry == null) {
+            return -1;
+        }
+        int before = 0;
+        Node node = root;
+        while (node != null) {
+            int cmp = compare(entry.score, submissionId, node);
+            if (cmp == 0) {
+                return before + size(node.left) + 1;
+            }
+            if (cmp < 0) {
+                node = node.left;
+            } else {
+                before += size(node.left) + 1;
+                node = node.right;
+            }
+        }
+        return -1;
+    }
+
+    public synchronized LeaderboardStanding standing(Long submissionId) {
+        Entry entry = entries.get(submissionId);
+        return entry == null ? null : entry.toStanding(rank(submissionId));
+    }
+
+    /**
+     * Standings of the best {@code k} submissions, best first.
+     */
+    public synchronized List<LeaderboardStanding> top(int k) {
+        return page(0, k);
+    }
+
+    /**
+     * Standings at ranks {@code offset + 1} to {@code offset + limit}. Subtree sizes let the
+     * walk skip the first {@code offset} entries, so a page costs O(log n + limit).
+     */
+    public synchronized List<LeaderboardStanding> page(int offset, int limit) {
+        List<LeaderboardStanding> result = new ArrayList<>(Math.max(0, Math.min(limit, entries.size() - offset)));
+        collect(root, offset, offset, limit, result);
+        return result;
+    }
+
+    /**
+     * Brings the ranked submissions in line with {@code submissionIds}: new submissions are
+     * added without scores and deleted ones dropped.
+     */
+    public synchronized void reconcile(Collection<Long> submissionIds) {
+        Set<Long> current = new HashSet<>(submissionIds);
+        if (current.size() == entries.size() && entries.keySet().containsAll(current)) {
+            return;
+        }
+        for (Long id : new ArrayList<>(entries.keySet())) {
+            if (!current.contains(id)) {
+                removeSubmission(id);
+            }
+        }
+        for (Long id : current) {
+            addSubmission(id);
+        }
+    }
+
+    /**
+     * Reconciles with {@code submissionIds} and returns them in leaderboard order.
+     */
+    public synchronized List<Long> ranking(Collection<Long> submissionIds) {
+        reconcile(submissionIds);
+        List<LeaderboardStanding> standings = top(entries.size());
+        List<Long> ids = new ArrayList<>(standings.size());
+        for (LeaderboardStanding standing : standings) {
+            ids.add(standing.getSubmissionId());
+        }
+        return ids;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    // ---- treap ----
+
+    // In-order walk that skips the first `skip` entries of the subtree and stops after `limit`
+    private void collect(Node node, int skip, int offset, int limit, List<LeaderboardStanding> out) {
+        if (node == null || out.size() >= limit) {
+            return;
+        }
+        int leftSize = size(node.left);
+        if (skip < leftSize) {
+            collect(node.left, skip, offset, limit, out);
+        }
+        if (out.size() >= limit) {
+            return;
+        }
+        if (skip <= leftSize) {
+            out.add(node.entry.toStanding(offset + out.size() + 1));
+        }
+        collect(node.right, Math.max(0, skip - leftSize - 1), offset, limit, out);
+    }
+
+    private void insert(Entry entry) {
+        Node node = new Node(entry, random.nextInt());
+        Node[] parts = split(root, entry.score, entry.submissionId);
+        root = merge(merge(parts[0], node), parts[1]);
+    }
+
+    private void detach(Entry entry) {
+        Node[] parts = split(root, entry.score, entry.submissionId);
+        // The entry is the smallest key of the right part
+        Node[] rest = splitFirst(parts[1]);
+        root = merge(parts[0], rest[1]);
+    }
+
+    // Orders (score, id) against a node: higher scores first, then lower ids
+    private static int compare(double score, Long submissionId, Node node) {
+        int cmp = Double.compare(node.score, score);
+        return cmp != 0 ? cmp : submissionId.compareTo(node.entry.submissionId);
+    }
+
+    /**
+     * Splits into keys ordered before (score, id) and keys at or after it.
+     */
+    private static Node[] split(Node node, double score, Long submissionId) {
+        if (node == null) {
+            return new Node[]{null, null};
+        }
+        if (compare(score, submissionId, node) > 0) {
+            Node[] parts = split(node.right, score, submissionId);
+            node.right = parts[0];
+            update(node);
+            return new Node[]{node, parts[1]};
+        }
+        Node[] parts = split(node.left, score, submissionId);
+        node.left = parts[1];
+        update(node);
+        return new Node[]{parts[0], node};
+    }
+
+    private static Node[] splitFirst(Node node) {
+        if (node == null) {
+            return new Node[]{null, null};
+        }
+        if (node.left == null) {
+            Node rest = node.right;
+            node.right = null;
+            update(node);
+            return new Node[]{node, rest};
+        }
+        Node[] parts = splitFirst(node.left);
+        node.left = parts[1];
+        update(node);
+        return new Node[]{parts[0], node};
+    }
+
+    private static Node merge(Node a, Node b) {
+        if (a == null) {
+            return b;
+        }
+        if (b == null) {
+            return a;
+        }
+        if (a.priority > b.priority) {
+            a.right = merge(a.right, b);
+            update(a);
+            return a;
+        }
+        b.left = merge(a, b.left);
+        update(b);
+        return b;
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static void update(Node node) {
+        node.size = 1 + size(node.left) + size(node.right);
+    }
+
+    private static final class Node {
+        final Entry entry;
+        // Key snapshot: an entry is detached before its score changes
+        final double score;
+        final int priority;
+        int size = 1;
+        Node left;
+        Node right;
+
+        Node(Entry entry, int priority) {
+            this.entry = entry;
+            this.score = entry.score;
+            this.priority = priority;
+        }
+    }
+
+    private static final class Entry {
+        final Long submissionId;
+        // Judge scores in score id order, the order the scoreboard evaluates them in
+        long[] scoreIds = new long[4];
+        double[] judgeScores = new double[4];
+        int count;
+        long innovationSum;
+        long impactSum;
+        long executionSum;
+        double score;
+
+        Entry(Long submissionId) {
+            this.submissionId = submissionId;
+        }
+
+        void add(long scoreId, int innovation, int impact, int execution, double judgeScore) {
+            if (count == scoreIds.length) {
+                scoreIds = Arrays.copyOf(scoreIds, count * 2);
+                judgeScores = Arrays.copyOf(judgeScores, count * 2);
+            }
+            int at = count;
+            while (at > 0 && scoreIds[at - 1] > scoreId) {
+                at--;
+            }
+            System.arraycopy(scoreIds, at, scoreIds, at + 1, count - at);
+            System.arraycopy(judgeScores, at, judgeScores, at + 1, count - at);
+            scoreIds[at] = scoreId;
+            judgeScores[at] = judgeScore;
+            count++;
+            innovationSum += innovation;
+            impactSum += impact;
+            executionSum += execution;
+        }
+
+        LeaderboardStanding toStanding(int rank) {
+            return LeaderboardStanding.builder()
+                    .submissionId(submissionId)
+                    .rank(rank)
+                    .score(score)
+                    .judgeCount(count)
+                    .innovationAverage(count == 0 ? 0.0 : (double) innovationSum / count)
+                    .impactAverage(count == 0 ? 0.0 : (double) impactSum / count)
+                    .executionAverage(count == 0 ? 0.0 : (double) executionSum / count)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.we.hack.service.leaderboard;
+
+import com.we.hack.service.bridge.JudgeScoreEvaluator;
+import com.we.hack.service.strategy.ScoringStrategy;
+
+import java.util.Arrays;
+
+/**
+ * Judge scores of one hackathon held column-wise and sorted by submission id, then score id, so
+ * the scores of one submission are adjacent and found with a binary search. A score takes
+ * {@value #BYTES_PER_SCORE} bytes of array space (score id, submission id, judge id and the
+ * three criteria), against several hundred for a loaded JudgeScore entity with its
+ * submission, judge and persistence context bookkeeping.
+ */
+public class ScoreColumns {
+
+    static final int BYTES_PER_SCORE = 8 + 8 + 4 + 4 + 4 + 4;
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private long[] scoreIds = new long[INITIAL_CAPACITY];
+    private long[] submissionIds = new long[INITIAL_CAPACITY];
+    private int[] judgeIds = new int[INITIAL_CAPACITY];
+    private int[] innovation = new int[INITIAL_CAPACITY];
+    private int[] impact = new int[INITIAL_CAPACITY];
+    private int[] execution = new int[INITIAL_CAPACITY];
+    private int size;
+
+    /**
+     * Adds a score in its submission's run, keeping the run in score id order.
+     *
+     * @return false if a score with this id is already stored
+     */
+    public synchronized boolean append(long scoreId, long submissionId, int judgeId,
+                                       int innovationScore, int impactScore, int executionScore) {
+        int at = search(submissionId, scoreId);
+        if (at >= 0) {
+            return false;
+        }
+        at = -at - 1;
+        if (size == scoreIds.length) {
+            grow();
+        }
+        if (at < size) {
+            // A block move of the rows after it; no per-row work
+            int tail = size - at;
+            System.arraycopy(scoreIds, at, scoreIds, at + 1, tail);
+            System.arraycopy(submissionIds, at, submissionIds, at + 1, tail);
+            System.arraycopy(judgeIds, at, judgeIds, at + 1, tail);
+            System.arraycopy(innovation, at, innovation, at + 1, tail);
+            System.arraycopy(impact, at, impact, at + 1, tail);
+            System.arraycopy(execution, at, execution, at + 1, tail);
+        }
+        scoreIds[at] = scoreId;
+        submissionIds[at] = submissionId;
+        judgeIds[at] = judgeId;
+        innovation[at] = innovationScore;
+        impact[at] = impactScore;
+        execution[at] = executionScore;
+        size++;
+        return true;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized int countFor(long submissionId) {
+        int from = firstRow(submissionId);
+        return firstRow(submissionId + 1) - from;
+    }
+
+    /**
+     * Final score of one submission: the average of its judges' scores in score id order,
+     * or 0 if it has none. Equal to {@link JudgeScoreEvaluator#evaluate} over the same scores.
+     * Costs a binary search plus the submission's own scores.
+     */
+    public synchronized double finalScore(long submissionId, ScoringStrategy strategy) {
+        int from = firstRow(submissionId);
+        int to = from;
+        while (to < size && submissionIds[to] == submissionId) {
+            to++;
+        }
+        double[] judgeScores = new double[to - from];
+        for (int i = from; i < to; i++) {
+            judgeScores[i - from] = strategy.score(innovation[i], impact[i], execution[i]);
+        }
+        return JudgeScoreEvaluator.average(judgeScores, 0, judgeScores.length);
+    }
+
+    /**
+     * Scores every stored judge score in one batch and passes each to {@code consumer}, grouped
+     * by submission and in score id order within each submission.
+     */
+    public synchronized void forEach(ScoringStrategy strategy, ScoreConsumer consumer) {
+        double[] judgeScores = new double[size];
+        strategy.scoreAll(innovation, impact, execution, judgeScores);
+        for (int i = 0; i < size; i++) {
+            consumer.accept(scoreIds[i], submissionIds[i], judgeIds[i],
+                    innovation[i], impact[i], execution[i], judgeScores[i]);
+        }
+    }
+
+    /**
+     * Bytes held by the column arrays, including spare capacity.
+     */
+    public synchronized long memoryBytes() {
+        return (long) scoreIds.length * BYTES_PER_SCORE;
+    }
+
+    private void grow() {
+        int capacity = scoreIds.length + (scoreIds.length >> 1);
+        scoreIds = Arrays.copyOf(scoreIds, capacity);
+        submissionIds = Arrays.copyOf(submissionIds, capacity);
+        judgeIds = Arrays.copyOf(judgeIds, capacity);
+        innovation = Arrays.copyOf(innovation, capacity);
+        impact = Arrays.copyOf(impact, capacity);
+        execution = Arrays.copyOf(execution, capacity);
+    }
+
+    // Index of the row with this key, or -(insertion point) - 1 like Arrays.binarySearch
+    private int search(long submissionId, long scoreId) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int order = submissionIds[mid] != submissionId
+                    ? Long.compare(submissionIds[mid], submissionId)
+                    : Long.compare(scoreIds[mid], scoreId);
+            if (order < 0) {
+                low = mid + 1;
+            } else if (order > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    // First row whose submission id is not below the given one
+    private int firstRow(long submissionId) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (submissionIds[mid] < submissionId) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    @FunctionalInterface
+    public interface ScoreConsumer {
+        void accept(long scoreId, long submissionId, int judgeId,
+                    int innovation, int impact, int execution, double judgeScore);
+    }
+}
@@ -0,0 +1,139 @@
+package com.we.hack.service.logger;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Sparse time to offset index kept next to each log segment ({@code <segment>.idx}).
+ * Every entry is two longs: the epoch second of a record and its byte offset in the segment.
+ * The writer adds an entry roughly every {@code wehack.logger.index-interval-bytes} bytes.
+ */
+final class LogIndex implements Closeable {
+
+    static final int ENTRY_BYTES = 16;
+
+    private final FileChannel channel;
+    private final ByteBuffer entry = ByteBuffer.allocate(ENTRY_BYTES);
+    private long lastOffset = -1;
+
+    LogIndex(Path segment) throws IOException {
+        channel = FileChannel.open(indexPath(segment),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long entries = channel.size() / ENTRY_BYTES;
+        // Drop a torn trailing entry left by a crash, then continue appending
+        channel.truncate(entries * ENTRY_BYTES);
+        channel.position(entries * ENTRY_BYTES);
+        if (entries > 0) {
+            ByteBuffer last = ByteBuffer.allocate(ENTRY_BYTES);
+            channel.read(last, (entries - 1) * ENTRY_BYTES);
+            lastOffset = last.getLong(8);
+        }
+    }
+
+    static Path indexPath(Path segment) {
+        return Paths.get(segment.toString() + ".idx");
+    }
+
+    boolean isDue(long offset, long interval) {
+        return lastOffset < 0 || offset - lastOffset >= interval;
+    }
+
+    void add(long epochSecond, long offset) throws IOException {
+        if (epochSecond < 0) {
+            return;
+        }
+        entry.clear();
+        entry.putLong(epochSecond).putLong(offset).flip();
+        while (entry.hasRemaining()) {
+            channel.write(entry);
+        }
+        lastOffset = offset;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Maps a segment's index read-only as pairs of longs, or returns null when the segment has none.
+     */
+    static LongBuffer map(Path segment) throws IOException {
+        Path index = indexPath(segment);
+        if (!Files.exists(index)) {
+            return null;
+        }
+        try (FileChannel ch = FileChannel.open(index, StandardOpenOption.READ)) {
+            long usable = (ch.size() / ENTRY_BYTES) * ENTRY_BYTES;
+            if (usable == 0) {
+                return null;
+            }
+            return ch.map(FileChannel.MapMode.READ_ONLY, 0, usable).asLongBuffer();
+        }
+    }
+
+    /**
+     * First entry whose time is at or after {@code epochSecond}, or the entry count if none is.
+     */
+    static int lowerBound(LongBuffer index, long epochSecond) {
+        int low = 0;
+        int high = index.limit() / 2;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (index.get(mid * 2) < epochSecond) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Parses the "yyyy-MM-dd HH:mm:ss" timestamp that follows the level tag of a record.
+     *
+     * @return the epoch second, or -1 if the bytes do not start with a record header
+     */
+    static long epochSecondOf(byte[] bytes, int start, int end) {
+        int close = -1;
+        for (int i = start; i < Math.min(end, start + 10); i++) {
+            if (bytes[i] == ']') {
+                close = i;
+                break;
+            }
+        }
+        int ts = close + 2;
+        if (bytes[start] != '[' || close < 0 || ts + 19 > end) {
+            return -1;
+        }
+        try {
+            LocalDateTime time = LocalDateTime.of(
+                    digits(bytes, ts, 4), digits(bytes, ts + 5, 2), digits(bytes, ts + 8, 2),
+                    digits(bytes, ts + 11, 2), digits(bytes, ts + 14, 2), digits(bytes, ts + 17, 2));
+            return time.atZone(ZoneId.systemDefault()).toEpochSecond();
+        } catch (RuntimeException e) {
+            return -1;
+        }
+    }
+
+    private static int digits(byte[] bytes, int from, int count) {
+        int value = 0;
+        for (int i = from; i < from + count; i++) {
+            int d = bytes[i] - '0';
+            if (d < 0 || d > 9) {
+                throw new NumberFormatException("Not a digit");
+            }
+            value = value * 10 + d;
+        }
+        return value;
+    }
+}
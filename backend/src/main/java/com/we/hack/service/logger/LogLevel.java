@@ -0,0 +1,13 @@
+package com.we.hack.service.logger;
+
+/**
+ * Severity of a log record, from least to most severe. Records below the logger's
+ * current level are discarded before any formatting happens.
+ */
+public enum LogLevel {
+    DEBUG,
+    INFO,
+    WARN,
+    ERROR,
+    SEVERE
+}
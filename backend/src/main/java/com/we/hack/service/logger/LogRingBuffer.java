@@ -0,0 +1,80 @@
+package com.we.hack.service.logger;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free ring buffer for many producers and a single consumer.
+ * Every slot carries a sequence number: producers claim a slot with a CAS on the tail and
+ * publish it by advancing the slot's sequence, the consumer releases it the same way.
+ */
+final class LogRingBuffer {
+
+    private final int capacity;
+    private final int mask;
+    private final AtomicLongArray sequences;
+    private final AtomicReferenceArray<String> slots;
+    private final AtomicLong tail = new AtomicLong();
+
+    // Only ever touched by the writer thread
+    private long head;
+
+    LogRingBuffer(int requestedCapacity) {
+        int cap = 2;
+        while (cap < requestedCapacity) {
+            cap <<= 1;
+        }
+        this.capacity = cap;
+        this.mask = cap - 1;
+        this.sequences = new AtomicLongArray(cap);
+        this.slots = new AtomicReferenceArray<>(cap);
+        for (int i = 0; i < cap; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Tries to enqueue a record without blocking.
+     *
+     * @return false if the buffer is full
+     */
+    boolean offer(String record) {
+        while (true) {
+            long t = tail.get();
+            int index = (int) (t & mask);
+            long diff = sequences.get(index) - t;
+            if (diff == 0) {
+                if (tail.compareAndSet(t, t + 1)) {
+                    slots.lazySet(index, record);
+                    sequences.lazySet(index, t + 1);
+                    return true;
+                }
+            } else if (diff < 0) {
+                return false;
+            }
+            // Another producer claimed this slot first, retry with the new tail
+        }
+    }
+
+    /**
+     * Dequeues the oldest published record. Must only be called from the writer thread.
+     *
+     * @return the record, or null if nothing is published yet
+     */
+    String poll() {
+        int index = (int) (head & mask);
+        if (sequences.get(index) != head + 1) {
+            return null;
+        }
+        String record = slots.get(index);
+        slots.lazySet(index, null);
+        sequences.lazySet(index, head + capacity);
+        head++;
+        return record;
+    }
+
+    int capacity() {
+        return capacity;
+    }
+}
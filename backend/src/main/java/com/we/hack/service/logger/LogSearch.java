@@ -0,0 +1,229 @@
+package com.we.hack.service.logger;
+
+import java.io.IOException;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Query over the rolling log segments. The sparse index narrows every segment down to the
+ * byte range that can hold the requested time window; only that range is memory-mapped and
+ * scanned, and only matching records are decoded into strings.
+ */
+final class LogSearch {
+
+    private static final Pattern SEGMENT_NAME = Pattern.compile("log_(\\d{2}-\\d{2}-\\d{4})(?:\\.(\\d+))?\\.log");
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final String directory;
+    private final LocalDateTime from;
+    private final LocalDateTime to;
+    private final LogLevel minLevel;
+    private final byte[] needle;
+    private final byte[] fromText;
+    private final byte[] toText;
+    private final int limit;
+
+    LogSearch(String directory, LocalDateTime from, LocalDateTime to, LogLevel minLevel, String contains, int limit) {
+        this.directory = directory;
+        this.from = from;
+        this.to = to;
+        this.minLevel = minLevel;
+        this.needle = contains == null || contains.isEmpty() ? null : contains.getBytes(StandardCharsets.UTF_8);
+        this.fromText = TIMESTAMP.format(from).getBytes(StandardCharsets.US_ASCII);
+        this.toText = TIMESTAMP.format(to).getBytes(StandardCharsets.US_ASCII);
+        this.limit = limit;
+    }
+
+    List<String> run() throws IOException {
+        List<String> matches = new ArrayList<>();
+        for (Path segment : segments()) {
+            scanSegment(segment, matches);
+            if (matches.size() >= limit) {
+                break;
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Segments whose day overlaps the window, oldest first.
+     */
+    private List<Path> segments() throws IOException {
+        Path dir = Paths.get(directory);
+        if (!Files.isDirectory(dir)) {
+            return new ArrayList<>();
+        }
+        LocalDate firstDay = from.toLocalDate();
+        LocalDate lastDay = to.toLocalDate();
+        List<SegmentFile> found = new ArrayList<>();
+        try (Stream<Path> files = Files.list(dir)) {
+            files.forEach(file -> {
+                Matcher m = SEGMENT_NAME.matcher(file.getFileName().toString());
+                if (!m.matches()) {
+                    return;
+                }
+                LocalDate day = LocalDate.parse(m.group(1), LogSegments.FILE_DATE);
+                if (day.isBefore(firstDay) || day.isAfter(lastDay)) {
+                    return;
+                }
+                int number = m.group(2) == null ? 0 : Integer.parseInt(m.group(2));
+                found.add(new SegmentFile(day, number, file));
+            });
+        }
+        found.sort(Comparator.comparing((SegmentFile f) -> f.day).thenComparingInt(f -> f.number));
+        List<Path> result = new ArrayList<>(found.size());
+        for (SegmentFile f : found) {
+            result.add(f.path);
+        }
+        return result;
+    }
+
+    private void scanSegment(Path segment, List<String> matches) throws IOException {
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long start = 0;
+            long end = size;
+
+            LongBuffer index = LogIndex.map(segment);
+            if (index != null) {
+                int entries = index.limit() / 2;
+                long fromSecond = from.atZone(ZoneId.systemDefault()).toEpochSecond();
+                long toSecond = to.atZone(ZoneId.systemDefault()).toEpochSecond();
+                // Step one entry outwards on both sides: producers may publish slightly out of order
+                int first = LogIndex.lowerBound(index, fromSecond) - 1;
+                int last = LogIndex.lowerBound(index, toSecond + 1) + 1;
+                if (first >= 0) {
+                    start = Math.min(size, index.get(first * 2 + 1));
+                }
+                if (last < entries) {
+                    end = Math.min(size, index.get(last * 2 + 1));
+                }
+            }
+            if (start >= end) {
+                return;
+            }
+
+            MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+            byte[] line = new byte[512];
+            int length = 0;
+            boolean previousMatched = false;
+            while (region.hasRemaining()) {
+                byte b = region.get();
+                if (b != '\n') {
+                    if (length == line.length) {
+                        line = Arrays.copyOf(line, length * 2);
+                    }
+                    line[length++] = b;
+                    continue;
+                }
+                previousMatched = accept(line, length, previousMatched, matches);
+                length = 0;
+                if (matches.size() >= limit) {
+                    return;
+                }
+            }
+            // A trailing record without its newline is still being written, leave it out
+        }
+    }
+
+    /**
+     * Adds the line if it matches. Lines without a record header continue the previous record
+     * and follow its verdict.
+     *
+     * @return whether the line matched
+     */
+    private boolean accept(byte[] line, int length, boolean previousMatched, List<String> matches) {
+        int close = headerEnd(line, length);
+        boolean matched;
+        if (close < 0) {
+            matched = previousMatched;
+        } else {
+            LogLevel level = levelOf(line, close);
+            int ts = close + 2;
+            matched = level != null
+                    && level.ordinal() >= minLevel.ordinal()
+                    && compare(line, ts, fromText) >= 0
+                    && compare(line, ts, toText) <= 0
+                    && (needle == null || indexOf(line, length, needle) >= 0);
+        }
+        if (matched) {
+            matches.add(new String(line, 0, length, StandardCharsets.UTF_8));
+        }
+        return matched;
+    }
+
+    private static int headerEnd(byte[] line, int length) {
+        if (length < 22 || line[0] != '[') {
+            return -1;
+        }
+        for (int i = 1; i < Math.min(length, 10); i++) {
+            if (line[i] == ']') {
+                return i + 21 <= length ? i : -1;
+            }
+        }
+        return -1;
+    }
+
+    private static LogLevel levelOf(byte[] line, int close) {
+        String name = new String(line, 1, close - 1, StandardCharsets.US_ASCII);
+        for (LogLevel level : LogLevel.values()) {
+            if (level.name().equals(name)) {
+                return level;
+            }
+        }
+        return null;
+    }
+
+    // Timestamps are zero padded, so byte order is time order
+    private static int compare(byte[] line, int offset, byte[] bound) {
+        for (int i = 0; i < bound.length; i++) {
+            int diff = line[offset + i] - bound[i];
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        return 0;
+    }
+
+    private static int indexOf(byte[] haystack, int length, byte[] needle) {
+        outer:
+        for (int i = 0; i <= length - needle.length; i++) {
+            for (int j = 0; j < needle.length; j++) {
+                if (haystack[i + j] != needle[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    private static final class SegmentFile {
+        final LocalDate day;
+        final int number;
+        final Path path;
+
+        SegmentFile(LocalDate day, int number, Path path) {
+            this.day = day;
+            this.number = number;
+            this.path = path;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.we.hack.service.logger;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Naming and reading of log segments. Each day starts at {@code log_dd-MM-yyyy.log}; once a
+ * segment reaches the configured size the writer rolls over to {@code log_dd-MM-yyyy.1.log},
+ * {@code .2.log} and so on, so no single file grows without bound.
+ */
+final class LogSegments {
+
+    static final DateTimeFormatter FILE_DATE = DateTimeFormatter.ofPattern("dd-MM-yyyy");
+
+    private static final int READ_BLOCK = 8 * 1024;
+
+    private LogSegments() {}
+
+    static Path segmentPath(String directory, LocalDate date, int index) {
+        String base = "log_" + FILE_DATE.format(date);
+        return Paths.get(directory, index == 0 ? base + ".log" : base + "." + index + ".log");
+    }
+
+    /**
+     * Highest segment index that already exists for the day, or 0 if none does.
+     */
+    static int latestIndex(String directory, LocalDate date) {
+        int index = 0;
+        while (Files.exists(segmentPath(directory, date, index + 1))) {
+            index++;
+        }
+        return index;
+    }
+
+    /**
+     * Reads the last {@code count} records of a file by scanning backwards from the end with
+     * positional reads, so the cost depends on {@code count} and not on the file size.
+     */
+    static List<String> tail(Path file, int count) throws IOException {
+        if (count <= 0 || !Files.exists(file)) {
+            return new ArrayList<>();
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long position = channel.size();
+            Deque<byte[]> blocks = new ArrayDeque<>();
+            int newlines = 0;
+            int total = 0;
+            boolean trailingNewlineSkipped = false;
+            ByteBuffer buffer = ByteBuffer.allocate(READ_BLOCK);
+
+            // A record is complete once we have seen the newline that precedes it
+            while (position > 0 && newlines <= count) {
+                int length = (int) Math.min(READ_BLOCK, position);
+                position -= length;
+                buffer.clear().limit(length);
+                while (buffer.hasRemaining()) {
+                    if (channel.read(buffer, position + buffer.position()) < 0) {
+                        break;
+                    }
+                }
+                byte[] block = new byte[length];
+                buffer.flip();
+                buffer.get(block);
+                for (int i = length - 1; i >= 0; i--) {
+                    if (block[i] == '\n') {
+                        if (!trailingNewlineSkipped && position + i == channel.size() - 1) {
+                            trailingNewlineSkipped = true;
+                            continue;
+                        }
+                        newlines++;
+                    }
+                }
+                blocks.addFirst(block);
+                total += length;
+            }
+
+            byte[] joined = new byte[total];
+            int offset = 0;
+            for (byte[] block : blocks) {
+                System.arraycopy(block, 0, joined, offset, block.length);
+                offset += block.length;
+            }
+            String[] lines = new String(joined, StandardCharsets.UTF_8).split("\n");
+            List<String> result = new ArrayList<>(Math.min(count, lines.length));
+            for (int i = Math.max(0, lines.length - count); i < lines.length; i++) {
+                if (!lines[i].isEmpty()) {
+                    result.add(lines[i]);
+                }
+            }
+            return result;
+        }
+    }
+}
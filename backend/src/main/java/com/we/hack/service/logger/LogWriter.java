@@ -0,0 +1,228 @@
+package com.we.hack.service.logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Background consumer of the ring buffer. Drains records in batches and appends them to
+ * the day's current log segment through a FileChannel, so request threads never touch the disk.
+ * Rolls over to a new segment when the day changes or the segment reaches its size limit.
+ */
+final class LogWriter implements Runnable {
+
+    private static final byte NEWLINE = '\n';
+
+    private final LogRingBuffer buffer;
+    private final LoggerConfig config;
+    private final AtomicLong dropped;
+    private final Deque<String> recent;
+    private final int recentLimit;
+    private final ByteBuffer out = ByteBuffer.allocate(64 * 1024);
+
+    private volatile boolean running = true;
+    private volatile Thread thread;
+
+    private int[] recordStarts = new int[256];
+    private int recordCount;
+
+    private FileChannel channel;
+    private LogIndex index;
+    private LocalDate channelDate;
+    private int segmentIndex;
+    private long segmentSize;
+
+    LogWriter(LogRingBuffer buffer, LoggerConfig config, AtomicLong dropped, Deque<String> recent, int recentLimit) {
+        this.buffer = buffer;
+        this.config = config;
+        this.dropped = dropped;
+        this.recent = recent;
+        this.recentLimit = recentLimit;
+    }
+
+    @Override
+    public void run() {
+        thread = Thread.currentThread();
+        long parkNanos = TimeUnit.MILLISECONDS.toNanos(config.flushIntervalMillis);
+        try {
+            while (running) {
+                int drained = drainBatch();
+                if (drained < config.batchSize) {
+                    LockSupport.parkNanos(this, parkNanos);
+                }
+            }
+            // Clean shutdown: whatever producers published before stop() still goes to disk
+            while (drainBatch() > 0) {
+                // keep draining
+            }
+        } finally {
+            closeChannel();
+        }
+    }
+
+    /**
+     * Wakes the writer early, used by producers waiting on a full buffer.
+     */
+    void wakeUp() {
+        Thread t = thread;
+        if (t != null) {
+            LockSupport.unpark(t);
+        }
+    }
+
+    boolean isRunning() {
+        return running;
+    }
+
+    void stop(long timeoutMillis) {
+        running = false;
+        Thread t = thread;
+        if (t == null) {
+            return;
+        }
+        LockSupport.unpark(t);
+        try {
+            t.join(timeoutMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private int drainBatch() {
+        int count = 0;
+        try {
+            long lost = dropped.getAndSet(0);
+            if (lost > 0) {
+                append(Logger.line("WARN", "Logger dropped " + lost + " records because the buffer was full"));
+            }
+            String record;
+            while (count < config.batchSize && (record = buffer.poll()) != null) {
+                append(record);
+                remember(record);
+                count++;
+            }
+            flush();
+        } catch (IOException e) {
+            System.err.println("An error occurred while writing to the log file: " + e.getMessage());
+            out.clear();
+            recordCount = 0;
+            closeChannel();
+        }
+        return count;
+    }
+
+    private void append(String record) throws IOException {
+        byte[] bytes = record.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length + 1 > out.remaining()) {
+            flush();
+        }
+        if (bytes.length + 1 > out.capacity()) {
+            ByteBuffer big = ByteBuffer.allocate(bytes.length + 1);
+            big.put(bytes).put(NEWLINE).flip();
+            ensureChannel(big.remaining());
+            long offset = segmentSize;
+            writeFully(big);
+            if (index.isDue(offset, config.indexIntervalBytes)) {
+                index.add(LogIndex.epochSecondOf(bytes, 0, bytes.length), offset);
+            }
+            return;
+        }
+        if (recordCount == recordStarts.length) {
+            recordStarts = Arrays.copyOf(recordStarts, recordCount * 2);
+        }
+        recordStarts[recordCount++] = out.position();
+        out.put(bytes).put(NEWLINE);
+    }
+
+    private void flush() throws IOException {
+        if (out.position() == 0) {
+            return;
+        }
+        out.flip();
+        ensureChannel(out.remaining());
+        long base = segmentSize;
+        int end = out.limit();
+        writeFully(out);
+        // Index the first record past each interval boundary, once its bytes are on disk
+        byte[] bytes = out.array();
+        for (int i = 0; i < recordCount; i++) {
+            long offset = base + recordStarts[i];
+            if (index.isDue(offset, config.indexIntervalBytes)) {
+                index.add(LogIndex.epochSecondOf(bytes, recordStarts[i], end), offset);
+            }
+        }
+        recordCount = 0;
+        out.clear();
+    }
+
+    private void writeFully(ByteBuffer src) throws IOException {
+        while (src.hasRemaining()) {
+            segmentSize += channel.write(src);
+        }
+    }
+
+    private void ensureChannel(int pendingBytes) throws IOException {
+        LocalDate today = LocalDate.now();
+        if (channel != null && today.equals(channelDate)) {
+            if (segmentSize == 0 || segmentSize + pendingBytes <= config.segmentBytes) {
+                return;
+            }
+            closeChannel();
+            openSegment(today, segmentIndex + 1);
+            return;
+        }
+        closeChannel();
+        File logDirectory = new File(config.directory);
+        if (!logDirectory.exists()) {
+            logDirectory.mkdirs();
+        }
+        // Continue the newest segment of the day, it is rolled above once it is full
+        openSegment(today, LogSegments.latestIndex(config.directory, today));
+    }
+
+    private void openSegment(LocalDate date, int number) throws IOException {
+        Path segment = LogSegments.segmentPath(config.directory, date, number);
+        channel = FileChannel.open(segment,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        channelDate = date;
+        segmentIndex = number;
+        segmentSize = channel.size();
+        index = new LogIndex(segment);
+    }
+
+    private void closeChannel() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+            if (index != null) {
+                index.close();
+            }
+        } catch (IOException e) {
+            System.err.println("Error closing log file: " + e.getMessage());
+        }
+        channel = null;
+        index = null;
+        channelDate = null;
+    }
+
+    private void remember(String record) {
+        synchronized (recent) {
+            if (recent.size() == recentLimit) {
+                recent.removeFirst();
+            }
+            recent.addLast(record);
+        }
+    }
+}
@@ -1,18 +1,59 @@
 package com.we.hack.service.logger;
 
 import java.io.*;
-import java.text.SimpleDateFormat;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
 
+/**
+ * Application logger. Calls only format the record and publish it into a bounded lock-free
+ * ring buffer; a single background {@link LogWriter} appends records to the day's log file
+ * in batches. The last {@code size} records are also kept in memory.
+ *
+ * <p>Records below the current {@link LogLevel} are dropped before formatting. Prefer the
+ * {@code Supplier} or {@code {}}-pattern overloads when the message is built from entity getters.
+ *
+ * <p>Tuned with system properties: {@code wehack.logger.dir}, {@code wehack.logger.buffer-capacity},
+ * {@code wehack.logger.batch-size}, {@code wehack.logger.flush-interval-ms},
+ * {@code wehack.logger.overflow-policy} (BLOCK or DROP), {@code wehack.logger.shutdown-timeout-ms},
+ * {@code wehack.logger.level}, {@code wehack.logger.segment-bytes} and
+ * {@code wehack.logger.index-interval-bytes}.
+ */
 public class Logger {
+    private static final DateTimeFormatter TIMESTAMP =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss").withZone(ZoneId.systemDefault());
+
     private static Logger instance;
-    private static Queue<String> log;
     private static int SIZE;
+    private static volatile LogLevel level = LogLevel.DEBUG;
+    private static volatile CachedTimestamp lastTimestamp = new CachedTimestamp(-1, "");
+
+    private final LoggerConfig config;
+    private final LogRingBuffer buffer;
+    private final LogWriter writer;
+    private final AtomicLong dropped = new AtomicLong();
+    private final Deque<String> recent = new ArrayDeque<>();
 
     private Logger(int size) throws IOException {
-        log = new LinkedList<>();
-        logLoad();
         SIZE = size;
+        config = LoggerConfig.fromSystemProperties();
+        level = config.level;
+        logLoad();
+        buffer = new LogRingBuffer(config.bufferCapacity);
+        writer = new LogWriter(buffer, config, dropped, recent, SIZE);
+
+        Thread writerThread = new Thread(writer, "log-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(this::shutdown, "log-writer-shutdown"));
     }
 
     public synchronized static Logger getInstance(int size) throws IOException {
@@ -24,14 +65,9 @@ public class Logger {
 
     private void logLoad() throws IOException {
         try {
-            SimpleDateFormat ft = new SimpleDateFormat("dd-MM-yyyy");
             System.out.println("Logger package path: " + Logger.class.getPackage().getName().replace('.', '/'));
-            
-            // Create logs directory in a more accessible location
-            String logDir = "logs/";
-            String fileName = logDir + "log_" + ft.format(new Date()) + ".log";
-            
-            File logDirectory = new File(logDir);
+
+            File logDirectory = new File(config.directory);
             // Ensure the logs directory exists
             if (!logDirectory.exists()) {
                 boolean dirCreated = logDirectory.mkdirs();
@@ -41,30 +77,17 @@ public class Logger {
                     System.err.println("Failed to create logs directory: " + logDirectory.getAbsolutePath());
                 }
             }
-            
-            File f = new File(fileName);
-            
-            if (!f.exists()) {
-                // Ensure parent directories exist
-                File parentDir = f.getParentFile();
-                if (parentDir != null && !parentDir.exists()) {
-                    parentDir.mkdirs();
-                }
-                
-                if (f.createNewFile()) {
-                    System.out.println("New log file created: " + f.getAbsolutePath());
-                } else {
-                    System.err.println("Error creating new log file: " + f.getAbsolutePath());
-                }
-            } else {
-                // Load existing log entries
-                try (BufferedReader reader = new BufferedReader(new FileReader(f))) {
-                    for (String line; (line = reader.readLine()) != null;) {
-                        log.add(line);
-                    }
-                    System.out.println("Loaded " + log.size() + " existing log entries from: " + f.getAbsolutePath());
+
+            // Only the last SIZE records are needed, read them backwards from the newest segments
+            LocalDate today = LocalDate.now();
+            for (int index = LogSegments.latestIndex(config.directory, today); index >= 0 && recent.size() < SIZE; index--) {
+                Path segment = LogSegments.segmentPath(config.directory, today, index);
+                List<String> lines = LogSegments.tail(segment, SIZE - recent.size());
+                for (int i = lines.size() - 1; i >= 0; i--) {
+                    recent.addFirst(lines.get(i));
                 }
             }
+            System.out.println("Loaded " + recent.size() + " recent log entries from: " + logDirectory.getAbsolutePath());
         } catch (Exception e) {
             System.err.println("Error initializing logger: " + e.getMessage());
             e.printStackTrace();
@@ -72,95 +95,272 @@ public class Logger {
         }
     }
 
-    private boolean isFull() {
-        return log.size() == SIZE;
+    /**
+     * Snapshot of the most recent records, oldest first.
+     */
+    public List<String> recentEntries() {
+        synchronized (recent) {
+            return new ArrayList<>(recent);
+        }
+    }
+
+    /**
+     * Stops the writer after draining everything already published. Runs from a shutdown hook,
+     * records logged afterwards are discarded.
+     */
+    public void shutdown() {
+        writer.stop(config.shutdownTimeoutMillis);
+    }
+
+    /**
+     * Finds records between two local times (inclusive) at or above a level, optionally containing
+     * a substring such as a hackathon or submission ID. Returns at most {@code limit} records, oldest first.
+     */
+    public List<String> search(LocalDateTime from, LocalDateTime to, LogLevel minLevel, String contains, int limit)
+            throws IOException {
+        return new LogSearch(config.directory, from, to, minLevel, contains, limit).run();
     }
 
-    private void shiftLog(){
-        if(isFull()) {
-            log.remove();
+    private static final class CachedTimestamp {
+        final long epochSecond;
+        final String text;
+
+        CachedTimestamp(long epochSecond, String text) {
+            this.epochSecond = epochSecond;
+            this.text = text;
         }
     }
 
-    private void writeLog(){
+    /**
+     * Changes the minimum level at runtime. Takes effect immediately for all callers.
+     */
+    public static void setLevel(LogLevel newLevel) {
+        level = newLevel;
+    }
+
+    public static LogLevel getLevel() {
+        return level;
+    }
+
+    public boolean isEnabled(LogLevel candidate) {
+        return candidate.ordinal() >= level.ordinal();
+    }
+
+    public boolean isDebugEnabled() {
+        return isEnabled(LogLevel.DEBUG);
+    }
+
+    static String line(String level, String msg) {
+        return "[" + level + "] " + timestamp() + " " + msg;
+    }
+
+    /**
+     * Formats the current second once and shares the text with every record logged in that second.
+     */
+    private static String timestamp() {
+        long second = System.currentTimeMillis() / 1000;
+        CachedTimestamp cached = lastTimestamp;
+        if (cached.epochSecond != second) {
+            cached = new CachedTimestamp(second, TIMESTAMP.format(Instant.ofEpochSecond(second)));
+            lastTimestamp = cached;
+        }
+        return cached.text;
+    }
+
+    /**
+     * Replaces each {} in the pattern with the next argument, SLF4J style.
+     */
+    static String format(String pattern, Object... args) {
+        StringBuilder sb = new StringBuilder(pattern.length() + 16 * args.length);
+        int argIndex = 0;
+        int from = 0;
+        int at;
+        while (argIndex < args.length && (at = pattern.indexOf("{}", from)) >= 0) {
+            sb.append(pattern, from, at).append(args[argIndex++]);
+            from = at + 2;
+        }
+        return sb.append(pattern, from, pattern.length()).toString();
+    }
+
+    private void log(LogLevel candidate, String msg) {
         try {
-            SimpleDateFormat ft = new SimpleDateFormat("dd-MM-yyyy");
-            String logDir = "logs/";
-            String fileName = logDir + "log_" + ft.format(new Date()) + ".log";
-            
-            // Ensure directory exists before writing
-            File logDirectory = new File(logDir);
-            if (!logDirectory.exists()) {
-                logDirectory.mkdirs();
+            String record = line(candidate.name(), msg);
+            if (candidate == LogLevel.DEBUG) {
+                System.out.println(record);
             }
-            
-            try (BufferedWriter writer = new BufferedWriter(new FileWriter(fileName, false))) {
-                Queue<String> tempLog = new LinkedList<>(log);
-                while (!tempLog.isEmpty()) {
-                    writer.write(tempLog.poll());
-                    writer.newLine();
-                }
-                writer.flush();
+            publish(record);
+        } catch (Exception e) {
+            System.err.println("Error logging " + candidate + " message: " + e.getMessage());
+        }
+    }
+
+    private void publish(String record) {
+        if (buffer.offer(record)) {
+            return;
+        }
+        if (config.overflowPolicy == OverflowPolicy.DROP) {
+            dropped.incrementAndGet();
+            return;
+        }
+        // BLOCK: nudge the writer and wait for it to free a slot
+        long waitNanos = TimeUnit.MICROSECONDS.toNanos(50);
+        while (!buffer.offer(record)) {
+            if (!writer.isRunning()) {
+                dropped.incrementAndGet();
+                return;
             }
-        } catch (IOException e) {
-            System.err.println("An error occurred while writing to the log file: " + e.getMessage());
-            // Don't throw exception to prevent application failure
+            writer.wakeUp();
+            LockSupport.parkNanos(waitNanos);
         }
     }
 
     public void INFO(String msg){
-        try {
-            shiftLog();
-            String temp = "[INFO] " + new SimpleDateFormat("yyyy-MM-dd HH:mm:ss").format(new Date()) + " " + msg;
-            log.add(temp);
-            writeLog();
-        } catch (Exception e) {
-            System.err.println("Error logging INFO message: " + e.getMessage());
+        if (isEnabled(LogLevel.INFO)) {
+            log(LogLevel.INFO, msg);
+        }
+    }
+
+    public void INFO(Supplier<String> msg){
+        if (isEnabled(LogLevel.INFO)) {
+            log(LogLevel.INFO, msg.get());
+        }
+    }
+
+    public void INFO(String pattern, Object arg){
+        if (isEnabled(LogLevel.INFO)) {
+            log(LogLevel.INFO, format(pattern, arg));
+        }
+    }
+
+    public void INFO(String pattern, Object arg1, Object arg2){
+        if (isEnabled(LogLevel.INFO)) {
+            log(LogLevel.INFO, format(pattern, arg1, arg2));
+        }
+    }
+
+    public void INFO(String pattern, Object... args){
+        if (isEnabled(LogLevel.INFO)) {
+            log(LogLevel.INFO, format(pattern, args));
         }
     }
 
     public void WARN(String msg){
-        try {
-            shiftLog();
-            String temp = "[WARN] " + new SimpleDateFormat("yyyy-MM-dd HH:mm:ss").format(new Date()) + " " + msg;
-            log.add(temp);
-            writeLog();
-        } catch (Exception e) {
-            System.err.println("Error logging WARN message: " + e.getMessage());
+        if (isEnabled(LogLevel.WARN)) {
+            log(LogLevel.WARN, msg);
+        }
+    }
+
+    public void WARN(Supplier<String> msg){
+        if (isEnabled(LogLevel.WARN)) {
+            log(LogLevel.WARN, msg.get());
+        }
+    }
+
+    public void WARN(String pattern, Object arg){
+        if (isEnabled(LogLevel.WARN)) {
+            log(LogLevel.WARN, format(pattern, arg));
+        }
+    }
+
+    public void WARN(String pattern, Object arg1, Object arg2){
+        if (isEnabled(LogLevel.WARN)) {
+            log(LogLevel.WARN, format(pattern, arg1, arg2));
+        }
+    }
+
+    public void WARN(String pattern, Object... args){
+        if (isEnabled(LogLevel.WARN)) {
+            log(LogLevel.WARN, format(pattern, args));
         }
     }
 
     public void ERROR(String msg){
-        try {
-            shiftLog();
-            String temp = "[ERROR] " + new SimpleDateFormat("yyyy-MM-dd HH:mm:ss").format(new Date()) + " " + msg;
-            log.add(temp);
-            writeLog();
-        } catch (Exception e) {
-            System.err.println("Error logging ERROR message: " + e.getMessage());
+        if (isEnabled(LogLevel.ERROR)) {
+            log(LogLevel.ERROR, msg);
+        }
+    }
+
+    public void ERROR(Supplier<String> msg){
+        if (isEnabled(LogLevel.ERROR)) {
+            log(LogLevel.ERROR, msg.get());
+        }
+    }
+
+    public void ERROR(String pattern, Object arg){
+        if (isEnabled(LogLevel.ERROR)) {
+            log(LogLevel.ERROR, format(pattern, arg));
+        }
+    }
+
+    public void ERROR(String pattern, Object arg1, Object arg2){
+        if (isEnabled(LogLevel.ERROR)) {
+            log(LogLevel.ERROR, format(pattern, arg1, arg2));
+        }
+    }
+
+    public void ERROR(String pattern, Object... args){
+        if (isEnabled(LogLevel.ERROR)) {
+            log(LogLevel.ERROR, format(pattern, args));
         }
     }
 
     public void SEVERE(String msg){
-        try {
-            shiftLog();
-            String temp = "[SEVERE] " + new SimpleDateFormat("yyyy-MM-dd HH:mm:ss").format(new Date()) + " " + msg;
-            log.add(temp);
-            writeLog();
-        } catch (Exception e) {
-            System.err.println("Error logging SEVERE message: " + e.getMessage());
+        if (isEnabled(LogLevel.SEVERE)) {
+            log(LogLevel.SEVERE, msg);
+        }
+    }
+
+    public void SEVERE(Supplier<String> msg){
+        if (isEnabled(LogLevel.SEVERE)) {
+            log(LogLevel.SEVERE, msg.get());
+        }
+    }
+
+    public void SEVERE(String pattern, Object arg){
+        if (isEnabled(LogLevel.SEVERE)) {
+            log(LogLevel.SEVERE, format(pattern, arg));
+        }
+    }
+
+    public void SEVERE(String pattern, Object arg1, Object arg2){
+        if (isEnabled(LogLevel.SEVERE)) {
+            log(LogLevel.SEVERE, format(pattern, arg1, arg2));
+        }
+    }
+
+    public void SEVERE(String pattern, Object... args){
+        if (isEnabled(LogLevel.SEVERE)) {
+            log(LogLevel.SEVERE, format(pattern, args));
         }
     }
 
     public void DEBUG(String msg){
-        try {
-            shiftLog();
-            String temp = "[DEBUG] " + new SimpleDateFormat("yyyy-MM-dd HH:mm:ss").format(new Date()) + " " + msg;
-            log.add(temp);
-            System.out.println(temp);
-            writeLog();
-        } catch (Exception e) {
-            System.err.println("Error logging DEBUG message: " + e.getMessage());
+        if (isEnabled(LogLevel.DEBUG)) {
+            log(LogLevel.DEBUG, msg);
+        }
+    }
+
+    public void DEBUG(Supplier<String> msg){
+        if (isEnabled(LogLevel.DEBUG)) {
+            log(LogLevel.DEBUG, msg.get());
+        }
+    }
+
+    public void DEBUG(String pattern, Object arg){
+        if (isEnabled(LogLevel.DEBUG)) {
+            log(LogLevel.DEBUG, format(pattern, arg));
+        }
+    }
+
+    public void DEBUG(String pattern, Object arg1, Object arg2){
+        if (isEnabled(LogLevel.DEBUG)) {
+            log(LogLevel.DEBUG, format(pattern, arg1, arg2));
+        }
+    }
+
+    public void DEBUG(String pattern, Object... args){
+        if (isEnabled(LogLevel.DEBUG)) {
+            log(LogLevel.DEBUG, format(pattern, args));
         }
     }
 }
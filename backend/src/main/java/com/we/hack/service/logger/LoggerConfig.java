@@ -0,0 +1,89 @@
+package com.we.hack.service.logger;
+
+/**
+ * Logger settings. The logger is created from static initializers before the Spring
+ * context exists, so it is configured through JVM system properties (-Dwehack.logger.*).
+ */
+final class LoggerConfig {
+
+    // Largest power of two an int holds; LogRingBuffer rounds the capacity up to one
+    static final int MAX_BUFFER_CAPACITY = 1 << 30;
+
+    final String directory;
+    final int bufferCapacity;
+    final int batchSize;
+    final long flushIntervalMillis;
+    final OverflowPolicy overflowPolicy;
+    final long shutdownTimeoutMillis;
+    final LogLevel level;
+    final long segmentBytes;
+    final long indexIntervalBytes;
+
+    private LoggerConfig(String directory, int bufferCapacity, int batchSize, long flushIntervalMillis,
+                         OverflowPolicy overflowPolicy, long shutdownTimeoutMillis, LogLevel level,
+                         long segmentBytes, long indexIntervalBytes) {
+        this.directory = directory;
+        this.bufferCapacity = bufferCapacity;
+        this.batchSize = batchSize;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.overflowPolicy = overflowPolicy;
+        this.shutdownTimeoutMillis = shutdownTimeoutMillis;
+        this.level = level;
+        this.segmentBytes = segmentBytes;
+        this.indexIntervalBytes = indexIntervalBytes;
+    }
+
+    static LoggerConfig fromSystemProperties() {
+        String dir = System.getProperty("wehack.logger.dir", "logs/");
+        if (!dir.endsWith("/")) {
+            dir = dir + "/";
+        }
+        return new LoggerConfig(
+                dir,
+                intProperty("wehack.logger.buffer-capacity", 8192, 1, MAX_BUFFER_CAPACITY),
+                intProperty("wehack.logger.batch-size", 512, 1, Integer.MAX_VALUE),
+                longProperty("wehack.logger.flush-interval-ms", 200, 1),
+                enumProperty("wehack.logger.overflow-policy", OverflowPolicy.class, OverflowPolicy.BLOCK),
+                longProperty("wehack.logger.shutdown-timeout-ms", 5000, 0),
+                enumProperty("wehack.logger.level", LogLevel.class, LogLevel.DEBUG),
+                longProperty("wehack.logger.segment-bytes", 64L * 1024 * 1024, 1),
+                longProperty("wehack.logger.index-interval-bytes", 64L * 1024, 1)
+        );
+    }
+
+    // Values outside [min, max] fall back to the default like unparsable ones
+    private static int intProperty(String name, int defaultValue, int min, int max) {
+        try {
+            int value = Integer.parseInt(System.getProperty(name, String.valueOf(defaultValue)).trim());
+            if (value >= min && value <= max) {
+                return value;
+            }
+        } catch (NumberFormatException e) {
+            // reported below
+        }
+        System.err.println("Invalid value for " + name + ", using " + defaultValue);
+        return defaultValue;
+    }
+
+    private static long longProperty(String name, long defaultValue, long min) {
+        try {
+            long value = Long.parseLong(System.getProperty(name, String.valueOf(defaultValue)).trim());
+            if (value >= min) {
+                return value;
+            }
+        } catch (NumberFormatException e) {
+            // reported below
+        }
+        System.err.println("Invalid value for " + name + ", using " + defaultValue);
+        return defaultValue;
+    }
+
+    private static <E extends Enum<E>> E enumProperty(String name, Class<E> type, E defaultValue) {
+        try {
+            return Enum.valueOf(type, System.getProperty(name, defaultValue.name()).trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            System.err.println("Invalid value for " + name + ", using " + defaultValue);
+            return defaultValue;
+        }
+    }
+}
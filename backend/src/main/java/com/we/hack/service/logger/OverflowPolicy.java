@@ -0,0 +1,11 @@
+package com.we.hack.service.logger;
+
+/**
+ * What a logging thread does when the writer has fallen behind and the ring buffer is full.
+ */
+public enum OverflowPolicy {
+    /** Discard the record and count it; the writer reports the number of dropped records. */
+    DROP,
+    /** Wait until the writer frees a slot, so no record is ever lost. */
+    BLOCK
+}
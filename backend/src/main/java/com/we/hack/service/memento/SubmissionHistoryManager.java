@@ -4,8 +4,10 @@ import org.springframework.stereotype.Component;
 
 import java.util.ArrayDeque;
 import java.util.Deque;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
 @Component
@@ -14,7 +16,7 @@ public class SubmissionHistoryManager {
     private final Map<Long, Deque<SubmissionMemento>> history = new ConcurrentHashMap<>();
     private static final int MAX_VERSIONS = 10;   // avoid unbounded memory
 
-    public void push(Long teamId, SubmissionMemento m) {
+    public synchronized void push(Long teamId, SubmissionMemento m) {
         history
                 .computeIfAbsent(teamId, k -> new ArrayDeque<>())
                 .push(m);
@@ -24,15 +26,30 @@ public class SubmissionHistoryManager {
         }
     }
 
-    public Optional<SubmissionMemento> peek(Long teamId) {
+    public synchronized Optional<SubmissionMemento> peek(Long teamId) {
         return Optional.ofNullable(history.get(teamId))
                 .filter(d -> !d.isEmpty())
                 .map(Deque::peek);
     }
 
-    public Optional<SubmissionMemento> pop(Long teamId) {
+    public synchronized Optional<SubmissionMemento> pop(Long teamId) {
         return Optional.ofNullable(history.get(teamId))
                 .filter(d -> !d.isEmpty())
                 .map(Deque::pop);
     }
+
+    /**
+     * File paths an undo could still restore, so stored files they point to must be kept.
+     */
+    public synchronized Set<String> referencedFilePaths() {
+        Set<String> paths = new HashSet<>();
+        for (Deque<SubmissionMemento> versions : history.values()) {
+            for (SubmissionMemento memento : versions) {
+                if (memento.getFilePath() != null) {
+                    paths.add(memento.getFilePath());
+                }
+            }
+        }
+        return paths;
+    }
 }
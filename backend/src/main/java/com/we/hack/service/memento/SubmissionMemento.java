@@ -10,6 +10,7 @@ public class SubmissionMemento {
     String description;
     String projectUrl;
     String filePath;
+    String originalFilename;
     Instant savedAt;
     
     // Explicit getters to work around Lombok compilation issues
@@ -18,5 +19,6 @@ public class SubmissionMemento {
     public String getDescription() { return description; }
     public String getProjectUrl() { return projectUrl; }
     public String getFilePath() { return filePath; }
+    public String getOriginalFilename() { return originalFilename; }
     public Instant getSavedAt() { return savedAt; }
 } 
\ No newline at end of file
@@ -5,11 +5,15 @@ import com.we.hack.model.Hackathon;
 import com.we.hack.model.Submission;
 import com.we.hack.model.Team;
 import com.we.hack.service.SubmissionService;
+import com.we.hack.service.builder.Submission.SubmissionBuilder;
 import com.we.hack.service.chain.DescriptionValidator;
 import com.we.hack.service.chain.FileSizeValidator;
 import com.we.hack.service.chain.SubmissionValidator;
 import com.we.hack.service.chain.TitleValidator;
 import com.we.hack.service.impl.SubmissionServiceImpl;
+import com.we.hack.service.ratelimit.RateLimitPermit;
+import com.we.hack.service.ratelimit.SubmissionRateLimiter;
+import com.we.hack.service.storage.UploadStorage;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Primary;
 import org.springframework.http.HttpStatus;
@@ -17,9 +21,7 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.server.ResponseStatusException;
 
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 @Component
 @Primary
@@ -28,41 +30,53 @@ public class SubmissionServiceProxy implements SubmissionService {
     @Autowired
     private SubmissionServiceImpl realSubmissionService;
 
-    // Track last submission timestamp: "userId-hackathonId" → timestamp
-    private final Map<String, Long> lastSubmissionTime = new HashMap<>();
+    // Per user and hackathon submission cooldown, local or shared by all nodes (submissions.rate-limiter)
+    @Autowired
+    private SubmissionRateLimiter rateLimiter;
 
     @Override
     public Submission validateSubmission(Long userId, int hackathonId, Submission submission, MultipartFile file) {
-        String key = userId + "-" + hackathonId;
-        long now = System.currentTimeMillis();
-
-        if (lastSubmissionTime.containsKey(key)) {
-            long lastTime = lastSubmissionTime.get(key);
-            if (now - lastTime < 60_000) {
-                throw new ResponseStatusException(
-                        HttpStatus.TOO_MANY_REQUESTS,
-                        "⏱️ Please wait 60 seconds before submitting again."
-                );
-            }
+        RateLimitPermit permit = acquirePermit(userId, hackathonId);
+        try {
+            validate(submission, file, false);
+        } catch (RuntimeException e) {
+            release(permit);
+            throw e;
         }
+        return submission;
+    }
 
-        SubmissionValidator titleValidator = new TitleValidator();
-        SubmissionValidator descValidator = new DescriptionValidator();
-        SubmissionValidator fileValidator = new FileSizeValidator();
-
-        titleValidator.setNext(descValidator);
-        descValidator.setNext(fileValidator);
-
-        titleValidator.validate(submission, file);
+    @Override
+    public Submission createFinalSubmission(SubmissionBuilder builder, Long userId, int hackathonId, MultipartFile file) {
+        // Drafts are saved as often as the team likes; only final submissions are rate limited
+        RateLimitPermit permit = builder.isDraft() ? null : acquirePermit(userId, hackathonId);
+        try {
+            // The builder holds the fields the caller supplied; team, user and hackathon are resolved later
+            validate(builder.buildDraft(), file, builder.isDraft());
+            return realSubmissionService.createFinalSubmission(builder, userId, hackathonId, file);
+        } catch (RuntimeException e) {
+            release(permit);
+            throw e;
+        }
+    }
 
-        lastSubmissionTime.put(key, now);
-        return submission;
+    @Override
+    public Submission createFinalSubmission(SubmissionBuilder builder, Long userId, int hackathonId, UploadStorage.StagedUpload upload) {
+        RateLimitPermit permit = builder.isDraft() ? null : acquirePermit(userId, hackathonId);
+        try {
+            // No file goes through the validators: chunked uploads are deliberately allowed up to
+            // uploads.chunked.max-bytes, enforced by ChunkedUploadService, not FileSizeValidator's 1MB
+            validate(builder.buildDraft(), null, builder.isDraft());
+            return realSubmissionService.createFinalSubmission(builder, userId, hackathonId, upload);
+        } catch (RuntimeException e) {
+            release(permit);
+            throw e;
+        }
     }
 
     @Override
     public List<SubmissionDto> listSubmissions(Hackathon hackathon, Team team) {
-        // This shouldn't be called
-        return null;
+        return realSubmissionService.listSubmissions(hackathon, team);
     }
 
 
@@ -73,24 +87,22 @@ public class SubmissionServiceProxy implements SubmissionService {
 
     @Override
     public Submission editSubmission(int hackathonId, Long userId, Long submissionId, String title, String description, String projectUrl, MultipartFile file) {
+        // Not rate limited: fixing a typo right after submitting must not have to wait out the cooldown
         //  Apply validators again to validate title/description/file during edit
         Submission submission = new Submission();
         submission.setTitle(title);
         submission.setDescription(description);
         submission.setProjectUrl(projectUrl);
-
-        SubmissionValidator titleValidator = new TitleValidator();
-        SubmissionValidator descValidator = new DescriptionValidator();
-        SubmissionValidator fileValidator = new FileSizeValidator();
-
-        titleValidator.setNext(descValidator);
-        descValidator.setNext(fileValidator);
-
-        titleValidator.validate(submission, file);
+        validate(submission, file, false);
 
         return realSubmissionService.editSubmission(hackathonId, userId, submissionId, title, description, projectUrl, file);
     }
 
+    @Override
+    public Submission undoLastEdit(Long teamId, Long submissionId, Long hackathonId) {
+        return realSubmissionService.undoLastEdit(teamId, submissionId, hackathonId);
+    }
+
     @Override
     public List<Submission> findByHackathonId(int hackathonId) {
         return realSubmissionService.findByHackathonId(hackathonId);
@@ -116,4 +128,38 @@ public class SubmissionServiceProxy implements SubmissionService {
         return realSubmissionService.getPrimarySubmissionsByHackathon(hackathonId);
     }
 
+    private RateLimitPermit acquirePermit(Long userId, int hackathonId) {
+        RateLimitPermit permit = rateLimiter.tryAcquire(userId, hackathonId);
+        if (!permit.isGranted()) {
+            long seconds = (permit.getWaitMillis() + 999) / 1000;
+            throw new ResponseStatusException(
+                    HttpStatus.TOO_MANY_REQUESTS,
+                    "⏱️ Please wait " + seconds + " seconds before submitting again."
+            );
+        }
+        return permit;
+    }
+
+    // A rejected submission does not count towards the cooldown
+    private void release(RateLimitPermit permit) {
+        if (permit != null) {
+            rateLimiter.release(permit);
+        }
+    }
+
+    // Drafts may be saved without a title or description, but their file is still size checked
+    private void validate(Submission submission, MultipartFile file, boolean draft) {
+        SubmissionValidator fileValidator = new FileSizeValidator();
+        if (draft) {
+            fileValidator.validate(submission, file);
+            return;
+        }
+        SubmissionValidator titleValidator = new TitleValidator();
+        SubmissionValidator descValidator = new DescriptionValidator();
+
+        titleValidator.setNext(descValidator);
+        descValidator.setNext(fileValidator);
+
+        titleValidator.validate(submission, file);
+    }
 }
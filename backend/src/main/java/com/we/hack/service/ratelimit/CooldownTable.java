@@ -0,0 +1,302 @@
+package com.we.hack.service.ratelimit;
+
+import java.util.Arrays;
+
+/**
+ * Cooldowns keyed by (user id, hackathon id), held in primitive arrays and split into
+ * lock stripes.
+ * <p>
+ * Each stripe is an open-addressing hash table of user ids, hackathon ids and expiry times
+ * (linear probing, backward-shift deletion, so there are no tombstones) plus a hashed time wheel of
+ * {@value #WHEEL_SLOTS} one-second buckets. Every entry is registered in the bucket of its
+ * expiry second; when the wheel passes a bucket, its expired entries are removed. Cooldowns
+ * longer than the wheel simply stay in their bucket for more than one turn. An entry therefore
+ * lives only while its cooldown runs, and memory follows the number of users inside their
+ * cooldown, not the number of users ever seen.
+ * <p>
+ * Threads only contend when their keys land in the same stripe.
+ */
+class CooldownTable {
+
+    static final int WHEEL_SLOTS = 64;
+    static final long TICK_MILLIS = 1000;
+
+    private static final int STRIPES = 64;
+    private static final int MIN_CAPACITY = 16;
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    CooldownTable(long now) {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe(now / TICK_MILLIS - 1);
+        }
+    }
+
+    /**
+     * Starts a cooldown of {@code cooldownMillis} unless one is still running.
+     *
+     * @return 0 if the cooldown was started, else the milliseconds left of the running one
+     */
+    long tryAcquire(long userId, long hackathonId, long cooldownMillis, long now) {
+        long hash = hash(userId, hackathonId);
+        Stripe stripe = stripeFor(hash);
+        synchronized (stripe) {
+            stripe.advance(now);
+            return stripe.tryAcquire(userId, hackathonId, hash, now + cooldownMillis, now);
+        }
+    }
+
+    /**
+     * Milliseconds left of the key's cooldown, or 0 if none is running. Changes nothing.
+     */
+    long remaining(long userId, long hackathonId, long now) {
+        long hash = hash(userId, hackathonId);
+        Stripe stripe = stripeFor(hash);
+        synchronized (stripe) {
+            int slot = stripe.find(userId, hackathonId, hash);
+            return slot >= 0 && stripe.expiries[slot] > now ? stripe.expiries[slot] - now : 0;
+        }
+    }
+
+    /**
+     * Ends the cooldown started with {@code expiresAt}, e.g. because the submission it guarded
+     * was rejected. A newer cooldown of the same key is left alone.
+     */
+    void release(long userId, long hackathonId, long expiresAt) {
+        long hash = hash(userId, hackathonId);
+        Stripe stripe = stripeFor(hash);
+        synchronized (stripe) {
+            stripe.release(userId, hackathonId, hash, expiresAt);
+        }
+    }
+
+    /**
+     * Drops expired entries in every stripe, including ones no request has touched lately.
+     */
+    void sweep(long now) {
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                stripe.advance(now);
+                stripe.shrinkIfSparse();
+            }
+        }
+    }
+
+    int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size;
+            }
+        }
+        return size;
+    }
+
+    // Slots held by tables and wheels, a measure of memory use
+    long capacity() {
+        long capacity = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                capacity += stripe.users.length;
+                for (long[] bucket : stripe.buckets) {
+                    capacity += bucket.length;
+                }
+            }
+        }
+        return capacity;
+    }
+
+    // Both ids in full, so ids past the int range cannot collide
+    static long hash(long userId, long hackathonId) {
+        return mix(mix(userId) + hackathonId);
+    }
+
+    private Stripe stripeFor(long hash) {
+        return stripes[(int) (hash >>> 58)];
+    }
+
+    // Murmur3 finalizer; ids are sequential, so the low bits alone would cluster
+    static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return key;
+    }
+
+    private static final class Stripe {
+        long[] users = new long[MIN_CAPACITY];
+        long[] hackathons = new long[MIN_CAPACITY];
+        // Expiry time in ms; 0 marks an empty slot
+        long[] expiries = new long[MIN_CAPACITY];
+        int size;
+
+        // Each bucket holds (user id, hackathon id) pairs side by side
+        final long[][] buckets = new long[WHEEL_SLOTS][];
+        final int[] bucketSizes = new int[WHEEL_SLOTS];
+        long tick;
+
+        Stripe(long tick) {
+            this.tick = tick;
+            for (int i = 0; i < WHEEL_SLOTS; i++) {
+                buckets[i] = new long[8];
+            }
+        }
+
+        long tryAcquire(long userId, long hackathonId, long hash, long expiresAt, long now) {
+            int slot = find(userId, hackathonId, hash);
+            if (slot >= 0) {
+                long current = expiries[slot];
+                if (current > now) {
+                    return current - now;
+                }
+                expiries[slot] = expiresAt;
+                // The old registration is dropped as stale when its bucket comes round
+                if (bucketOf(current) != bucketOf(expiresAt)) {
+                    schedule(userId, hackathonId, expiresAt);
+                }
+                return 0;
+            }
+            if ((size + 1) * 4 > users.length * 3) {
+                rehash(users.length * 2);
+            }
+            insert(userId, hackathonId, hash, expiresAt);
+            schedule(userId, hackathonId, expiresAt);
+            return 0;
+        }
+
+        void release(long userId, long hackathonId, long hash, long expiresAt) {
+            int slot = find(userId, hackathonId, hash);
+            if (slot >= 0 && expiries[slot] == expiresAt) {
+                delete(slot);
+            }
+        }
+
+        /**
+         * Processes the buckets of every tick that has fully passed by {@code now}, so each
+         * entry in them has expired unless it belongs to a later turn of the wheel; a gap
+         * longer than the wheel visits each bucket once.
+         */
+        void advance(long now) {
+            long target = now / TICK_MILLIS - 1;
+            if (target <= tick) {
+                return;
+            }
+            long from = Math.max(tick + 1, target - WHEEL_SLOTS + 1);
+            for (long t = from; t <= target; t++) {
+                expire((int) (t & (WHEEL_SLOTS - 1)), now);
+            }
+            tick = target;
+        }
+
+        private void expire(int bucket, long now) {
+            long[] entries = buckets[bucket];
+            int kept = 0;
+            for (int i = 0; i < bucketSizes[bucket]; i++) {
+                long userId = entries[2 * i];
+                long hackathonId = entries[2 * i + 1];
+                int slot = find(userId, hackathonId, hash(userId, hackathonId));
+                if (slot < 0 || bucketOf(expiries[slot]) != bucket) {
+                    // Released, or rescheduled into another bucket
+                    continue;
+                }
+                if (expiries[slot] <= now) {
+                    delete(slot);
+                } else {
+                    entries[2 * kept] = userId;
+                    entries[2 * kept + 1] = hackathonId;
+                    kept++;
+                }
+            }
+            bucketSizes[bucket] = kept;
+        }
+
+        void shrinkIfSparse() {
+            if (users.length > MIN_CAPACITY && size * 8 < users.length) {
+                rehash(Math.max(MIN_CAPACITY, Integer.highestOneBit(Math.max(1, size) * 4)));
+            }
+            for (int i = 0; i < WHEEL_SLOTS; i++) {
+                if (buckets[i].length > 32 && bucketSizes[i] * 8 < buckets[i].length) {
+                    buckets[i] = Arrays.copyOf(buckets[i], Math.max(32, buckets[i].length / 2));
+                }
+            }
+        }
+
+        private void schedule(long userId, long hackathonId, long expiresAt) {
+            int bucket = bucketOf(expiresAt);
+            int end = 2 * bucketSizes[bucket];
+            if (end == buckets[bucket].length) {
+                buckets[bucket] = Arrays.copyOf(buckets[bucket], buckets[bucket].length * 2);
+            }
+            buckets[bucket][end] = userId;
+            buckets[bucket][end + 1] = hackathonId;
+            bucketSizes[bucket]++;
+        }
+
+        private static int bucketOf(long expiresAt) {
+            return (int) ((expiresAt / TICK_MILLIS) & (WHEEL_SLOTS - 1));
+        }
+
+        private int find(long userId, long hackathonId, long hash) {
+            int mask = users.length - 1;
+            int slot = (int) hash & mask;
+            while (expiries[slot] != 0) {
+                if (users[slot] == userId && hackathons[slot] == hackathonId) {
+                    return slot;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return -1;
+        }
+
+        private void insert(long userId, long hackathonId, long hash, long expiresAt) {
+            int mask = users.length - 1;
+            int slot = (int) hash & mask;
+            while (expiries[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            users[slot] = userId;
+            hackathons[slot] = hackathonId;
+            expiries[slot] = expiresAt;
+            size++;
+        }
+
+        // Backward-shift deletion: pull later entries of the probe run into the hole
+        private void delete(int slot) {
+            int mask = users.length - 1;
+            int hole = slot;
+            int next = (hole + 1) & mask;
+            while (expiries[next] != 0) {
+                int home = (int) hash(users[next], hackathons[next]) & mask;
+                // Move the entry if its home is not in the cyclic range (hole, next]
+                if (((next - home) & mask) >= ((next - hole) & mask)) {
+                    users[hole] = users[next];
+                    hackathons[hole] = hackathons[next];
+                    expiries[hole] = expiries[next];
+                    hole = next;
+                }
+                next = (next + 1) & mask;
+            }
+            users[hole] = 0;
+            hackathons[hole] = 0;
+            expiries[hole] = 0;
+            size--;
+        }
+
+        private void rehash(int capacity) {
+            long[] oldUsers = users;
+            long[] oldHackathons = hackathons;
+            long[] oldExpiries = expiries;
+            users = new long[capacity];
+            hackathons = new long[capacity];
+            expiries = new long[capacity];
+            size = 0;
+            for (int i = 0; i < oldUsers.length; i++) {
+                if (oldExpiries[i] != 0) {
+                    insert(oldUsers[i], oldHackathons[i], hash(oldUsers[i], oldHackathons[i]), oldExpiries[i]);
+                }
+            }
+        }
+    }
+}
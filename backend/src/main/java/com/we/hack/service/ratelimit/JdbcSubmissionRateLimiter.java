@@ -0,0 +1,178 @@
+package com.we.hack.service.ratelimit;
+
+import com.we.hack.model.SubmissionRateLimitBucket;
+import com.we.hack.service.logger.Logger;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link SubmissionRateLimiter} shared by every node through a Postgres table, so a user gets
+ * the same allowance whichever node the load balancer picks.
+ * <p>
+ * Each (user, hackathon) has a token bucket holding up to {@code submissions.rate-limit.burst}
+ * tokens and refilling one token per cooldown. A check is a single upsert: it creates the
+ * bucket, or refills it for the time passed and takes a token if a whole one is there, and
+ * returns the outcome. The row lock of the upsert makes concurrent checks from any node take
+ * turns. Time comes from the database's {@code statement_timestamp()}, so node clocks do not
+ * need to agree. The table is mapped by {@link SubmissionRateLimitBucket}, so ddl-auto creates
+ * it like every other table.
+ * <p>
+ * A rejection is remembered locally until the bucket would have a token again, so a user who
+ * keeps retrying is turned away without a database round trip. If the database cannot be
+ * reached, this node falls back to enforcing the cooldown on its own.
+ */
+@Component
+@ConditionalOnProperty(name = "submissions.rate-limiter", havingValue = "jdbc")
+public class JdbcSubmissionRateLimiter implements SubmissionRateLimiter {
+
+    private static Logger logger;
+
+    static {
+        try {
+            logger = Logger.getInstance(100);
+        } catch (IOException e) {
+            System.err.println("Failed to initialize logger: " + e.getMessage());
+        }
+    }
+
+    // The refilled level is spelled out three times: SET expressions cannot refer to each other
+    private static final String TAKE_TOKEN = """
+            INSERT INTO submission_rate_limit AS b (user_id, hackathon_id, tokens, updated_ms, last_granted)
+            VALUES (:userId, :hackathonId, :burst - 1,
+                    (EXTRACT(EPOCH FROM statement_timestamp()) * 1000)::BIGINT, TRUE)
+            ON CONFLICT (user_id, hackathon_id) DO UPDATE SET
+                tokens = CASE
+                    WHEN LEAST(:burst, b.tokens + GREATEST(0, EXCLUDED.updated_ms - b.updated_ms) / :cooldownMs) >= 1
+                    THEN LEAST(:burst, b.tokens + GREATEST(0, EXCLUDED.updated_ms - b.updated_ms) / :cooldownMs) - 1
+                    ELSE LEAST(:burst, b.tokens + GREATEST(0, EXCLUDED.updated_ms - b.updated_ms) / :cooldownMs)
+                END,
+                last_granted = LEAST(:burst, b.tokens + GREATEST(0, EXCLUDED.updated_ms - b.updated_ms) / :cooldownMs) >= 1,
+                updated_ms = GREATEST(b.updated_ms, EXCLUDED.updated_ms)
+            RETURNING tokens, last_granted""";
+
+    private static final String RETURN_TOKEN = """
+            UPDATE submission_rate_limit SET tokens = LEAST(:burst, tokens + 1)
+            WHERE user_id = :userId AND hackathon_id = :hackathonId""";
+
+    // A row untouched for this long has refilled completely and means the same as no row
+    private static final String PURGE = """
+            DELETE FROM submission_rate_limit
+            WHERE updated_ms < (EXTRACT(EPOCH FROM statement_timestamp()) * 1000)::BIGINT - :retentionMs""";
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbc;
+
+    @Autowired
+    private SubmissionCooldowns submissionCooldowns;
+
+    @Value("${submissions.rate-limit.burst:1}")
+    private int burst;
+
+    @Value("${submissions.rate-limit.retention-ms:86400000}")
+    private long retentionMillis;
+
+    // Remembered rejections, and cooldowns granted locally while the database was unreachable
+    private CooldownTable local;
+    private final LongAdder databaseChecks = new LongAdder();
+    private final LongAdder localRejections = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        local = new CooldownTable(System.currentTimeMillis());
+    }
+
+    @Override
+    public RateLimitPermit tryAcquire(long userId, long hackathonId) {
+        long now = System.currentTimeMillis();
+        long cooldown = submissionCooldowns.cooldownMillis(hackathonId);
+        if (cooldown <= 0) {
+            return new RateLimitPermit(userId, hackathonId, 0, 0);
+        }
+        long remembered = local.remaining(userId, hackathonId, now);
+        if (remembered > 0) {
+            localRejections.increment();
+            return new RateLimitPermit(userId, hackathonId, remembered, 0);
+        }
+
+        List<double[]> result;
+        try {
+            databaseChecks.increment();
+            result = jdbc.query(TAKE_TOKEN, params(userId, hackathonId).addValue("cooldownMs", (double) cooldown),
+                    (rs, row) -> new double[]{rs.getDouble("tokens"), rs.getBoolean("last_granted") ? 1 : 0});
+        } catch (DataAccessException e) {
+            logger.ERROR("Submission rate limit check failed, limiting on this node only: " + e.getMessage());
+            long waitMillis = local.tryAcquire(userId, hackathonId, cooldown, now);
+            return new RateLimitPermit(userId, hackathonId, waitMillis, now + cooldown);
+        }
+
+        double tokens = result.get(0)[0];
+        if (result.get(0)[1] == 1) {
+            return new RateLimitPermit(userId, hackathonId, 0, 0);
+        }
+        // Time until the bucket holds a whole token again
+        long waitMillis = Math.max(1, (long) Math.ceil((1 - tokens) * cooldown));
+        local.tryAcquire(userId, hackathonId, waitMillis, now);
+        logger.DEBUG(() -> "Submission of user " + userId + " to hackathon " + hackathonId + " rate limited for " + waitMillis + "ms");
+        return new RateLimitPermit(userId, hackathonId, waitMillis, 0);
+    }
+
+    @Override
+    public void release(RateLimitPermit permit) {
+        if (!permit.isGranted()) {
+            return;
+        }
+        if (permit.getExpiresAt() != 0) {
+            local.release(permit.getUserId(), permit.getHackathonId(), permit.getExpiresAt());
+            return;
+        }
+        try {
+            jdbc.update(RETURN_TOKEN, params(permit.getUserId(), permit.getHackathonId()));
+        } catch (DataAccessException e) {
+            // The user waits one cooldown more than they should, nothing worse
+            logger.ERROR("Could not return the submission token of user " + permit.getUserId() + ": " + e.getMessage());
+        }
+    }
+
+    public long databaseChecks() {
+        return databaseChecks.sum();
+    }
+
+    public long localRejections() {
+        return localRejections.sum();
+    }
+
+    @Scheduled(fixedDelayString = "${submissions.cooldown.sweep-ms:1000}")
+    public void sweep() {
+        local.sweep(System.currentTimeMillis());
+    }
+
+    @Scheduled(initialDelayString = "${submissions.rate-limit.purge-ms:3600000}",
+            fixedDelayString = "${submissions.rate-limit.purge-ms:3600000}")
+    public void purge() {
+        try {
+            int deleted = jdbc.update(PURGE, new MapSqlParameterSource("retentionMs", retentionMillis));
+            logger.INFO("Purged " + deleted + " idle submission rate limit buckets; " + databaseChecks.sum()
+                    + " checks went to the database and " + localRejections.sum() + " were answered locally");
+        } catch (DataAccessException e) {
+            logger.ERROR("Failed to purge submission rate limit buckets: " + e.getMessage());
+        }
+    }
+
+    private MapSqlParameterSource params(long userId, long hackathonId) {
+        return new MapSqlParameterSource()
+                .addValue("userId", userId)
+                .addValue("hackathonId", hackathonId)
+                .addValue("burst", (double) burst);
+    }
+}
@@ -0,0 +1,40 @@
+package com.we.hack.service.ratelimit;
+
+/**
+ * Outcome of {@link SubmissionRateLimiter#tryAcquire}: granted, or the time left until the
+ * user may submit.
+ */
+public final class RateLimitPermit {
+    private final long userId;
+    private final long hackathonId;
+    private final long waitMillis;
+    // End of the cooldown when granted from a local CooldownTable, 0 otherwise
+    private final long expiresAt;
+
+    RateLimitPermit(long userId, long hackathonId, long waitMillis, long expiresAt) {
+        this.userId = userId;
+        this.hackathonId = hackathonId;
+        this.waitMillis = waitMillis;
+        this.expiresAt = expiresAt;
+    }
+
+    public boolean isGranted() {
+        return waitMillis == 0;
+    }
+
+    public long getWaitMillis() {
+        return waitMillis;
+    }
+
+    long getUserId() {
+        return userId;
+    }
+
+    long getHackathonId() {
+        return hackathonId;
+    }
+
+    long getExpiresAt() {
+        return expiresAt;
+    }
+}
@@ -0,0 +1,53 @@
+package com.we.hack.service.ratelimit;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory {@link SubmissionRateLimiter}: one cooldown per user and hackathon, held by this
+ * node only.
+ * <p>
+ * Checking and starting a cooldown is one atomic step, so two concurrent submissions cannot
+ * both pass. Entries are removed as their cooldown ends (see {@link CooldownTable}).
+ */
+@Component
+@ConditionalOnProperty(name = "submissions.rate-limiter", havingValue = "memory", matchIfMissing = true)
+public class SubmissionCooldownLimiter implements SubmissionRateLimiter {
+
+    @Autowired
+    private SubmissionCooldowns submissionCooldowns;
+
+    private CooldownTable table;
+
+    @PostConstruct
+    public void init() {
+        table = new CooldownTable(System.currentTimeMillis());
+    }
+
+    @Override
+    public RateLimitPermit tryAcquire(long userId, long hackathonId) {
+        long now = System.currentTimeMillis();
+        long cooldown = submissionCooldowns.cooldownMillis(hackathonId);
+        long waitMillis = table.tryAcquire(userId, hackathonId, cooldown, now);
+        return new RateLimitPermit(userId, hackathonId, waitMillis, now + cooldown);
+    }
+
+    @Override
+    public void release(RateLimitPermit permit) {
+        if (permit.isGranted()) {
+            table.release(permit.getUserId(), permit.getHackathonId(), permit.getExpiresAt());
+        }
+    }
+
+    public int activeCooldowns() {
+        return table.size();
+    }
+
+    @Scheduled(fixedDelayString = "${submissions.cooldown.sweep-ms:1000}")
+    public void sweep() {
+        table.sweep(System.currentTimeMillis());
+    }
+}
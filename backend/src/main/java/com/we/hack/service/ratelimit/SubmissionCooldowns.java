@@ -0,0 +1,81 @@
+package com.we.hack.service.ratelimit;
+
+import com.we.hack.model.Hackathon;
+import com.we.hack.repository.HackathonRepository;
+import com.we.hack.service.logger.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Submission cooldown of each hackathon: its {@code submissionCooldownSeconds}, or
+ * {@code submissions.cooldown-ms} when it has none. Resolved values are kept for
+ * {@code submissions.cooldown.cache-ms}, so a change made through {@link #setCooldown} on one
+ * node reaches the others within that time.
+ */
+@Component
+public class SubmissionCooldowns {
+
+    private static Logger logger;
+
+    static {
+        try {
+            logger = Logger.getInstance(100);
+        } catch (IOException e) {
+            System.err.println("Failed to initialize logger: " + e.getMessage());
+        }
+    }
+
+    @Autowired
+    private HackathonRepository hackathonRepository;
+
+    @Value("${submissions.cooldown-ms:60000}")
+    private long defaultCooldownMillis;
+
+    @Value("${submissions.cooldown.cache-ms:5000}")
+    private long cacheMillis;
+
+    private final Map<Long, Cached> cooldowns = new ConcurrentHashMap<>();
+
+    public long cooldownMillis(long hackathonId) {
+        Cached cached = cooldowns.get(hackathonId);
+        if (cached != null && cached.expiresAt - System.nanoTime() > 0) {
+            return cached.millis;
+        }
+        // Unknown ids are not cached, so made-up ones cannot grow the map
+        Hackathon hackathon = hackathonRepository.findById(Math.toIntExact(hackathonId)).orElse(null);
+        if (hackathon == null) {
+            cooldowns.remove(hackathonId);
+            return defaultCooldownMillis;
+        }
+        long cooldown = hackathon.getSubmissionCooldownSeconds() != null
+                ? hackathon.getSubmissionCooldownSeconds() * 1000L : defaultCooldownMillis;
+        cooldowns.put(hackathonId, cache(cooldown));
+        return cooldown;
+    }
+
+    /**
+     * Applies a hackathon's changed cooldown; null goes back to the default. Cooldowns already
+     * running keep the length they started with.
+     */
+    public void setCooldown(long hackathonId, Integer seconds) {
+        cooldowns.put(hackathonId, cache(seconds != null ? seconds * 1000L : defaultCooldownMillis));
+        logger.INFO("Submission cooldown of hackathon " + hackathonId + " set to "
+                + (seconds != null ? seconds + "s" : "the default of " + defaultCooldownMillis + "ms"));
+    }
+
+    public void forget(long hackathonId) {
+        cooldowns.remove(hackathonId);
+    }
+
+    private Cached cache(long millis) {
+        return new Cached(millis, System.nanoTime() + cacheMillis * 1_000_000);
+    }
+
+    private record Cached(long millis, long expiresAt) {
+    }
+}
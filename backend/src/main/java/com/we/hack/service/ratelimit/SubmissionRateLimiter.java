@@ -0,0 +1,21 @@
+package com.we.hack.service.ratelimit;
+
+/**
+ * Decides whether a user may submit to a hackathon again. Implementations are picked with
+ * {@code submissions.rate-limiter}: {@code memory} ({@link SubmissionCooldownLimiter}, one
+ * node only) or {@code jdbc} ({@link JdbcSubmissionRateLimiter}, shared by every node through
+ * the database).
+ */
+public interface SubmissionRateLimiter {
+
+    /**
+     * Takes the user's turn to submit if one is available. The permit tells whether it was;
+     * a granted one is passed to {@link #release} if the submission is then rejected.
+     */
+    RateLimitPermit tryAcquire(long userId, long hackathonId);
+
+    /**
+     * Gives back a granted permit, so a rejected submission does not count.
+     */
+    void release(RateLimitPermit permit);
+}
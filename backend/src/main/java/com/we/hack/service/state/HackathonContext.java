@@ -2,8 +2,12 @@ package com.we.hack.service.state;
 
 import com.we.hack.model.Hackathon;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public class HackathonContext {
     private HackathonState currentState;
+    private final List<HackathonTransitionListener> listeners = new ArrayList<>();
 
     public HackathonContext(HackathonState initialState) {
         this.currentState = initialState;
@@ -17,15 +21,34 @@ public class HackathonContext {
         return currentState.getStateName();
     }
 
+    public void addTransitionListener(HackathonTransitionListener listener) {
+        listeners.add(listener);
+    }
+
     public void publish(Hackathon hackathon) {
+        String from = getCurrentState();
         currentState.publish(this, hackathon);
+        fireIfChanged(hackathon, from);
     }
 
     public void beginJudging(Hackathon hackathon) {
+        String from = getCurrentState();
         currentState.beginJudging(this, hackathon);
+        fireIfChanged(hackathon, from);
     }
 
     public void complete(Hackathon hackathon) {
+        String from = getCurrentState();
         currentState.complete(this, hackathon);
+        fireIfChanged(hackathon, from);
+    }
+
+    private void fireIfChanged(Hackathon hackathon, String from) {
+        String to = getCurrentState();
+        if (!from.equals(to)) {
+            for (HackathonTransitionListener listener : listeners) {
+                listener.onTransition(hackathon, from, to);
+            }
+        }
     }
 }
@@ -0,0 +1,10 @@
+package com.we.hack.service.state;
+
+import com.we.hack.model.Hackathon;
+
+/**
+ * Notified by {@link HackathonContext} after a hackathon moves to another state.
+ */
+public interface HackathonTransitionListener {
+    void onTransition(Hackathon hackathon, String fromState, String toState);
+}
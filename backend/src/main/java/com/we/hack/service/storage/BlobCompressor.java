@@ -0,0 +1,191 @@
+package com.we.hack.service.storage;
+
+import com.we.hack.service.logger.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Gzips blobs before they go into the store, when that is worth it.
+ * <p>
+ * Files whose first bytes show an already-compressed format (zip and its relatives, gzip,
+ * images, video, 7z, ...) are stored as they are without being read. Anything else is
+ * compressed into a sibling file; if that does not save at least
+ * {@code uploads.compression.min-saving} of the size, the compressed copy is dropped. The
+ * counters behind {@link #stats()} record how many bytes this saves on disk and how much
+ * CPU time it costs per MB read.
+ */
+@Component
+public class BlobCompressor {
+
+    private static Logger logger;
+
+    static {
+        try {
+            logger = Logger.getInstance(100);
+        } catch (IOException e) {
+            System.err.println("Failed to initialize logger: " + e.getMessage());
+        }
+    }
+
+    static final String GZIP_SUFFIX = ".gz";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MAGIC_BYTES = 12;
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    @Value("${uploads.compression.enabled:true}")
+    private boolean enabled;
+
+    @Value("${uploads.compression.level:6}")
+    private int level;
+
+    @Value("${uploads.compression.min-saving:0.1}")
+    private double minSaving;
+
+    private final LongAdder compressedFiles = new LongAdder();
+    private final LongAdder skippedByFormat = new LongAdder();
+    private final LongAdder skippedBySaving = new LongAdder();
+    private final LongAdder bytesRead = new LongAdder();
+    private final LongAdder bytesStored = new LongAdder();
+    private final LongAdder cpuNanos = new LongAdder();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Writes a gzip copy of {@code source} next to it.
+     *
+     * @return the compressed copy, or null if the file is stored uncompressed
+     */
+    Path compress(Path source) throws IOException {
+        if (!enabled) {
+            return null;
+        }
+        if (isCompressedFormat(source)) {
+            skippedByFormat.increment();
+            return null;
+        }
+
+        Path target = source.resolveSibling(source.getFileName() + GZIP_SUFFIX);
+        long cpuBefore = cpuTime();
+        long size;
+        try (InputStream in = Files.newInputStream(source);
+             OutputStream out = new LeveledGzipOutputStream(
+                     Files.newOutputStream(target, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE), level)) {
+            size = in.transferTo(out);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(target);
+            throw e;
+        }
+        cpuNanos.add(cpuTime() - cpuBefore);
+        bytesRead.add(size);
+
+        long compressed = Files.size(target);
+        if (compressed > size * (1 - minSaving)) {
+            Files.delete(target);
+            skippedBySaving.increment();
+            bytesStored.add(size);
+            logger.DEBUG(() -> "Stored " + source.getFileName() + " uncompressed, gzip only reached " + compressed + " of " + size + " bytes");
+            return null;
+        }
+        compressedFiles.increment();
+        bytesStored.add(compressed);
+        logger.DEBUG(() -> "Compressed " + source.getFileName() + " from " + size + " to " + compressed + " bytes");
+        return target;
+    }
+
+    public Map<String, Object> stats() {
+        long read = bytesRead.sum();
+        long stored = bytesStored.sum();
+        long cpu = cpuNanos.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("level", level);
+        stats.put("compressedFiles", compressedFiles.sum());
+        stats.put("skippedAlreadyCompressed", skippedByFormat.sum());
+        stats.put("skippedLowSaving", skippedBySaving.sum());
+        stats.put("bytesRead", read);
+        stats.put("bytesStored", stored);
+        stats.put("bytesSaved", read - stored);
+        stats.put("savedRatio", read == 0 ? 0.0 : (double) (read - stored) / read);
+        stats.put("cpuMillis", cpu / 1_000_000);
+        stats.put("cpuMillisPerMb", read == 0 ? 0.0 : (cpu / 1_000_000.0) / (read / (1024.0 * 1024.0)));
+        return stats;
+    }
+
+    /**
+     * True if the file starts with the signature of a format that is compressed already.
+     */
+    static boolean isCompressedFormat(Path file) throws IOException {
+        ByteBuffer head = ByteBuffer.allocate(MAGIC_BYTES);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // Short files leave the buffer partly empty
+            int read;
+            do {
+                read = channel.read(head);
+            } while (read > 0 && head.hasRemaining());
+        }
+        return isCompressedFormat(head.array(), head.position());
+    }
+
+    static boolean isCompressedFormat(byte[] b, int n) {
+        return startsWith(b, n, 0x50, 0x4B, 0x03, 0x04)           // zip, jar, docx, xlsx, pptx, apk
+                || startsWith(b, n, 0x50, 0x4B, 0x05, 0x06)       // empty zip
+                || startsWith(b, n, 0x50, 0x4B, 0x07, 0x08)       // spanned zip
+                || startsWith(b, n, 0x1F, 0x8B)                   // gzip, tar.gz
+                || startsWith(b, n, 0x42, 0x5A, 0x68)             // bzip2
+                || startsWith(b, n, 0xFD, 0x37, 0x7A, 0x58, 0x5A, 0x00) // xz
+                || startsWith(b, n, 0x28, 0xB5, 0x2F, 0xFD)       // zstd
+                || startsWith(b, n, 0x37, 0x7A, 0xBC, 0xAF, 0x27, 0x1C) // 7z
+                || startsWith(b, n, 0x52, 0x61, 0x72, 0x21, 0x1A, 0x07) // rar
+                || startsWith(b, n, 0x89, 0x50, 0x4E, 0x47)       // png
+                || startsWith(b, n, 0xFF, 0xD8, 0xFF)             // jpeg
+                || startsWith(b, n, 0x47, 0x49, 0x46, 0x38)       // gif
+                || startsWith(b, n, 0x49, 0x44, 0x33)             // mp3 with ID3 tag
+                || startsWith(b, n, 0x1A, 0x45, 0xDF, 0xA3)       // mkv, webm
+                || startsWith(b, n, 0x4F, 0x67, 0x67, 0x53)       // ogg
+                || (startsWith(b, n, 0x52, 0x49, 0x46, 0x46) && n >= 12
+                    && b[8] == 'W' && b[9] == 'E' && b[10] == 'B' && b[11] == 'P') // webp
+                || (n >= 8 && b[4] == 'f' && b[5] == 't' && b[6] == 'y' && b[7] == 'p'); // mp4, mov, heic
+    }
+
+    private static boolean startsWith(byte[] b, int n, int... magic) {
+        if (n < magic.length) {
+            return false;
+        }
+        for (int i = 0; i < magic.length; i++) {
+            if ((b[i] & 0xFF) != magic[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long cpuTime() {
+        return THREADS.isCurrentThreadCpuTimeSupported() ? THREADS.getCurrentThreadCpuTime() : System.nanoTime();
+    }
+
+    // GZIPOutputStream has no level parameter, but exposes its Deflater to subclasses
+    private static final class LeveledGzipOutputStream extends GZIPOutputStream {
+        LeveledGzipOutputStream(OutputStream out, int level) throws IOException {
+            super(out, BUFFER_SIZE);
+            def.setLevel(level);
+        }
+    }
+}
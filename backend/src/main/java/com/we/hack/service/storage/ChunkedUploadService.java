@@ -0,0 +1,354 @@
+package com.we.hack.service.storage;
+
+import com.we.hack.dto.ChunkedUploadStatus;
+import com.we.hack.service.logger.Logger;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * Resumable uploads in three steps: {@link #init} reserves a staging file, {@link #writeChunk}
+ * writes one checksummed chunk at its offset, and {@link #commit} hands the complete file to
+ * {@link UploadStorage} and the caller.
+ * <p>
+ * Chunks are written with positional {@link FileChannel} writes, so they may arrive in any
+ * order, in parallel, or again after a failure. Each request carries at most
+ * {@code uploads.chunked.max-chunk-bytes}, so no request thread is tied up for long however
+ * large the file. A chunk is read into memory and its SHA-256 checked before any byte reaches
+ * the staging file, so a corrupt chunk never overwrites data already verified. Chunk writes
+ * share a read lock that a commit takes exclusively: a commit waits for writes in progress,
+ * and writes arriving during a commit are refused. Uploads idle for
+ * {@code uploads.chunked.expiry-ms} are deleted; uploads are kept in memory and do not
+ * survive a restart.
+ */
+@Service
+public class ChunkedUploadService {
+
+    private static Logger logger;
+
+    static {
+        try {
+            logger = Logger.getInstance(100);
+        } catch (IOException e) {
+            System.err.println("Failed to initialize logger: " + e.getMessage());
+        }
+    }
+
+    private static final HexFormat HEX = HexFormat.of();
+
+    @Autowired
+    private UploadStorage uploadStorage;
+
+    @Value("${uploads.chunked.max-bytes:104857600}")
+    private long maxBytes;
+
+    @Value("${uploads.chunked.max-chunk-bytes:8388608}")
+    private long maxChunkBytes;
+
+    @Value("${uploads.chunked.max-active:200}")
+    private int maxActive;
+
+    @Value("${uploads.chunked.expiry-ms:3600000}")
+    private long expiryMillis;
+
+    private final Map<String, Upload> uploads = new ConcurrentHashMap<>();
+
+    @PreDestroy
+    public void stop() {
+        for (Upload upload : uploads.values()) {
+            upload.discard();
+        }
+    }
+
+    /**
+     * Starts an upload of {@code size} bytes.
+     *
+     * @param sha256 hex SHA-256 of the whole file, checked on commit; may be null
+     */
+    public ChunkedUploadStatus init(Long userId, int hackathonId, String filename, long size, String sha256) throws IOException {
+        if (size <= 0 || size > maxBytes) {
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE, "File must be between 1 byte and " + maxBytes + " bytes");
+        }
+        if (sha256 != null && (sha256.length() != 64 || !isHex(sha256))) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "sha256 must be 64 hex digits");
+        }
+        if (uploads.size() >= maxActive) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many uploads in progress, try again later");
+        }
+        Upload upload = new Upload(uploadStorage.newStagingFile(".chunked"), userId, hackathonId, filename, size,
+                sha256 == null ? null : sha256.toLowerCase());
+        uploads.put(upload.id, upload);
+        logger.INFO("Chunked upload " + upload.id + " started by user " + userId + ": " + filename + " (" + size + " bytes)");
+        return upload.status();
+    }
+
+    public ChunkedUploadStatus status(String uploadId) {
+        return find(uploadId).status();
+    }
+
+    /**
+     * Writes {@code length} bytes from {@code body} at {@code offset}. The bytes are only
+     * written, and the range marked received, if they hash to {@code sha256}; a mismatching
+     * chunk changes nothing and is simply sent again.
+     */
+    public ChunkedUploadStatus writeChunk(String uploadId, long offset, long length, String sha256, InputStream body) throws IOException {
+        Upload upload = find(uploadId);
+        if (sha256 == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Chunk checksum is required");
+        }
+        if (length <= 0 || length > maxChunkBytes) {
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE, "Chunks must be between 1 byte and " + maxChunkBytes + " bytes");
+        }
+        if (offset < 0 || offset + length > upload.size) {
+            throw new ResponseStatusException(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE, "Chunk lies outside the declared file size");
+        }
+
+        byte[] chunk = new byte[(int) length];
+        int read = body.readNBytes(chunk, 0, chunk.length);
+        if (read < length) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Chunk ended after " + read + " of " + length + " bytes");
+        }
+        if (body.read() >= 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Chunk is longer than " + length + " bytes");
+        }
+        if (!MessageDigest.isEqual(sha256().digest(chunk), parseHex(sha256))) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Chunk checksum mismatch at offset " + offset);
+        }
+
+        // Refused rather than queued behind a commit, whose outcome decides whether the upload still exists
+        if (!upload.lock.readLock().tryLock()) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Upload is being committed");
+        }
+        try {
+            if (uploads.get(uploadId) != upload) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Upload not found or expired");
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(chunk);
+            while (buffer.hasRemaining()) {
+                upload.channel.write(buffer, offset + buffer.position());
+            }
+            upload.received(offset, offset + length);
+        } finally {
+            upload.lock.readLock().unlock();
+        }
+        return upload.status();
+    }
+
+    /**
+     * Checks that every byte arrived (and the whole-file checksum, if one was declared),
+     * then passes the file to {@code attach}. The upload ends when {@code attach} returns;
+     * if it throws, the upload stays available so the commit can be retried.
+     */
+    public <T> T commit(String uploadId, Long userId, int hackathonId,
+                        Function<UploadStorage.StagedUpload, T> attach) throws IOException {
+        Upload upload = find(uploadId);
+        upload.lock.writeLock().lock();
+        try {
+            if (uploads.get(uploadId) != upload) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Upload not found or expired");
+            }
+            if (!upload.userId.equals(userId) || upload.hackathonId != hackathonId) {
+                throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Upload was started for another user or hackathon");
+            }
+            if (upload.receivedBytes() != upload.size) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT,
+                        "Upload incomplete: " + upload.receivedBytes() + " of " + upload.size + " bytes received");
+            }
+            try {
+                upload.channel.force(false);
+                UploadStorage.StagedUpload staged = uploadStorage.adopt(upload.file, upload.filename);
+                if (upload.sha256 != null && !upload.sha256.equals(staged.getHash())) {
+                    throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY, "File checksum mismatch, upload it again");
+                }
+                T result = attach.apply(staged);
+                uploads.remove(uploadId);
+                upload.closeChannel();
+                logger.INFO("Chunked upload " + uploadId + " committed, sha256 " + staged.getHash());
+                return result;
+            } catch (RuntimeException | IOException e) {
+                if (!Files.exists(upload.file)) {
+                    // The file was already moved into storage, nothing left to retry with
+                    uploads.remove(uploadId);
+                    upload.closeChannel();
+                }
+                throw e;
+            }
+        } finally {
+            upload.lock.writeLock().unlock();
+        }
+    }
+
+    public void cancel(String uploadId) {
+        Upload upload = uploads.get(uploadId);
+        if (upload == null) {
+            return;
+        }
+        upload.lock.writeLock().lock();
+        try {
+            if (uploads.remove(uploadId, upload)) {
+                upload.discard();
+            }
+        } finally {
+            upload.lock.writeLock().unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${uploads.chunked.purge-ms:60000}")
+    public void purgeExpired() {
+        long cutoff = System.currentTimeMillis() - expiryMillis;
+        for (Upload upload : uploads.values()) {
+            // Skipped while a commit or write holds it; it is active then anyway
+            if (upload.lastActivity >= cutoff || !upload.lock.writeLock().tryLock()) {
+                continue;
+            }
+            try {
+                if (upload.lastActivity < cutoff && uploads.remove(upload.id, upload)) {
+                    upload.discard();
+                    logger.INFO("Chunked upload " + upload.id + " expired after " + upload.receivedBytes() + " of " + upload.size + " bytes");
+                }
+            } finally {
+                upload.lock.writeLock().unlock();
+            }
+        }
+    }
+
+    private Upload find(String uploadId) {
+        Upload upload = uploads.get(uploadId);
+        if (upload == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Upload not found or expired");
+        }
+        upload.lastActivity = System.currentTimeMillis();
+        return upload;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static boolean isHex(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (!HexFormat.isHexDigit(value.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static byte[] parseHex(String value) {
+        if (value.length() != 64 || !isHex(value)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Chunk checksum must be 64 hex digits");
+        }
+        return HEX.parseHex(value);
+    }
+
+    private final class Upload {
+        final String id = UUID.randomUUID().toString();
+        final Path file;
+        final Long userId;
+        final int hackathonId;
+        final String filename;
+        final long size;
+        final String sha256;
+        // Received byte ranges, start -> end (exclusive), merged so they never touch
+        private final TreeMap<Long, Long> received = new TreeMap<>();
+        // Positional writes on one channel are safe from several request threads at once
+        final FileChannel channel;
+        // Shared by chunk writes, exclusive for commit, cancel and expiry
+        final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        volatile long lastActivity = System.currentTimeMillis();
+
+        Upload(Path file, Long userId, int hackathonId, String filename, long size, String sha256) throws IOException {
+            this.file = file;
+            this.userId = userId;
+            this.hackathonId = hackathonId;
+            this.filename = filename;
+            this.size = size;
+            this.sha256 = sha256;
+            this.channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        }
+
+        synchronized void received(long start, long end) {
+            Map.Entry<Long, Long> before = received.floorEntry(start);
+            if (before != null && before.getValue() >= start) {
+                start = before.getKey();
+                end = Math.max(end, before.getValue());
+            }
+            Map.Entry<Long, Long> next = received.ceilingEntry(start);
+            while (next != null && next.getKey() <= end) {
+                end = Math.max(end, next.getValue());
+                received.remove(next.getKey());
+                next = received.ceilingEntry(start);
+            }
+            received.put(start, end);
+        }
+
+        synchronized long receivedBytes() {
+            long total = 0;
+            for (Map.Entry<Long, Long> range : received.entrySet()) {
+                total += range.getValue() - range.getKey();
+            }
+            return total;
+        }
+
+        synchronized ChunkedUploadStatus status() {
+            List<long[]> ranges = new ArrayList<>(received.size());
+            for (Map.Entry<Long, Long> range : received.entrySet()) {
+                ranges.add(new long[]{range.getKey(), range.getValue()});
+            }
+            return ChunkedUploadStatus.builder()
+                    .uploadId(id)
+                    .filename(filename)
+                    .size(size)
+                    .receivedBytes(receivedBytes())
+                    .receivedRanges(ranges)
+                    .maxChunkBytes(maxChunkBytes)
+                    .expiresAt(Instant.ofEpochMilli(lastActivity + expiryMillis))
+                    .build();
+        }
+
+        void closeChannel() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                logger.ERROR("Failed to close chunked upload " + id + ": " + e.getMessage());
+            }
+        }
+
+        void discard() {
+            closeChannel();
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                logger.ERROR("Failed to delete chunked upload " + id + ": " + e.getMessage());
+            }
+        }
+    }
+}
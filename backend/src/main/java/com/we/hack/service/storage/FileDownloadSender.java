@@ -0,0 +1,244 @@
+package com.we.hack.service.storage;
+
+import com.we.hack.service.logger.Logger;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+
+/**
+ * Sends a stored file with HTTP caching and range support.
+ * <p>
+ * Conditional requests are answered from an ETag and Last-Modified without reading the file.
+ * A single {@code Range: bytes=...} is served as 206 Partial Content, so interrupted
+ * downloads resume; several ranges, or a stale {@code If-Range}, get the whole file. Bytes are
+ * handed to Tomcat's sendfile when the connector supports it, so they go from the page cache
+ * to the socket without passing through the JVM; otherwise they are copied with
+ * {@link FileChannel#transferTo}.
+ * <p>
+ * Gzipped blobs are sent as they are, with {@code Content-Encoding: gzip}, to clients that
+ * accept it; ranges and ETags then refer to the compressed bytes. Other clients get the
+ * content inflated on the fly, and a range is served by inflating up to its start.
+ */
+@Component
+public class FileDownloadSender {
+
+    private static Logger logger;
+
+    static {
+        try {
+            logger = Logger.getInstance(100);
+        } catch (IOException e) {
+            System.err.println("Failed to initialize logger: " + e.getMessage());
+        }
+    }
+
+    // Tomcat request attributes, see org.apache.catalina.Globals
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+    // Below this a plain copy is cheaper than handing the file to the poller, as Tomcat's DefaultServlet does
+    private static final long SENDFILE_MIN_BYTES = 48 * 1024;
+    private static final int INFLATE_BUFFER = 64 * 1024;
+
+    /**
+     * @param contentHash hex SHA-256 of the file if known (content-addressed blobs), else null
+     */
+    public void send(HttpServletRequest request, HttpServletResponse response, UploadStorage.StoredFile stored,
+                     String filename, String contentHash) throws IOException {
+        Path file = stored.getPath();
+        boolean encoded = stored.isGzipped() && acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        boolean inflate = stored.isGzipped() && !encoded;
+        long length = encoded ? Files.size(file) : stored.getLength();
+        long lastModified = Files.getLastModifiedTime(file).toMillis();
+        // Blobs are immutable, so their hash is a strong validator; legacy files only get a weak one.
+        // The gzip representation has different bytes, so it needs a different tag
+        String etag = contentHash != null ? "\"" + contentHash + (encoded ? "-gzip" : "") + "\""
+                : "W/\"" + length + "-" + lastModified + "\"";
+
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (stored.isGzipped()) {
+            response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+        if (new ServletWebRequest(request, response).checkNotModified(etag, lastModified)) {
+            return;
+        }
+        response.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+        if (encoded) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename(filename, StandardCharsets.UTF_8).build().toString());
+
+        long start = 0;
+        long end = length - 1;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        if (range != null && ifRangeMatches(request.getHeader(HttpHeaders.IF_RANGE), etag, lastModified)) {
+            long[] bounds = parseRange(range, length);
+            if (bounds == null) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+            if (bounds.length == 2) {
+                start = bounds[0];
+                end = bounds[1];
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            }
+        }
+        long count = end - start + 1;
+        response.setContentLengthLong(count);
+        if (count <= 0) {
+            return;
+        }
+
+        if (inflate) {
+            sendInflated(stored, start, count, response.getOutputStream());
+            return;
+        }
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED)) && count >= SENDFILE_MIN_BYTES) {
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            logger.DEBUG(() -> "Sending " + count + " bytes of " + file.getFileName() + " with sendfile");
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            while (position <= end) {
+                long sent = channel.transferTo(position, end + 1 - position, out);
+                if (sent <= 0) {
+                    // File shrank underneath us; the blob store never rewrites files, so give up
+                    break;
+                }
+                position += sent;
+            }
+        }
+    }
+
+    private static void sendInflated(UploadStorage.StoredFile stored, long start, long count,
+                                     OutputStream out) throws IOException {
+        try (InputStream in = stored.openContent()) {
+            // Inflating is the only way to find an offset in a gzip stream
+            in.skipNBytes(start);
+            byte[] buffer = new byte[INFLATE_BUFFER];
+            long remaining = count;
+            while (remaining > 0) {
+                int n = in.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+                if (n < 0) {
+                    break;
+                }
+                out.write(buffer, 0, n);
+                remaining -= n;
+            }
+        }
+    }
+
+    /**
+     * True if an {@code Accept-Encoding} header allows gzip, i.e. lists {@code gzip} (or
+     * {@code *}) without {@code q=0}.
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String part : acceptEncoding.split(",")) {
+            String[] params = part.split(";");
+            String coding = params[0].trim().toLowerCase(Locale.ROOT);
+            if (!coding.equals("gzip") && !coding.equals("x-gzip") && !coding.equals("*")) {
+                continue;
+            }
+            boolean refused = false;
+            for (int i = 1; i < params.length; i++) {
+                String param = params[i].trim();
+                if (param.startsWith("q=")) {
+                    try {
+                        refused = Double.parseDouble(param.substring(2)) == 0;
+                    } catch (NumberFormatException e) {
+                        refused = true;
+                    }
+                }
+            }
+            if (!refused) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Parses a {@code bytes=} range against a file of {@code length} bytes.
+     *
+     * @return {start, end} inclusive for one satisfiable range, an empty array when the header
+     *         should be ignored (not bytes, malformed or several ranges), or null if unsatisfiable
+     */
+    static long[] parseRange(String header, long length) {
+        if (!header.startsWith("bytes=") || header.indexOf(',') >= 0) {
+            return new long[0];
+        }
+        String spec = header.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return new long[0];
+        }
+        try {
+            long start;
+            long end;
+            if (dash == 0) {
+                // Suffix range: the last n bytes
+                long suffix = Long.parseLong(spec.substring(1));
+                if (suffix <= 0) {
+                    return null;
+                }
+                start = Math.max(0, length - suffix);
+                end = length - 1;
+            } else {
+                start = Long.parseLong(spec.substring(0, dash));
+                end = dash == spec.length() - 1 ? length - 1 : Math.min(Long.parseLong(spec.substring(dash + 1)), length - 1);
+                if (end < start) {
+                    return start >= length ? null : new long[0];
+                }
+            }
+            return start >= length ? null : new long[]{start, end};
+        } catch (NumberFormatException e) {
+            return new long[0];
+        }
+    }
+
+    // If-Range needs a strong ETag or the exact Last-Modified date; anything else means "send it all"
+    private static boolean ifRangeMatches(String ifRange, String etag, long lastModified) {
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"")) {
+            return !etag.startsWith("W/") && ifRange.equals(etag);
+        }
+        try {
+            long date = ZonedDateTime.parse(ifRange, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+            return date / 1000 == lastModified / 1000;
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+}
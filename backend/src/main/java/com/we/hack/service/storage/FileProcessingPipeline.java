@@ -0,0 +1,211 @@
+package com.we.hack.service.storage;
+
+import com.we.hack.model.ProcessingStatus;
+import com.we.hack.model.Submission;
+import com.we.hack.repository.SubmissionRepository;
+import com.we.hack.service.logger.Logger;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Finishes uploaded files after the submission request has returned.
+ * <p>
+ * The request thread streams the upload into staging (hashing it on the way, so the final
+ * path is already known), validates and saves the submission with status
+ * {@link ProcessingStatus#PENDING}. Once that transaction commits, a job here moves the file
+ * into content-addressed storage and marks the submission {@link ProcessingStatus#READY}, or
+ * {@link ProcessingStatus#FAILED}. Request latency therefore no longer grows with the work
+ * done on the file.
+ * <p>
+ * Jobs run on {@code uploads.processing.threads} threads with a queue of
+ * {@code uploads.processing.queue-size}. A submission arriving while the queue is full is
+ * refused with 503 before anything is saved. A job that finds the queue full after its commit
+ * waits up to {@code uploads.processing.dispatch-timeout-ms} for room; if there is none, or
+ * the pipeline is shutting down, the submission is marked failed. Jobs never run on the
+ * request thread. Status changes run in transactions of their own, as the job starts after the
+ * submitting transaction has completed. Platform threads are used: virtual threads are only a
+ * preview feature on the Java 20 this project builds with.
+ */
+@Service
+public class FileProcessingPipeline {
+
+    private static Logger logger;
+
+    static {
+        try {
+            logger = Logger.getInstance(100);
+        } catch (IOException e) {
+            System.err.println("Failed to initialize logger: " + e.getMessage());
+        }
+    }
+
+    @Autowired
+    private SubmissionRepository submissionRepository;
+
+    @Autowired
+    private UploadStorage uploadStorage;
+
+    @Value("${uploads.processing.threads:2}")
+    private int threads;
+
+    @Value("${uploads.processing.queue-size:500}")
+    private int queueSize;
+
+    @Value("${uploads.processing.dispatch-timeout-ms:2000}")
+    private long dispatchTimeoutMillis;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private ThreadPoolExecutor executor;
+    private TransactionTemplate ownTransaction;
+
+    @PostConstruct
+    public void start() {
+        AtomicInteger counter = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "file-processing-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                (job, pool) -> {
+                    // Waits briefly for room in the queue rather than running the job here
+                    try {
+                        if (!pool.isShutdown() && pool.getQueue().offer(job, dispatchTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                            return;
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    throw new RejectedExecutionException(pool.isShutdown() ? "shutting down" : "queue full");
+                });
+        executor.prestartAllCoreThreads();
+        ownTransaction = new TransactionTemplate(transactionManager);
+        ownTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+            logger.WARN("File processing stopped with " + executor.getQueue().size() + " jobs still queued");
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Processes {@code upload} for a saved submission once the current transaction commits.
+     * If it rolls back the staged file is discarded instead.
+     *
+     * @throws ResponseStatusException 503 if the queue is full, so the transaction rolls back;
+     *         the staged file is discarded as on any rollback
+     */
+    public void submit(Long submissionId, UploadStorage.StagedUpload upload) {
+        if (executor.isShutdown() || executor.getQueue().remainingCapacity() == 0) {
+            upload.close();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many files being processed, try again later");
+        }
+        Runnable job = () -> process(submissionId, upload);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    dispatch(submissionId, upload, job);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        upload.close();
+                    }
+                }
+            });
+        } else {
+            dispatch(submissionId, upload, job);
+        }
+    }
+
+    private void dispatch(Long submissionId, UploadStorage.StagedUpload upload, Runnable job) {
+        try {
+            executor.execute(job);
+        } catch (RejectedExecutionException e) {
+            // The submission is saved already; it is left FAILED rather than PENDING forever
+            logger.ERROR("File of submission " + submissionId + " was not processed (" + e.getMessage() + ")");
+            upload.close();
+            updateStatus(submissionId, upload.storedPath(), ProcessingStatus.FAILED);
+        }
+    }
+
+    public int queued() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * Jobs of a previous run are lost with the process, and its staged files are removed at
+     * start-up. Submissions they left unfinished are resolved by whether the blob made it.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recoverUnfinished() {
+        List<Submission> unfinished = submissionRepository.findByProcessingStatusIn(
+                List.of(ProcessingStatus.PENDING, ProcessingStatus.PROCESSING));
+        for (Submission submission : unfinished) {
+            boolean stored = uploadStorage.exists(submission.getFilePath());
+            updateStatus(submission.getId(), submission.getFilePath(),
+                    stored ? ProcessingStatus.READY : ProcessingStatus.FAILED);
+            if (!stored) {
+                logger.WARN("Submission " + submission.getId() + " lost its file while it was being processed");
+            }
+        }
+    }
+
+    private void process(Long submissionId, UploadStorage.StagedUpload upload) {
+        long start = System.nanoTime();
+        String path = upload.storedPath();
+        try {
+            updateStatus(submissionId, path, ProcessingStatus.PROCESSING);
+            upload.commit();
+            updateStatus(submissionId, path, ProcessingStatus.READY);
+            logger.DEBUG(() -> "Processed file of submission " + submissionId + " in " + ((System.nanoTime() - start) / 1_000_000) + "ms");
+        } catch (Exception e) {
+            logger.ERROR("Processing the file of submission " + submissionId + " failed: " + e.getMessage());
+            updateStatus(submissionId, path, ProcessingStatus.FAILED);
+        } finally {
+            upload.close();
+        }
+    }
+
+    // Never joins a caller's transaction, which may already have completed
+    private void updateStatus(Long submissionId, String path, ProcessingStatus status) {
+        try {
+            ownTransaction.executeWithoutResult(
+                    tx -> submissionRepository.updateProcessingStatus(submissionId, path, status));
+        } catch (RuntimeException e) {
+            if (status != ProcessingStatus.FAILED) {
+                throw e;
+            }
+            logger.ERROR("Could not mark submission " + submissionId + " as failed: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,324 @@
+package com.we.hack.service.storage;
+
+import com.we.hack.dto.SubmissionExportRow;
+import com.we.hack.repository.HackathonRepository;
+import com.we.hack.repository.SubmissionRepository;
+import com.we.hack.service.logger.Logger;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Streams every primary submission of a hackathon as one zip: {@code manifest.csv} with a
+ * row per submission, then each uploaded file under {@code files/<submissionId>/}.
+ * <p>
+ * Nothing is buffered beyond a page of {@code exports.page-size} rows and the copy buffers:
+ * submissions are read in keyset pages (twice, once for the manifest and once for the files),
+ * and files are copied from the blob store into the zip as they are read. Writes block while
+ * the client is slow, which throttles the whole export to its pace; a client that goes away
+ * fails the next write and ends the export. At most {@code exports.max-concurrent} exports run
+ * at a time, as each holds a request thread for its whole duration.
+ * <p>
+ * Each export may take up to {@code exports.timeout-ms}, set on its own async request so other
+ * async endpoints keep the container's default. Once the body has started it owns the export
+ * slot and gives it back when it finishes, even if the request timed out meanwhile and the
+ * writer is still winding down. A body that never ran does not keep the slot: the request
+ * completing, timing out or failing first gives it back, and the body then does nothing.
+ */
+@Service
+public class HackathonExportService {
+
+    private static Logger logger;
+
+    static {
+        try {
+            logger = Logger.getInstance(100);
+        } catch (IOException e) {
+            System.err.println("Failed to initialize logger: " + e.getMessage());
+        }
+    }
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String[] MANIFEST_HEADER = {
+            "submission_id", "team_id", "team_name", "submitted_by", "title", "description", "project_url",
+            "submit_time", "original_filename", "size_bytes", "sha256", "processing_status", "archive_path"};
+
+    @Autowired
+    private HackathonRepository hackathonRepository;
+
+    @Autowired
+    private SubmissionRepository submissionRepository;
+
+    @Autowired
+    private UploadStorage uploadStorage;
+
+    @Value("${exports.page-size:200}")
+    private int pageSize;
+
+    @Value("${exports.max-concurrent:2}")
+    private int maxConcurrent;
+
+    @Value("${exports.timeout-ms:3600000}")
+    private long timeoutMillis;
+
+    private Semaphore running;
+
+    @PostConstruct
+    public void init() {
+        running = new Semaphore(maxConcurrent);
+    }
+
+    /**
+     * Reserves an export slot and returns the body that writes the zip. The body must be
+     * returned from the handler of {@code request}, which then times out after
+     * {@code exports.timeout-ms}.
+     *
+     * @throws ResponseStatusException 503 if {@code exports.max-concurrent} exports are running
+     */
+    public StreamingResponseBody export(Long hackathonId, WebRequest request) {
+        hackathonRepository.findById(Math.toIntExact(hackathonId))
+                .orElseThrow(() -> new RuntimeException("Hackathon not found"));
+        if (!running.tryAcquire()) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many exports running, try again later");
+        }
+        // Set by whichever takes the slot over: the body as it starts, or the request ending first
+        AtomicBoolean claimed = new AtomicBoolean();
+        try {
+            WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor(
+                    HackathonExportService.class.getName(), new ExportLifecycle(hackathonId, claimed));
+        } catch (RuntimeException e) {
+            running.release();
+            throw e;
+        }
+        return out -> {
+            if (!claimed.compareAndSet(false, true)) {
+                logger.WARN("Export of hackathon " + hackathonId + " ended before it started");
+                return;
+            }
+            try {
+                write(hackathonId, out);
+            } finally {
+                running.release();
+            }
+        };
+    }
+
+    /**
+     * Sets the export's timeout as its async request starts, and frees its slot when the
+     * request ends before the body started.
+     */
+    private final class ExportLifecycle implements CallableProcessingInterceptor {
+        private final Long hackathonId;
+        private final AtomicBoolean claimed;
+
+        ExportLifecycle(Long hackathonId, AtomicBoolean claimed) {
+            this.hackathonId = hackathonId;
+            this.claimed = claimed;
+        }
+
+        @Override
+        public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+            // Called just before the async context starts, which applies the timeout
+            if (request instanceof AsyncWebRequest asyncRequest) {
+                asyncRequest.setTimeout(timeoutMillis);
+            }
+        }
+
+        @Override
+        public <T> Object handleTimeout(NativeWebRequest request, Callable<T> task) {
+            // The writing thread is interrupted and stops at the next file, then frees the slot
+            logger.WARN("Export of hackathon " + hackathonId + " timed out after " + timeoutMillis + "ms");
+            releaseIfNotStarted();
+            return RESULT_NONE;
+        }
+
+        @Override
+        public <T> Object handleError(NativeWebRequest request, Callable<T> task, Throwable t) {
+            releaseIfNotStarted();
+            return RESULT_NONE;
+        }
+
+        @Override
+        public <T> void afterCompletion(NativeWebRequest request, Callable<T> task) {
+            releaseIfNotStarted();
+        }
+
+        private void releaseIfNotStarted() {
+            if (claimed.compareAndSet(false, true)) {
+                running.release();
+            }
+        }
+    }
+
+    private void write(Long hackathonId, OutputStream out) throws IOException {
+        long start = System.nanoTime();
+        int files = 0;
+        long bytes = 0;
+        ZipOutputStream zip = new ZipOutputStream(new BufferedOutputStream(out, BUFFER_SIZE));
+        try {
+            zip.setLevel(Deflater.DEFAULT_COMPRESSION);
+            zip.putNextEntry(new ZipEntry("manifest.csv"));
+            // Not closed: that would close the zip stream too
+            Writer csv = new OutputStreamWriter(zip, StandardCharsets.UTF_8);
+            writeCsvRow(csv, MANIFEST_HEADER);
+            Long afterId = 0L;
+            List<SubmissionExportRow> page;
+            do {
+                page = nextPage(hackathonId, afterId);
+                for (SubmissionExportRow row : page) {
+                    writeCsvRow(csv, manifestRow(row));
+                    afterId = row.getId();
+                }
+            } while (page.size() == pageSize);
+            csv.flush();
+            zip.closeEntry();
+
+            afterId = 0L;
+            do {
+                page = nextPage(hackathonId, afterId);
+                for (SubmissionExportRow row : page) {
+                    afterId = row.getId();
+                    if (Thread.currentThread().isInterrupted()) {
+                        throw new InterruptedIOException("Export interrupted");
+                    }
+                    long copied = writeFile(zip, row);
+                    if (copied >= 0) {
+                        files++;
+                        bytes += copied;
+                    }
+                }
+            } while (page.size() == pageSize);
+
+            zip.finish();
+            zip.flush();
+            logger.INFO("Exported hackathon " + hackathonId + ": " + files + " files, " + bytes + " bytes in "
+                    + (System.nanoTime() - start) / 1_000_000 + "ms");
+        } catch (IOException e) {
+            // Usually the client disconnecting; the rest of the export is not worth producing
+            logger.WARN("Export of hackathon " + hackathonId + " stopped after " + files + " files: " + e.getMessage());
+            throw e;
+        }
+    }
+
+    private List<SubmissionExportRow> nextPage(Long hackathonId, Long afterId) {
+        return submissionRepository.findPrimaryExportPage(hackathonId, afterId, PageRequest.of(0, pageSize));
+    }
+
+    /**
+     * Copies one submission's file into the zip.
+     *
+     * @return the bytes copied, or -1 if the submission has no stored file
+     */
+    private long writeFile(ZipOutputStream zip, SubmissionExportRow row) throws IOException {
+        String archivePath = archivePath(row);
+        if (archivePath == null) {
+            return -1;
+        }
+        UploadStorage.StoredFile stored = uploadStorage.locate(row.getFilePath());
+        if (stored == null) {
+            // Still being processed, or deleted since the manifest was written
+            logger.WARN("Export skipped submission " + row.getId() + ", its file is not in storage");
+            return -1;
+        }
+        // Archives and media would only burn CPU in the deflater; gzipped blobs are compressible content
+        boolean compressible = stored.isGzipped() || !BlobCompressor.isCompressedFormat(stored.getPath());
+        zip.setLevel(compressible ? Deflater.DEFAULT_COMPRESSION : Deflater.NO_COMPRESSION);
+
+        ZipEntry entry = new ZipEntry(archivePath);
+        if (row.getSubmitTime() != null) {
+            entry.setTime(row.getSubmitTime().toEpochMilli());
+        }
+        zip.putNextEntry(entry);
+        long copied;
+        try (InputStream in = stored.openContent()) {
+            copied = in.transferTo(zip);
+        }
+        zip.closeEntry();
+        return copied;
+    }
+
+    private String[] manifestRow(SubmissionExportRow row) throws IOException {
+        String archivePath = archivePath(row);
+        UploadStorage.StoredFile stored = archivePath != null ? uploadStorage.locate(row.getFilePath()) : null;
+        return new String[]{
+                String.valueOf(row.getId()),
+                row.getTeamId() != null ? String.valueOf(row.getTeamId()) : "",
+                row.getTeamName(),
+                row.getSubmittedBy(),
+                row.getTitle(),
+                row.getDescription(),
+                row.getProjectUrl(),
+                row.getSubmitTime() != null ? row.getSubmitTime().toString() : "",
+                archivePath != null ? fileName(row) : "",
+                stored != null ? String.valueOf(stored.getLength()) : "",
+                row.getFilePath() != null ? uploadStorage.contentHash(row.getFilePath()) : "",
+                row.getProcessingStatus() != null ? row.getProcessingStatus().name() : "",
+                stored != null ? archivePath : ""};
+    }
+
+    // Null for submissions without a file
+    private static String archivePath(SubmissionExportRow row) {
+        return row.getFilePath() == null ? null : "files/" + row.getId() + "/" + fileName(row);
+    }
+
+    private static String fileName(SubmissionExportRow row) {
+        String name = row.getOriginalFilename();
+        if (name == null) {
+            // Files from before content addressing are named timestamp_originalname
+            name = row.getFilePath().substring(row.getFilePath().lastIndexOf('/') + 1);
+            name = name.substring(name.indexOf('_') + 1);
+        }
+        name = name.replace('\\', '_').replace('/', '_');
+        return name.isBlank() || name.equals("..") ? "upload" : name;
+    }
+
+    private static void writeCsvRow(Writer csv, String[] fields) throws IOException {
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                csv.write(',');
+            }
+            csv.write(csvField(fields[i]));
+        }
+        csv.write("\r\n");
+    }
+
+    private static String csvField(String value) {
+        if (value == null || value.isEmpty()) {
+            return "";
+        }
+        // Spreadsheets run cells starting with these as formulas
+        if ("=+-@".indexOf(value.charAt(0)) >= 0) {
+            value = "'" + value;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+}
@@ -0,0 +1,450 @@
+package com.we.hack.service.storage;
+
+import com.we.hack.repository.SubmissionRepository;
+import com.we.hack.service.chain.FileSizeValidator;
+import com.we.hack.service.logger.Logger;
+import com.we.hack.service.memento.SubmissionHistoryManager;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.Set;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Content-addressed store for uploaded submission files.
+ * <p>
+ * An upload is first streamed from the request into {@code uploads/.staging} through NIO
+ * channels, hashing it with SHA-256 and counting bytes as they arrive; once the size limit is
+ * passed the copy stops and the partial file is deleted. Only after the caller's validation
+ * passes is the file moved to {@code uploads/ab/cd/<hash>}, where {@code ab} and {@code cd}
+ * are the first two bytes of the hash. Identical content is stored once: committing a blob
+ * that already exists just drops the staged copy. The two directory levels keep each
+ * directory small however many files an event collects.
+ * <p>
+ * Blobs are referenced by {@code Submission.filePath} (and by the paths an undo could
+ * restore). {@link #collectGarbage()} deletes blobs nothing references, but only once they
+ * are older than a grace period, so blobs of transactions still in flight survive. Files
+ * from before content addressing sit directly in {@code uploads/} and are left alone.
+ * <p>
+ * A blob may be kept gzipped as {@code <hash>.gz} (see {@link BlobCompressor}). Submissions
+ * still store the plain path; {@link #locate(String)} finds whichever variant is on disk.
+ */
+@Service
+public class UploadStorage {
+
+    private static Logger logger;
+
+    static {
+        try {
+            logger = Logger.getInstance(100);
+        } catch (IOException e) {
+            System.err.println("Failed to initialize logger: " + e.getMessage());
+        }
+    }
+
+    static final String UPLOAD_DIR = "uploads";
+
+    private static final long TRANSFER_CHUNK = 64 * 1024;
+    private static final HexFormat HEX = HexFormat.of();
+
+    @Autowired
+    private SubmissionRepository submissionRepository;
+
+    @Autowired
+    private SubmissionHistoryManager submissionHistoryManager;
+
+    @Autowired
+    private BlobCompressor blobCompressor;
+
+    @Value("${uploads.gc.grace-ms:3600000}")
+    private long gcGraceMillis;
+
+    private final Path uploadDir = Paths.get(System.getProperty("user.dir"), UPLOAD_DIR);
+    private final Path stagingDir = uploadDir.resolve(".staging");
+    // Orders commits against garbage collection, so a blob is never deleted while being reused
+    private final Object blobLock = new Object();
+
+    @PostConstruct
+    public void init() throws IOException {
+        Files.createDirectories(stagingDir);
+        // Left behind by a crash mid-upload
+        try (DirectoryStream<Path> stale = Files.newDirectoryStream(stagingDir)) {
+            for (Path file : stale) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    /**
+     * Streams {@code file} into the staging area, hashing it on the way.
+     *
+     * @throws ResponseStatusException 400 as soon as more than
+     *         {@link FileSizeValidator#MAX_SIZE_BYTES} bytes have been read
+     */
+    public StagedUpload stage(MultipartFile file) throws IOException {
+        long limit = FileSizeValidator.MAX_SIZE_BYTES;
+        if (file.getSize() > limit) {
+            // The part declares its size, nothing needs to be copied to know it is too large
+            throw FileSizeValidator.tooLarge();
+        }
+
+        MessageDigest digest = sha256();
+        Path staged = newStagingFile(".part");
+        long written = 0;
+        try (ReadableByteChannel in = Channels.newChannel(new DigestInputStream(file.getInputStream(), digest));
+             FileChannel out = FileChannel.open(staged, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            while (true) {
+                // Ask for one byte past the limit so an oversized upload is noticed without reading on
+                long n = out.transferFrom(in, written, Math.min(TRANSFER_CHUNK, limit + 1 - written));
+                if (n <= 0) {
+                    break;
+                }
+                written += n;
+                if (written > limit) {
+                    throw FileSizeValidator.tooLarge();
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(staged);
+            if (written > limit) {
+                logger.WARN("Rejected upload " + file.getOriginalFilename() + " after " + written + " bytes, limit is " + limit);
+            }
+            throw e;
+        }
+        String hash = HEX.formatHex(digest.digest());
+        long size = written;
+        logger.DEBUG(() -> "Staged upload " + file.getOriginalFilename() + " (" + size + " bytes, sha256 " + hash + ")");
+        return new StagedUpload(staged, safeName(file.getOriginalFilename()), size, hash);
+    }
+
+    /**
+     * Hashes a file already written to the staging area (e.g. by a chunked upload) and
+     * takes it over as a {@link StagedUpload}.
+     */
+    public StagedUpload adopt(Path staged, String originalFilename) throws IOException {
+        MessageDigest digest = sha256();
+        ByteBuffer buffer = ByteBuffer.allocate((int) TRANSFER_CHUNK);
+        long size = 0;
+        try (FileChannel in = FileChannel.open(staged, StandardOpenOption.READ)) {
+            while (in.read(buffer) > 0) {
+                buffer.flip();
+                size += buffer.remaining();
+                digest.update(buffer);
+                buffer.clear();
+            }
+        }
+        return new StagedUpload(staged, safeName(originalFilename), size, HEX.formatHex(digest.digest()));
+    }
+
+    /**
+     * A new, not yet existing file in the staging area.
+     */
+    Path newStagingFile(String suffix) {
+        return stagingDir.resolve(UUID.randomUUID() + suffix);
+    }
+
+    /**
+     * Absolute location of a stored path as kept on a submission.
+     */
+    public Path resolve(String storedPath) {
+        return Paths.get(System.getProperty("user.dir")).resolve(storedPath);
+    }
+
+    /**
+     * The file behind a stored path, plain or gzipped, or null if neither exists.
+     */
+    public StoredFile locate(String storedPath) throws IOException {
+        Path plain = resolve(storedPath);
+        if (Files.isRegularFile(plain)) {
+            return new StoredFile(plain, false, Files.size(plain));
+        }
+        Path gzipped = plain.resolveSibling(plain.getFileName() + BlobCompressor.GZIP_SUFFIX);
+        if (Files.isRegularFile(gzipped)) {
+            return new StoredFile(gzipped, true, gzipUncompressedSize(gzipped));
+        }
+        return null;
+    }
+
+    public boolean exists(String storedPath) {
+        Path plain = resolve(storedPath);
+        return Files.exists(plain) || Files.exists(plain.resolveSibling(plain.getFileName() + BlobCompressor.GZIP_SUFFIX));
+    }
+
+    /**
+     * SHA-256 of a stored file, taken from its content-addressed path, or null for files
+     * stored before content addressing.
+     */
+    public String contentHash(String storedPath) {
+        String name = storedPath.substring(storedPath.lastIndexOf('/') + 1);
+        if (name.length() != 64 || !storedPath.startsWith(UPLOAD_DIR + "/" + name.substring(0, 2) + "/" + name.substring(2, 4) + "/")) {
+            return null;
+        }
+        for (int i = 0; i < name.length(); i++) {
+            if (!HexFormat.isHexDigit(name.charAt(i))) {
+                return null;
+            }
+        }
+        return name;
+    }
+
+    /**
+     * Deletes unreferenced blobs older than {@code uploads.gc.grace-ms}.
+     *
+     * @return the number of blobs deleted
+     */
+    @Scheduled(initialDelayString = "${uploads.gc.interval-ms:3600000}", fixedDelayString = "${uploads.gc.interval-ms:3600000}")
+    public int collectGarbage() {
+        long start = System.nanoTime();
+        int deleted = 0;
+        long freed = 0;
+        try {
+            // Read the references first: a blob created after this point is younger than the grace period
+            Set<String> referenced = new HashSet<>(submissionRepository.findDistinctFilePaths());
+            referenced.addAll(submissionHistoryManager.referencedFilePaths());
+            long cutoff = System.currentTimeMillis() - gcGraceMillis;
+
+            try (DirectoryStream<Path> outer = Files.newDirectoryStream(uploadDir, UploadStorage::isShard)) {
+                for (Path first : outer) {
+                    try (DirectoryStream<Path> inner = Files.newDirectoryStream(first, UploadStorage::isShard)) {
+                        for (Path second : inner) {
+                            try (DirectoryStream<Path> blobs = Files.newDirectoryStream(second)) {
+                                for (Path blob : blobs) {
+                                    String storedPath = UPLOAD_DIR + "/" + uploadDir.relativize(blob).toString().replace('\\', '/');
+                                    if (storedPath.endsWith(BlobCompressor.GZIP_SUFFIX)) {
+                                        storedPath = storedPath.substring(0, storedPath.length() - BlobCompressor.GZIP_SUFFIX.length());
+                                    }
+                                    if (referenced.contains(storedPath)) {
+                                        continue;
+                                    }
+                                    synchronized (blobLock) {
+                                        if (Files.getLastModifiedTime(blob).toMillis() < cutoff) {
+                                            long size = Files.size(blob);
+                                            Files.delete(blob);
+                                            deleted++;
+                                            freed += size;
+                                        }
+                                    }
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+            logger.INFO("Upload garbage collection deleted " + deleted + " blobs (" + freed + " bytes) in "
+                    + (System.nanoTime() - start) / 1_000_000 + "ms");
+        } catch (Exception e) {
+            logger.ERROR("Upload garbage collection failed after " + deleted + " blobs: " + e.getMessage());
+        }
+        return deleted;
+    }
+
+    /**
+     * A file in the staging area, deleted on {@link #close()} unless it was committed.
+     */
+    public final class StagedUpload implements AutoCloseable {
+        private final Path staged;
+        private final String originalFilename;
+        private final long size;
+        private final String hash;
+        private boolean committed;
+
+        private StagedUpload(Path staged, String originalFilename, long size, String hash) {
+            this.staged = staged;
+            this.originalFilename = originalFilename;
+            this.size = size;
+            this.hash = hash;
+        }
+
+        public String getOriginalFilename() {
+            return originalFilename;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        public String getHash() {
+            return hash;
+        }
+
+        public boolean isCommitted() {
+            return committed;
+        }
+
+        /**
+         * Path the file will have once stored, relative to the working directory. Known as
+         * soon as the upload is staged, so it can be saved before the file is moved.
+         */
+        public String storedPath() {
+            return UPLOAD_DIR + "/" + hash.substring(0, 2) + "/" + hash.substring(2, 4) + "/" + hash;
+        }
+
+        /**
+         * Stores the file under its hash, gzipped if that pays off, or reuses the blob already
+         * stored there.
+         *
+         * @return the stored path relative to the working directory
+         */
+        public String commit() throws IOException {
+            Path target = resolve(storedPath());
+            // Compress outside the lock, it is the slow part; a duplicate is only found out afterwards
+            Path compressed = exists(storedPath()) ? null : blobCompressor.compress(staged);
+            try {
+                synchronized (blobLock) {
+                    Path existing = existingBlob(target);
+                    if (existing != null) {
+                        // Restart the grace period, the referencing row is not committed yet
+                        Files.setLastModifiedTime(existing, FileTime.fromMillis(System.currentTimeMillis()));
+                        logger.DEBUG("Upload {} deduplicated to existing blob {}", originalFilename, hash);
+                    } else if (compressed != null) {
+                        move(compressed, target.resolveSibling(target.getFileName() + BlobCompressor.GZIP_SUFFIX));
+                        compressed = null;
+                        logger.DEBUG("Stored upload {} as gzipped blob {}", originalFilename, hash);
+                    } else {
+                        move(staged, target);
+                        logger.DEBUG("Stored upload {} as blob {}", originalFilename, hash);
+                    }
+                }
+                Files.deleteIfExists(staged);
+            } finally {
+                if (compressed != null) {
+                    Files.deleteIfExists(compressed);
+                }
+            }
+            committed = true;
+            return storedPath();
+        }
+
+        @Override
+        public void close() {
+            if (!committed) {
+                try {
+                    Files.deleteIfExists(staged);
+                } catch (IOException e) {
+                    logger.ERROR("Failed to remove staged upload " + staged + ": " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * A stored blob as it sits on disk.
+     */
+    public static final class StoredFile {
+        private final Path path;
+        private final boolean gzipped;
+        private final long length;
+
+        private StoredFile(Path path, boolean gzipped, long length) {
+            this.path = path;
+            this.gzipped = gzipped;
+            this.length = length;
+        }
+
+        public Path getPath() {
+            return path;
+        }
+
+        /**
+         * True if {@link #getPath()} holds the content gzipped.
+         */
+        public boolean isGzipped() {
+            return gzipped;
+        }
+
+        /**
+         * Size of the original content, whether or not it is stored compressed.
+         */
+        public long getLength() {
+            return length;
+        }
+
+        public InputStream openContent() throws IOException {
+            InputStream in = Files.newInputStream(path);
+            return gzipped ? new GZIPInputStream(in, (int) TRANSFER_CHUNK) : in;
+        }
+    }
+
+    private static Path existingBlob(Path plain) {
+        if (Files.exists(plain)) {
+            return plain;
+        }
+        Path gzipped = plain.resolveSibling(plain.getFileName() + BlobCompressor.GZIP_SUFFIX);
+        return Files.exists(gzipped) ? gzipped : null;
+    }
+
+    private static void move(Path from, Path to) throws IOException {
+        Files.createDirectories(to.getParent());
+        try {
+            Files.move(from, to, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            // Same directory tree, so this only happens on unusual mounts
+            Files.move(from, to);
+        }
+    }
+
+    // The gzip trailer ends with the uncompressed size modulo 2^32; uploads stay far below 4GB
+    private static long gzipUncompressedSize(Path gzipped) throws IOException {
+        try (FileChannel channel = FileChannel.open(gzipped, StandardOpenOption.READ)) {
+            ByteBuffer trailer = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+            long position = channel.size() - 4;
+            while (trailer.hasRemaining()) {
+                int n = channel.read(trailer, position + trailer.position());
+                if (n < 0) {
+                    throw new IOException("Truncated gzip blob " + gzipped);
+                }
+            }
+            return Integer.toUnsignedLong(trailer.getInt(0));
+        }
+    }
+
+    private static boolean isShard(Path dir) {
+        String name = dir.getFileName().toString();
+        return name.length() == 2 && Files.isDirectory(dir) && HexFormat.isHexDigit(name.charAt(0))
+                && HexFormat.isHexDigit(name.charAt(1));
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    // Drops any directory part a client put into the filename
+    private static String safeName(String originalFilename) {
+        if (originalFilename == null || originalFilename.isBlank()) {
+            return "upload";
+        }
+        String name = originalFilename.replace('\\', '/');
+        name = name.substring(name.lastIndexOf('/') + 1);
+        return name.isBlank() || name.equals("..") ? "upload" : name;
+    }
+}
@@ -0,0 +1,367 @@
+package com.we.hack.service.storage;
+
+import com.we.hack.dto.ArchiveEntry;
+import com.we.hack.dto.ArchiveManifest;
+import com.we.hack.service.logger.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lists the entries of zip and jar uploads without extracting or even reading them.
+ * <p>
+ * A zip ends with an end of central directory record that points at the central directory,
+ * which describes every entry. Only those two are read, with positional {@link FileChannel}
+ * reads from the end of the file, so a 100MB archive costs a few KB of I/O. The central
+ * directory is walked through a window of at most {@value #WINDOW_SIZE} bytes, whatever its
+ * size. ZIP64 archives (more than 65535 entries or offsets past 4GB) are followed through
+ * their ZIP64 records.
+ * <p>
+ * Manifests are cached by content hash; a blob never changes, so entries never go stale.
+ * The cache holds at most {@code uploads.manifest.cache-entries} archive entries in total,
+ * evicting the least recently used manifests first.
+ */
+@Service
+public class ZipManifestReader {
+
+    private static Logger logger;
+
+    static {
+        try {
+            logger = Logger.getInstance(100);
+        } catch (IOException e) {
+            System.err.println("Failed to initialize logger: " + e.getMessage());
+        }
+    }
+
+    private static final int EOCD_SIGNATURE = 0x06054b50;
+    private static final int EOCD_SIZE = 22;
+    private static final int MAX_COMMENT = 0xFFFF;
+    private static final int ZIP64_LOCATOR_SIGNATURE = 0x07064b50;
+    private static final int ZIP64_LOCATOR_SIZE = 20;
+    private static final int ZIP64_EOCD_SIGNATURE = 0x06064b50;
+    private static final int ZIP64_EOCD_SIZE = 56;
+    private static final int ZIP64_EXTRA_ID = 0x0001;
+    private static final int CENTRAL_HEADER_SIGNATURE = 0x02014b50;
+    private static final int CENTRAL_HEADER_SIZE = 46;
+    // Holds the largest possible header: fixed part plus name, extra field and comment
+    private static final int WINDOW_SIZE = 256 * 1024;
+
+    @Autowired
+    private UploadStorage uploadStorage;
+
+    @Value("${uploads.manifest.max-entries:5000}")
+    private int maxEntries;
+
+    @Value("${uploads.manifest.cache-entries:200000}")
+    private long cacheEntries;
+
+    private final LinkedHashMap<String, ArchiveManifest> cache = new LinkedHashMap<>(64, 0.75f, true);
+    private long cachedEntries;
+
+    /**
+     * Manifest of the archive at {@code storedPath}.
+     *
+     * @throws ResponseStatusException 415 if the file is not a zip archive, 422 if its
+     *         central directory is damaged
+     */
+    public ArchiveManifest manifest(String storedPath) throws IOException {
+        String hash = uploadStorage.contentHash(storedPath);
+        UploadStorage.StoredFile stored = uploadStorage.locate(storedPath);
+        if (stored == null) {
+            throw new RuntimeException("File not found");
+        }
+        // Files from before content addressing are keyed by path and modification time instead
+        String key = hash != null ? hash : storedPath + "@" + Files.getLastModifiedTime(stored.getPath()).toMillis();
+        ArchiveManifest cached = cached(key);
+        if (cached != null) {
+            return cached;
+        }
+        if (stored.isGzipped()) {
+            // Zip archives are recognized as compressed and never gzipped, so this is something else
+            throw notAnArchive();
+        }
+
+        long start = System.nanoTime();
+        ArchiveManifest manifest = read(stored.getPath(), hash);
+        logger.DEBUG(() -> "Read manifest of " + storedPath + " (" + manifest.getEntryCount() + " entries) in " + ((System.nanoTime() - start) / 1000) + "us");
+        cache(key, manifest);
+        return manifest;
+    }
+
+    private ArchiveManifest read(Path file, String hash) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < EOCD_SIZE) {
+                throw notAnArchive();
+            }
+
+            // The record sits at the very end unless the archive has a comment, which is at most 64KB
+            int tailLength = (int) Math.min(size, EOCD_SIZE + MAX_COMMENT);
+            long tailStart = size - tailLength;
+            ByteBuffer tail = readFully(channel, tailStart, tailLength);
+            int eocd = findEndOfCentralDirectory(tail);
+            if (eocd < 0) {
+                throw notAnArchive();
+            }
+
+            long entries = tail.getShort(eocd + 10) & 0xFFFFL;
+            long directorySize = tail.getInt(eocd + 12) & 0xFFFFFFFFL;
+            long directoryOffset = tail.getInt(eocd + 16) & 0xFFFFFFFFL;
+            if (entries == 0xFFFF || directorySize == 0xFFFFFFFFL || directoryOffset == 0xFFFFFFFFL) {
+                long locator = tailStart + eocd - ZIP64_LOCATOR_SIZE;
+                if (locator < 0) {
+                    throw damaged("missing ZIP64 locator");
+                }
+                ByteBuffer locatorRecord = readFully(channel, locator, ZIP64_LOCATOR_SIZE);
+                if (locatorRecord.getInt(0) == ZIP64_LOCATOR_SIGNATURE) {
+                    long zip64Eocd = locatorRecord.getLong(8);
+                    if (zip64Eocd < 0 || zip64Eocd + ZIP64_EOCD_SIZE > size) {
+                        throw damaged("ZIP64 record out of bounds");
+                    }
+                    ByteBuffer record = readFully(channel, zip64Eocd, ZIP64_EOCD_SIZE);
+                    if (record.getInt(0) != ZIP64_EOCD_SIGNATURE) {
+                        throw damaged("bad ZIP64 record");
+                    }
+                    entries = record.getLong(32);
+                    directorySize = record.getLong(40);
+                    directoryOffset = record.getLong(48);
+                }
+            }
+            // Compared by subtraction, as crafted values can make the sum overflow
+            if (entries < 0 || directoryOffset < 0 || directorySize < 0 || directoryOffset > size
+                    || directorySize > size - directoryOffset) {
+                throw damaged("central directory out of bounds");
+            }
+
+            DirectoryWindow directory = new DirectoryWindow(channel, directoryOffset, directorySize);
+            return parseCentralDirectory(directory, entries, directorySize, size, hash);
+        }
+    }
+
+    private ArchiveManifest parseCentralDirectory(DirectoryWindow directory, long declaredEntries,
+                                                  long directorySize, long archiveSize, String hash) throws IOException {
+        // No more entries can fit than headers in the directory, whatever the count claims
+        long expected = Math.min(declaredEntries, directorySize / CENTRAL_HEADER_SIZE);
+        List<ArchiveEntry> listed = new ArrayList<>((int) Math.min(expected, maxEntries));
+        int count = 0;
+        long totalSize = 0;
+        long totalCompressed = 0;
+        long position = directory.start();
+        while (directory.load(position, CENTRAL_HEADER_SIZE) && directory.getInt(position) == CENTRAL_HEADER_SIGNATURE) {
+            int method = directory.getShort(position + 10) & 0xFFFF;
+            long compressed = directory.getInt(position + 20) & 0xFFFFFFFFL;
+            long uncompressed = directory.getInt(position + 24) & 0xFFFFFFFFL;
+            int nameLength = directory.getShort(position + 28) & 0xFFFF;
+            int extraLength = directory.getShort(position + 30) & 0xFFFF;
+            int commentLength = directory.getShort(position + 32) & 0xFFFF;
+            int headerLength = CENTRAL_HEADER_SIZE + nameLength + extraLength + commentLength;
+            if (!directory.load(position, headerLength)) {
+                throw damaged("entry " + count + " runs past the central directory");
+            }
+
+            if (uncompressed == 0xFFFFFFFFL || compressed == 0xFFFFFFFFL) {
+                // Real sizes are in the ZIP64 extra field, in this order, only for the fields that overflowed
+                long extra = position + CENTRAL_HEADER_SIZE + nameLength;
+                long extraEnd = extra + extraLength;
+                while (extra + 4 <= extraEnd) {
+                    int id = directory.getShort(extra) & 0xFFFF;
+                    int length = directory.getShort(extra + 2) & 0xFFFF;
+                    if (id == ZIP64_EXTRA_ID) {
+                        long field = extra + 4;
+                        if (uncompressed == 0xFFFFFFFFL && field + 8 <= extraEnd) {
+                            uncompressed = directory.getLong(field);
+                            field += 8;
+                        }
+                        if (compressed == 0xFFFFFFFFL && field + 8 <= extraEnd) {
+                            compressed = directory.getLong(field);
+                        }
+                        break;
+                    }
+                    extra += 4 + length;
+                }
+            }
+
+            count++;
+            totalSize += uncompressed;
+            totalCompressed += compressed;
+            if (listed.size() < maxEntries) {
+                String entryName = directory.getString(position + CENTRAL_HEADER_SIZE, nameLength);
+                listed.add(ArchiveEntry.builder()
+                        .name(entryName)
+                        .directory(entryName.endsWith("/"))
+                        .size(uncompressed)
+                        .compressedSize(compressed)
+                        .compressionRatio(ratio(compressed, uncompressed))
+                        .method(methodName(method))
+                        .build());
+            }
+            position += headerLength;
+        }
+        if (count == 0 && declaredEntries > 0) {
+            throw damaged("no central directory entries found");
+        }
+
+        return ArchiveManifest.builder()
+                .contentHash(hash)
+                .archiveSize(archiveSize)
+                .entryCount(count)
+                .totalSize(totalSize)
+                .totalCompressedSize(totalCompressed)
+                .compressionRatio(ratio(totalCompressed, totalSize))
+                .truncated(count > listed.size())
+                .entries(listed)
+                .build();
+    }
+
+    /**
+     * The part of the central directory being parsed. Positions are file offsets; {@link #load}
+     * must have made a range readable before it is read.
+     */
+    private static final class DirectoryWindow {
+        private final FileChannel channel;
+        private final long start;
+        private final long end;
+        private final ByteBuffer buffer;
+        // File offset of buffer[0]
+        private long bufferStart;
+
+        DirectoryWindow(FileChannel channel, long start, long length) {
+            this.channel = channel;
+            this.start = start;
+            this.end = start + length;
+            this.buffer = ByteBuffer.allocate((int) Math.min(WINDOW_SIZE, length)).order(ByteOrder.LITTLE_ENDIAN);
+            this.buffer.limit(0);
+            this.bufferStart = start;
+        }
+
+        long start() {
+            return start;
+        }
+
+        /**
+         * Makes {@code length} bytes at {@code position} readable, reading the next window from
+         * the file if they are not buffered.
+         *
+         * @return false if the range runs past the end of the central directory
+         */
+        boolean load(long position, int length) throws IOException {
+            if (position + length > end) {
+                return false;
+            }
+            if (position >= bufferStart && position + length <= bufferStart + buffer.limit()) {
+                return true;
+            }
+            buffer.clear();
+            buffer.limit((int) Math.min(buffer.capacity(), end - position));
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, position + buffer.position()) < 0) {
+                    throw damaged("unexpected end of file");
+                }
+            }
+            buffer.flip();
+            bufferStart = position;
+            return true;
+        }
+
+        int getInt(long position) {
+            return buffer.getInt((int) (position - bufferStart));
+        }
+
+        short getShort(long position) {
+            return buffer.getShort((int) (position - bufferStart));
+        }
+
+        long getLong(long position) {
+            return buffer.getLong((int) (position - bufferStart));
+        }
+
+        String getString(long position, int length) {
+            byte[] bytes = new byte[length];
+            buffer.get((int) (position - bufferStart), bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+
+    // Scans backwards, as the comment after the record may itself contain the signature bytes
+    private static int findEndOfCentralDirectory(ByteBuffer tail) {
+        for (int i = tail.limit() - EOCD_SIZE; i >= 0; i--) {
+            if (tail.getInt(i) == EOCD_SIGNATURE) {
+                int commentLength = tail.getShort(i + 20) & 0xFFFF;
+                if (i + EOCD_SIZE + commentLength <= tail.limit()) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private static ByteBuffer readFully(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw damaged("unexpected end of file");
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    private static double ratio(long compressed, long uncompressed) {
+        return uncompressed == 0 ? 1.0 : (double) compressed / uncompressed;
+    }
+
+    private static String methodName(int method) {
+        return switch (method) {
+            case 0 -> "STORED";
+            case 8 -> "DEFLATED";
+            case 9 -> "DEFLATE64";
+            case 12 -> "BZIP2";
+            case 14 -> "LZMA";
+            case 93 -> "ZSTD";
+            case 95 -> "XZ";
+            default -> "METHOD_" + method;
+        };
+    }
+
+    private synchronized ArchiveManifest cached(String key) {
+        return cache.get(key);
+    }
+
+    private synchronized void cache(String key, ArchiveManifest manifest) {
+        ArchiveManifest previous = cache.put(key, manifest);
+        if (previous != null) {
+            cachedEntries -= previous.getEntries().size();
+        }
+        cachedEntries += manifest.getEntries().size();
+        Iterator<Map.Entry<String, ArchiveManifest>> eldest = cache.entrySet().iterator();
+        while (cachedEntries > cacheEntries && cache.size() > 1 && eldest.hasNext()) {
+            cachedEntries -= eldest.next().getValue().getEntries().size();
+            eldest.remove();
+        }
+    }
+
+    private static ResponseStatusException notAnArchive() {
+        return new ResponseStatusException(HttpStatus.UNSUPPORTED_MEDIA_TYPE, "File is not a zip or jar archive");
+    }
+
+    private static ResponseStatusException damaged(String reason) {
+        return new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY, "Archive is damaged: " + reason);
+    }
+}
@@ -2,5 +2,19 @@ package com.we.hack.service.strategy;
 import java.util.List;
 
 public interface ScoringStrategy {
-    double calculateScore(List<Integer> scores);
+
+    double score(int innovation, int impact, int execution);
+
+    /**
+     * Scores a batch held in parallel columns: {@code out[i]} receives the score of
+     * ({@code innovation[i]}, {@code impact[i]}, {@code execution[i]}).
+     */
+    void scoreAll(int[] innovation, int[] impact, int[] execution, double[] out);
+
+    // List form kept for existing callers, criteria in innovation, impact, execution order
+    default double calculateScore(List<Integer> scores) {
+        if (scores.size() != 3) throw new IllegalArgumentException("Three scores required");
+
+        return score(scores.get(0), scores.get(1), scores.get(2));
+    }
 }
@@ -1,14 +1,19 @@
 package com.we.hack.service.strategy;
 
-import java.util.List;
-
 public class SimpleAverageStrategy implements ScoringStrategy {
 
 
     @Override
-    public double calculateScore(List<Integer> scores) {
-        if (scores.size() != 3) throw new IllegalArgumentException("Three scores required");
+    public double score(int innovation, int impact, int execution) {
+        // Same arithmetic as IntStream.average(): long sum divided by the count
+        return (double) ((long) innovation + impact + execution) / 3;
+    }
 
-        return scores.stream().mapToInt(Integer::intValue).average().orElse(0.0);
+    @Override
+    public void scoreAll(int[] innovation, int[] impact, int[] execution, double[] out) {
+        int n = out.length;
+        for (int i = 0; i < n; i++) {
+            out[i] = (double) ((long) innovation[i] + impact[i] + execution[i]) / 3;
+        }
     }
 }
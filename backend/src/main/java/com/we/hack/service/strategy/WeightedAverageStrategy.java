@@ -1,14 +1,18 @@
 package com.we.hack.service.strategy;
 
-import java.util.List;
-
 public class WeightedAverageStrategy implements ScoringStrategy {
 
     @Override
-    public double calculateScore(List<Integer> scores) {
-        if (scores.size() != 3) throw new IllegalArgumentException("Three scores required");
-
+    public double score(int innovation, int impact, int execution) {
         // Innovation: 40%, Impact: 35%, Execution: 25%
-        return scores.get(0) * 0.4 + scores.get(1) * 0.35 + scores.get(2) * 0.25;
+        return innovation * 0.4 + impact * 0.35 + execution * 0.25;
+    }
+
+    @Override
+    public void scoreAll(int[] innovation, int[] impact, int[] execution, double[] out) {
+        int n = out.length;
+        for (int i = 0; i < n; i++) {
+            out[i] = innovation[i] * 0.4 + impact[i] * 0.35 + execution[i] * 0.25;
+        }
     }
 }
@@ -1,5 +1,6 @@
 package com.we.hack.service.template;
 
+import com.we.hack.model.Hackathon;
 import com.we.hack.model.Submission;
 import org.springframework.stereotype.Service;
 
@@ -10,12 +11,12 @@ import java.util.List;
 public class BuildPhaseScoreboard extends ScoreboardTemplate {
 
     @Override
-    protected boolean shouldShowLeaderboard(Long hackathonId) {
+    protected boolean shouldShowLeaderboard(Hackathon hackathon) {
         return false;  // leaderboard hidden
     }
 
     @Override
-    protected List<Submission> getSubmissions(Long hackathonId) {
+    protected List<Submission> getSubmissions(Hackathon hackathon) {
         return Collections.emptyList();
     }
 
@@ -2,14 +2,11 @@ package com.we.hack.service.template;
 
 import com.we.hack.model.*;
 import com.we.hack.repository.*;
-import com.we.hack.service.bridge.JudgeScoreEvaluator;
-import com.we.hack.service.bridge.ScoreEvaluator;
-import com.we.hack.service.strategy.*;
+import com.we.hack.service.leaderboard.LeaderboardRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.util.Comparator;
-import java.util.List;
+import java.util.*;
 
 @Service
 public class JudgingPhaseScoreboard extends ScoreboardTemplate {
@@ -18,39 +15,37 @@ public class JudgingPhaseScoreboard extends ScoreboardTemplate {
     private SubmissionRepository submissionRepository;
 
     @Autowired
-    private JudgeScoreRepository judgeScoreRepository;
-
-    @Autowired
-    private HackathonRepository hackathonRepository;
+    private LeaderboardRegistry leaderboardRegistry;
 
 
     @Override
-    protected boolean shouldShowLeaderboard(Long hackathonId) {
-        String status = hackathonRepository.findById(hackathonId.intValue())
-                .orElseThrow()
-                .getStatus();
+    protected boolean shouldShowLeaderboard(Hackathon hackathon) {
+        String status = hackathon.getStatus();
         return status.equals("Judging") || status.equals("Completed");
     }
 
     @Override
-    protected List<Submission> getSubmissions(Long hackathonId) {
-        return submissionRepository.findByHackathonId(hackathonId.intValue());
+    protected List<Submission> getSubmissions(Hackathon hackathon) {
+        return submissionRepository.findByHackathonId(hackathon.getId().intValue());
     }
 
     @Override
     protected List<Submission> getSortedSubmissions(List<Submission> submissions) {
-        return submissions.stream()
-                .sorted(Comparator.comparingDouble(this::getFinalScore).reversed())
-                .toList();
-    }
-
-    private double getFinalScore(Submission submission) {
-        List<JudgeScore> allScores = judgeScoreRepository.findBySubmission(submission);
-        ScoringStrategy strategy = switch (submission.getHackathon().getScoringMethod()) {
-            case SIMPLE_AVERAGE -> new SimpleAverageStrategy();
-            case WEIGHTED_AVERAGE -> new WeightedAverageStrategy();
-        };
-        ScoreEvaluator evaluator = new JudgeScoreEvaluator(strategy);
-        return evaluator.evaluate(allScores);
+        if (submissions.isEmpty()) {
+            return submissions;
+        }
+        // Order comes from the live leaderboard: highest final score first, ties by submission id
+        Map<Long, Submission> byId = new HashMap<>();
+        for (Submission submission : submissions) {
+            byId.put(submission.getId(), submission);
+        }
+        List<Long> ranking = leaderboardRegistry.get(submissions.get(0).getHackathon().getId())
+                .ranking(byId.keySet());
+
+        List<Submission> sorted = new ArrayList<>(ranking.size());
+        for (Long id : ranking) {
+            sorted.add(byId.get(id));
+        }
+        return sorted;
     }
 }
@@ -1,5 +1,6 @@
 package com.we.hack.service.template;
 
+import com.we.hack.model.Hackathon;
 import com.we.hack.model.Submission;
 
 import java.util.Collections;
@@ -7,18 +8,19 @@ import java.util.List;
 
 public abstract class ScoreboardTemplate {
 
-    public final List<Submission> generate(Long hackathonId) {
-        if (!shouldShowLeaderboard(hackathonId)) {
+    // Takes the already loaded hackathon so the hooks do not fetch it again
+    public final List<Submission> generate(Hackathon hackathon) {
+        if (!shouldShowLeaderboard(hackathon)) {
             return Collections.emptyList(); // No leaderboard in this phase
         }
 
-        List<Submission> submissions = getSubmissions(hackathonId);
+        List<Submission> submissions = getSubmissions(hackathon);
         return getSortedSubmissions(submissions);
     }
 
-    protected abstract boolean shouldShowLeaderboard(Long hackathonId);
+    protected abstract boolean shouldShowLeaderboard(Hackathon hackathon);
 
-    protected abstract List<Submission> getSubmissions(Long hackathonId);
+    protected abstract List<Submission> getSubmissions(Hackathon hackathon);
 
     protected abstract List<Submission> getSortedSubmissions(List<Submission> submissions);
 }
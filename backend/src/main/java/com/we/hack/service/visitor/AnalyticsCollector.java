@@ -1,5 +1,6 @@
 package com.we.hack.service.visitor;
 
+import com.we.hack.dto.AnalyticsCounts;
 import com.we.hack.model.*;
 
 public class AnalyticsCollector implements AnalyticsVisitor{
@@ -30,6 +31,28 @@ public class AnalyticsCollector implements AnalyticsVisitor{
     private int totalSubmissions = 0;
     private int totalJudgeScores = 0;
 
+    /**
+     * Adds totals counted by the database, for rows that were not visited one by one.
+     */
+    public void addCounts(AnalyticsCounts counts) {
+        totalHackathons += Math.toIntExact(counts.getTotalHackathons());
+        totalUsers += Math.toIntExact(counts.getTotalUsers());
+        totalTeams += Math.toIntExact(counts.getTotalTeams());
+        totalSubmissions += Math.toIntExact(counts.getTotalSubmissions());
+        totalJudgeScores += Math.toIntExact(counts.getTotalJudgeScores());
+    }
+
+    /**
+     * Adds the totals of a collector that visited a disjoint set of rows.
+     */
+    public void merge(AnalyticsCollector other) {
+        totalHackathons += other.totalHackathons;
+        totalUsers += other.totalUsers;
+        totalTeams += other.totalTeams;
+        totalSubmissions += other.totalSubmissions;
+        totalJudgeScores += other.totalJudgeScores;
+    }
+
     @Override
     public void visit(Hackathon hackathon) {
         totalHackathons++;
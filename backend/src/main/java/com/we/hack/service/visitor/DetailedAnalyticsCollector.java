@@ -0,0 +1,70 @@
+package com.we.hack.service.visitor;
+
+import com.we.hack.model.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Collector for per-team, per-judge and per-criterion metrics on top of the plain totals.
+ * Instances that visited disjoint rows can be combined with {@link #merge}, so a traversal
+ * can be split by id range and run in parallel. Its size grows with the number of teams,
+ * judges and distinct criterion values, never with the number of rows visited.
+ */
+public class DetailedAnalyticsCollector extends AnalyticsCollector {
+
+    private final Map<Long, Integer> submissionsPerTeam = new HashMap<>();
+    private final Map<Integer, Integer> scoresPerJudge = new HashMap<>();
+    private final Map<Integer, Long> innovationHistogram = new TreeMap<>();
+    private final Map<Integer, Long> impactHistogram = new TreeMap<>();
+    private final Map<Integer, Long> executionHistogram = new TreeMap<>();
+
+    @Override
+    public void visit(Submission submission) {
+        super.visit(submission);
+        if (submission.getTeam() != null) {
+            submissionsPerTeam.merge(submission.getTeam().getId(), 1, Integer::sum);
+        }
+    }
+
+    @Override
+    public void visit(JudgeScore judgeScore) {
+        super.visit(judgeScore);
+        if (judgeScore.getJudge() != null) {
+            scoresPerJudge.merge(judgeScore.getJudge().getId(), 1, Integer::sum);
+        }
+        innovationHistogram.merge(judgeScore.getInnovation(), 1L, Long::sum);
+        impactHistogram.merge(judgeScore.getImpact(), 1L, Long::sum);
+        executionHistogram.merge(judgeScore.getExecution(), 1L, Long::sum);
+    }
+
+    public void merge(DetailedAnalyticsCollector other) {
+        super.merge(other);
+        other.submissionsPerTeam.forEach((team, count) -> submissionsPerTeam.merge(team, count, Integer::sum));
+        other.scoresPerJudge.forEach((judge, count) -> scoresPerJudge.merge(judge, count, Integer::sum));
+        other.innovationHistogram.forEach((value, count) -> innovationHistogram.merge(value, count, Long::sum));
+        other.impactHistogram.forEach((value, count) -> impactHistogram.merge(value, count, Long::sum));
+        other.executionHistogram.forEach((value, count) -> executionHistogram.merge(value, count, Long::sum));
+    }
+
+    public Map<Long, Integer> getSubmissionsPerTeam() {
+        return submissionsPerTeam;
+    }
+
+    public Map<Integer, Integer> getScoresPerJudge() {
+        return scoresPerJudge;
+    }
+
+    public Map<Integer, Long> getInnovationHistogram() {
+        return innovationHistogram;
+    }
+
+    public Map<Integer, Long> getImpactHistogram() {
+        return impactHistogram;
+    }
+
+    public Map<Integer, Long> getExecutionHistogram() {
+        return executionHistogram;
+    }
+}
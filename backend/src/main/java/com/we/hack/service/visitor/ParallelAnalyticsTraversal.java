@@ -0,0 +1,213 @@
+package com.we.hack.service.visitor;
+
+import com.we.hack.dto.IdRange;
+import com.we.hack.dto.JudgeScoreRow;
+import com.we.hack.dto.SubmissionTeamRow;
+import com.we.hack.model.Hackathon;
+import com.we.hack.model.JudgeScore;
+import com.we.hack.model.Submission;
+import com.we.hack.model.Team;
+import com.we.hack.model.User;
+import com.we.hack.repository.*;
+import com.we.hack.service.logger.Logger;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.Serial;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+
+/**
+ * Runs a {@link DetailedAnalyticsCollector} over every hackathon, user, team, submission and
+ * judge score without loading whole tables.
+ * <p>
+ * Each table's id span is split into ranges of {@code analytics.traversal.chunk-size} ids. A
+ * range is streamed in its own read-only transaction through a JDBC cursor and visited by a
+ * fresh collector; the range collectors are then merged pairwise. Only projections are
+ * streamed, so there is one query per range and nothing accumulates in the persistence context. Heap use depends on the number of ranges in
+ * flight (bounded by {@code analytics.traversal.parallelism}) and not on the row count.
+ */
+@Service
+public class ParallelAnalyticsTraversal {
+
+    private static Logger logger;
+
+    static {
+        try {
+            logger = Logger.getInstance(100);
+        } catch (IOException e) {
+            System.err.println("Failed to initialize logger: " + e.getMessage());
+        }
+    }
+
+    @Autowired
+    private HackathonRepository hackathonRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @Autowired
+    private SubmissionRepository submissionRepository;
+
+    @Autowired
+    private JudgeScoreRepository judgeScoreRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${analytics.traversal.chunk-size:10000}")
+    private long chunkSize;
+
+    // Every worker holds a connection while it streams, keep this below the pool size
+    @Value("${analytics.traversal.parallelism:4}")
+    private int parallelism;
+
+    private ForkJoinPool pool;
+    private TransactionTemplate readOnly;
+
+    @PostConstruct
+    public void start() {
+        pool = new ForkJoinPool(parallelism);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @PreDestroy
+    public void stop() {
+        pool.shutdownNow();
+    }
+
+    public DetailedAnalyticsCollector collect() {
+        long start = System.nanoTime();
+        DetailedAnalyticsCollector result = new DetailedAnalyticsCollector();
+        result.merge(traverse(hackathonRepository.findIdRange(), hackathonRepository::streamIdsBetween,
+                (id, visitor) -> hackathon(id).accept(visitor)));
+        result.merge(traverse(userRepository.findIdRange(),
+                (from, to) -> userRepository.streamIdsBetween(Math.toIntExact(from), Math.toIntExact(to)),
+                (id, visitor) -> user(id).accept(visitor)));
+        result.merge(traverse(teamRepository.findIdRange(), teamRepository::streamIdsBetween,
+                (id, visitor) -> team(id).accept(visitor)));
+        result.merge(traverse(submissionRepository.findIdRange(), submissionRepository::streamTeamRowsBetween,
+                (row, visitor) -> submission(row).accept(visitor)));
+        result.merge(traverse(judgeScoreRepository.findIdRange(), judgeScoreRepository::streamScoreRowsBetween,
+                (row, visitor) -> judgeScore(row).accept(visitor)));
+        logger.INFO("Detailed analytics traversal finished in " + (System.nanoTime() - start) / 1_000_000 + "ms");
+        return result;
+    }
+
+    /*
+     * Visitors get detached stand-ins holding only the columns that were read: ids, the team of a
+     * submission, and the judge and criteria of a score. Loading the entities instead would fetch
+     * each row's eager associations with a query of its own.
+     */
+
+    private static Hackathon hackathon(Long id) {
+        Hackathon hackathon = new Hackathon();
+        hackathon.setId(id);
+        return hackathon;
+    }
+
+    private static User user(Integer id) {
+        User user = new User();
+        user.setId(id);
+        return user;
+    }
+
+    private static Team team(Long id) {
+        Team team = new Team();
+        team.setId(id);
+        return team;
+    }
+
+    private static Submission submission(SubmissionTeamRow row) {
+        Submission submission = new Submission();
+        submission.setId(row.getId());
+        if (row.getTeamId() != null) {
+            submission.setTeam(team(row.getTeamId()));
+        }
+        return submission;
+    }
+
+    private static JudgeScore judgeScore(JudgeScoreRow row) {
+        JudgeScore judgeScore = new JudgeScore();
+        judgeScore.setId(row.getId());
+        if (row.getJudgeId() != null) {
+            judgeScore.setJudge(user(row.getJudgeId()));
+        }
+        judgeScore.setInnovation(row.getInnovation());
+        judgeScore.setImpact(row.getImpact());
+        judgeScore.setExecution(row.getExecution());
+        return judgeScore;
+    }
+
+    private <T> DetailedAnalyticsCollector traverse(IdRange range, RangeStreamer<T> streamer,
+                                                    BiConsumer<T, AnalyticsVisitor> accept) {
+        if (range == null || range.getMinId() == null) {
+            return new DetailedAnalyticsCollector();
+        }
+        return pool.invoke(new RangeTask<>(range.getMinId(), range.getMaxId(), streamer, accept));
+    }
+
+    @FunctionalInterface
+    private interface RangeStreamer<T> {
+        Stream<T> stream(Long fromId, Long toId);
+    }
+
+    /**
+     * Visits ids {@code fromId..toId} (inclusive), splitting in halves until a range holds at
+     * most one chunk.
+     */
+    private final class RangeTask<T> extends RecursiveTask<DetailedAnalyticsCollector> {
+        // ForkJoinTask is Serializable, but these tasks never leave the pool that runs them
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private final long fromId;
+        private final long toId;
+        private final transient RangeStreamer<T> streamer;
+        private final transient BiConsumer<T, AnalyticsVisitor> accept;
+
+        RangeTask(long fromId, long toId, RangeStreamer<T> streamer, BiConsumer<T, AnalyticsVisitor> accept) {
+            this.fromId = fromId;
+            this.toId = toId;
+            this.streamer = streamer;
+            this.accept = accept;
+        }
+
+        @Override
+        protected DetailedAnalyticsCollector compute() {
+            if (toId - fromId < chunkSize) {
+                return visitRange();
+            }
+            long mid = fromId + (toId - fromId) / 2;
+            RangeTask<T> left = new RangeTask<>(fromId, mid, streamer, accept);
+            RangeTask<T> right = new RangeTask<>(mid + 1, toId, streamer, accept);
+            left.fork();
+            DetailedAnalyticsCollector result = right.compute();
+            result.merge(left.join());
+            return result;
+        }
+
+        // Runs without forking, so the transaction bound to this worker thread is never shared
+        private DetailedAnalyticsCollector visitRange() {
+            DetailedAnalyticsCollector collector = new DetailedAnalyticsCollector();
+            readOnly.executeWithoutResult(status -> {
+                try (Stream<T> rows = streamer.stream(fromId, toId)) {
+                    rows.forEach(row -> accept.accept(row, collector));
+                }
+            });
+            return collector;
+        }
+    }
+}
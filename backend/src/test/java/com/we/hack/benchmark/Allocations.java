@@ -0,0 +1,35 @@
+package com.we.hack.benchmark;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Measures heap allocated by the current thread, for the benchmarks in this package. They run
+ * only with {@code -Dbenchmarks=true} and print their results instead of asserting timings.
+ */
+final class Allocations {
+
+	private static final com.sun.management.ThreadMXBean THREADS =
+			(com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+	private Allocations() {
+	}
+
+	static long allocatedBytes() {
+		return THREADS.getThreadAllocatedBytes(Thread.currentThread().threadId());
+	}
+
+	/**
+	 * Bytes allocated per run of {@code body}, measured after enough warm-up runs for the JIT to
+	 * compile it.
+	 */
+	static double perRun(Runnable body, int warmUp, int runs) {
+		for (int i = 0; i < warmUp; i++) {
+			body.run();
+		}
+		long before = allocatedBytes();
+		for (int i = 0; i < runs; i++) {
+			body.run();
+		}
+		return (double) (allocatedBytes() - before) / runs;
+	}
+}
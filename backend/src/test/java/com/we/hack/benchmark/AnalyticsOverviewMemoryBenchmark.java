@@ -0,0 +1,75 @@
+package com.we.hack.benchmark;
+
+import com.we.hack.controller.AnalyticsController;
+import com.we.hack.model.Hackathon;
+import com.we.hack.model.JudgeScore;
+import com.we.hack.model.Submission;
+import com.we.hack.model.Team;
+import com.we.hack.model.User;
+import com.we.hack.service.analytics.AnalyticsCounters;
+import com.we.hack.service.visitor.AnalyticsCollector;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Heap allocated by one GET /analytics/overview as every table grows. The old endpoint loaded
+ * each table and visited the rows; that path is modelled by building the entities in memory and
+ * visiting them, which leaves out Hibernate's own per-row overhead and so understates it. The
+ * current endpoint reads the in-memory counters.
+ */
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+class AnalyticsOverviewMemoryBenchmark {
+
+	private static final int[] ROWS_PER_TABLE = { 1_000, 10_000, 100_000 };
+
+	@Test
+	void overviewAllocationAcrossTableSizes() {
+		System.out.printf("GET /analytics/overview, bytes per request:%n");
+		for (int rows : ROWS_PER_TABLE) {
+			AnalyticsCounters counters = new AnalyticsCounters();
+			counters.usersChanged(rows);
+			for (long hackathonId = 1; hackathonId <= rows; hackathonId++) {
+				counters.hackathonAdded(hackathonId);
+			}
+			counters.teamsChanged(null, rows);
+			counters.submissionsChanged(null, rows);
+			counters.judgeScoresChanged(null, rows);
+			AnalyticsController controller = new AnalyticsController();
+			ReflectionTestUtils.setField(controller, "analyticsCounters", counters);
+
+			assertEquals(rows, controller.getAnalyticsOverview().get("totalJudgeScores"));
+			assertEquals(rows, loadAndVisit(rows).getTotalJudgeScores());
+
+			double loaded = Allocations.perRun(() -> loadAndVisit(rows), 3, 5);
+			double counted = Allocations.perRun(controller::getAnalyticsOverview, 100_000, 100_000);
+
+			System.out.printf("  %,9d rows per table: load and visit %,14.0f, counters %,6.1f%n", rows, loaded, counted);
+		}
+	}
+
+	private static AnalyticsCollector loadAndVisit(int rows) {
+		AnalyticsCollector collector = new AnalyticsCollector();
+		load(rows, Hackathon::new).forEach(h -> h.accept(collector));
+		load(rows, User::new).forEach(u -> u.accept(collector));
+		load(rows, Team::new).forEach(t -> t.accept(collector));
+		load(rows, Submission::new).forEach(s -> s.accept(collector));
+		load(rows, JudgeScore::new).forEach(j -> j.accept(collector));
+		return collector;
+	}
+
+	private static <T> List<T> load(int rows, Supplier<T> row) {
+		List<T> all = new ArrayList<>();
+		for (int i = 0; i < rows; i++) {
+			all.add(row.get());
+		}
+		return all;
+	}
+}
@@ -0,0 +1,83 @@
+package com.we.hack.benchmark;
+
+import com.we.hack.model.Hackathon;
+import com.we.hack.model.Submission;
+import com.we.hack.model.Team;
+import com.we.hack.model.User;
+import com.we.hack.service.logger.LogLevel;
+import com.we.hack.service.logger.Logger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Allocation of the DEBUG calls made by one SubmissionServiceImpl.createFinalSubmission while
+ * DEBUG is off: the {@code {}}-pattern calls with entity getters and varargs it used to make,
+ * against the Supplier calls it makes now.
+ */
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+class LoggingAllocationBenchmark {
+
+	private final LogLevel level = Logger.getLevel();
+
+	@AfterEach
+	void restoreLevel() {
+		Logger.setLevel(level);
+	}
+
+	@Test
+	void createFinalSubmissionDebugCallsWithDebugOff() throws IOException {
+		Logger logger = Logger.getInstance(100);
+		Logger.setLevel(LogLevel.INFO);
+
+		User user = new User();
+		user.setId(7);
+		user.setEmail("participant@example.com");
+		Team team = new Team();
+		team.setId(11L);
+		team.setName("Team Rocket");
+		Hackathon hackathon = new Hackathon();
+		hackathon.setId(3L);
+		hackathon.setTitle("Spring Hack");
+		Submission submission = new Submission();
+		submission.setId(101L);
+		submission.setTitle("Final build");
+		submission.setFilePath("uploads/final.zip");
+
+		Runnable patterns = () -> {
+			logger.DEBUG("Parameters: hasFile={}, fileSize={}", true, 4096L);
+			logger.DEBUG("Found team: {} (ID: {}) for user {}", team.getName(), team.getId(), user.getEmail());
+			logger.DEBUG("Built submission using builder pattern: {}", submission.getTitle());
+			logger.DEBUG("File of submission {} queued for processing as {}", submission.getId(), submission.getFilePath());
+			logger.DEBUG("Submission memento created for team {}", team.getId());
+			logger.DEBUG("Setting submission relationships: user={}, team={}, hackathon={}", user.getEmail(), team.getName(), hackathon.getTitle());
+		};
+		Runnable suppliers = () -> {
+			logger.DEBUG(() -> "Parameters: hasFile=" + true + ", fileSize=" + 4096L);
+			logger.DEBUG(() -> "Found team: " + team.getName() + " (ID: " + team.getId() + ") for user " + user.getEmail());
+			if (logger.isDebugEnabled()) {
+				logger.DEBUG("Built submission using builder pattern: " + submission.getTitle());
+			}
+			if (logger.isDebugEnabled()) {
+				logger.DEBUG("File of submission " + submission.getId() + " queued for processing as " + submission.getFilePath());
+			}
+			logger.DEBUG(() -> "Submission memento created for team " + team.getId());
+			logger.DEBUG(() -> "Setting submission relationships: user=" + user.getEmail() + ", team=" + team.getName() + ", hackathon=" + hackathon.getTitle());
+		};
+
+		// Interpreted, as on a request that reaches these lines before they are compiled
+		double patternsCold = Allocations.perRun(patterns, 0, 1_000);
+		double suppliersCold = Allocations.perRun(suppliers, 0, 1_000);
+		double patternsWarm = Allocations.perRun(patterns, 200_000, 1_000_000);
+		double suppliersWarm = Allocations.perRun(suppliers, 200_000, 1_000_000);
+
+		System.out.printf("createFinalSubmission DEBUG calls, DEBUG off, bytes per request:%n"
+						+ "  {}-patterns: %.1f cold, %.1f compiled%n  suppliers:   %.1f cold, %.1f compiled%n",
+				patternsCold, patternsWarm, suppliersCold, suppliersWarm);
+		assertTrue(suppliersWarm <= patternsWarm);
+	}
+}
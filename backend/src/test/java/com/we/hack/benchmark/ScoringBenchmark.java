@@ -0,0 +1,67 @@
+package com.we.hack.benchmark;
+
+import com.we.hack.service.strategy.ScoringStrategy;
+import com.we.hack.service.strategy.SimpleAverageStrategy;
+import com.we.hack.service.strategy.WeightedAverageStrategy;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+/**
+ * Time and allocation of scoring one million judge scores through the boxed
+ * {@code calculateScore(List)} path, one call per score, against one {@code scoreAll} call over
+ * the same columns.
+ */
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+class ScoringBenchmark {
+
+	private static final int SCORES = 1_000_000;
+	private static final int ROUNDS = 20;
+
+	@Test
+	void listPathAgainstBatchPath() {
+		Random random = new Random(42);
+		int[] innovation = random.ints(SCORES, 0, 11).toArray();
+		int[] impact = random.ints(SCORES, 0, 11).toArray();
+		int[] execution = random.ints(SCORES, 0, 11).toArray();
+
+		for (ScoringStrategy strategy : new ScoringStrategy[] { new SimpleAverageStrategy(), new WeightedAverageStrategy() }) {
+			double[] viaList = new double[SCORES];
+			double[] viaBatch = new double[SCORES];
+			Runnable list = () -> {
+				for (int i = 0; i < SCORES; i++) {
+					viaList[i] = strategy.calculateScore(Arrays.asList(innovation[i], impact[i], execution[i]));
+				}
+			};
+			Runnable batch = () -> strategy.scoreAll(innovation, impact, execution, viaBatch);
+
+			double listMillis = bestMillis(list);
+			double batchMillis = bestMillis(batch);
+			double listBytes = Allocations.perRun(list, 0, 3);
+			double batchBytes = Allocations.perRun(batch, 0, 3);
+
+			System.out.printf("%s, %d scores: calculateScore(List) %.2f ms, %.1f MB; scoreAll %.2f ms, %.1f MB%n",
+					strategy.getClass().getSimpleName(), SCORES,
+					listMillis, listBytes / 1e6, batchMillis, batchBytes / 1e6);
+			assertArrayEquals(viaList, viaBatch);
+		}
+	}
+
+	// Best of several rounds after warm-up, to leave out JIT compilation and GC pauses
+	private static double bestMillis(Runnable body) {
+		for (int i = 0; i < ROUNDS; i++) {
+			body.run();
+		}
+		long best = Long.MAX_VALUE;
+		for (int i = 0; i < ROUNDS; i++) {
+			long start = System.nanoTime();
+			body.run();
+			best = Math.min(best, System.nanoTime() - start);
+		}
+		return best / 1e6;
+	}
+}
@@ -0,0 +1,43 @@
+package com.we.hack.controller;
+
+import com.we.hack.service.HackathonService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class HackathonControllerTest {
+
+	private HackathonService hackathonService;
+	private HackathonController controller;
+
+	@BeforeEach
+	void setUp() {
+		hackathonService = mock(HackathonService.class);
+		when(hackathonService.getLeaderboardTop(anyLong(), anyInt())).thenReturn(List.of());
+		controller = new HackathonController();
+		ReflectionTestUtils.setField(controller, "hackathonService", hackathonService);
+	}
+
+	@Test
+	void leaderboardTopAcceptsUpToAPage() {
+		assertEquals(HttpStatus.OK, controller.getLeaderboardTop(3L, 200).getStatusCode());
+	}
+
+	@Test
+	void leaderboardTopRejectsMoreThanAPage() {
+		assertEquals(HttpStatus.BAD_REQUEST, controller.getLeaderboardTop(3L, 201).getStatusCode());
+		assertEquals(HttpStatus.BAD_REQUEST, controller.getLeaderboardTop(3L, Integer.MAX_VALUE).getStatusCode());
+		verify(hackathonService, never()).getLeaderboardTop(anyLong(), anyInt());
+	}
+}
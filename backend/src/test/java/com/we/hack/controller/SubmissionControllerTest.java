@@ -0,0 +1,49 @@
+package com.we.hack.controller;
+
+import com.we.hack.model.ProcessingStatus;
+import com.we.hack.model.Submission;
+import com.we.hack.service.SubmissionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SubmissionControllerTest {
+
+	private SubmissionService submissionService;
+	private SubmissionController controller;
+
+	@BeforeEach
+	void setUp() {
+		submissionService = mock(SubmissionService.class);
+		controller = new SubmissionController();
+		ReflectionTestUtils.setField(controller, "submissionService", submissionService);
+	}
+
+	@Test
+	void statusOfUnknownSubmissionIsNotFound() {
+		ResponseEntity<Map<String, Object>> response = controller.getProcessingStatus(404L);
+
+		assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+	}
+
+	@Test
+	void statusOfStoredFileIsReady() {
+		Submission submission = new Submission();
+		submission.setId(8L);
+		submission.setFilePath("uploads/8.zip");
+		when(submissionService.findById(8L)).thenReturn(submission);
+
+		ResponseEntity<Map<String, Object>> response = controller.getProcessingStatus(8L);
+
+		assertEquals(HttpStatus.OK, response.getStatusCode());
+		assertEquals(ProcessingStatus.READY, response.getBody().get("processingStatus"));
+	}
+}
@@ -0,0 +1,36 @@
+package com.we.hack.service.analytics;
+
+import com.we.hack.dto.ActivitySeriesDto;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ActivityRecorderTest {
+
+	private final ActivityRecorder recorder = new ActivityRecorder();
+
+	@Test
+	void largestWindowAndStepReadTheWholeHourRing() {
+		recorder.record(3L, ActivityType.SUBMISSION);
+
+		ActivitySeriesDto series = recorder.series(3L, Integer.MAX_VALUE, Integer.MAX_VALUE);
+
+		long[] submissions = series.getCounts().get(ActivityType.SUBMISSION);
+		assertEquals(1, submissions.length);
+		assertEquals(1, submissions[0]);
+		assertEquals(ActivityRecorder.HOUR_SLOTS * 60, series.getStepMinutes());
+	}
+
+	@Test
+	void minuteWindowIsBinnedByStep() {
+		recorder.record(3L, ActivityType.EDIT);
+		recorder.record(3L, ActivityType.EDIT);
+
+		ActivitySeriesDto series = recorder.series(3L, 60, 5);
+
+		long[] edits = series.getCounts().get(ActivityType.EDIT);
+		assertEquals(12, edits.length);
+		assertEquals(2, edits[11]);
+		assertEquals(5, series.getStepMinutes());
+	}
+}
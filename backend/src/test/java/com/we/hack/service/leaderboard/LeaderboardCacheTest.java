@@ -0,0 +1,101 @@
+package com.we.hack.service.leaderboard;
+
+import com.we.hack.model.Hackathon;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LeaderboardCacheTest {
+
+	private static final Long HACKATHON_ID = 6L;
+
+	private final LeaderboardCache cache = new LeaderboardCache();
+
+	@AfterEach
+	void tearDown() {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+	}
+
+	@Test
+	void readingUnknownHackathonsKeepsNothing() {
+		for (long id = 1000; id < 1100; id++) {
+			cache.etag(id);
+			cache.get(id);
+			cache.isSettled(id, "Judging");
+		}
+
+		assertTrue(map("versions").isEmpty());
+		assertTrue(map("entries").isEmpty());
+		assertTrue(map("announcedStatus").isEmpty());
+	}
+
+	@Test
+	void deleteDropsEverythingOnceCommitted() {
+		cache.onTransition(hackathon(), "Published", "Judging");
+		cache.put(HACKATHON_ID, cache.version(HACKATHON_ID), "Judging", List.of());
+		assertNotNull(cache.get(HACKATHON_ID));
+
+		TransactionSynchronizationManager.initSynchronization();
+		cache.invalidate(HACKATHON_ID);
+		cache.forget(HACKATHON_ID);
+		assertEquals(1, map("versions").size());
+		complete(TransactionSynchronization.STATUS_COMMITTED);
+
+		assertTrue(map("versions").isEmpty());
+		assertTrue(map("entries").isEmpty());
+		assertTrue(map("announcedStatus").isEmpty());
+	}
+
+	@Test
+	void rolledBackDeleteKeepsTheVersion() {
+		cache.invalidate(HACKATHON_ID);
+
+		TransactionSynchronizationManager.initSynchronization();
+		cache.invalidate(HACKATHON_ID);
+		cache.forget(HACKATHON_ID);
+		complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+		assertEquals(3, cache.version(HACKATHON_ID));
+	}
+
+	@Test
+	void staleResultIsNotCached() {
+		long version = cache.version(HACKATHON_ID);
+		cache.invalidate(HACKATHON_ID);
+
+		CachedLeaderboard result = cache.put(HACKATHON_ID, version, "Judging", List.of());
+
+		assertNull(result.getEtag());
+		assertNull(cache.get(HACKATHON_ID));
+		assertTrue(map("entries").isEmpty());
+	}
+
+	private Hackathon hackathon() {
+		Hackathon hackathon = new Hackathon();
+		hackathon.setId(HACKATHON_ID);
+		return hackathon;
+	}
+
+	private Map<?, ?> map(String field) {
+		return (Map<?, ?>) ReflectionTestUtils.getField(cache, field);
+	}
+
+	private static void complete(int status) {
+		List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+		TransactionSynchronizationManager.clearSynchronization();
+		TransactionSynchronizationUtils.invokeAfterCompletion(synchronizations, status);
+	}
+}
@@ -0,0 +1,131 @@
+package com.we.hack.service.leaderboard;
+
+import com.we.hack.dto.JudgeScoreRow;
+import com.we.hack.model.Hackathon;
+import com.we.hack.model.ScoringMethod;
+import com.we.hack.repository.HackathonRepository;
+import com.we.hack.repository.JudgeScoreRepository;
+import com.we.hack.repository.SubmissionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class LeaderboardRegistryTest {
+
+	private static final Long HACKATHON_ID = 4L;
+
+	private Hackathon hackathon;
+	private SubmissionRepository submissionRepository;
+	private JudgeScoreRepository judgeScoreRepository;
+	private ColumnarScoreStore scoreStore;
+	private LeaderboardRegistry registry;
+
+	@BeforeEach
+	void setUp() {
+		hackathon = new Hackathon();
+		hackathon.setId(HACKATHON_ID);
+		hackathon.setStatus("Judging");
+		hackathon.setScoringMethod(ScoringMethod.SIMPLE_AVERAGE);
+		HackathonRepository hackathonRepository = mock(HackathonRepository.class);
+		when(hackathonRepository.findById(anyInt())).thenReturn(Optional.of(hackathon));
+		submissionRepository = mock(SubmissionRepository.class);
+		judgeScoreRepository = mock(JudgeScoreRepository.class);
+
+		scoreStore = new ColumnarScoreStore();
+		ReflectionTestUtils.setField(scoreStore, "judgeScoreRepository", judgeScoreRepository);
+		registry = new LeaderboardRegistry();
+		ReflectionTestUtils.setField(registry, "hackathonRepository", hackathonRepository);
+		ReflectionTestUtils.setField(registry, "submissionRepository", submissionRepository);
+		ReflectionTestUtils.setField(registry, "scoreStore", scoreStore);
+	}
+
+	@AfterEach
+	void tearDown() {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+	}
+
+	@Test
+	void leaderboardRebuiltBeforeCommitIsDroppedAfterIt() {
+		committed(List.of(1L, 2L), List.of(score(1, 1L, 5), score(2, 2L, 7)));
+		assertEquals(2, registry.get(HACKATHON_ID).size());
+
+		// A transaction deletes submission 2 and invalidates; a concurrent reader still sees it
+		TransactionSynchronizationManager.initSynchronization();
+		scoreStore.invalidate(HACKATHON_ID);
+		registry.invalidate(HACKATHON_ID);
+		assertEquals(2, registry.get(HACKATHON_ID).size());
+
+		committed(List.of(1L), List.of(score(1, 1L, 5)));
+		complete(TransactionSynchronization.STATUS_COMMITTED);
+
+		assertEquals(1, registry.get(HACKATHON_ID).size());
+		assertEquals(1, scoreStore.get(hackathon).size());
+	}
+
+	@Test
+	void invalidateOutsideTransactionDropsOnce() {
+		committed(List.of(1L, 2L), List.of());
+		assertEquals(2, registry.get(HACKATHON_ID).size());
+
+		committed(List.of(1L), List.of());
+		registry.invalidate(HACKATHON_ID);
+
+		assertEquals(1, registry.get(HACKATHON_ID).size());
+	}
+
+	@Test
+	void scoresRecordedAfterRebuildAreRanked() {
+		committed(List.of(1L, 2L), List.of(score(1, 1L, 5), score(2, 2L, 7)));
+
+		LiveLeaderboard leaderboard = registry.get(HACKATHON_ID);
+		assertEquals(1, leaderboard.rank(2L));
+		assertEquals(2, leaderboard.rank(1L));
+	}
+
+	@Test
+	void columnsAreKeptOnlyWhileJudging() {
+		committed(List.of(1L), List.of(score(1, 1L, 5)));
+		ScoreColumns judging = scoreStore.get(hackathon);
+		assertSame(judging, scoreStore.get(hackathon));
+
+		scoreStore.onTransition(hackathon, "Judging", "Completed");
+		hackathon.setStatus("Completed");
+
+		ScoreColumns completed = scoreStore.get(hackathon);
+		assertNotSame(judging, completed);
+		assertNotSame(completed, scoreStore.get(hackathon));
+		assertEquals(1, completed.size());
+	}
+
+	private void committed(List<Long> submissionIds, List<JudgeScoreRow> scores) {
+		when(submissionRepository.findIdsByHackathonId(anyLong())).thenReturn(submissionIds);
+		when(judgeScoreRepository.findScoreRowsByHackathonId(anyLong())).thenReturn(scores);
+	}
+
+	private static void complete(int status) {
+		List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+		TransactionSynchronizationManager.clearSynchronization();
+		TransactionSynchronizationUtils.invokeAfterCompletion(synchronizations, status);
+	}
+
+	private static JudgeScoreRow score(long id, Long submissionId, int value) {
+		return new JudgeScoreRow(id, submissionId, 1, value, value, value);
+	}
+}
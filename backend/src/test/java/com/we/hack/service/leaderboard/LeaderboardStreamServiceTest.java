@@ -0,0 +1,185 @@
+package com.we.hack.service.leaderboard;
+
+import com.we.hack.model.Hackathon;
+import com.we.hack.repository.HackathonRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class LeaderboardStreamServiceTest {
+
+	private static final Long HACKATHON_ID = 7L;
+
+	private HackathonRepository hackathonRepository;
+	private LiveLeaderboard leaderboard;
+	private LeaderboardStreamService service;
+
+	@BeforeEach
+	void setUp() {
+		Hackathon hackathon = new Hackathon();
+		hackathon.setStatus("Judging");
+		hackathonRepository = mock(HackathonRepository.class);
+		when(hackathonRepository.findById(anyInt())).thenReturn(Optional.of(hackathon));
+		when(hackathonRepository.existsById(anyInt())).thenReturn(true);
+		leaderboard = new LiveLeaderboard();
+		LeaderboardRegistry registry = mock(LeaderboardRegistry.class);
+		when(registry.get(anyLong())).thenReturn(leaderboard);
+
+		service = new LeaderboardStreamService();
+		ReflectionTestUtils.setField(service, "leaderboardRegistry", registry);
+		ReflectionTestUtils.setField(service, "hackathonRepository", hackathonRepository);
+		ReflectionTestUtils.setField(service, "windowMillis", 10L);
+		ReflectionTestUtils.setField(service, "heartbeatMillis", 60_000L);
+		ReflectionTestUtils.setField(service, "timeoutMillis", 60_000L);
+		ReflectionTestUtils.setField(service, "sendThreads", 2);
+		ReflectionTestUtils.setField(service, "maxPending", 2);
+		ReflectionTestUtils.setField(service, "writeTimeoutMillis", 60_000L);
+		service.start();
+	}
+
+	@AfterEach
+	void tearDown() {
+		service.stop();
+	}
+
+	@Test
+	void slowSubscriberIsDroppedWithoutDelayingOthers() throws Exception {
+		Connection slow = connect();
+		Connection fast = connect();
+		await(() -> slow.sent.get() == 1 && fast.sent.get() == 1);
+
+		slow.gate = new CountDownLatch(1);
+		for (long submission = 1; submission <= 5; submission++) {
+			leaderboard.addSubmission(submission);
+			service.markDirty(HACKATHON_ID);
+			long expected = submission + 1;
+			await(() -> fast.sent.get() == expected);
+		}
+		// One delta is stuck in the write, two more filled the queue, the next overflowed it
+		assertFalse(slow.completed.get(), "A blocked write is not interrupted");
+		slow.gate.countDown();
+		await(slow.completed::get);
+		assertFalse(fast.completed.get());
+	}
+
+	@Test
+	void blockedWriteIsDroppedAfterWriteTimeout() throws Exception {
+		service.stop();
+		ReflectionTestUtils.setField(service, "writeTimeoutMillis", 50L);
+		service.start();
+		Connection stuck = connect();
+		await(() -> stuck.sent.get() == 1);
+
+		stuck.gate = new CountDownLatch(1);
+		leaderboard.addSubmission(1L);
+		service.markDirty(HACKATHON_ID);
+		await(() -> channels().isEmpty());
+		stuck.gate.countDown();
+		await(stuck.completed::get);
+	}
+
+	@Test
+	void lastSubscriberLeavingRemovesChannel() throws Exception {
+		Connection first = connect();
+		Connection second = connect();
+		assertTrue(channels().containsKey(HACKATHON_ID));
+
+		first.disconnect();
+		assertTrue(channels().containsKey(HACKATHON_ID));
+		second.disconnect();
+		assertTrue(channels().isEmpty());
+
+		// A later subscriber gets a channel of its own
+		Connection third = connect();
+		await(() -> third.sent.get() == 1);
+		assertTrue(channels().containsKey(HACKATHON_ID));
+	}
+
+	@Test
+	void deletedHackathonEndsStream() throws Exception {
+		Connection connection = connect();
+		await(() -> connection.sent.get() == 1);
+
+		when(hackathonRepository.existsById(anyInt())).thenReturn(false);
+		service.markDirty(HACKATHON_ID);
+		await(connection.completed::get);
+		assertTrue(channels().isEmpty());
+	}
+
+	private Connection connect() throws Exception {
+		SseEmitter emitter = service.subscribe(HACKATHON_ID);
+		Connection connection = new Connection();
+		// What the servlet container does once the handler method returns
+		Class<?> handlerType = Class.forName(ResponseBodyEmitter.class.getName() + "$Handler");
+		Object handler = Proxy.newProxyInstance(handlerType.getClassLoader(), new Class<?>[]{handlerType},
+				(proxy, method, args) -> connection.handle(method, args));
+		Method initialize = ResponseBodyEmitter.class.getDeclaredMethod("initialize", handlerType);
+		initialize.setAccessible(true);
+		initialize.invoke(emitter, handler);
+		return connection;
+	}
+
+	@SuppressWarnings("unchecked")
+	private Map<Long, ?> channels() {
+		return (Map<Long, ?>) ReflectionTestUtils.getField(service, "channels");
+	}
+
+	private static void await(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5000;
+		while (!condition.getAsBoolean()) {
+			assertTrue(System.currentTimeMillis() < deadline, "Timed out waiting");
+			Thread.sleep(5);
+		}
+	}
+
+	/**
+	 * One client connection: counts events written and blocks writes while {@link #gate} is closed.
+	 */
+	private static final class Connection {
+		private final AtomicInteger sent = new AtomicInteger();
+		private final AtomicBoolean completed = new AtomicBoolean();
+		private volatile CountDownLatch gate;
+		private volatile Runnable onCompletion;
+
+		Object handle(Method method, Object[] args) throws InterruptedException {
+			switch (method.getName()) {
+				case "send" -> {
+					CountDownLatch current = gate;
+					if (current != null) {
+						current.await(10, TimeUnit.SECONDS);
+					}
+					sent.incrementAndGet();
+				}
+				case "complete", "completeWithError" -> completed.set(true);
+				case "onCompletion" -> onCompletion = (Runnable) args[0];
+				default -> {
+				}
+			}
+			return null;
+		}
+
+		void disconnect() {
+			onCompletion.run();
+		}
+	}
+}
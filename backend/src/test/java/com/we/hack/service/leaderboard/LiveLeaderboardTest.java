@@ -0,0 +1,135 @@
+package com.we.hack.service.leaderboard;
+
+import com.we.hack.dto.LeaderboardStanding;
+import com.we.hack.service.bridge.JudgeScoreEvaluator;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LiveLeaderboardTest {
+
+	@Test
+	void ranksMatchAFullSortAfterEveryUpdate() {
+		Random random = new Random(7);
+		LiveLeaderboard leaderboard = new LiveLeaderboard();
+		Map<Long, List<Double>> judgeScores = new HashMap<>();
+		for (long id = 1; id <= 300; id++) {
+			leaderboard.addSubmission(id);
+			judgeScores.put(id, new ArrayList<>());
+		}
+
+		for (long scoreId = 1; scoreId <= 3_000; scoreId++) {
+			long submissionId = 1 + random.nextInt(300);
+			// Few distinct values, so ties are common
+			double judgeScore = random.nextInt(5);
+			assertTrue(leaderboard.record(scoreId, submissionId, 0, 0, 0, judgeScore));
+			judgeScores.get(submissionId).add(judgeScore);
+
+			if (scoreId % 250 == 0) {
+				assertMatches(expectedOrder(judgeScores), leaderboard);
+			}
+		}
+	}
+
+	@Test
+	void tiesAreBrokenBySubmissionId() {
+		LiveLeaderboard leaderboard = new LiveLeaderboard();
+		leaderboard.record(1, 30L, 0, 0, 0, 5);
+		leaderboard.record(2, 10L, 0, 0, 0, 5);
+		leaderboard.record(3, 20L, 0, 0, 0, 8);
+
+		assertEquals(List.of(20L, 10L, 30L), ids(leaderboard.top(3)));
+		assertEquals(2, leaderboard.rank(10L));
+	}
+
+	@Test
+	void scoreUpdateMovesTheSubmission() {
+		LiveLeaderboard leaderboard = new LiveLeaderboard();
+		leaderboard.record(1, 1L, 0, 0, 0, 9);
+		leaderboard.record(2, 2L, 0, 0, 0, 6);
+		leaderboard.addSubmission(3L);
+		assertEquals(3, leaderboard.rank(3L));
+
+		leaderboard.record(3, 3L, 0, 0, 0, 10);
+		leaderboard.record(4, 1L, 0, 0, 0, 1);
+
+		assertEquals(List.of(3L, 2L, 1L), ids(leaderboard.top(3)));
+		assertEquals(5.0, leaderboard.standing(1L).getScore(), 1e-9);
+		assertEquals(2, leaderboard.standing(1L).getJudgeCount());
+	}
+
+	@Test
+	void repeatedScoreIsIgnored() {
+		LiveLeaderboard leaderboard = new LiveLeaderboard();
+		assertTrue(leaderboard.record(1, 1L, 0, 0, 0, 4));
+		assertFalse(leaderboard.record(1, 1L, 0, 0, 0, 10));
+
+		assertEquals(4.0, leaderboard.standing(1L).getScore(), 1e-9);
+	}
+
+	@Test
+	void pagesSkipToTheirOffset() {
+		LiveLeaderboard leaderboard = new LiveLeaderboard();
+		for (long id = 1; id <= 50; id++) {
+			leaderboard.record(id, id, 0, 0, 0, id);
+		}
+
+		List<LeaderboardStanding> page = leaderboard.page(10, 5);
+
+		assertEquals(List.of(40L, 39L, 38L, 37L, 36L), ids(page));
+		assertEquals(11, page.get(0).getRank());
+		assertTrue(leaderboard.page(50, 5).isEmpty());
+		assertEquals(2, leaderboard.page(48, 5).size());
+	}
+
+	@Test
+	void reconcileDropsDeletedAndAddsNewSubmissions() {
+		LiveLeaderboard leaderboard = new LiveLeaderboard();
+		leaderboard.record(1, 1L, 0, 0, 0, 3);
+		leaderboard.record(2, 2L, 0, 0, 0, 7);
+
+		leaderboard.reconcile(List.of(2L, 3L));
+
+		assertEquals(-1, leaderboard.rank(1L));
+		assertEquals(List.of(2L, 3L), ids(leaderboard.top(10)));
+		// The removed submission's score id is free again
+		assertTrue(leaderboard.record(1, 3L, 0, 0, 0, 9));
+		assertEquals(1, leaderboard.rank(3L));
+	}
+
+	private static void assertMatches(List<Long> expected, LiveLeaderboard leaderboard) {
+		assertEquals(expected, ids(leaderboard.top(expected.size())));
+		for (int i = 0; i < expected.size(); i++) {
+			assertEquals(i + 1, leaderboard.rank(expected.get(i)));
+		}
+		assertEquals(expected.subList(100, 120), ids(leaderboard.page(100, 20)));
+	}
+
+	private static List<Long> expectedOrder(Map<Long, List<Double>> judgeScores) {
+		Map<Long, Double> finalScores = new HashMap<>();
+		judgeScores.forEach((id, scores) -> {
+			double[] values = scores.stream().mapToDouble(Double::doubleValue).toArray();
+			finalScores.put(id, JudgeScoreEvaluator.average(values, 0, values.length));
+		});
+		List<Long> ids = new ArrayList<>(judgeScores.keySet());
+		ids.sort(Comparator.comparing((Long id) -> finalScores.get(id)).reversed().thenComparing(id -> id));
+		return ids;
+	}
+
+	private static List<Long> ids(List<LeaderboardStanding> standings) {
+		List<Long> ids = new ArrayList<>();
+		for (LeaderboardStanding standing : standings) {
+			ids.add(standing.getSubmissionId());
+		}
+		return ids;
+	}
+}
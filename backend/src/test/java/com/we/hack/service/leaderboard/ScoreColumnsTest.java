@@ -0,0 +1,74 @@
+package com.we.hack.service.leaderboard;
+
+import com.we.hack.service.bridge.JudgeScoreEvaluator;
+import com.we.hack.service.strategy.ScoringStrategy;
+import com.we.hack.service.strategy.WeightedAverageStrategy;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ScoreColumnsTest {
+
+	private final ScoringStrategy strategy = new WeightedAverageStrategy();
+
+	@Test
+	void perSubmissionLookupsMatchAFullScan() {
+		Random random = new Random(42);
+		List<long[]> rows = new ArrayList<>();
+		for (long scoreId = 1; scoreId <= 2_000; scoreId++) {
+			rows.add(new long[] {scoreId, 1 + random.nextInt(150), random.nextInt(11), random.nextInt(11), random.nextInt(11)});
+		}
+		Collections.shuffle(rows, random);
+
+		ScoreColumns columns = new ScoreColumns();
+		for (long[] row : rows) {
+			assertTrue(columns.append(row[0], row[1], 1, (int) row[2], (int) row[3], (int) row[4]));
+		}
+
+		rows.sort((a, b) -> Long.compare(a[0], b[0]));
+		for (long submissionId = 0; submissionId <= 151; submissionId++) {
+			List<Double> judgeScores = new ArrayList<>();
+			for (long[] row : rows) {
+				if (row[1] == submissionId) {
+					judgeScores.add(strategy.score((int) row[2], (int) row[3], (int) row[4]));
+				}
+			}
+			double[] expected = judgeScores.stream().mapToDouble(Double::doubleValue).toArray();
+			assertEquals(expected.length, columns.countFor(submissionId));
+			assertEquals(JudgeScoreEvaluator.average(expected, 0, expected.length),
+					columns.finalScore(submissionId, strategy));
+		}
+	}
+
+	@Test
+	void forEachGroupsBySubmissionInScoreOrder() {
+		ScoreColumns columns = new ScoreColumns();
+		columns.append(5, 20L, 1, 1, 1, 1);
+		columns.append(2, 10L, 1, 1, 1, 1);
+		columns.append(9, 10L, 1, 1, 1, 1);
+		columns.append(3, 20L, 1, 1, 1, 1);
+
+		List<Long> order = new ArrayList<>();
+		columns.forEach(strategy, (scoreId, submissionId, judgeId, innovation, impact, execution, judgeScore) ->
+				order.add(scoreId));
+
+		assertEquals(List.of(2L, 9L, 3L, 5L), order);
+	}
+
+	@Test
+	void duplicateScoreIsIgnored() {
+		ScoreColumns columns = new ScoreColumns();
+		assertTrue(columns.append(7, 3L, 1, 4, 4, 4));
+		assertFalse(columns.append(7, 3L, 1, 9, 9, 9));
+
+		assertEquals(1, columns.size());
+		assertEquals(4.0, columns.finalScore(3L, strategy), 1e-9);
+	}
+}
@@ -0,0 +1,50 @@
+package com.we.hack.service.logger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LoggerConfigTest {
+
+	@AfterEach
+	void clearProperties() {
+		System.clearProperty("wehack.logger.buffer-capacity");
+		System.clearProperty("wehack.logger.batch-size");
+		System.clearProperty("wehack.logger.flush-interval-ms");
+		System.clearProperty("wehack.logger.shutdown-timeout-ms");
+	}
+
+	@Test
+	void nonPositiveSizesFallBackToDefaults() {
+		System.setProperty("wehack.logger.buffer-capacity", "0");
+		System.setProperty("wehack.logger.batch-size", "-5");
+		System.setProperty("wehack.logger.flush-interval-ms", "0");
+
+		LoggerConfig config = LoggerConfig.fromSystemProperties();
+
+		assertEquals(8192, config.bufferCapacity);
+		assertEquals(512, config.batchSize);
+		assertEquals(200, config.flushIntervalMillis);
+	}
+
+	@Test
+	void bufferCapacityAboveTheLargestRingFallsBackToDefault() {
+		System.setProperty("wehack.logger.buffer-capacity", String.valueOf(LoggerConfig.MAX_BUFFER_CAPACITY + 1));
+
+		assertEquals(8192, LoggerConfig.fromSystemProperties().bufferCapacity);
+	}
+
+	@Test
+	void validValuesAreKept() {
+		System.setProperty("wehack.logger.buffer-capacity", "1024");
+		System.setProperty("wehack.logger.batch-size", " 64 ");
+		System.setProperty("wehack.logger.shutdown-timeout-ms", "0");
+
+		LoggerConfig config = LoggerConfig.fromSystemProperties();
+
+		assertEquals(1024, config.bufferCapacity);
+		assertEquals(64, config.batchSize);
+		assertEquals(0, config.shutdownTimeoutMillis);
+	}
+}
@@ -0,0 +1,106 @@
+package com.we.hack.service.proxy;
+
+import com.we.hack.model.Submission;
+import com.we.hack.service.builder.Submission.ConcreteSubmissionBuilder;
+import com.we.hack.service.builder.Submission.SubmissionBuilder;
+import com.we.hack.service.impl.SubmissionServiceImpl;
+import com.we.hack.service.ratelimit.SubmissionCooldownLimiter;
+import com.we.hack.service.ratelimit.SubmissionCooldowns;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SubmissionServiceProxyTest {
+
+	private static final Long USER_ID = 1L;
+	private static final int HACKATHON_ID = 2;
+
+	private SubmissionServiceImpl realService;
+	private SubmissionServiceProxy proxy;
+
+	@BeforeEach
+	void setUp() {
+		SubmissionCooldowns cooldowns = mock(SubmissionCooldowns.class);
+		when(cooldowns.cooldownMillis(anyLong())).thenReturn(60_000L);
+		SubmissionCooldownLimiter limiter = new SubmissionCooldownLimiter();
+		ReflectionTestUtils.setField(limiter, "submissionCooldowns", cooldowns);
+		limiter.init();
+
+		realService = mock(SubmissionServiceImpl.class);
+		when(realService.createFinalSubmission(any(), anyLong(), anyInt(), (MultipartFile) any())).thenReturn(new Submission());
+		when(realService.editSubmission(anyInt(), anyLong(), anyLong(), any(), any(), any(), isNull())).thenReturn(new Submission());
+
+		proxy = new SubmissionServiceProxy();
+		ReflectionTestUtils.setField(proxy, "realSubmissionService", realService);
+		ReflectionTestUtils.setField(proxy, "rateLimiter", limiter);
+	}
+
+	@Test
+	void draftNeedsNoTitleOrDescription() {
+		assertDoesNotThrow(() -> proxy.createFinalSubmission(draft(null, null), USER_ID, HACKATHON_ID, (MultipartFile) null));
+	}
+
+	@Test
+	void draftFileIsStillSizeChecked() {
+		MultipartFile large = new MockMultipartFile("file", "big.zip", "application/zip", new byte[2 * 1024 * 1024]);
+
+		ResponseStatusException e = assertThrows(ResponseStatusException.class,
+				() -> proxy.createFinalSubmission(draft(null, null), USER_ID, HACKATHON_ID, large));
+		assertEquals(HttpStatus.BAD_REQUEST, e.getStatusCode());
+	}
+
+	@Test
+	void finalSubmissionNeedsTitle() {
+		ResponseStatusException e = assertThrows(ResponseStatusException.class,
+				() -> proxy.createFinalSubmission(submission(null, "description"), USER_ID, HACKATHON_ID, (MultipartFile) null));
+		assertEquals("Title is required", e.getReason());
+	}
+
+	@Test
+	void draftsAndEditsDoNotUseTheCooldown() {
+		proxy.createFinalSubmission(submission("title", "description"), USER_ID, HACKATHON_ID, (MultipartFile) null);
+
+		assertDoesNotThrow(() -> proxy.createFinalSubmission(draft("title", null), USER_ID, HACKATHON_ID, (MultipartFile) null));
+		assertDoesNotThrow(() -> proxy.editSubmission(HACKATHON_ID, USER_ID, 5L, "title", "fixed typo", null, null));
+		ResponseStatusException e = assertThrows(ResponseStatusException.class,
+				() -> proxy.createFinalSubmission(submission("title", "description"), USER_ID, HACKATHON_ID, (MultipartFile) null));
+		assertEquals(HttpStatus.TOO_MANY_REQUESTS, e.getStatusCode());
+	}
+
+	@Test
+	void draftDoesNotStartTheCooldown() {
+		proxy.createFinalSubmission(draft("title", null), USER_ID, HACKATHON_ID, (MultipartFile) null);
+
+		assertDoesNotThrow(() -> proxy.createFinalSubmission(submission("title", "description"), USER_ID, HACKATHON_ID, (MultipartFile) null));
+	}
+
+	@Test
+	void rejectedSubmissionDoesNotStartTheCooldown() {
+		assertThrows(ResponseStatusException.class,
+				() -> proxy.createFinalSubmission(submission("title", null), USER_ID, HACKATHON_ID, (MultipartFile) null));
+
+		assertDoesNotThrow(() -> proxy.createFinalSubmission(submission("title", "description"), USER_ID, HACKATHON_ID, (MultipartFile) null));
+	}
+
+	private static SubmissionBuilder submission(String title, String description) {
+		return new ConcreteSubmissionBuilder().title(title).description(description);
+	}
+
+	private static SubmissionBuilder draft(String title, String description) {
+		return submission(title, description).asDraft(true);
+	}
+}
@@ -0,0 +1,88 @@
+package com.we.hack.service.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CooldownTableTest {
+
+	private static final long START = 1_700_000_000_000L;
+
+	@Test
+	void millionsOfUsersKeepOnlyRunningCooldowns() {
+		CooldownTable table = new CooldownTable(START);
+		long cooldown = 100;
+		int users = 5_000_000;
+		int usersPerMilli = 100;
+		int peakSize = 0;
+		long peakCapacity = 0;
+
+		long now = START;
+		for (int user = 0; user < users; user++) {
+			if (user % usersPerMilli == 0) {
+				now++;
+				if (now % CooldownTable.TICK_MILLIS == 0) {
+					table.sweep(now);
+				}
+			}
+			assertEquals(0, table.tryAcquire(user, 1, cooldown, now));
+			if (user % 10_000 == 0) {
+				peakSize = Math.max(peakSize, table.size());
+				peakCapacity = Math.max(peakCapacity, table.capacity());
+			}
+		}
+
+		// Entries live for the cooldown plus at most one wheel tick, whatever the number of users
+		int window = (int) ((cooldown + 2 * CooldownTable.TICK_MILLIS) * usersPerMilli);
+		assertTrue(peakSize <= window, "peak size " + peakSize);
+		assertTrue(peakCapacity <= 8L * window, "peak capacity " + peakCapacity);
+
+		table.sweep(now + cooldown + 2 * CooldownTable.TICK_MILLIS);
+		assertEquals(0, table.size());
+	}
+
+	@Test
+	void matchesAMapOfExpiryTimes() {
+		CooldownTable table = new CooldownTable(START);
+		Map<Long, Long> reference = new HashMap<>();
+		Random random = new Random(42);
+		long now = START;
+
+		for (int i = 0; i < 1_000_000; i++) {
+			now += random.nextInt(5);
+			long user = random.nextInt(2_000);
+			long hackathon = random.nextInt(3);
+			long key = user * 3 + hackathon;
+			long expiresAt = reference.getOrDefault(key, 0L);
+			switch (random.nextInt(10)) {
+				case 0 -> {
+					table.release(user, hackathon, expiresAt);
+					reference.remove(key);
+				}
+				case 1 -> assertEquals(Math.max(0, expiresAt - now), table.remaining(user, hackathon, now));
+				case 2 -> table.sweep(now);
+				default -> {
+					long cooldown = 1 + random.nextInt(90_000);
+					long expected = expiresAt > now ? expiresAt - now : 0;
+					assertEquals(expected, table.tryAcquire(user, hackathon, cooldown, now));
+					if (expected == 0) {
+						reference.put(key, now + cooldown);
+					}
+				}
+			}
+		}
+
+		long end = now;
+		table.sweep(end);
+		// Cooldowns that ended within the current tick may still be held, none older
+		long running = reference.values().stream().filter(expiresAt -> expiresAt > end).count();
+		long endedThisTick = reference.values().stream().filter(expiresAt -> expiresAt > end - CooldownTable.TICK_MILLIS).count();
+		assertTrue(table.size() >= running && table.size() <= endedThisTick,
+				table.size() + " held, " + running + " running");
+	}
+}
@@ -0,0 +1,149 @@
+package com.we.hack.service.ratelimit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+// The table comes from ddl-auto and the SubmissionRateLimitBucket mapping, as in production
+@DataJpaTest(properties = {
+		"submissions.rate-limiter=jdbc",
+		"submissions.rate-limit.burst=1",
+		"spring.jpa.hibernate.ddl-auto=create-drop"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(JdbcSubmissionRateLimiter.class)
+// Each check must commit on its own, as it does in a request
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Testcontainers(disabledWithoutDocker = true)
+class JdbcSubmissionRateLimiterTest {
+
+	private static final long COOLDOWN_MILLIS = 1000;
+
+	@Container
+	static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+	@DynamicPropertySource
+	static void datasource(DynamicPropertyRegistry registry) {
+		registry.add("spring.datasource.url", postgres::getJdbcUrl);
+		registry.add("spring.datasource.username", postgres::getUsername);
+		registry.add("spring.datasource.password", postgres::getPassword);
+	}
+
+	@MockitoBean
+	private SubmissionCooldowns submissionCooldowns;
+
+	@Autowired
+	private JdbcSubmissionRateLimiter limiter;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@BeforeEach
+	void setUp() {
+		when(submissionCooldowns.cooldownMillis(anyLong())).thenReturn(COOLDOWN_MILLIS);
+		jdbcTemplate.update("DELETE FROM submission_rate_limit");
+	}
+
+	@Test
+	void grantsThenRejectsWithinCooldown() {
+		RateLimitPermit first = limiter.tryAcquire(1, 10);
+		RateLimitPermit second = limiter.tryAcquire(1, 10);
+
+		assertTrue(first.isGranted());
+		assertFalse(second.isGranted());
+		assertTrue(second.getWaitMillis() > 0 && second.getWaitMillis() <= COOLDOWN_MILLIS);
+		assertTrue(limiter.tryAcquire(1, 11).isGranted());
+		assertTrue(limiter.tryAcquire(2, 10).isGranted());
+	}
+
+	@Test
+	void rejectionIsRememberedWithoutAnotherQuery() {
+		limiter.tryAcquire(1, 10);
+		limiter.tryAcquire(1, 10);
+		long checks = limiter.databaseChecks();
+
+		assertFalse(limiter.tryAcquire(1, 10).isGranted());
+		assertEquals(checks, limiter.databaseChecks());
+	}
+
+	@Test
+	void refillsAfterCooldown() throws InterruptedException {
+		assertTrue(limiter.tryAcquire(1, 10).isGranted());
+		assertFalse(limiter.tryAcquire(1, 10).isGranted());
+
+		Thread.sleep(COOLDOWN_MILLIS + 100);
+
+		assertTrue(limiter.tryAcquire(1, 10).isGranted());
+		assertFalse(limiter.tryAcquire(1, 10).isGranted());
+	}
+
+	@Test
+	void releaseReturnsTheToken() {
+		RateLimitPermit permit = limiter.tryAcquire(1, 10);
+		limiter.release(permit);
+
+		assertTrue(limiter.tryAcquire(1, 10).isGranted());
+		assertFalse(limiter.tryAcquire(1, 10).isGranted());
+	}
+
+	@Test
+	void releasingARejectionReturnsNothing() {
+		limiter.tryAcquire(1, 10);
+		limiter.release(limiter.tryAcquire(1, 10));
+
+		Double tokens = jdbcTemplate.queryForObject(
+				"SELECT tokens FROM submission_rate_limit WHERE user_id = 1 AND hackathon_id = 10", Double.class);
+		assertTrue(tokens < 1);
+	}
+
+	@Test
+	void concurrentChecksGrantOnce() throws Exception {
+		int threads = 2;
+		CyclicBarrier barrier = new CyclicBarrier(threads);
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			for (long user = 100; user < 150; user++) {
+				long userId = user;
+				List<Future<Boolean>> checks = new ArrayList<>();
+				for (int t = 0; t < threads; t++) {
+					checks.add(executor.submit(() -> {
+						barrier.await();
+						return limiter.tryAcquire(userId, 10).isGranted();
+					}));
+				}
+				int granted = 0;
+				for (Future<Boolean> check : checks) {
+					granted += check.get(30, TimeUnit.SECONDS) ? 1 : 0;
+				}
+				assertEquals(1, granted, "grants of user " + userId);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+}
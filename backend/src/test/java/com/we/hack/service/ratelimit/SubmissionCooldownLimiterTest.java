@@ -0,0 +1,114 @@
+package com.we.hack.service.ratelimit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SubmissionCooldownLimiterTest {
+
+	private SubmissionCooldownLimiter limiter;
+
+	@BeforeEach
+	void setUp() {
+		SubmissionCooldowns cooldowns = mock(SubmissionCooldowns.class);
+		when(cooldowns.cooldownMillis(anyLong())).thenReturn(60_000L);
+		limiter = new SubmissionCooldownLimiter();
+		ReflectionTestUtils.setField(limiter, "submissionCooldowns", cooldowns);
+		limiter.init();
+	}
+
+	@Test
+	void grantsOncePerCooldown() {
+		RateLimitPermit first = limiter.tryAcquire(7, 3);
+		RateLimitPermit second = limiter.tryAcquire(7, 3);
+
+		assertTrue(first.isGranted());
+		assertFalse(second.isGranted());
+		assertTrue(second.getWaitMillis() > 59_000 && second.getWaitMillis() <= 60_000);
+		assertTrue(limiter.tryAcquire(7, 4).isGranted());
+		assertTrue(limiter.tryAcquire(8, 3).isGranted());
+	}
+
+	@Test
+	void releasedPermitAllowsAnotherSubmission() {
+		RateLimitPermit permit = limiter.tryAcquire(7, 3);
+		limiter.release(permit);
+
+		assertTrue(limiter.tryAcquire(7, 3).isGranted());
+		assertEquals(1, limiter.activeCooldowns());
+	}
+
+	@Test
+	void releasingARejectionKeepsTheCooldown() {
+		limiter.tryAcquire(7, 3);
+		limiter.release(limiter.tryAcquire(7, 3));
+
+		assertFalse(limiter.tryAcquire(7, 3).isGranted());
+	}
+
+	@Test
+	void idsBeyondIntRangeAreKeptApart() {
+		long large = Integer.MAX_VALUE + 1L;
+
+		assertTrue(limiter.tryAcquire(large, 3).isGranted());
+		// Would share a key with the one above if the ids were truncated to 32 bits
+		assertTrue(limiter.tryAcquire(large + (1L << 32), 3).isGranted());
+		assertTrue(limiter.tryAcquire(0, 3).isGranted());
+		assertTrue(limiter.tryAcquire(Long.MAX_VALUE, Long.MAX_VALUE).isGranted());
+		assertFalse(limiter.tryAcquire(large, 3).isGranted());
+		assertFalse(limiter.tryAcquire(Long.MAX_VALUE, Long.MAX_VALUE).isGranted());
+	}
+
+	@Test
+	void concurrentSubmissionsGetOneGrantPerUser() throws Exception {
+		int threads = 1000;
+		int users = 100;
+		int attemptsPerThread = 50;
+		AtomicIntegerArray grants = new AtomicIntegerArray(users);
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int t = 0; t < threads; t++) {
+				int offset = t;
+				futures.add(executor.submit(() -> {
+					start.await();
+					for (int i = 0; i < attemptsPerThread; i++) {
+						int user = (offset + i) % users;
+						if (limiter.tryAcquire(user, 42).isGranted()) {
+							grants.incrementAndGet(user);
+						}
+					}
+					return null;
+				}));
+			}
+			start.countDown();
+			for (Future<?> future : futures) {
+				future.get(60, TimeUnit.SECONDS);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+
+		for (int user = 0; user < users; user++) {
+			assertEquals(1, grants.get(user), "grants of user " + user);
+		}
+		assertEquals(users, limiter.activeCooldowns());
+	}
+}
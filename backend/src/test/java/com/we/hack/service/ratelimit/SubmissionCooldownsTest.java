@@ -0,0 +1,64 @@
+package com.we.hack.service.ratelimit;
+
+import com.we.hack.model.Hackathon;
+import com.we.hack.repository.HackathonRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SubmissionCooldownsTest {
+
+	private Hackathon hackathon;
+	private HackathonRepository hackathonRepository;
+	private SubmissionCooldowns cooldowns;
+
+	@BeforeEach
+	void setUp() {
+		hackathon = new Hackathon();
+		hackathon.setId(3L);
+		hackathon.setSubmissionCooldownSeconds(30);
+		hackathonRepository = mock(HackathonRepository.class);
+		when(hackathonRepository.findById(anyInt())).thenReturn(Optional.of(hackathon));
+
+		cooldowns = new SubmissionCooldowns();
+		ReflectionTestUtils.setField(cooldowns, "hackathonRepository", hackathonRepository);
+		ReflectionTestUtils.setField(cooldowns, "defaultCooldownMillis", 60_000L);
+	}
+
+	@Test
+	void cooldownIsReusedWithinTheCacheTime() {
+		ReflectionTestUtils.setField(cooldowns, "cacheMillis", 60_000L);
+
+		assertEquals(30_000L, cooldowns.cooldownMillis(3L));
+		hackathon.setSubmissionCooldownSeconds(5);
+		assertEquals(30_000L, cooldowns.cooldownMillis(3L));
+		verify(hackathonRepository, times(1)).findById(anyInt());
+	}
+
+	@Test
+	void changeMadeOnAnotherNodeIsReadOnceTheCacheExpires() {
+		ReflectionTestUtils.setField(cooldowns, "cacheMillis", 0L);
+
+		assertEquals(30_000L, cooldowns.cooldownMillis(3L));
+		// Saved by another node, whose setCooldown never ran here
+		hackathon.setSubmissionCooldownSeconds(5);
+
+		assertEquals(5_000L, cooldowns.cooldownMillis(3L));
+	}
+
+	@Test
+	void unknownHackathonGetsTheDefault() {
+		when(hackathonRepository.findById(anyInt())).thenReturn(Optional.empty());
+
+		assertEquals(60_000L, cooldowns.cooldownMillis(99L));
+	}
+}
@@ -0,0 +1,122 @@
+package com.we.hack.service.storage;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BlobCompressorTest {
+
+	@TempDir
+	Path dir;
+
+	private BlobCompressor compressor;
+
+	@BeforeEach
+	void setUp() {
+		compressor = new BlobCompressor();
+		ReflectionTestUtils.setField(compressor, "enabled", true);
+		ReflectionTestUtils.setField(compressor, "level", 6);
+		ReflectionTestUtils.setField(compressor, "minSaving", 0.1);
+	}
+
+	@Test
+	void recognizesCompressedFormatsByTheirFirstBytes() {
+		assertTrue(compressed(0x50, 0x4B, 0x03, 0x04, 0x14, 0x00));           // zip
+		assertTrue(compressed(0x50, 0x4B, 0x05, 0x06));                       // empty zip
+		assertTrue(compressed(0x1F, 0x8B, 0x08, 0x00));                       // gzip
+		assertTrue(compressed(0x89, 0x50, 0x4E, 0x47, 0x0D, 0x0A, 0x1A, 0x0A)); // png
+		assertTrue(compressed(0xFF, 0xD8, 0xFF, 0xE0));                       // jpeg
+		assertTrue(compressed(0x52, 0x49, 0x46, 0x46, 0, 0, 0, 0, 'W', 'E', 'B', 'P')); // webp
+		assertTrue(compressed(0, 0, 0, 0x18, 'f', 't', 'y', 'p'));            // mp4
+
+		assertFalse(compressed('p', 'a', 'c', 'k', 'a', 'g', 'e'));           // source code
+		assertFalse(compressed(0x52, 0x49, 0x46, 0x46, 0, 0, 0, 0, 'W', 'A', 'V', 'E')); // wav is RIFF too
+		assertFalse(compressed(0x50, 0x4B));                                  // too short to tell
+		assertFalse(compressed());
+	}
+
+	@Test
+	void shortFilesAreReadWithoutFailing() throws IOException {
+		Path file = dir.resolve("tiny");
+		Files.write(file, new byte[] {0x1F, (byte) 0x8B});
+
+		assertTrue(BlobCompressor.isCompressedFormat(file));
+	}
+
+	@Test
+	void compressibleFileIsGzipped() throws IOException {
+		byte[] content = "public class Main {}\n".repeat(2_000).getBytes();
+		Path source = dir.resolve("Main.java");
+		Files.write(source, content);
+
+		Path gzipped = compressor.compress(source);
+
+		assertNotNull(gzipped);
+		try (InputStream in = new GZIPInputStream(Files.newInputStream(gzipped))) {
+			assertArrayEquals(content, in.readAllBytes());
+		}
+		assertEquals(1L, compressor.stats().get("compressedFiles"));
+	}
+
+	@Test
+	void fileBelowTheMinimumSavingIsKeptPlain() throws IOException {
+		byte[] content = new byte[64 * 1024];
+		new Random(1).nextBytes(content);
+		Path source = dir.resolve("random.bin");
+		Files.write(source, content);
+
+		assertNull(compressor.compress(source));
+		assertFalse(Files.exists(dir.resolve("random.bin" + BlobCompressor.GZIP_SUFFIX)));
+		assertEquals(1L, compressor.stats().get("skippedLowSaving"));
+	}
+
+	@Test
+	void minimumSavingDecidesWhetherTheCopyIsKept() throws IOException {
+		// Half random, half zeros: gzip saves about half, enough for a 40% minimum but not a 60% one
+		byte[] content = new byte[64 * 1024];
+		byte[] random = new byte[32 * 1024];
+		new Random(2).nextBytes(random);
+		System.arraycopy(random, 0, content, 0, random.length);
+		Path source = dir.resolve("half.bin");
+		Files.write(source, content);
+
+		ReflectionTestUtils.setField(compressor, "minSaving", 0.6);
+		assertNull(compressor.compress(source));
+
+		ReflectionTestUtils.setField(compressor, "minSaving", 0.4);
+		assertNotNull(compressor.compress(source));
+	}
+
+	@Test
+	void compressedFormatIsNotRead() throws IOException {
+		Path source = dir.resolve("photo.png");
+		Files.write(source, new byte[] {(byte) 0x89, 0x50, 0x4E, 0x47, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0});
+
+		assertNull(compressor.compress(source));
+		assertEquals(1L, compressor.stats().get("skippedAlreadyCompressed"));
+		assertEquals(0L, compressor.stats().get("bytesRead"));
+	}
+
+	private static boolean compressed(int... bytes) {
+		byte[] head = new byte[12];
+		for (int i = 0; i < bytes.length; i++) {
+			head[i] = (byte) bytes[i];
+		}
+		return BlobCompressor.isCompressedFormat(head, bytes.length);
+	}
+}
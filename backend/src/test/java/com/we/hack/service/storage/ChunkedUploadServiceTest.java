@@ -0,0 +1,126 @@
+package com.we.hack.service.storage;
+
+import com.we.hack.dto.ChunkedUploadStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ChunkedUploadServiceTest {
+
+	@TempDir
+	Path staging;
+
+	private ChunkedUploadService service;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		UploadStorage uploadStorage = mock(UploadStorage.class);
+		when(uploadStorage.newStagingFile(anyString()))
+				.thenAnswer(call -> staging.resolve(UUID.randomUUID() + call.getArgument(0, String.class)));
+		doCallRealMethod().when(uploadStorage).adopt(any(), any());
+
+		service = new ChunkedUploadService();
+		ReflectionTestUtils.setField(service, "uploadStorage", uploadStorage);
+		ReflectionTestUtils.setField(service, "maxBytes", 1024L * 1024);
+		ReflectionTestUtils.setField(service, "maxChunkBytes", 1024L);
+		ReflectionTestUtils.setField(service, "maxActive", 10);
+		ReflectionTestUtils.setField(service, "expiryMillis", 60_000L);
+	}
+
+	@Test
+	void corruptResendLeavesVerifiedBytesAlone() throws Exception {
+		byte[] file = bytes(2048, 1);
+		String id = service.init(7L, 3, "project.zip", file.length, null).getUploadId();
+		byte[] first = Arrays.copyOfRange(file, 0, 1024);
+		service.writeChunk(id, 0, 1024, sha256(first), new ByteArrayInputStream(first));
+
+		byte[] damaged = first.clone();
+		damaged[100] ^= 1;
+		ResponseStatusException mismatch = assertThrows(ResponseStatusException.class,
+				() -> service.writeChunk(id, 0, 1024, sha256(first), new ByteArrayInputStream(damaged)));
+		assertEquals(HttpStatus.BAD_REQUEST, mismatch.getStatusCode());
+
+		byte[] second = Arrays.copyOfRange(file, 1024, 2048);
+		ChunkedUploadStatus status = service.writeChunk(id, 1024, 1024, sha256(second), new ByteArrayInputStream(second));
+		assertEquals(2048, status.getReceivedBytes());
+		assertEquals(sha256(file), service.commit(id, 7L, 3, UploadStorage.StagedUpload::getHash));
+	}
+
+	@Test
+	void writesDuringCommitAreRefused() throws Exception {
+		byte[] file = bytes(1024, 2);
+		String hash = sha256(file);
+		String id = service.init(7L, 3, "project.zip", file.length, null).getUploadId();
+		service.writeChunk(id, 0, 1024, hash, new ByteArrayInputStream(file));
+
+		Throwable refused = service.commit(id, 7L, 3, upload -> {
+			try {
+				CompletableFuture.runAsync(() -> {
+					try {
+						service.writeChunk(id, 0, 1024, hash, new ByteArrayInputStream(file));
+					} catch (IOException e) {
+						throw new UncheckedIOException(e);
+					}
+				}).get();
+				return null;
+			} catch (ExecutionException e) {
+				return e.getCause();
+			} catch (InterruptedException e) {
+				throw new IllegalStateException(e);
+			}
+		});
+		assertEquals(HttpStatus.CONFLICT, assertInstanceOf(ResponseStatusException.class, refused).getStatusCode());
+
+		ResponseStatusException gone = assertThrows(ResponseStatusException.class,
+				() -> service.writeChunk(id, 0, 1024, hash, new ByteArrayInputStream(file)));
+		assertEquals(HttpStatus.NOT_FOUND, gone.getStatusCode());
+	}
+
+	@Test
+	void failedCommitCanBeRetried() throws Exception {
+		byte[] file = bytes(512, 3);
+		String id = service.init(7L, 3, "project.zip", file.length, null).getUploadId();
+		service.writeChunk(id, 0, 512, sha256(file), new ByteArrayInputStream(file));
+
+		assertThrows(IllegalStateException.class, () -> service.commit(id, 7L, 3, upload -> {
+			throw new IllegalStateException("rejected");
+		}));
+		service.writeChunk(id, 0, 512, sha256(file), new ByteArrayInputStream(file));
+		assertEquals(512L, (long) service.commit(id, 7L, 3, UploadStorage.StagedUpload::getSize));
+	}
+
+	private static byte[] bytes(int length, int seed) {
+		byte[] bytes = new byte[length];
+		for (int i = 0; i < length; i++) {
+			bytes[i] = (byte) (i * 31 + seed);
+		}
+		return bytes;
+	}
+
+	private static String sha256(byte[] bytes) throws Exception {
+		return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+	}
+}
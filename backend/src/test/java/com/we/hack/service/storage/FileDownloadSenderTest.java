@@ -0,0 +1,199 @@
+package com.we.hack.service.storage;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FileDownloadSenderTest {
+
+	private static final String HASH = "ab".repeat(32);
+	private static final long MODIFIED = Instant.parse("2026-03-01T10:15:30Z").toEpochMilli();
+
+	@TempDir
+	Path dir;
+
+	private final FileDownloadSender sender = new FileDownloadSender();
+	private final UploadStorage uploadStorage = new UploadStorage();
+	private byte[] content;
+
+	@BeforeEach
+	void setUp() {
+		content = new byte[1000];
+		for (int i = 0; i < content.length; i++) {
+			content[i] = (byte) ('a' + i % 26);
+		}
+	}
+
+	@Test
+	void parsesSingleByteRanges() {
+		assertArrayEquals(new long[] {0, 99}, FileDownloadSender.parseRange("bytes=0-99", 1000));
+		assertArrayEquals(new long[] {500, 999}, FileDownloadSender.parseRange("bytes=500-", 1000));
+		assertArrayEquals(new long[] {900, 999}, FileDownloadSender.parseRange("bytes=-100", 1000));
+		assertArrayEquals(new long[] {0, 999}, FileDownloadSender.parseRange("bytes=-5000", 1000));
+		// The end is clamped to the file
+		assertArrayEquals(new long[] {990, 999}, FileDownloadSender.parseRange("bytes=990-5000", 1000));
+	}
+
+	@Test
+	void ignoresRangesItDoesNotServe() {
+		assertEquals(0, FileDownloadSender.parseRange("bytes=0-9,20-29", 1000).length);
+		assertEquals(0, FileDownloadSender.parseRange("items=0-9", 1000).length);
+		assertEquals(0, FileDownloadSender.parseRange("bytes=abc-", 1000).length);
+		assertEquals(0, FileDownloadSender.parseRange("bytes=10", 1000).length);
+		assertEquals(0, FileDownloadSender.parseRange("bytes=50-10", 1000).length);
+	}
+
+	@Test
+	void rejectsUnsatisfiableRanges() {
+		assertNull(FileDownloadSender.parseRange("bytes=1000-", 1000));
+		assertNull(FileDownloadSender.parseRange("bytes=2000-1000", 1000));
+		assertNull(FileDownloadSender.parseRange("bytes=-0", 1000));
+		assertNull(FileDownloadSender.parseRange("bytes=0-", 0));
+	}
+
+	@Test
+	void acceptsGzipUnlessRefused() {
+		assertTrue(FileDownloadSender.acceptsGzip("gzip, deflate, br"));
+		assertTrue(FileDownloadSender.acceptsGzip("br;q=1.0, GZIP;q=0.5"));
+		assertTrue(FileDownloadSender.acceptsGzip("*"));
+		assertTrue(FileDownloadSender.acceptsGzip("x-gzip"));
+
+		assertFalse(FileDownloadSender.acceptsGzip(null));
+		assertFalse(FileDownloadSender.acceptsGzip("identity"));
+		assertFalse(FileDownloadSender.acceptsGzip("gzip;q=0"));
+		assertFalse(FileDownloadSender.acceptsGzip("gzip;q=0.0, deflate"));
+		assertFalse(FileDownloadSender.acceptsGzip("gzip;q=abc"));
+		assertFalse(FileDownloadSender.acceptsGzip("gzipped"));
+	}
+
+	@Test
+	void rangeIsServedWhenIfRangeMatchesTheStrongTag() throws IOException {
+		MockHttpServletRequest request = rangeRequest("bytes=10-19");
+		request.addHeader(HttpHeaders.IF_RANGE, "\"" + HASH + "\"");
+
+		MockHttpServletResponse response = send(request, plain(), HASH);
+
+		assertEquals(206, response.getStatus());
+		assertEquals("bytes 10-19/1000", response.getHeader(HttpHeaders.CONTENT_RANGE));
+		assertArrayEquals(Arrays.copyOfRange(content, 10, 20), response.getContentAsByteArray());
+	}
+
+	@Test
+	void staleIfRangeGetsTheWholeFile() throws IOException {
+		MockHttpServletRequest request = rangeRequest("bytes=10-19");
+		request.addHeader(HttpHeaders.IF_RANGE, "\"" + "cd".repeat(32) + "\"");
+
+		MockHttpServletResponse response = send(request, plain(), HASH);
+
+		assertEquals(200, response.getStatus());
+		assertNull(response.getHeader(HttpHeaders.CONTENT_RANGE));
+		assertArrayEquals(content, response.getContentAsByteArray());
+	}
+
+	@Test
+	void weakTagNeverSatisfiesIfRange() throws IOException {
+		// Legacy files have no hash, so they only get a weak tag
+		MockHttpServletResponse first = send(new MockHttpServletRequest("GET", "/"), plain(), null);
+		String weak = first.getHeader(HttpHeaders.ETAG);
+		assertTrue(weak.startsWith("W/"));
+
+		MockHttpServletRequest request = rangeRequest("bytes=10-19");
+		request.addHeader(HttpHeaders.IF_RANGE, weak);
+		assertEquals(200, send(request, plain(), null).getStatus());
+	}
+
+	@Test
+	void ifRangeDateMustMatchLastModified() throws IOException {
+		String modified = DateTimeFormatter.RFC_1123_DATE_TIME.format(Instant.ofEpochMilli(MODIFIED).atZone(ZoneOffset.UTC));
+		String earlier = DateTimeFormatter.RFC_1123_DATE_TIME.format(Instant.ofEpochMilli(MODIFIED - 60_000).atZone(ZoneOffset.UTC));
+
+		MockHttpServletRequest current = rangeRequest("bytes=0-9");
+		current.addHeader(HttpHeaders.IF_RANGE, modified);
+		assertEquals(206, send(current, plain(), HASH).getStatus());
+
+		MockHttpServletRequest stale = rangeRequest("bytes=0-9");
+		stale.addHeader(HttpHeaders.IF_RANGE, earlier);
+		assertEquals(200, send(stale, plain(), HASH).getStatus());
+	}
+
+	@Test
+	void unsatisfiableRangeIs416() throws IOException {
+		MockHttpServletResponse response = send(rangeRequest("bytes=5000-"), plain(), HASH);
+
+		assertEquals(416, response.getStatus());
+		assertEquals("bytes */1000", response.getHeader(HttpHeaders.CONTENT_RANGE));
+	}
+
+	@Test
+	void gzippedBlobIsSentEncodedToClientsThatAcceptIt() throws IOException {
+		UploadStorage.StoredFile stored = gzipped();
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+		request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+
+		MockHttpServletResponse response = send(request, stored, HASH);
+
+		assertEquals("gzip", response.getHeader(HttpHeaders.CONTENT_ENCODING));
+		assertEquals("\"" + HASH + "-gzip\"", response.getHeader(HttpHeaders.ETAG));
+		assertArrayEquals(Files.readAllBytes(stored.getPath()), response.getContentAsByteArray());
+	}
+
+	@Test
+	void gzippedBlobIsInflatedForOtherClients() throws IOException {
+		MockHttpServletResponse response = send(rangeRequest("bytes=100-199"), gzipped(), HASH);
+
+		assertNull(response.getHeader(HttpHeaders.CONTENT_ENCODING));
+		assertEquals(HttpHeaders.ACCEPT_ENCODING, response.getHeader(HttpHeaders.VARY));
+		assertEquals("bytes 100-199/1000", response.getHeader(HttpHeaders.CONTENT_RANGE));
+		assertArrayEquals(Arrays.copyOfRange(content, 100, 200), response.getContentAsByteArray());
+	}
+
+	private MockHttpServletResponse send(MockHttpServletRequest request, UploadStorage.StoredFile stored,
+										 String hash) throws IOException {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		sender.send(request, response, stored, "project.txt", hash);
+		return response;
+	}
+
+	private static MockHttpServletRequest rangeRequest(String range) {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+		request.addHeader(HttpHeaders.RANGE, range);
+		return request;
+	}
+
+	private UploadStorage.StoredFile plain() throws IOException {
+		Path file = dir.resolve("plain");
+		Files.write(file, content);
+		Files.setLastModifiedTime(file, FileTime.fromMillis(MODIFIED));
+		// Absolute stored paths resolve to themselves
+		return uploadStorage.locate(file.toString());
+	}
+
+	private UploadStorage.StoredFile gzipped() throws IOException {
+		Path file = dir.resolve("blob" + BlobCompressor.GZIP_SUFFIX);
+		try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(file))) {
+			out.write(content);
+		}
+		Files.setLastModifiedTime(file, FileTime.fromMillis(MODIFIED));
+		return uploadStorage.locate(dir.resolve("blob").toString());
+	}
+}
@@ -0,0 +1,130 @@
+package com.we.hack.service.storage;
+
+import com.we.hack.model.ProcessingStatus;
+import com.we.hack.repository.SubmissionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class FileProcessingPipelineTest {
+
+	private SubmissionRepository submissionRepository;
+	private PlatformTransactionManager transactionManager;
+	private FileProcessingPipeline pipeline;
+
+	@BeforeEach
+	void setUp() {
+		submissionRepository = mock(SubmissionRepository.class);
+		transactionManager = mock(PlatformTransactionManager.class);
+		when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+
+		pipeline = new FileProcessingPipeline();
+		ReflectionTestUtils.setField(pipeline, "submissionRepository", submissionRepository);
+		ReflectionTestUtils.setField(pipeline, "transactionManager", transactionManager);
+		ReflectionTestUtils.setField(pipeline, "threads", 1);
+		ReflectionTestUtils.setField(pipeline, "queueSize", 1);
+		ReflectionTestUtils.setField(pipeline, "dispatchTimeoutMillis", 50L);
+		pipeline.start();
+	}
+
+	@AfterEach
+	void tearDown() throws InterruptedException {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+		pipeline.stop();
+	}
+
+	@Test
+	void committedJobRunsOnAWorkerInItsOwnTransaction() throws Exception {
+		AtomicReference<Thread> ranOn = new AtomicReference<>();
+		UploadStorage.StagedUpload upload = upload("uploads/a");
+		when(upload.commit()).thenAnswer(call -> {
+			ranOn.set(Thread.currentThread());
+			return "uploads/a";
+		});
+
+		TransactionSynchronizationManager.initSynchronization();
+		pipeline.submit(1L, upload);
+		commit();
+
+		verify(submissionRepository, timeout(5000)).updateProcessingStatus(1L, "uploads/a", ProcessingStatus.READY);
+		assertNotEquals(Thread.currentThread(), ranOn.get());
+		verify(transactionManager, timeout(5000).atLeast(2)).getTransaction(argThat(definition ->
+				definition.getPropagationBehavior() == TransactionDefinition.PROPAGATION_REQUIRES_NEW));
+		verify(upload, timeout(5000)).close();
+	}
+
+	@Test
+	void fullQueueRefusesNewSubmissions() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		CountDownLatch started = new CountDownLatch(1);
+		UploadStorage.StagedUpload busy = upload("uploads/busy");
+		when(busy.commit()).thenAnswer(call -> {
+			started.countDown();
+			release.await();
+			return "uploads/busy";
+		});
+		pipeline.submit(1L, busy);
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+		pipeline.submit(2L, upload("uploads/queued"));
+
+		UploadStorage.StagedUpload refused = upload("uploads/refused");
+		ResponseStatusException e = assertThrows(ResponseStatusException.class, () -> pipeline.submit(3L, refused));
+		assertEquals(HttpStatus.SERVICE_UNAVAILABLE, e.getStatusCode());
+		verify(refused).close();
+		release.countDown();
+	}
+
+	@Test
+	void jobRejectedAfterCommitIsMarkedFailed() throws Exception {
+		UploadStorage.StagedUpload upload = upload("uploads/late");
+
+		TransactionSynchronizationManager.initSynchronization();
+		pipeline.submit(1L, upload);
+		pipeline.stop();
+		commit();
+
+		verify(submissionRepository).updateProcessingStatus(1L, "uploads/late", ProcessingStatus.FAILED);
+		verify(upload, never()).commit();
+		verify(upload).close();
+	}
+
+	private static UploadStorage.StagedUpload upload(String storedPath) {
+		UploadStorage.StagedUpload upload = mock(UploadStorage.StagedUpload.class);
+		when(upload.storedPath()).thenReturn(storedPath);
+		return upload;
+	}
+
+	private static void commit() {
+		var synchronizations = TransactionSynchronizationManager.getSynchronizations();
+		TransactionSynchronizationManager.clearSynchronization();
+		TransactionSynchronizationUtils.invokeAfterCommit(synchronizations);
+		TransactionSynchronizationUtils.invokeAfterCompletion(synchronizations, TransactionSynchronization.STATUS_COMMITTED);
+	}
+}
@@ -0,0 +1,202 @@
+package com.we.hack.service.storage;
+
+import com.we.hack.model.Hackathon;
+import com.we.hack.repository.HackathonRepository;
+import com.we.hack.repository.SubmissionRepository;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.async.StandardServletAsyncWebRequest;
+import org.springframework.web.context.request.async.WebAsyncManager;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class HackathonExportServiceTest {
+
+	private static final long TIMEOUT_MILLIS = 1234;
+
+	private SubmissionRepository submissionRepository;
+	private HackathonExportService service;
+
+	@BeforeEach
+	void setUp() {
+		HackathonRepository hackathonRepository = mock(HackathonRepository.class);
+		when(hackathonRepository.findById(anyInt())).thenReturn(Optional.of(new Hackathon()));
+		submissionRepository = mock(SubmissionRepository.class);
+		when(submissionRepository.findPrimaryExportPage(anyLong(), anyLong(), any())).thenReturn(List.of());
+
+		service = new HackathonExportService();
+		ReflectionTestUtils.setField(service, "hackathonRepository", hackathonRepository);
+		ReflectionTestUtils.setField(service, "submissionRepository", submissionRepository);
+		ReflectionTestUtils.setField(service, "uploadStorage", mock(UploadStorage.class));
+		ReflectionTestUtils.setField(service, "pageSize", 10);
+		ReflectionTestUtils.setField(service, "maxConcurrent", 1);
+		ReflectionTestUtils.setField(service, "timeoutMillis", TIMEOUT_MILLIS);
+		service.init();
+	}
+
+	@Test
+	void exportRequestGetsExportTimeout() throws Exception {
+		Request request = new Request();
+		StreamingResponseBody body = service.export(1L, request.webRequest);
+		request.start(body, Runnable::run);
+
+		assertEquals(TIMEOUT_MILLIS, request.asyncContext().getTimeout());
+		assertEquals(1, availableSlots());
+	}
+
+	@Test
+	void slotIsFreedWhenBodyNeverRuns() throws Exception {
+		Request request = new Request();
+		StreamingResponseBody body = service.export(1L, request.webRequest);
+		// An executor that never gets to the body, e.g. because it was shut down
+		request.start(body, task -> {
+		});
+
+		ResponseStatusException busy = assertThrows(ResponseStatusException.class,
+				() -> service.export(1L, new Request().webRequest));
+		assertEquals(HttpStatus.SERVICE_UNAVAILABLE, busy.getStatusCode());
+
+		request.complete();
+		assertEquals(1, availableSlots());
+	}
+
+	@Test
+	void slotIsFreedOnTimeout() throws Exception {
+		Request request = new Request();
+		StreamingResponseBody body = service.export(1L, request.webRequest);
+		request.start(body, task -> {
+		});
+
+		request.timeOut();
+		assertEquals(1, availableSlots());
+	}
+
+	@Test
+	void slotIsFreedOnceWhenBodyAndRequestBothEnd() throws Exception {
+		Request request = new Request();
+		StreamingResponseBody body = service.export(1L, request.webRequest);
+		request.start(body, Runnable::run);
+		request.complete();
+		request.timeOut();
+
+		assertTrue(request.response.getContentAsByteArray().length > 0, "The zip was written");
+		assertEquals(1, availableSlots());
+	}
+
+	@Test
+	void timedOutBodyKeepsSlotUntilItFinishes() throws Exception {
+		CountDownLatch writing = new CountDownLatch(1);
+		CountDownLatch proceed = new CountDownLatch(1);
+		when(submissionRepository.findPrimaryExportPage(anyLong(), anyLong(), any())).thenAnswer(invocation -> {
+			writing.countDown();
+			proceed.await();
+			return List.of();
+		});
+		Request request = new Request();
+		StreamingResponseBody body = service.export(1L, request.webRequest);
+		Thread writer = new Thread(() -> {
+			try {
+				body.writeTo(request.response.getOutputStream());
+			} catch (IOException e) {
+				// not expected, the assertions below fail instead
+			}
+		});
+		request.start(body, task -> {
+		});
+		writer.start();
+		assertTrue(writing.await(5, TimeUnit.SECONDS));
+
+		request.timeOut();
+		request.complete();
+		assertEquals(0, availableSlots(), "The writer still runs");
+
+		proceed.countDown();
+		writer.join(5000);
+		assertEquals(1, availableSlots());
+	}
+
+	@Test
+	void bodyStartingAfterTimeoutWritesNothing() throws Exception {
+		Request request = new Request();
+		StreamingResponseBody body = service.export(1L, request.webRequest);
+		List<Runnable> queued = new ArrayList<>();
+		request.start(body, queued::add);
+
+		request.timeOut();
+		queued.forEach(Runnable::run);
+
+		assertEquals(0, request.response.getContentAsByteArray().length);
+		assertEquals(1, availableSlots());
+	}
+
+	private int availableSlots() {
+		return ((Semaphore) ReflectionTestUtils.getField(service, "running")).availablePermits();
+	}
+
+	/**
+	 * A request going through Spring MVC's async handling, as a StreamingResponseBody does.
+	 */
+	private static final class Request {
+		private final MockHttpServletRequest servletRequest = new MockHttpServletRequest();
+		private final MockHttpServletResponse response = new MockHttpServletResponse();
+		private final ServletWebRequest webRequest = new ServletWebRequest(servletRequest, response);
+		private final WebAsyncManager asyncManager = WebAsyncUtils.getAsyncManager(servletRequest);
+
+		Request() {
+			servletRequest.setAsyncSupported(true);
+			asyncManager.setAsyncWebRequest(new StandardServletAsyncWebRequest(servletRequest, response));
+		}
+
+		void start(StreamingResponseBody body, Executor executor) throws Exception {
+			asyncManager.setTaskExecutor(new TaskExecutorAdapter(executor));
+			asyncManager.startCallableProcessing(() -> {
+				body.writeTo(response.getOutputStream());
+				return null;
+			});
+		}
+
+		MockAsyncContext asyncContext() {
+			return (MockAsyncContext) servletRequest.getAsyncContext();
+		}
+
+		void complete() throws IOException {
+			for (AsyncListener listener : asyncContext().getListeners()) {
+				listener.onComplete(new AsyncEvent(asyncContext()));
+			}
+		}
+
+		void timeOut() throws IOException {
+			for (AsyncListener listener : asyncContext().getListeners()) {
+				listener.onTimeout(new AsyncEvent(asyncContext()));
+			}
+		}
+	}
+}
@@ -0,0 +1,168 @@
+package com.we.hack.service.storage;
+
+import com.we.hack.repository.SubmissionRepository;
+import com.we.hack.service.memento.SubmissionHistoryManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class UploadStorageTest {
+
+	private static final long GRACE_MILLIS = 60_000;
+
+	@TempDir
+	Path workDir;
+
+	private String originalWorkDir;
+	private SubmissionRepository submissionRepository;
+	private SubmissionHistoryManager submissionHistoryManager;
+	private UploadStorage storage;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		// The store lives under the working directory
+		originalWorkDir = System.getProperty("user.dir");
+		System.setProperty("user.dir", workDir.toString());
+
+		submissionRepository = mock(SubmissionRepository.class);
+		submissionHistoryManager = mock(SubmissionHistoryManager.class);
+		when(submissionRepository.findDistinctFilePaths()).thenReturn(List.of());
+		when(submissionHistoryManager.referencedFilePaths()).thenReturn(Set.of());
+		BlobCompressor blobCompressor = new BlobCompressor();
+		ReflectionTestUtils.setField(blobCompressor, "enabled", false);
+
+		storage = new UploadStorage();
+		ReflectionTestUtils.setField(storage, "submissionRepository", submissionRepository);
+		ReflectionTestUtils.setField(storage, "submissionHistoryManager", submissionHistoryManager);
+		ReflectionTestUtils.setField(storage, "blobCompressor", blobCompressor);
+		ReflectionTestUtils.setField(storage, "gcGraceMillis", GRACE_MILLIS);
+		storage.init();
+	}
+
+	@AfterEach
+	void restoreWorkDir() {
+		System.setProperty("user.dir", originalWorkDir);
+	}
+
+	@Test
+	void identicalUploadsShareOneBlob() throws IOException {
+		String first = commit("a.txt", "same content");
+		Path blob = storage.resolve(first);
+		Files.setLastModifiedTime(blob, FileTime.fromMillis(System.currentTimeMillis() - 2 * GRACE_MILLIS));
+
+		String second = commit("b.txt", "same content");
+
+		assertEquals(first, second);
+		assertEquals(1, blobCount());
+		assertTrue(Files.getLastModifiedTime(blob).toMillis() > System.currentTimeMillis() - GRACE_MILLIS,
+				"Reuse restarts the grace period");
+		assertStagingEmpty();
+	}
+
+	@Test
+	void blobsAreAddressedByTheirHash() throws IOException {
+		String stored = commit("a.txt", "some content");
+		String hash = storage.contentHash(stored);
+
+		assertEquals(UploadStorage.UPLOAD_DIR + "/" + hash.substring(0, 2) + "/" + hash.substring(2, 4) + "/" + hash, stored);
+		assertEquals("some content", Files.readString(storage.resolve(stored)));
+		commit("b.txt", "other content");
+		assertEquals(2, blobCount());
+	}
+
+	@Test
+	void uncommittedUploadLeavesNothingBehind() throws IOException {
+		try (UploadStorage.StagedUpload upload = storage.stage(file("a.txt", "abandoned"))) {
+			assertFalse(upload.isCommitted());
+		}
+
+		assertStagingEmpty();
+		assertEquals(0, blobCount());
+	}
+
+	@Test
+	void garbageCollectionKeepsReferencedAndYoungBlobs() throws IOException {
+		String referenced = aged(commit("a.txt", "referenced"));
+		String inHistory = aged(commit("b.txt", "only an undo away"));
+		String orphan = aged(commit("c.txt", "nothing points here"));
+		String young = commit("d.txt", "saved by a transaction still in flight");
+		when(submissionRepository.findDistinctFilePaths()).thenReturn(List.of(referenced));
+		when(submissionHistoryManager.referencedFilePaths()).thenReturn(Set.of(inHistory));
+
+		assertEquals(1, storage.collectGarbage());
+
+		assertTrue(storage.exists(referenced));
+		assertTrue(storage.exists(inHistory));
+		assertTrue(storage.exists(young));
+		assertFalse(storage.exists(orphan));
+	}
+
+	@Test
+	void garbageCollectionMatchesGzippedBlobsByTheirPlainPath() throws IOException {
+		String stored = commit("a.txt", "kept gzipped");
+		Path plain = storage.resolve(stored);
+		Path gzipped = plain.resolveSibling(plain.getFileName() + BlobCompressor.GZIP_SUFFIX);
+		Files.move(plain, gzipped);
+		aged(stored);
+		when(submissionRepository.findDistinctFilePaths()).thenReturn(List.of(stored));
+
+		assertEquals(0, storage.collectGarbage());
+		assertTrue(Files.exists(gzipped));
+	}
+
+	@Test
+	void garbageCollectionLeavesFilesFromBeforeContentAddressing() throws IOException {
+		Path legacy = workDir.resolve(UploadStorage.UPLOAD_DIR).resolve("1700000000000_project.zip");
+		Files.writeString(legacy, "old upload");
+		Files.setLastModifiedTime(legacy, FileTime.fromMillis(0));
+
+		assertEquals(0, storage.collectGarbage());
+		assertTrue(Files.exists(legacy));
+	}
+
+	private String commit(String name, String content) throws IOException {
+		try (UploadStorage.StagedUpload upload = storage.stage(file(name, content))) {
+			return upload.commit();
+		}
+	}
+
+	private String aged(String stored) throws IOException {
+		Path plain = storage.resolve(stored);
+		Path blob = Files.exists(plain) ? plain : plain.resolveSibling(plain.getFileName() + BlobCompressor.GZIP_SUFFIX);
+		Files.setLastModifiedTime(blob, FileTime.fromMillis(System.currentTimeMillis() - 2 * GRACE_MILLIS));
+		return stored;
+	}
+
+	private static MockMultipartFile file(String name, String content) {
+		return new MockMultipartFile("file", name, "text/plain", content.getBytes());
+	}
+
+	private long blobCount() throws IOException {
+		try (Stream<Path> files = Files.walk(workDir.resolve(UploadStorage.UPLOAD_DIR))) {
+			return files.filter(Files::isRegularFile).filter(file -> !file.getParent().endsWith(".staging")).count();
+		}
+	}
+
+	private void assertStagingEmpty() throws IOException {
+		try (Stream<Path> staged = Files.list(workDir.resolve(UploadStorage.UPLOAD_DIR).resolve(".staging"))) {
+			assertEquals(0, staged.count());
+		}
+	}
+}
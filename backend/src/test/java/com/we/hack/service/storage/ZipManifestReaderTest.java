@@ -0,0 +1,134 @@
+package com.we.hack.service.storage;
+
+import com.we.hack.dto.ArchiveManifest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ZipManifestReaderTest {
+
+	@TempDir
+	Path dir;
+
+	private ZipManifestReader reader;
+
+	@BeforeEach
+	void setUp() {
+		reader = new ZipManifestReader();
+		// Absolute stored paths resolve to themselves, so files in the temp dir are found as they are
+		ReflectionTestUtils.setField(reader, "uploadStorage", new UploadStorage());
+		ReflectionTestUtils.setField(reader, "maxEntries", 100);
+		ReflectionTestUtils.setField(reader, "cacheEntries", 1000L);
+	}
+
+	@Test
+	void listsEntriesWithSizes() throws IOException {
+		Path zip = zip("small.zip", 3, null);
+
+		ArchiveManifest manifest = reader.manifest(zip.toString());
+
+		assertEquals(3, manifest.getEntryCount());
+		assertEquals("entry-0.txt", manifest.getEntries().get(0).getName());
+		assertEquals(3 * 10, manifest.getTotalSize());
+		assertFalse(manifest.isTruncated());
+	}
+
+	@Test
+	void emptyArchiveHasNoEntries() throws IOException {
+		ArchiveManifest manifest = reader.manifest(zip("empty.zip", 0, null).toString());
+
+		assertEquals(0, manifest.getEntryCount());
+		assertTrue(manifest.getEntries().isEmpty());
+	}
+
+	@Test
+	void commentAfterTheDirectoryIsSkipped() throws IOException {
+		// The comment contains the end of central directory signature, which must not be taken for the record
+		String comment = "PK\u0005\u0006 looks like a record ".repeat(50);
+
+		ArchiveManifest manifest = reader.manifest(zip("comment.zip", 2, comment).toString());
+
+		assertEquals(2, manifest.getEntryCount());
+	}
+
+	@Test
+	void zip64ArchiveIsFollowedThroughItsRecords() throws IOException {
+		// More than 65535 entries makes the writer use ZIP64 records, and a directory larger than one window
+		Path zip = zip("many.zip", 70_000, null);
+
+		ArchiveManifest manifest = reader.manifest(zip.toString());
+
+		assertEquals(70_000, manifest.getEntryCount());
+		assertEquals(70_000L * 10, manifest.getTotalSize());
+		assertEquals(100, manifest.getEntries().size());
+		assertTrue(manifest.isTruncated());
+	}
+
+	@Test
+	void negativeZip64EntryCountIsDamaged() throws IOException {
+		Path zip = zip("negative.zip", 70_000, null);
+		byte[] bytes = Files.readAllBytes(zip);
+		ByteBuffer buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+		int locator = bytes.length - 22 - 20;
+		int record = (int) buffer.getLong(locator + 8);
+		buffer.putLong(record + 32, -1L);
+		Files.write(zip, bytes);
+
+		ResponseStatusException damaged = assertThrows(ResponseStatusException.class, () -> reader.manifest(zip.toString()));
+		assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, damaged.getStatusCode());
+	}
+
+	@Test
+	void directoryPastTheEndIsDamaged() throws IOException {
+		Path zip = zip("bad-offset.zip", 2, null);
+		byte[] bytes = Files.readAllBytes(zip);
+		ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).putInt(bytes.length - 22 + 16, 0x7FFFFFF0);
+		Files.write(zip, bytes);
+
+		ResponseStatusException damaged = assertThrows(ResponseStatusException.class, () -> reader.manifest(zip.toString()));
+		assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, damaged.getStatusCode());
+	}
+
+	@Test
+	void otherFilesAreNotArchives() throws IOException {
+		Path text = dir.resolve("notes.txt");
+		Files.writeString(text, "just some notes, long enough to hold a record");
+
+		ResponseStatusException rejected = assertThrows(ResponseStatusException.class, () -> reader.manifest(text.toString()));
+		assertEquals(HttpStatus.UNSUPPORTED_MEDIA_TYPE, rejected.getStatusCode());
+	}
+
+	private Path zip(String name, int entries, String comment) throws IOException {
+		Path file = dir.resolve(name);
+		byte[] content = new byte[10];
+		try (OutputStream out = Files.newOutputStream(file); ZipOutputStream zip = new ZipOutputStream(new BufferedOutputStream(out))) {
+			for (int i = 0; i < entries; i++) {
+				zip.putNextEntry(new ZipEntry("entry-" + i + ".txt"));
+				zip.write(content);
+				zip.closeEntry();
+			}
+			if (comment != null) {
+				zip.setComment(comment);
+			}
+		}
+		return file;
+	}
+}
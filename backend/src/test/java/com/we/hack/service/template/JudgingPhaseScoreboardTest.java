@@ -0,0 +1,147 @@
+package com.we.hack.service.template;
+
+import com.we.hack.model.Hackathon;
+import com.we.hack.model.JudgeScore;
+import com.we.hack.model.ScoringMethod;
+import com.we.hack.model.Submission;
+import com.we.hack.model.User;
+import com.we.hack.service.analytics.AnalyticsCounters;
+import com.we.hack.service.leaderboard.ColumnarScoreStore;
+import com.we.hack.service.leaderboard.LeaderboardRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Counts the statements a cold leaderboard costs: building it must not query per submission
+@DataJpaTest(properties = {
+		"spring.jpa.hibernate.ddl-auto=create-drop",
+		"spring.jpa.properties.hibernate.generate_statistics=true"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({JudgingPhaseScoreboard.class, LeaderboardRegistry.class, ColumnarScoreStore.class})
+@Testcontainers(disabledWithoutDocker = true)
+class JudgingPhaseScoreboardTest {
+
+	private static final int JUDGES = 3;
+
+	@Container
+	static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+	@DynamicPropertySource
+	static void datasource(DynamicPropertyRegistry registry) {
+		registry.add("spring.datasource.url", postgres::getJdbcUrl);
+		registry.add("spring.datasource.username", postgres::getUsername);
+		registry.add("spring.datasource.password", postgres::getPassword);
+	}
+
+	@MockitoBean
+	private AnalyticsCounters analyticsCounters;
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private JudgingPhaseScoreboard scoreboard;
+
+	@Test
+	void statementCountDoesNotGrowWithSubmissions() {
+		long few = statementsToRank(ScoringMethod.SIMPLE_AVERAGE, 5);
+		long many = statementsToRank(ScoringMethod.SIMPLE_AVERAGE, 50);
+
+		assertEquals(few, many);
+		assertTrue(many <= 4, "Ranking took " + many + " statements");
+	}
+
+	@Test
+	void weightedAverageCostsTheSame() {
+		assertEquals(statementsToRank(ScoringMethod.SIMPLE_AVERAGE, 20),
+				statementsToRank(ScoringMethod.WEIGHTED_AVERAGE, 20));
+	}
+
+	/**
+	 * Stores a hackathon with {@code submissions} scored submissions, each by its own user, and
+	 * ranks it from a cold cache.
+	 *
+	 * @return the statements prepared while ranking
+	 */
+	private long statementsToRank(ScoringMethod scoringMethod, int submissions) {
+		String prefix = scoringMethod + "-" + submissions + "-";
+		Hackathon hackathon = new Hackathon();
+		hackathon.setTitle(prefix + "hackathon");
+		hackathon.setStatus("Judging");
+		hackathon.setScoringMethod(scoringMethod);
+		hackathon.setOrganizer(entityManager.persist(user(prefix + "organizer")));
+		entityManager.persist(hackathon);
+
+		User[] judges = new User[JUDGES];
+		for (int j = 0; j < JUDGES; j++) {
+			judges[j] = entityManager.persist(user(prefix + "judge" + j));
+		}
+		for (int i = 0; i < submissions; i++) {
+			Submission submission = new Submission();
+			submission.setTitle(prefix + i);
+			submission.setHackathon(hackathon);
+			submission.setUser(entityManager.persist(user(prefix + "participant" + i)));
+			entityManager.persist(submission);
+			for (User judge : judges) {
+				JudgeScore score = new JudgeScore();
+				score.setJudge(judge);
+				score.setSubmission(submission);
+				// Equal criteria give the same order under either scoring method
+				score.setInnovation(score(i));
+				score.setImpact(score(i));
+				score.setExecution(score(i));
+				entityManager.persist(score);
+			}
+		}
+		entityManager.flush();
+		entityManager.clear();
+		Hackathon loaded = entityManager.find(Hackathon.class, hackathon.getId());
+
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+		List<Submission> ranked = scoreboard.generate(loaded);
+		long statements = statistics.getPrepareStatementCount();
+
+		assertEquals(submissions, ranked.size());
+		for (int i = 1; i < ranked.size(); i++) {
+			assertTrue(score(index(ranked.get(i - 1))) >= score(index(ranked.get(i))), "Ranked out of order at " + i);
+		}
+		return statements;
+	}
+
+	private static int score(int i) {
+		return i % 11;
+	}
+
+	private static int index(Submission submission) {
+		return Integer.parseInt(submission.getTitle().substring(submission.getTitle().lastIndexOf('-') + 1));
+	}
+
+	private static User user(String name) {
+		User user = new User();
+		user.setUsername(name);
+		user.setEmail(name + "@example.com");
+		user.setPassword("secret");
+		return user;
+	}
+}
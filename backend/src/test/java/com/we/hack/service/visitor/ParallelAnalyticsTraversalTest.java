@@ -0,0 +1,171 @@
+package com.we.hack.service.visitor;
+
+import com.we.hack.dto.IdRange;
+import com.we.hack.dto.JudgeScoreRow;
+import com.we.hack.dto.SubmissionTeamRow;
+import com.we.hack.repository.HackathonRepository;
+import com.we.hack.repository.JudgeScoreRepository;
+import com.we.hack.repository.SubmissionRepository;
+import com.we.hack.repository.TeamRepository;
+import com.we.hack.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ParallelAnalyticsTraversalTest {
+
+	private static final int SUBMISSIONS = 1000;
+	private static final int SCORES = 3000;
+
+	private final AtomicInteger rangeQueries = new AtomicInteger();
+	private ParallelAnalyticsTraversal traversal;
+
+	@BeforeEach
+	void setUp() {
+		HackathonRepository hackathonRepository = mock(HackathonRepository.class);
+		when(hackathonRepository.findIdRange()).thenReturn(range(1, 3));
+		when(hackathonRepository.streamIdsBetween(anyLong(), anyLong()))
+				.thenAnswer(call -> ids(call.getArgument(0), call.getArgument(1)));
+
+		UserRepository userRepository = mock(UserRepository.class);
+		when(userRepository.findIdRange()).thenReturn(range(1, 50));
+		when(userRepository.streamIdsBetween(anyInt(), anyInt())).thenAnswer(call -> ids(
+				call.<Integer>getArgument(0).longValue(), call.<Integer>getArgument(1).longValue()).map(Long::intValue));
+
+		TeamRepository teamRepository = mock(TeamRepository.class);
+		when(teamRepository.findIdRange()).thenReturn(null);
+
+		List<SubmissionTeamRow> submissions = new ArrayList<>();
+		for (long id = 1; id <= SUBMISSIONS; id++) {
+			// Every tenth submission has no team
+			submissions.add(submissionRow(id, id % 10 == 0 ? null : id % 7));
+		}
+		SubmissionRepository submissionRepository = mock(SubmissionRepository.class);
+		when(submissionRepository.findIdRange()).thenReturn(range(1, SUBMISSIONS));
+		when(submissionRepository.streamTeamRowsBetween(anyLong(), anyLong()))
+				.thenAnswer(call -> rowsBetween(submissions, SubmissionTeamRow::getId, call.getArgument(0), call.getArgument(1)));
+
+		List<JudgeScoreRow> scores = new ArrayList<>();
+		for (long id = 1; id <= SCORES; id++) {
+			scores.add(new JudgeScoreRow(id, id % SUBMISSIONS + 1, (int) (id % 5), (int) (id % 10), 5, (int) (id % 2)));
+		}
+		JudgeScoreRepository judgeScoreRepository = mock(JudgeScoreRepository.class);
+		when(judgeScoreRepository.findIdRange()).thenReturn(range(1, SCORES));
+		when(judgeScoreRepository.streamScoreRowsBetween(anyLong(), anyLong()))
+				.thenAnswer(call -> rowsBetween(scores, JudgeScoreRow::getId, call.getArgument(0), call.getArgument(1)));
+
+		PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+		when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+
+		traversal = new ParallelAnalyticsTraversal();
+		ReflectionTestUtils.setField(traversal, "hackathonRepository", hackathonRepository);
+		ReflectionTestUtils.setField(traversal, "userRepository", userRepository);
+		ReflectionTestUtils.setField(traversal, "teamRepository", teamRepository);
+		ReflectionTestUtils.setField(traversal, "submissionRepository", submissionRepository);
+		ReflectionTestUtils.setField(traversal, "judgeScoreRepository", judgeScoreRepository);
+		ReflectionTestUtils.setField(traversal, "transactionManager", transactionManager);
+		ReflectionTestUtils.setField(traversal, "chunkSize", 100L);
+		ReflectionTestUtils.setField(traversal, "parallelism", 4);
+		traversal.start();
+	}
+
+	@AfterEach
+	void tearDown() {
+		traversal.stop();
+	}
+
+	@Test
+	void totalsMatchRowsAcrossRanges() {
+		DetailedAnalyticsCollector result = traversal.collect();
+
+		assertEquals(3, result.getTotalHackathons());
+		assertEquals(50, result.getTotalUsers());
+		assertEquals(0, result.getTotalTeams());
+		assertEquals(SUBMISSIONS, result.getTotalSubmissions());
+		assertEquals(SCORES, result.getTotalJudgeScores());
+	}
+
+	@Test
+	void detailsMatchSequentialCount() {
+		DetailedAnalyticsCollector result = traversal.collect();
+
+		Map<Long, Integer> expectedPerTeam = new HashMap<>();
+		LongStream.rangeClosed(1, SUBMISSIONS).filter(id -> id % 10 != 0)
+				.forEach(id -> expectedPerTeam.merge(id % 7, 1, Integer::sum));
+		assertEquals(expectedPerTeam, result.getSubmissionsPerTeam());
+		assertEquals(5, result.getScoresPerJudge().size());
+		assertEquals(SCORES / 5, result.getScoresPerJudge().get(3));
+		assertEquals(Map.of(5, (long) SCORES), result.getImpactHistogram());
+		assertEquals(SCORES / 2, result.getExecutionHistogram().get(1));
+		assertEquals(SCORES / 10, result.getInnovationHistogram().get(9));
+	}
+
+	@Test
+	void readsEachChunkWithOneQuery() {
+		traversal.collect();
+
+		// 3 hackathons and 50 users fit one chunk; 1000 submissions and 3000 scores take 100-id chunks
+		int submissionChunks = SUBMISSIONS / 100;
+		int scoreChunks = SCORES / 100;
+		assertTrue(rangeQueries.get() >= 2 + submissionChunks + scoreChunks);
+		assertTrue(rangeQueries.get() <= 2 + 2 * (submissionChunks + scoreChunks), "Queries: " + rangeQueries.get());
+	}
+
+	private Stream<Long> ids(long from, long to) {
+		rangeQueries.incrementAndGet();
+		return LongStream.rangeClosed(from, to).boxed();
+	}
+
+	private <T> Stream<T> rowsBetween(List<T> rows, Function<T, Long> id, long from, long to) {
+		rangeQueries.incrementAndGet();
+		return rows.stream().filter(row -> id.apply(row) >= from && id.apply(row) <= to);
+	}
+
+	private static IdRange range(long min, long max) {
+		return new IdRange() {
+			@Override
+			public Long getMinId() {
+				return min;
+			}
+
+			@Override
+			public Long getMaxId() {
+				return max;
+			}
+		};
+	}
+
+	private static SubmissionTeamRow submissionRow(Long id, Long teamId) {
+		return new SubmissionTeamRow() {
+			@Override
+			public Long getId() {
+				return id;
+			}
+
+			@Override
+			public Long getTeamId() {
+				return teamId;
+			}
+		};
+	}
+}